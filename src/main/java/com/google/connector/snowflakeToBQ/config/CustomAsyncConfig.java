@@ -20,6 +20,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 /**
  * This class creates custom thread pool executor bean. This thread pool will be used by Async
@@ -31,6 +32,15 @@ public class CustomAsyncConfig {
   @Value("${custom.thread.executor.max.pool.size}")
   private int customThreadExecutorMaxPoolSize;
 
+  @Value("${translated.ddl.prefetch.thread.pool.size}")
+  private int translatedDDLPrefetchThreadPoolSize;
+
+  @Value("${staging.cleanup.thread.pool.size}")
+  private int stagingCleanupThreadPoolSize;
+
+  @Value("${bigquery.job.tracker.poll.thread.pool.size}")
+  private int bigQueryJobPollThreadPoolSize;
+
   @Bean(name = "customExecutor")
   public ThreadPoolTaskExecutor customExecutor() {
     ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -44,4 +54,88 @@ public class CustomAsyncConfig {
     executor.initialize();
     return executor;
   }
+
+  /**
+   * Thread pool used to download the translated DDL files from GCS in parallel once the migration
+   * workflow finishes. It is kept separate from the "customExecutor" so that the GCS downloads never
+   * occupy the threads which are executing the table migration tasks.
+   */
+  @Bean(name = "translatedDDLPrefetchExecutor")
+  public ThreadPoolTaskExecutor translatedDDLPrefetchExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(translatedDDLPrefetchThreadPoolSize);
+    executor.setMaxPoolSize(translatedDDLPrefetchThreadPoolSize);
+    executor.setThreadNamePrefix("ddl-prefetch-");
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Thread pool used to delete the files unloaded by Snowflake once they are loaded in BigQuery.
+   * Pool is kept small and its threads run with the lowest priority, cleanup is not urgent and
+   * should not take resources from the tables which are still being migrated.
+   */
+  @Bean(name = "stagingCleanupExecutor")
+  public ThreadPoolTaskExecutor stagingCleanupExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(stagingCleanupThreadPoolSize);
+    executor.setMaxPoolSize(stagingCleanupThreadPoolSize);
+    executor.setThreadPriority(Thread.MIN_PRIORITY);
+    executor.setThreadNamePrefix("staging-cleanup-");
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Single thread scheduler which polls the status of all the submitted BigQuery jobs, so that no
+   * thread has to block while waiting for a job to finish.
+   */
+  @Bean(name = "bigQueryJobTrackerScheduler")
+  public ThreadPoolTaskScheduler bigQueryJobTrackerScheduler() {
+    ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    scheduler.setPoolSize(1);
+    scheduler.setThreadNamePrefix("bq-job-tracker-");
+    scheduler.initialize();
+    return scheduler;
+  }
+
+  /**
+   * Thread pool on which the job tracker runs the status calls of the jobs due in a tick in
+   * parallel, so that the tick does not take one getJob round trip per running job.
+   */
+  @Bean(name = "bigQueryJobPollExecutor")
+  public ThreadPoolTaskExecutor bigQueryJobPollExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(bigQueryJobPollThreadPoolSize);
+    executor.setMaxPoolSize(bigQueryJobPollThreadPoolSize);
+    executor.setThreadNamePrefix("bq-job-poll-");
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Single thread scheduler which polls the status of all the created migration workflows, so that
+   * no thread has to sleep while the DDLs are being translated.
+   */
+  @Bean(name = "migrationWorkflowTrackerScheduler")
+  public ThreadPoolTaskScheduler migrationWorkflowTrackerScheduler() {
+    ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    scheduler.setPoolSize(1);
+    scheduler.setThreadNamePrefix("migration-workflow-tracker-");
+    scheduler.initialize();
+    return scheduler;
+  }
+
+  /**
+   * Single thread scheduler which writes the journaled changes of the application data in batches,
+   * so that the table tasks do not each run their own transaction.
+   */
+  @Bean(name = "applicationDataJournalScheduler")
+  public ThreadPoolTaskScheduler applicationDataJournalScheduler() {
+    ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    scheduler.setPoolSize(1);
+    scheduler.setThreadNamePrefix("application-data-journal-");
+    scheduler.initialize();
+    return scheduler;
+  }
 }
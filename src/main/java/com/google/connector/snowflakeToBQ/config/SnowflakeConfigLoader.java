@@ -20,6 +20,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
+import com.google.connector.snowflakeToBQ.model.datadto.TablePartitioningDataDTO;
 import com.google.connector.snowflakeToBQ.util.ErrorCode;
 import java.util.HashMap;
 import java.util.Map;
@@ -48,8 +49,13 @@ public class SnowflakeConfigLoader {
   @Value("${snowflake.request.body.json.path}")
   private String snowflakeRequestBodyJSONPath;
 
+  @Value("${bigquery.table.partitioning.mapping.path}")
+  private String bigQueryTablePartitioningMappingPath;
+
   private Map<String, String> snowflakeTableAndQuery;
 
+  private Map<String, TablePartitioningDataDTO> bigQueryTablePartitioning;
+
   private Map<String, String> snowflakeUnloadDataRequestBody;
 
   private final ResourceLoader resourceLoader;
@@ -101,6 +107,41 @@ public class SnowflakeConfigLoader {
     }
   }
 
+  /**
+   * This method load the JSON file present at the path given to the property
+   * bigQueryTablePartitioningMappingPath. JSON file contains the key value pair where key is the
+   * table name and value is the partitioning and clustering of the BigQuery table, it overrides
+   * the one derived from the Snowflake clustering keys of the table.
+   */
+  @Bean
+  public void loadBigQueryTablePartitioningMapping() {
+
+    try {
+      ObjectMapper objectMapper = new ObjectMapper();
+
+      log.info(
+          "File path for BigQuery table partitioning mapping file:{}",
+          bigQueryTablePartitioningMappingPath);
+      Resource resource = getResourceHelper(bigQueryTablePartitioningMappingPath);
+
+      bigQueryTablePartitioning =
+          objectMapper.readValue(resource.getInputStream(), new TypeReference<>() {});
+
+      for (Map.Entry<String, TablePartitioningDataDTO> entry :
+          bigQueryTablePartitioning.entrySet()) {
+        log.info("Table Name :{}, Partitioning:{}", entry.getKey(), entry.getValue());
+      }
+    } catch (Exception e) {
+      log.error(
+          "Error while loading the file contains the table name and partitioning from the path :{}",
+          bigQueryTablePartitioningMappingPath);
+      log.error("Error Message::{}\nStack Trace:", e.getMessage(), e);
+      throw new SnowflakeConnectorException(
+          ErrorCode.SNOWFLAKE_CONFIG_LOADER.getMessage(),
+          ErrorCode.SNOWFLAKE_CONFIG_LOADER.getErrorCode());
+    }
+  }
+
   /**
    * This method load the JSON file given at the path defined by variable
    * snowflakeRequestBodyJSONPath. File basically contains the request body of different requests.
@@ -149,6 +190,16 @@ public class SnowflakeConfigLoader {
     return snowflakeTableAndQuery.get(tableName);
   }
 
+  /**
+   * Gives the user defined partitioning and clustering of the table.
+   *
+   * @param tableName name of the table.
+   * @return partitioning of the table, null if it is not defined for the table.
+   */
+  public TablePartitioningDataDTO getTablePartitioning(String tableName) {
+    return bigQueryTablePartitioning.get(tableName);
+  }
+
   /**
    * Gives the request body associated with the request name.
    *
@@ -24,13 +24,16 @@ import com.google.connector.snowflakeToBQ.mapper.MigrateRequestMapper;
 import com.google.connector.snowflakeToBQ.model.EncryptedData;
 import com.google.connector.snowflakeToBQ.model.OperationResult;
 import com.google.connector.snowflakeToBQ.model.datadto.SnowflakeUnloadToGCSDataDTO;
+import com.google.connector.snowflakeToBQ.model.request.ChecksumValidationRequestDTO;
 import com.google.connector.snowflakeToBQ.model.request.SFDataMigrationRequestDTO;
 import com.google.connector.snowflakeToBQ.model.request.SFExtractAndTranslateDDLRequestDTO;
 import com.google.connector.snowflakeToBQ.model.request.SnowflakeUnloadToGCSRequestDTO;
 import com.google.connector.snowflakeToBQ.repository.ClosableJdbcTemplate;
 import com.google.connector.snowflakeToBQ.service.ApplicationConfigDataService;
+import com.google.connector.snowflakeToBQ.service.ChecksumValidationService;
 import com.google.connector.snowflakeToBQ.service.ExtractAndTranslateDDLService;
 import com.google.connector.snowflakeToBQ.service.SnowflakeMigrateDataService;
+import com.google.connector.snowflakeToBQ.service.StageDurationService;
 import com.google.connector.snowflakeToBQ.service.TokenRefreshService;
 import com.google.connector.snowflakeToBQ.service.async.SnowflakeUnloadToGCSAsyncService;
 import com.google.connector.snowflakeToBQ.util.PropertyManager;
@@ -61,6 +64,8 @@ public class SnowflakesConnectorController {
   final SnowflakeMigrateDataService snowflakeMigrateDataService;
   final ExtractAndTranslateDDLService extractDDLService;
   final SnowflakeUnloadToGCSAsyncService snowflakeUnloadToGCSAsyncService;
+  final ChecksumValidationService checksumValidationService;
+  final StageDurationService stageDurationService;
 
   final ApplicationConfigDataService applicationConfigDataService;
 
@@ -76,7 +81,9 @@ public class SnowflakesConnectorController {
       ExtractAndTranslateDDLService extractDDLService,
       SnowflakeUnloadToGCSAsyncService snowflakeUnloadToGCSAsyncService,
       ApplicationConfigDataService applicationConfigDataService,
-      EasyCache<String, ClosableJdbcTemplate> jdbcTemplateEhcache) {
+      EasyCache<String, ClosableJdbcTemplate> jdbcTemplateEhcache,
+      ChecksumValidationService checksumValidationService,
+      StageDurationService stageDurationService) {
     this.encryptValues = encryptValues;
     this.tokenRefreshService = tokenRefreshService;
     this.snowflakeMigrateDataService = snowflakeMigrateDataService;
@@ -85,6 +92,8 @@ public class SnowflakesConnectorController {
     this.snowflakeUnloadToGCSAsyncService = snowflakeUnloadToGCSAsyncService;
     this.applicationConfigDataService = applicationConfigDataService;
     this.jdbcTemplateEhcache = jdbcTemplateEhcache;
+    this.checksumValidationService = checksumValidationService;
+    this.stageDurationService = stageDurationService;
   }
 
   /**
@@ -161,6 +170,95 @@ public class SnowflakesConnectorController {
     }
   }
 
+  /**
+   * Method/API to get the migration status of the tables one page at a time, newest tables first.
+   * All the filters are optional and are served by the indexes of the application_data table.
+   *
+   * @param requestLogId request log id of the migration request.
+   * @param processingDone true for the completed tables, false for the failed or running ones.
+   * @param createdFrom tables created at or after this time(yyyy-MM-dd HH:mm:ss).
+   * @param createdTo tables created at or before this time(yyyy-MM-dd HH:mm:ss).
+   * @param page page number starting from 0.
+   * @param size number of tables of the page.
+   * @return page of the migration status of the tables.
+   */
+  @GetMapping("/migration-status")
+  public ResponseEntity<?> getMigrationStatus(
+      @RequestParam(value = "requestLogId", required = false) String requestLogId,
+      @RequestParam(value = "processingDone", required = false) Boolean processingDone,
+      @RequestParam(value = "createdFrom", required = false) String createdFrom,
+      @RequestParam(value = "createdTo", required = false) String createdTo,
+      @RequestParam(value = "page", defaultValue = "0") int page,
+      @RequestParam(value = "size", defaultValue = "100") int size) {
+    return ResponseEntity.ok(
+        snowflakeMigrateDataService.getMigrationStatusPage(
+            requestLogId, processingDone, createdFrom, createdTo, page, size));
+  }
+
+  /**
+   * Method/API to get the live migration status of the recently changed tables from memory, it
+   * does not read the embedded database and can be polled while a migration is running.
+   *
+   * @param requestLogId optional request log id of the migration request, all the recently
+   *     changed tables are returned if not given.
+   * @return list of the migration status, one per table.
+   */
+  @GetMapping("/migration-status/live")
+  public ResponseEntity<?> getLiveMigrationStatus(
+      @RequestParam(value = "requestLogId", required = false) String requestLogId) {
+    return ResponseEntity.ok(snowflakeMigrateDataService.getLiveMigrationStatus(requestLogId));
+  }
+
+  /**
+   * Method/API to get the statistics of the BigQuery load jobs(job ids, input files and bytes,
+   * output rows, bad records, slot-ms and start/end time) of the migrated tables. Helps in finding
+   * the expensive loads and tuning the load format and unloaded file sizes.
+   *
+   * @param requestLogId optional request log id of the migration request, statistics of all the
+   *     requests are returned if not given.
+   * @return list of the load statistics, one per table.
+   */
+  @GetMapping("/load-statistics")
+  public ResponseEntity<?> getLoadStatistics(
+      @RequestParam(value = "requestLogId", required = false) String requestLogId) {
+    return ResponseEntity.ok(snowflakeMigrateDataService.getLoadStatistics(requestLogId));
+  }
+
+  /**
+   * Method/API to get how long each stage(translation, table creation, unload and load) took for
+   * the tables of a migration request. Reports the p50/p95 duration of each stage and the critical
+   * path, i.e. the stages of the table which finished last along with the time each of them waited
+   * to start. Helps in tuning the concurrency of the stages.
+   *
+   * @param requestLogId request log id of the migration request.
+   * @return stage durations and the critical path of the request.
+   */
+  @GetMapping("/stage-durations")
+  public ResponseEntity<?> getStageDurations(
+      @RequestParam(value = "requestLogId") String requestLogId) {
+    return ResponseEntity.ok(stageDurationService.getStageDurations(requestLogId));
+  }
+
+  /**
+   * Method/API to validate the data of a migrated table by comparing the fingerprints of its
+   * buckets(by date or by hash of a column) in Snowflake and BigQuery. Mismatched buckets are
+   * compared row by row to find the keys of the rows which differ, if key column is given.
+   *
+   * @param checksumValidationRequestDTO details of the source and target table, bucketing and the
+   *     columns to compare.
+   * @return mismatched buckets and keys of the table.
+   */
+  @PostMapping("/validate-checksum")
+  public ResponseEntity<?> validateChecksum(
+      @NonNull @RequestBody @Valid ChecksumValidationRequestDTO checksumValidationRequestDTO) {
+    MDC.put(REQUEST_LOG_ID, UUID.randomUUID().toString());
+    try {
+      return ResponseEntity.ok(checksumValidationService.validate(checksumValidationRequestDTO));
+    } finally {
+      MDC.remove(REQUEST_LOG_ID);
+    }
+  }
+
   /**
    * Method/API to receive the request just for extract the DDL from Snowflake and translate it to
    * BigQuery DDL format.
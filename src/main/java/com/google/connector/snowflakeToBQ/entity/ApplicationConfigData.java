@@ -17,6 +17,7 @@
 package com.google.connector.snowflakeToBQ.entity;
 
 import java.io.Serializable;
+import java.time.Instant;
 import javax.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -25,7 +26,14 @@ import lombok.Setter;
 @Entity
 @Setter
 @Getter
-@Table(name = "application_data")
+// Status queries filter the growing history by processing state, migration request and time
+@Table(
+    name = "application_data",
+    indexes = {
+      @Index(name = "idx_application_data_processing_done", columnList = "is_row_processing_done"),
+      @Index(name = "idx_application_data_request_log_id", columnList = "request_log_id"),
+      @Index(name = "idx_application_data_created_time", columnList = "created_time")
+    })
 public class ApplicationConfigData implements Serializable {
 
   @Id
@@ -59,6 +67,10 @@ public class ApplicationConfigData implements Serializable {
   @Column(name = "gcs_bucket_for_ddls")
   private String gcsBucketForDDLs;
 
+  // SHA-256 of the uploaded source DDL and its name mapping, key of the translation cache
+  @Column(name = "source_ddl_hash", length = 64)
+  private String sourceDDLHash;
+
   @Column(name = "is_source_ddl_copied")
   private boolean isSourceDDLCopied;
 
@@ -68,9 +80,17 @@ public class ApplicationConfigData implements Serializable {
   @Column(name = "workflow_name")
   private String workflowName;
 
+  // Sub folder of the schema DDLs translated by its own workflow e.g. chunk_3, null if not chunked
+  @Column(name = "translation_chunk")
+  private String translationChunk;
+
   @Column(name = "is_translated_ddl_copied")
   private boolean isTranslatedDDLCopied;
 
+  // Errors reported by the translation for the DDL of the table, null if it translated cleanly
+  @Column(name = "translation_error", length = 4000)
+  private String translationError;
+
   @Column(name = "location")
   String location;
 
@@ -80,9 +100,30 @@ public class ApplicationConfigData implements Serializable {
   @Column(name = "snowflake_file_format")
   private String snowflakeFileFormatValue;
 
+  // Keys of the Snowflake CLUSTER BY clause e.g. "REGION, TO_DATE(ORDER_TS)"
+  @Column(name = "snowflake_clustering_keys", length = 1000)
+  private String snowflakeClusteringKeys;
+
   @Column(name = "snowflake_statement_handle")
   private String snowflakeStatementHandle;
 
+  // rows_unloaded reported by the COPY INTO statement
+  @Column(name = "snowflake_rows_unloaded")
+  private Long snowflakeRowsUnloaded;
+
+  @Column(name = "source_table_bytes")
+  private Long sourceTableBytes;
+
+  @Column(name = "unload_max_file_size")
+  private Long unloadMaxFileSize;
+
+  @Column(name = "is_unload_single_file")
+  private Boolean unloadSingleFile;
+
+  // UNLOAD or STREAMING, the way table data was moved to BigQuery
+  @Column(name = "transfer_mode")
+  private String transferMode;
+
   @Column(name = "is_data_unloaded_from_snowflake")
   private boolean isDataUnloadedFromSnowflake;
 
@@ -95,12 +136,75 @@ public class ApplicationConfigData implements Serializable {
   @Column(name = "bq_load_format")
   private String bqLoadFileFormat;
 
+  @Column(name = "unloaded_file_count")
+  private Long unloadedFileCount;
+
+  @Column(name = "unloaded_bytes")
+  private Long unloadedBytes;
+
   @Column(name = "is_data_loaded_in_bq")
   private boolean isDataLoadedInBQ;
 
+  // Comma separated ids of the load jobs, more than one if loaded in shards or retried
+  @Column(name = "bq_load_job_ids", length = 4000)
+  private String bqLoadJobIds;
+
+  @Column(name = "bq_load_input_files")
+  private Long bqLoadInputFiles;
+
+  @Column(name = "bq_load_input_bytes")
+  private Long bqLoadInputBytes;
+
+  @Column(name = "bq_load_output_rows")
+  private Long bqLoadOutputRows;
+
+  @Column(name = "bq_load_bad_records")
+  private Long bqLoadBadRecords;
+
+  @Column(name = "bq_load_slot_ms")
+  private Long bqLoadSlotMs;
+
+  @Column(name = "bq_load_start_time")
+  private String bqLoadStartTime;
+
+  @Column(name = "bq_load_end_time")
+  private String bqLoadEndTime;
+
+  // MATCHED, MISMATCHED or NOT_VERIFIED, rows unloaded compared with the rows loaded
+  @Column(name = "row_count_verification")
+  private String rowCountVerification;
+
+  @Column(name = "is_staged_data_deleted", columnDefinition = "boolean default false")
+  private boolean isStagedDataDeleted;
+
   @Column(name = "is_row_processing_done")
   private boolean isRowProcessingDone;
 
+  // Start and end of each stage of the table, kept for the stage duration analytics
+  @Column(name = "translation_started_at")
+  private Instant translationStartedAt;
+
+  @Column(name = "translation_ended_at")
+  private Instant translationEndedAt;
+
+  @Column(name = "table_creation_started_at")
+  private Instant tableCreationStartedAt;
+
+  @Column(name = "table_creation_ended_at")
+  private Instant tableCreationEndedAt;
+
+  @Column(name = "unload_started_at")
+  private Instant unloadStartedAt;
+
+  @Column(name = "unload_ended_at")
+  private Instant unloadEndedAt;
+
+  @Column(name = "load_started_at")
+  private Instant loadStartedAt;
+
+  @Column(name = "load_ended_at")
+  private Instant loadEndedAt;
+
   @Column(name = "created_time")
   private String createdTime;
 
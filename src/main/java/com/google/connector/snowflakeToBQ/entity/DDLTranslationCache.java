@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.entity;
+
+import java.io.Serializable;
+import javax.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Entity class to remember the translation of a Snowflake DDL, so that the same DDL with the same
+ * name mapping is not translated again by the next requests.
+ */
+@Entity
+@Setter
+@Getter
+@Table(name = "ddl_translation_cache")
+public class DDLTranslationCache implements Serializable {
+
+  // SHA-256 of the normalized source DDL and its name mapping
+  @Id
+  @Column(name = "source_ddl_hash", length = 64)
+  private String sourceDDLHash;
+
+  @Column(name = "gcs_bucket_for_translation")
+  private String gcsBucketForTranslation;
+
+  @Column(name = "translated_ddl_gcs_path")
+  private String translatedDDLGCSPath;
+
+  @Column(name = "workflow_name")
+  private String workflowName;
+
+  @Column(name = "created_time")
+  private String createdTime;
+
+  @Column(name = "last_used_time")
+  private String lastUsedTime;
+}
@@ -21,6 +21,7 @@ import com.google.connector.snowflakeToBQ.model.datadto.*;
 import com.google.connector.snowflakeToBQ.model.request.SFDataMigrationRequestDTO;
 import com.google.connector.snowflakeToBQ.model.request.SFExtractAndTranslateDDLRequestDTO;
 import com.google.connector.snowflakeToBQ.model.request.SnowflakeUnloadToGCSRequestDTO;
+import com.google.connector.snowflakeToBQ.model.response.LoadStatisticsResponse;
 import com.google.connector.snowflakeToBQ.model.response.SFDataMigrationResponse;
 import org.slf4j.MDC;
 
@@ -97,13 +98,19 @@ public interface MigrateRequestMapper {
    */
   static GCSDetailsDataDTO getGCSDetailsDataDTOFromSFDataMigrationRequestDTO(
       SFDataMigrationRequestDTO sfDataMigrationRequestDTO) {
-    return getGcsDetailsDataDTO(
-        sfDataMigrationRequestDTO.getSourceDatabaseName(),
-        sfDataMigrationRequestDTO.getSourceSchemaName(),
-        sfDataMigrationRequestDTO.getSourceTableName(),
-        sfDataMigrationRequestDTO.getTargetDatabaseName(),
-        sfDataMigrationRequestDTO.getTargetSchemaName(),
-        sfDataMigrationRequestDTO.getGcsBucketForDDLs());
+    GCSDetailsDataDTO gcsDetailsDataDTO =
+        getGcsDetailsDataDTO(
+            sfDataMigrationRequestDTO.getSourceDatabaseName(),
+            sfDataMigrationRequestDTO.getSourceSchemaName(),
+            sfDataMigrationRequestDTO.getSourceTableName(),
+            sfDataMigrationRequestDTO.getTargetDatabaseName(),
+            sfDataMigrationRequestDTO.getTargetSchemaName(),
+            sfDataMigrationRequestDTO.getGcsBucketForDDLs(),
+            sfDataMigrationRequestDTO.getGcsBucketForTranslation(),
+            sfDataMigrationRequestDTO.getLocation());
+    // Existing tables are not created by the connector, hence their DDLs are not translated
+    gcsDetailsDataDTO.setTranslationRequired(!sfDataMigrationRequestDTO.isBqTableExists());
+    return gcsDetailsDataDTO;
   }
 
   /**
@@ -119,7 +126,9 @@ public interface MigrateRequestMapper {
         taskRequestDTO.getSourceTableName(),
         taskRequestDTO.getTargetDatabaseName(),
         taskRequestDTO.getTargetSchemaName(),
-        taskRequestDTO.getGcsBucketForDDLs());
+        taskRequestDTO.getGcsBucketForDDLs(),
+        taskRequestDTO.getGcsBucketForTranslation(),
+        taskRequestDTO.getLocation());
   }
 
   /**
@@ -170,6 +179,13 @@ public interface MigrateRequestMapper {
         applicationConfigData.getSnowflakeStageLocation());
     bigQueryDetailsDto.setBqLoadFileFormat(applicationConfigData.getBqLoadFileFormat());
     bigQueryDetailsDto.setLocation(applicationConfigData.getLocation());
+    bigQueryDetailsDto.setRunId(applicationConfigData.getRequestLogId());
+    if (applicationConfigData.getUnloadedFileCount() != null) {
+      bigQueryDetailsDto.setStagedFileCount(applicationConfigData.getUnloadedFileCount());
+    }
+    if (applicationConfigData.getUnloadedBytes() != null) {
+      bigQueryDetailsDto.setStagedBytes(applicationConfigData.getUnloadedBytes());
+    }
     return bigQueryDetailsDto;
   }
 
@@ -179,15 +195,22 @@ public interface MigrateRequestMapper {
   static SFDataMigrationResponse applicationConfigDataToSFSfDataMigrationResponse(
       ApplicationConfigData applicationConfigData) {
     SFDataMigrationResponse sfDataMigrationResponse = new SFDataMigrationResponse();
+    sfDataMigrationResponse.setRequestId(applicationConfigData.getId());
     sfDataMigrationResponse.setSourceDatabaseName(applicationConfigData.getSourceDatabaseName());
     sfDataMigrationResponse.setSourceSchemaName(applicationConfigData.getSourceSchemaName());
     sfDataMigrationResponse.setSourceTableName(applicationConfigData.getSourceTableName());
     sfDataMigrationResponse.setTableDDLExtracted(applicationConfigData.isSourceDDLCopied());
     sfDataMigrationResponse.setTableDDLTranslated(applicationConfigData.isTranslatedDDLCopied());
+    sfDataMigrationResponse.setTranslationError(applicationConfigData.getTranslationError());
     sfDataMigrationResponse.setTableDataUnloadedFromSnowflake(
         applicationConfigData.isDataUnloadedFromSnowflake());
     sfDataMigrationResponse.setBQTableCreated(applicationConfigData.isBQTableCreated());
+    sfDataMigrationResponse.setUnloadedFileCount(applicationConfigData.getUnloadedFileCount());
+    sfDataMigrationResponse.setUnloadedBytes(applicationConfigData.getUnloadedBytes());
+    sfDataMigrationResponse.setTransferMode(applicationConfigData.getTransferMode());
     sfDataMigrationResponse.setTableDataLoadedInBQ(applicationConfigData.isDataLoadedInBQ());
+    sfDataMigrationResponse.setRowCountVerification(
+        applicationConfigData.getRowCountVerification());
     sfDataMigrationResponse.setTableProcessingDone(applicationConfigData.isRowProcessingDone());
     sfDataMigrationResponse.setCreatedTime(applicationConfigData.getCreatedTime());
     sfDataMigrationResponse.setLastUpdatedTime(applicationConfigData.getLastUpdatedTime());
@@ -196,6 +219,33 @@ public interface MigrateRequestMapper {
     return sfDataMigrationResponse;
   }
 
+  /**
+   * Method to convert {@link ApplicationConfigData} values to the {@link LoadStatisticsResponse}.
+   */
+  static LoadStatisticsResponse applicationConfigDataToLoadStatisticsResponse(
+      ApplicationConfigData applicationConfigData) {
+    LoadStatisticsResponse loadStatisticsResponse = new LoadStatisticsResponse();
+    loadStatisticsResponse.setSourceTableName(applicationConfigData.getSourceTableName());
+    loadStatisticsResponse.setTargetTableName(applicationConfigData.getTargetTableName());
+    loadStatisticsResponse.setBqLoadFormat(applicationConfigData.getBqLoadFileFormat());
+    loadStatisticsResponse.setLoadJobIds(applicationConfigData.getBqLoadJobIds());
+    loadStatisticsResponse.setUnloadedFileCount(applicationConfigData.getUnloadedFileCount());
+    loadStatisticsResponse.setUnloadedBytes(applicationConfigData.getUnloadedBytes());
+    loadStatisticsResponse.setRowsUnloaded(applicationConfigData.getSnowflakeRowsUnloaded());
+    loadStatisticsResponse.setInputFiles(applicationConfigData.getBqLoadInputFiles());
+    loadStatisticsResponse.setInputBytes(applicationConfigData.getBqLoadInputBytes());
+    loadStatisticsResponse.setOutputRows(applicationConfigData.getBqLoadOutputRows());
+    loadStatisticsResponse.setRowCountVerification(
+        applicationConfigData.getRowCountVerification());
+    loadStatisticsResponse.setBadRecords(applicationConfigData.getBqLoadBadRecords());
+    loadStatisticsResponse.setSlotMs(applicationConfigData.getBqLoadSlotMs());
+    loadStatisticsResponse.setLoadStartTime(applicationConfigData.getBqLoadStartTime());
+    loadStatisticsResponse.setLoadEndTime(applicationConfigData.getBqLoadEndTime());
+    loadStatisticsResponse.setTableDataLoadedInBQ(applicationConfigData.isDataLoadedInBQ());
+    loadStatisticsResponse.setRequestLogId(applicationConfigData.getRequestLogId());
+    return loadStatisticsResponse;
+  }
+
   /** This method just a helper method for above code so that duplicate code gets avoided. */
   private static DDLDataDTO getDdlDataDTO(
       String sourceDatabaseName,
@@ -222,7 +272,9 @@ public interface MigrateRequestMapper {
       String sourceTableName,
       String targetDatabaseName,
       String targetSchemaName,
-      String gcsBucketForDDLs) {
+      String gcsBucketForDDLs,
+      String gcsBucketForTranslation,
+      String translationJobLocation) {
     GCSDetailsDataDTO gcsDetailsDataDTO = new GCSDetailsDataDTO();
 
     gcsDetailsDataDTO.setSourceDatabaseName(sourceDatabaseName);
@@ -231,6 +283,8 @@ public interface MigrateRequestMapper {
     gcsDetailsDataDTO.setTargetDatabaseName(targetDatabaseName);
     gcsDetailsDataDTO.setTargetSchemaName(targetSchemaName);
     gcsDetailsDataDTO.setGcsBucketForDDLs(gcsBucketForDDLs);
+    gcsDetailsDataDTO.setGcsBucketForTranslation(gcsBucketForTranslation);
+    gcsDetailsDataDTO.setTranslationJobLocation(translationJobLocation);
     return gcsDetailsDataDTO;
   }
 
@@ -36,6 +36,15 @@ public class BigQueryDetailsDataDTO {
   String snowflakeDataUnloadGCSPath;
   String bqLoadFileFormat;
   String location;
+  // Number of files and their total size unloaded by Snowflake for the table, -1 if not known.
+  long stagedFileCount = -1;
+  long stagedBytes = -1;
+  // Files unloaded for the table, used to split the load in shards. Null if not known.
+  StagingInventoryDataDTO stagingInventory;
+  // Identifies the migration run in the labels of the BigQuery jobs.
+  String runId;
+  // Statistics of the load jobs submitted for the table, filled once the jobs finish.
+  LoadJobStatisticsDataDTO loadJobStatistics = new LoadJobStatisticsDataDTO();
 
   @Override
   public String toString() {
@@ -66,6 +75,13 @@ public class BigQueryDetailsDataDTO {
         + ", location='"
         + location
         + '\''
+        + ", stagedFileCount="
+        + stagedFileCount
+        + ", stagedBytes="
+        + stagedBytes
+        + ", runId='"
+        + runId
+        + '\''
         + '}';
   }
 }
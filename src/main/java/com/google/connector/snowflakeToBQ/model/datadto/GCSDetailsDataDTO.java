@@ -28,4 +28,19 @@ public class GCSDetailsDataDTO extends CommonDataDTO implements Serializable {
   private String gcsBucketForDDLs;
   private String snowflakeDDLsPath;
   private boolean isSourceDDLCopied;
+  // Sub folder of the schema folder in which the DDL is written, null if not chunked
+  private String translationChunk;
+  // Bucket in which the translation of the DDLs is written
+  private String gcsBucketForTranslation;
+  // Location of the translation jobs, used by the interactive translation
+  private String translationJobLocation;
+  // False if the tables are not created by the connector, their DDLs are then only written
+  private boolean translationRequired = true;
+  // SHA-256 of the uploaded DDL and its name mapping, identifies its translation
+  private String sourceDDLHash;
+  // Path of the earlier or local translation of the DDL, null if the DDL needs a workflow
+  private String translatedDDLGCSPath;
+  private String translationWorkflowName;
+  // Content of the translation done without the batch workflow, kept in memory for table creation
+  private String translatedDDL;
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.model.datadto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Class which holds the statistics of the BigQuery load jobs of a table. A table loaded in shards,
+ * or whose load got retried, has more than one job and the statistics are the sum of all of them.
+ */
+@Setter
+@Getter
+public class LoadJobStatisticsDataDTO {
+
+  private List<String> jobIds = new ArrayList<>();
+  private long inputFiles;
+  private long inputBytes;
+  private long outputRows;
+  private long badRecords;
+  private long slotMs;
+  // Epoch millis when the first job started and the last job ended, null if not known.
+  private Long startTime;
+  private Long endTime;
+
+  public boolean isEmpty() {
+    return jobIds.isEmpty();
+  }
+}
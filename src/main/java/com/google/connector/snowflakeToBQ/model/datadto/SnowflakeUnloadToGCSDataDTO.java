@@ -38,4 +38,11 @@ public class SnowflakeUnloadToGCSDataDTO {
   private String warehouse;
 
   private String snowflakeFileFormatValue;
+
+  // Values decided by the unload file size planner, null if Snowflake defaults are used.
+  private Long sourceTableBytes;
+
+  private Long unloadMaxFileSize;
+
+  private Boolean unloadSingleFile;
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.model.datadto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Class which holds the inventory of the files unloaded by Snowflake for a table in the GCS staging
+ * location. It is built once per table after the unload and used for planning the BigQuery load.
+ */
+@Setter
+@Getter
+public class StagingInventoryDataDTO {
+
+  private String bucketName;
+  private String prefix;
+  private long fileCount;
+  private long totalBytes;
+  // Full object names(without bucket name) of the unloaded files.
+  private List<String> fileNames = new ArrayList<>();
+  // Size of each file in the order of fileNames.
+  private List<Long> fileSizes = new ArrayList<>();
+
+  public boolean isEmpty() {
+    return fileCount == 0;
+  }
+
+  @Override
+  public String toString() {
+    return "StagingInventoryDataDTO{"
+        + "bucketName='"
+        + bucketName
+        + '\''
+        + ", prefix='"
+        + prefix
+        + '\''
+        + ", fileCount="
+        + fileCount
+        + ", totalBytes="
+        + totalBytes
+        + '}';
+  }
+}
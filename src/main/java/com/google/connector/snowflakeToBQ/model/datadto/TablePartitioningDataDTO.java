@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.model.datadto;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Class which holds the user defined partitioning and clustering of a BigQuery table. A null value
+ * means the value is derived from the Snowflake clustering keys, an empty value means the table is
+ * created without it.
+ */
+@Setter
+@Getter
+public class TablePartitioningDataDTO {
+
+  // BigQuery partition expression e.g. DATE(ORDER_TS)
+  private String partitionBy;
+  // BigQuery cluster columns, only first four are used
+  private List<String> clusterBy;
+
+  @Override
+  public String toString() {
+    return "TablePartitioningDataDTO{"
+        + "partitionBy='"
+        + partitionBy
+        + '\''
+        + ", clusterBy="
+        + clusterBy
+        + '}';
+  }
+}
@@ -25,6 +25,8 @@ import lombok.Setter;
 public class TranslateDDLDataDTO extends CommonDataDTO {
   private String gcsBucketForTranslation;
   private String translationJobLocation;
+  // Sub folder of the schema DDLs to translate, whole schema folder if blank
+  private String translationChunk;
 
   @Override
   public String toString() {
@@ -36,6 +38,9 @@ public class TranslateDDLDataDTO extends CommonDataDTO {
         + ", translationJobLocation='"
         + translationJobLocation
         + '\''
+        + ", translationChunk='"
+        + translationChunk
+        + '\''
         + ", "
         + commonDTOString
         + '}';
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.model.datadto;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Class which holds the outcome of a finished migration workflow for each of its tables, built from
+ * the files written by the workflow in its output folder.
+ */
+@Setter
+@Getter
+public class TranslationReportDataDTO {
+
+  // Tables whose translated DDL file is present in the output folder.
+  private Set<String> translatedTables = new HashSet<>();
+  // Errors of the failed tables, table fails if its file is missing or the report has errors for it
+  private Map<String, String> translationErrors = new HashMap<>();
+
+  public boolean isFailed(String tableName) {
+    return translationErrors.containsKey(tableName);
+  }
+
+  @Override
+  public String toString() {
+    return "TranslationReportDataDTO{"
+        + "translatedTables="
+        + translatedTables.size()
+        + ", translationErrors="
+        + translationErrors
+        + '}';
+  }
+}
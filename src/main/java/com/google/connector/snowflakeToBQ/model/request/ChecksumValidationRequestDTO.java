@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.model.request;
+
+import com.google.connector.snowflakeToBQ.util.ChecksumBucketType;
+import java.util.List;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * This class holds the parameters of the checksum validation request which compares the data of a
+ * table in Snowflake with its data in BigQuery bucket by bucket.
+ */
+@Setter
+@Getter
+public class ChecksumValidationRequestDTO {
+  @NotBlank(message = "Source database name can not be empty")
+  private String sourceDatabaseName;
+
+  @NotBlank(message = "Source schema name can not be empty")
+  private String sourceSchemaName;
+
+  @NotBlank(message = "Source table name can not be empty")
+  private String sourceTableName;
+
+  @NotBlank(message = "Target database name can not be empty")
+  private String targetDatabaseName;
+
+  @NotBlank(message = "Target schema name can not be empty")
+  private String targetSchemaName;
+
+  // Same as source table name if not given
+  private String targetTableName;
+
+  private String location;
+
+  @NotBlank(message = "Bucket column can not be empty")
+  private String bucketColumn;
+
+  private ChecksumBucketType bucketType = ChecksumBucketType.DATE;
+
+  // Number of buckets, only used by HASH bucket type
+  @Min(value = 1, message = "Bucket count should be at least 1")
+  private int bucketCount = 64;
+
+  // Unique column of the table, mismatched buckets are only drilled into if it is given
+  private String keyColumn;
+
+  // Columns to compare, all the columns of the BigQuery table if not given
+  private List<String> columns;
+}
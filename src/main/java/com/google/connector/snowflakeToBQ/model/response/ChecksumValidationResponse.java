@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.model.response;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/** This class holds the outcome of the checksum validation of a table. */
+@Setter
+@Getter
+public class ChecksumValidationResponse {
+
+  private String sourceTableName;
+  private String targetTableName;
+  private int comparedBucketCount;
+  private int matchedBucketCount;
+  // Buckets whose row count or fingerprint differ, or which exist only on one side
+  private List<String> mismatchedBuckets = new ArrayList<>();
+  // Key values of the rows which differ, found by drilling into the mismatched buckets
+  private List<String> mismatchedKeys = new ArrayList<>();
+  // True if some mismatched buckets were not drilled into or had too many rows to compare
+  private boolean drillDownTruncated;
+  private boolean isSuccess;
+}
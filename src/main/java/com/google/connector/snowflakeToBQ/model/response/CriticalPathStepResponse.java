@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.model.response;
+
+import java.time.Instant;
+import lombok.Getter;
+import lombok.Setter;
+
+/** This class holds one stage on the critical path of a migration request. */
+@Setter
+@Getter
+public class CriticalPathStepResponse {
+
+  private String stage;
+  private String sourceTableName;
+  private Instant startedAt;
+  private Instant endedAt;
+  private long durationMs;
+  // Time between the end of the previous step(or the start of the request) and this step's start
+  private long waitMs;
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.model.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/** This class holds the statistics of the BigQuery load of a table. */
+@Setter
+@Getter
+public class LoadStatisticsResponse {
+
+  private String sourceTableName;
+  private String targetTableName;
+  private String bqLoadFormat;
+  private String loadJobIds;
+  private Long unloadedFileCount;
+  private Long unloadedBytes;
+  private Long rowsUnloaded;
+  private Long inputFiles;
+  private Long inputBytes;
+  private Long outputRows;
+  private String rowCountVerification;
+  private Long badRecords;
+  private Long slotMs;
+  private String loadStartTime;
+  private String loadEndTime;
+  private boolean isTableDataLoadedInBQ;
+  private String requestLogId;
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.model.response;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/** This class holds the stage durations and the critical path of a migration request. */
+@Setter
+@Getter
+public class RunStageDurationsResponse {
+
+  private String requestLogId;
+  private int tableCount;
+  private Instant runStartedAt;
+  private Instant runEndedAt;
+  private Long runDurationMs;
+  private List<StageDurationResponse> stages;
+  private List<CriticalPathStepResponse> criticalPath;
+}
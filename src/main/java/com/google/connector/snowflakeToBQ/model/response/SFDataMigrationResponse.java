@@ -24,14 +24,20 @@ import lombok.Setter;
 @Getter
 public class SFDataMigrationResponse {
 
+  private Long requestId;
   private String sourceDatabaseName;
   private String sourceSchemaName;
   private String sourceTableName;
   private boolean isTableDDLExtracted;
   private boolean isTableDDLTranslated;
+  private String translationError;
   private boolean isTableDataUnloadedFromSnowflake;
   private boolean isBQTableCreated;
+  private Long unloadedFileCount;
+  private Long unloadedBytes;
+  private String transferMode;
   private boolean isTableDataLoadedInBQ;
+  private String rowCountVerification;
   private boolean isTableProcessingDone;
   private String createdTime;
   private String lastUpdatedTime;
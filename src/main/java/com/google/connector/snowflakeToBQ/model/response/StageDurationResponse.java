@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.model.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/** This class holds the durations of one stage across the tables of a migration request. */
+@Setter
+@Getter
+public class StageDurationResponse {
+
+  private String stage;
+  // Tables for which the stage has both started and ended
+  private int tableCount;
+  private long p50Ms;
+  private long p95Ms;
+  private long maxMs;
+}
@@ -14,8 +14,13 @@
  * limitations under the License.
  */
 
+
 package com.google.connector.snowflakeToBQ.model.response;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -23,8 +28,24 @@ import lombok.Setter;
 @Setter
 @Getter
 public class WorkflowMigrationResponse {
+  public static final String COMPLETED = "COMPLETED";
+  public static final String FAILED = "FAILED";
+
   private String workflowName;
   private String translatedFileFullGCSPath;
+  // Translated DDL returned by the interactive translation, null for the translation in GCS
+  private String translatedDDL;
+  // State of the workflow once it finished, COMPLETED or PAUSED
+  private String state;
+  // State of each task of the workflow by its id, e.g. translation-task:SUCCEEDED
+  private Map<String, String> taskStates = new LinkedHashMap<>();
+  // Processing errors reported by the tasks which did not succeed
+  private List<String> taskErrors = new ArrayList<>();
+
+  /** Workflow is completed and none of its tasks has failed. */
+  public boolean isCompleted() {
+    return COMPLETED.equals(state) && !taskStates.containsValue(FAILED);
+  }
 
   @Override
   public String toString() {
@@ -35,6 +56,13 @@ public class WorkflowMigrationResponse {
         + ", translatedFileFullGCSPath='"
         + translatedFileFullGCSPath
         + '\''
+        + ", state='"
+        + state
+        + '\''
+        + ", taskStates="
+        + taskStates
+        + ", taskErrors="
+        + taskErrors
         + '}';
   }
 }
@@ -21,6 +21,7 @@ import java.util.List;
 
 import com.google.connector.snowflakeToBQ.service.SnowflakeQueryExecutor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.stereotype.Repository;
 
@@ -36,6 +37,16 @@ import org.springframework.stereotype.Repository;
       SnowflakeQueryExecutor.class
     })
 public interface ApplicationConfigDataRepository
-    extends JpaRepository<ApplicationConfigData, Long> {
+    extends JpaRepository<ApplicationConfigData, Long>,
+        JpaSpecificationExecutor<ApplicationConfigData> {
   List<ApplicationConfigData> findByIsRowProcessingDone(boolean columnValue);
+
+  List<ApplicationConfigData> findByBqLoadJobIdsIsNotNull();
+
+  List<ApplicationConfigData> findByRequestLogIdAndBqLoadJobIdsIsNotNull(String requestLogId);
+
+  List<ApplicationConfigData> findByRequestLogId(String requestLogId);
+
+  List<ApplicationConfigData> findByIsDataLoadedInBQAndIsStagedDataDeleted(
+      boolean isDataLoadedInBQ, boolean isStagedDataDeleted);
 }
@@ -107,6 +107,8 @@ public class JdbcTemplateProvider {
       dataSource.addDataSourceProperty("db", databaseName);
       dataSource.addDataSourceProperty("schema", schemaName);
       dataSource.addDataSourceProperty("authenticator", authenticatorType);
+      // Result is fetched in Arrow chunks, needed for streaming the large results over JDBC
+      dataSource.addDataSourceProperty("JDBC_QUERY_RESULT_FORMAT", "ARROW");
       dataSource.setMinimumIdle(1);
       dataSource.setMaximumPoolSize(2);
       if (oauthCredentials.getOauthMap().get("accessToken") == null
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service;
+
+import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import javax.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Base class of the trackers which poll a long running operation(e.g. BigQuery job, migration
+ * workflow) till it finishes. Callers register the operation and receive a {@link
+ * CompletableFuture} which gets completed once the operation reaches a terminal state, so no thread
+ * sleeps while the operation is running.
+ *
+ * <p>A single scheduler thread polls all the registered operations. Each operation is polled with
+ * its own interval which starts small and doubles after every poll up to the configured max, so
+ * short operations finish quickly and long-running ones do not flood the API with status calls.
+ * If a poll executor is given, status calls of the operations due in a tick run in parallel on it
+ * and the tick waits for all of them, so a tick takes about one status call rather than one per
+ * due operation. Subclasses only fetch the status of an operation and tell if it is terminal.
+ *
+ * @param <K> id of the tracked operation.
+ * @param <V> status of the operation returned by the API.
+ */
+public abstract class AdaptivePoller<K, V> {
+  private static final Logger log = LoggerFactory.getLogger(AdaptivePoller.class);
+
+  private final ThreadPoolTaskScheduler scheduler;
+  // Runs the status calls of a tick in parallel, null runs them one by one on the scheduler thread
+  private final Executor pollExecutor;
+  // Name of the tracked operations used in the logs
+  private final String operationName;
+  private final Map<K, TrackedOperation<V>> trackedOperations = new ConcurrentHashMap<>();
+
+  protected AdaptivePoller(ThreadPoolTaskScheduler scheduler, String operationName) {
+    this(scheduler, null, operationName);
+  }
+
+  protected AdaptivePoller(
+      ThreadPoolTaskScheduler scheduler, Executor pollExecutor, String operationName) {
+    this.scheduler = scheduler;
+    this.pollExecutor = pollExecutor;
+    this.operationName = operationName;
+  }
+
+  /**
+   * Fetches the current status of the operation, called from the scheduler thread or from the poll
+   * executor.
+   *
+   * @param key id of the operation.
+   * @return status of the operation, null if the operation does not exist anymore.
+   * @throws Exception if the status call fails, operation is polled again in the next poll.
+   */
+  protected abstract V fetchStatus(K key) throws Exception;
+
+  /**
+   * Checks if the operation has finished.
+   *
+   * @param status status returned by {@link #fetchStatus(Object)}.
+   * @return true if the status is final.
+   */
+  protected abstract boolean isTerminal(V status);
+
+  /* Error the future of the operation fails with when it does not finish in time. */
+  protected abstract SnowflakeConnectorException timeoutError();
+
+  protected abstract long getTickMs();
+
+  protected abstract long getInitialPollIntervalMs();
+
+  protected abstract long getMaxPollIntervalMs();
+
+  protected abstract long getTimeoutMs();
+
+  @PostConstruct
+  void startPolling() {
+    scheduler.scheduleWithFixedDelay(this::pollTrackedOperations, Duration.ofMillis(getTickMs()));
+  }
+
+  /**
+   * Registers the operation for tracking.
+   *
+   * @param key id of the operation.
+   * @return {@link CompletableFuture} which completes with the terminal status of the operation,
+   *     with null if the operation does not exist anymore, or exceptionally with {@link
+   *     #timeoutError()} if the operation does not finish within the configured timeout.
+   */
+  protected CompletableFuture<V> register(K key) {
+    TrackedOperation<V> trackedOperation =
+        new TrackedOperation<>(System.currentTimeMillis(), getInitialPollIntervalMs());
+    trackedOperations.put(key, trackedOperation);
+    log.info(
+        "Tracking {}:{}, total being tracked:{}", operationName, key, trackedOperations.size());
+    return trackedOperation.future;
+  }
+
+  /* Number of operations which are registered but not finished yet. */
+  protected int getTrackedCount() {
+    return trackedOperations.size();
+  }
+
+  /* Polls the operations whose next poll time has arrived, runs on the single scheduler thread. */
+  void pollTrackedOperations() {
+    long now = System.currentTimeMillis();
+    List<Map.Entry<K, TrackedOperation<V>>> dueOperations = new ArrayList<>();
+    for (Map.Entry<K, TrackedOperation<V>> entry : trackedOperations.entrySet()) {
+      if (entry.getValue().nextPollTime <= now) {
+        dueOperations.add(entry);
+      }
+    }
+    List<CompletableFuture<V>> statuses = new ArrayList<>();
+    for (Map.Entry<K, TrackedOperation<V>> entry : dueOperations) {
+      statuses.add(fetchStatusAsync(entry.getKey()));
+    }
+    for (int i = 0; i < dueOperations.size(); i++) {
+      K key = dueOperations.get(i).getKey();
+      TrackedOperation<V> trackedOperation = dueOperations.get(i).getValue();
+      try {
+        V status = statuses.get(i).join();
+        if (status == null) {
+          log.error("{}:{} does not exist anymore", operationName, key);
+          trackedOperations.remove(key);
+          trackedOperation.future.complete(null);
+          continue;
+        }
+        if (isTerminal(status)) {
+          log.info(
+              "{}:{} finished in {} ms", operationName, key, now - trackedOperation.startTime);
+          trackedOperations.remove(key);
+          trackedOperation.future.complete(status);
+          continue;
+        }
+      } catch (Exception e) {
+        // Status call failure does not mean operation failure, it will be retried in next poll.
+        log.warn(
+            "Error while polling the status of {}:{}, Error Message:{}",
+            operationName,
+            key,
+            e instanceof CompletionException && e.getCause() != null
+                ? e.getCause().getMessage()
+                : e.getMessage());
+      }
+      if (now - trackedOperation.startTime > getTimeoutMs()) {
+        log.error("{}:{} did not finish in {} ms", operationName, key, getTimeoutMs());
+        trackedOperations.remove(key);
+        trackedOperation.future.completeExceptionally(timeoutError());
+        continue;
+      }
+      trackedOperation.pollIntervalMs =
+          Math.min(trackedOperation.pollIntervalMs * 2, getMaxPollIntervalMs());
+      trackedOperation.nextPollTime = now + trackedOperation.pollIntervalMs;
+    }
+  }
+
+  /* Status call of the operation, on the poll executor if there is one. */
+  private CompletableFuture<V> fetchStatusAsync(K key) {
+    if (pollExecutor == null) {
+      try {
+        return CompletableFuture.completedFuture(fetchStatus(key));
+      } catch (Exception e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            return fetchStatus(key);
+          } catch (Exception e) {
+            throw new CompletionException(e);
+          }
+        },
+        pollExecutor);
+  }
+
+  /** Holds the tracking state of a single operation. */
+  private static class TrackedOperation<V> {
+    private final CompletableFuture<V> future = new CompletableFuture<>();
+    private final long startTime;
+    private long pollIntervalMs;
+    private long nextPollTime;
+
+    TrackedOperation(long startTime, long pollIntervalMs) {
+      this.startTime = startTime;
+      this.pollIntervalMs = pollIntervalMs;
+      this.nextPollTime = startTime + pollIntervalMs;
+    }
+  }
+}
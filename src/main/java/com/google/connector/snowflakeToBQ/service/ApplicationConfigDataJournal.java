@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service;
+
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.commons.lang3.SerializationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Write-behind journal of the changes of {@link ApplicationConfigData} rows. Every stage of a table
+ * only flips a flag and the last updated time, saving each change in its own transaction makes the
+ * embedded database a serialization point once hundreds of tables run in parallel.
+ *
+ * <p>Changes are kept in memory, only the latest state of a row is kept(coalesced) and a single
+ * scheduler thread writes all the pending rows in one transaction every
+ * application.data.journal.flush.interval.ms. {@link #saveAndWait} returns only once the row is
+ * written, it is used for the completed stages so that a stage is durable before the next stage
+ * starts its external work(e.g. the load after the unload, the staged file deletion after the
+ * load), hence a completed stage is never lost on a crash. {@link #save} does not wait and is used
+ * for the changes which can be lost, like the time of a failed attempt. A failed write is retried
+ * with the next flush, the waiting callers fail only after
+ * application.data.journal.flush.max.attempts failed writes.
+ */
+@Service
+public class ApplicationConfigDataJournal {
+  private static final Logger log = LoggerFactory.getLogger(ApplicationConfigDataJournal.class);
+
+  final ApplicationConfigDataService applicationConfigDataService;
+  final ThreadPoolTaskScheduler applicationDataJournalScheduler;
+
+  private final Object pendingLock = new Object();
+  private final Object flushLock = new Object();
+  // Latest state of each changed row by its id, written in the next flush
+  private Map<Long, ApplicationConfigData> pendingRows = new LinkedHashMap<>();
+  private CompletableFuture<Void> nextFlush = new CompletableFuture<>();
+  // Consecutive failed writes of the pending rows, only used under flushLock
+  private int failedFlushAttempts;
+
+  @Value("${application.data.journal.flush.interval.ms}")
+  private long flushIntervalMs;
+
+  @Value("${application.data.journal.flush.max.attempts}")
+  private int flushMaxAttempts;
+
+  public ApplicationConfigDataJournal(
+      ApplicationConfigDataService applicationConfigDataService,
+      @Qualifier("applicationDataJournalScheduler")
+          ThreadPoolTaskScheduler applicationDataJournalScheduler) {
+    this.applicationConfigDataService = applicationConfigDataService;
+    this.applicationDataJournalScheduler = applicationDataJournalScheduler;
+  }
+
+  @PostConstruct
+  void startFlushing() {
+    applicationDataJournalScheduler.scheduleWithFixedDelay(
+        this::flush, Duration.ofMillis(flushIntervalMs));
+  }
+
+  /** Writes the changes still pending when the application stops. */
+  @PreDestroy
+  void stopFlushing() {
+    flush();
+  }
+
+  /**
+   * Records the current state of the row, it is written with the next flush. Row which was never
+   * saved(no id) is saved right away as its id is needed by the caller. Callers changing a row
+   * which another thread may also change do so while holding the monitor of the row.
+   *
+   * @param applicationConfigData changed row.
+   * @return {@link CompletableFuture} which completes once the row is written, exceptionally if the
+   *     write failed.
+   */
+  public CompletableFuture<Void> save(ApplicationConfigData applicationConfigData) {
+    if (applicationConfigData.getId() == null) {
+      applicationConfigDataService.saveApplicationConfigDataService(applicationConfigData);
+      return CompletableFuture.completedFuture(null);
+    }
+    // Row can be shared between the table task and the translation of its chunk, each of them
+    // changes the row holding its monitor, hence the copy never has a half done change
+    synchronized (applicationConfigData) {
+      synchronized (pendingLock) {
+        // Copy is written, the row keeps changing in the table task while the flush is running.
+        // It is taken under the lock so that the pending state of a row follows the order of the
+        // saves
+        ApplicationConfigData snapshot = SerializationUtils.clone(applicationConfigData);
+        pendingRows.put(snapshot.getId(), snapshot);
+        return nextFlush;
+      }
+    }
+  }
+
+  /**
+   * Records the current state of the row and waits till it is written.
+   *
+   * @param applicationConfigData changed row.
+   */
+  public void saveAndWait(ApplicationConfigData applicationConfigData) {
+    join(save(applicationConfigData));
+  }
+
+  /**
+   * Records the current state of the rows and waits till they are written, all of them are written
+   * in the same flush.
+   *
+   * @param applicationConfigDataList changed rows.
+   */
+  public void saveAllAndWait(List<ApplicationConfigData> applicationConfigDataList) {
+    CompletableFuture<?>[] writes = new CompletableFuture[applicationConfigDataList.size()];
+    for (int i = 0; i < applicationConfigDataList.size(); i++) {
+      writes[i] = save(applicationConfigDataList.get(i));
+    }
+    join(CompletableFuture.allOf(writes));
+  }
+
+  /** Number of rows waiting for the next flush. */
+  public int getPendingCount() {
+    synchronized (pendingLock) {
+      return pendingRows.size();
+    }
+  }
+
+  /* Writes the pending rows in one transaction, runs on the single scheduler thread. */
+  void flush() {
+    synchronized (flushLock) {
+      Map<Long, ApplicationConfigData> rows;
+      CompletableFuture<Void> flushed;
+      synchronized (pendingLock) {
+        if (pendingRows.isEmpty()) {
+          return;
+        }
+        rows = pendingRows;
+        flushed = nextFlush;
+        pendingRows = new LinkedHashMap<>();
+        nextFlush = new CompletableFuture<>();
+      }
+      try {
+        applicationConfigDataService.updateAllApplicationConfigDataServices(rows.values());
+        log.debug("Application data journal wrote {} rows", rows.size());
+        failedFlushAttempts = 0;
+        flushed.complete(null);
+      } catch (Exception e) {
+        failedFlushAttempts++;
+        log.error(
+            "Error while writing {} rows of application data, attempt {} of {}, retrying in the"
+                + " next flush. Error Message:{}",
+            rows.size(),
+            failedFlushAttempts,
+            flushMaxAttempts,
+            e.getMessage());
+        CompletableFuture<Void> retryFlush;
+        // Rows are written again unless a newer state of the row is already pending
+        synchronized (pendingLock) {
+          rows.forEach(pendingRows::putIfAbsent);
+          retryFlush = nextFlush;
+        }
+        if (failedFlushAttempts < flushMaxAttempts) {
+          // Waiting callers complete with the write of the next flush
+          retryFlush.whenComplete(
+              (result, throwable) -> {
+                if (throwable == null) {
+                  flushed.complete(null);
+                } else {
+                  flushed.completeExceptionally(throwable);
+                }
+              });
+        } else {
+          failedFlushAttempts = 0;
+          flushed.completeExceptionally(e);
+        }
+      }
+    }
+  }
+
+  private static void join(CompletableFuture<?> write) {
+    try {
+      write.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
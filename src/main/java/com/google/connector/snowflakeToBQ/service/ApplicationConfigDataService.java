@@ -18,10 +18,18 @@ package com.google.connector.snowflakeToBQ.service;
 
 import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
 import com.google.connector.snowflakeToBQ.repository.ApplicationConfigDataRepository;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Class which provides the method to interact with entity. Transactional annotation will help in
@@ -33,11 +41,14 @@ import org.springframework.transaction.annotation.Transactional;
 public class ApplicationConfigDataService {
 
   private final ApplicationConfigDataRepository applicationConfigDataRepository;
+  private final MigrationStatusReadModel migrationStatusReadModel;
 
   @Autowired
   public ApplicationConfigDataService(
-      ApplicationConfigDataRepository applicationConfigDataRepository) {
+      ApplicationConfigDataRepository applicationConfigDataRepository,
+      MigrationStatusReadModel migrationStatusReadModel) {
     this.applicationConfigDataRepository = applicationConfigDataRepository;
+    this.migrationStatusReadModel = migrationStatusReadModel;
   }
 
   /**
@@ -49,7 +60,10 @@ public class ApplicationConfigDataService {
   public ApplicationConfigData saveApplicationConfigDataService(
       ApplicationConfigData applicationConfigData) {
 
-    return applicationConfigDataRepository.save(applicationConfigData);
+    ApplicationConfigData savedApplicationConfigData =
+        applicationConfigDataRepository.save(applicationConfigData);
+    afterCommit(() -> migrationStatusReadModel.update(savedApplicationConfigData));
+    return savedApplicationConfigData;
   }
 
   /**
@@ -62,7 +76,46 @@ public class ApplicationConfigDataService {
   public List<ApplicationConfigData> saveAllApplicationConfigDataServices(
       List<ApplicationConfigData> applicationConfigDataList) {
 
-    return applicationConfigDataRepository.saveAllAndFlush(applicationConfigDataList);
+    List<ApplicationConfigData> savedApplicationConfigDataList =
+        applicationConfigDataRepository.saveAllAndFlush(applicationConfigDataList);
+    afterCommit(() -> migrationStatusReadModel.updateAll(savedApplicationConfigDataList));
+    return savedApplicationConfigDataList;
+  }
+
+  /**
+   * Updates the already saved rows in one transaction. Rows are read together first so that the
+   * merge of each row does not select it again, updates are then sent in JDBC batches of
+   * hibernate.jdbc.batch_size.
+   *
+   * @param applicationConfigDataList rows having the id.
+   */
+  public void updateAllApplicationConfigDataServices(
+      Collection<ApplicationConfigData> applicationConfigDataList) {
+    List<Long> ids = new ArrayList<>();
+    for (ApplicationConfigData applicationConfigData : applicationConfigDataList) {
+      ids.add(applicationConfigData.getId());
+    }
+    applicationConfigDataRepository.findAllById(ids);
+    applicationConfigDataRepository.saveAll(applicationConfigDataList);
+    afterCommit(() -> migrationStatusReadModel.updateAll(applicationConfigDataList));
+  }
+
+  /*
+   * Read model serves only the committed state of the rows, hence it is updated once the
+   * transaction of the save commits and is left as is if the transaction rolls back.
+   */
+  private static void afterCommit(Runnable readModelUpdate) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      readModelUpdate.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            readModelUpdate.run();
+          }
+        });
   }
 
   /**
@@ -91,4 +144,82 @@ public class ApplicationConfigDataService {
   public List<ApplicationConfigData> findByIds(List<Long> ids) {
     return applicationConfigDataRepository.findAllById(ids);
   }
+
+  /**
+   * Fetching the rows for which at least one BigQuery load job has finished.
+   *
+   * @param requestLogId request log id of the migration request, all the requests if null.
+   * @return list of object fetched.
+   */
+  @Transactional(readOnly = true)
+  public List<ApplicationConfigData> findLoadedRows(String requestLogId) {
+    return requestLogId == null
+        ? applicationConfigDataRepository.findByBqLoadJobIdsIsNotNull()
+        : applicationConfigDataRepository.findByRequestLogIdAndBqLoadJobIdsIsNotNull(
+            requestLogId);
+  }
+
+  /**
+   * Fetching all the rows of a migration request, served by the index on request_log_id.
+   *
+   * @param requestLogId request log id of the migration request.
+   * @return list of object fetched.
+   */
+  @Transactional(readOnly = true)
+  public List<ApplicationConfigData> findByRequestLogId(String requestLogId) {
+    return applicationConfigDataRepository.findByRequestLogId(requestLogId);
+  }
+
+  /**
+   * Fetching one page of the rows matching the filters, newest rows first. Each filter is applied
+   * only if given and is served by the index of its column.
+   *
+   * @param requestLogId request log id of the migration request.
+   * @param rowProcessingDone value of is_row_processing_done column.
+   * @param createdFrom rows created at or after this time(yyyy-MM-dd HH:mm:ss).
+   * @param createdTo rows created at or before this time(yyyy-MM-dd HH:mm:ss).
+   * @param page page number starting from 0.
+   * @param size number of rows of the page.
+   * @return page of object fetched.
+   */
+  @Transactional(readOnly = true)
+  public Page<ApplicationConfigData> findPage(
+      String requestLogId,
+      Boolean rowProcessingDone,
+      String createdFrom,
+      String createdTo,
+      int page,
+      int size) {
+    // created_time is kept as a formatted string whose order is the same as the order of time
+    Specification<ApplicationConfigData> specification =
+        (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
+    if (requestLogId != null) {
+      specification =
+          specification.and(
+              (root, query, criteriaBuilder) ->
+                  criteriaBuilder.equal(root.get("requestLogId"), requestLogId));
+    }
+    if (rowProcessingDone != null) {
+      specification =
+          specification.and(
+              (root, query, criteriaBuilder) ->
+                  criteriaBuilder.equal(root.get("isRowProcessingDone"), rowProcessingDone));
+    }
+    if (createdFrom != null) {
+      specification =
+          specification.and(
+              (root, query, criteriaBuilder) ->
+                  criteriaBuilder.greaterThanOrEqualTo(
+                      root.<String>get("createdTime"), createdFrom));
+    }
+    if (createdTo != null) {
+      specification =
+          specification.and(
+              (root, query, criteriaBuilder) ->
+                  criteriaBuilder.lessThanOrEqualTo(
+                      root.<String>get("createdTime"), createdTo));
+    }
+    return applicationConfigDataRepository.findAll(
+        specification, PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id")));
+  }
 }
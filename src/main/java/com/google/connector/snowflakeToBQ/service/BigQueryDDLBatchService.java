@@ -0,0 +1,275 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import static com.google.connector.snowflakeToBQ.util.PropertyManager.OUTPUT_FORMATTER1;
+
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobStatistics;
+import com.google.cloud.bigquery.TableId;
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import com.google.connector.snowflakeToBQ.mapper.MigrateRequestMapper;
+import com.google.connector.snowflakeToBQ.model.datadto.BigQueryDetailsDataDTO;
+import com.google.connector.snowflakeToBQ.util.PropertyManager;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Class to create the BigQuery tables of a migration request in batches. Translated DDLs are
+ * concatenated into multi-statement scripts(bounded by statement count and script size) so that a
+ * single query job creates many tables, instead of one job creation and status polling per table.
+ *
+ * <p>BigQuery runs the statements of a script one after the other and stops at the first failure.
+ * Outcome of each statement is read from the child jobs of the script and mapped back to its row
+ * using the table the DDL created. Rows whose table got created are marked done, the failed
+ * statement is left for the per table path of {@link
+ * com.google.connector.snowflakeToBQ.service.async.SnowflakeToBQAsyncService} which creates it
+ * individually and reports its error, and the statements which did not run are put in the next
+ * script.
+ */
+@Service
+@Setter
+public class BigQueryDDLBatchService {
+  private static final Logger log = LoggerFactory.getLogger(BigQueryDDLBatchService.class);
+
+  final BigQueryOperationsService bigQueryOperationsService;
+  final TranslatedDDLCacheService translatedDDLCacheService;
+  final ApplicationConfigDataJournal applicationConfigDataJournal;
+  final BigQueryTableMetadataCache bigQueryTableMetadataCache;
+
+  @Value("${bigquery.ddl.batch.enabled}")
+  private boolean batchEnabled;
+
+  @Value("${bigquery.ddl.batch.max.statements}")
+  private int maxStatements;
+
+  @Value("${bigquery.ddl.batch.max.script.bytes}")
+  private int maxScriptBytes;
+
+  public BigQueryDDLBatchService(
+      BigQueryOperationsService bigQueryOperationsService,
+      TranslatedDDLCacheService translatedDDLCacheService,
+      ApplicationConfigDataJournal applicationConfigDataJournal,
+      BigQueryTableMetadataCache bigQueryTableMetadataCache) {
+    this.bigQueryOperationsService = bigQueryOperationsService;
+    this.translatedDDLCacheService = translatedDDLCacheService;
+    this.applicationConfigDataJournal = applicationConfigDataJournal;
+    this.bigQueryTableMetadataCache = bigQueryTableMetadataCache;
+  }
+
+  /**
+   * Creates the tables of the rows which still need their table. Rows whose table already exists
+   * or could not be created in a script are left untouched, they are handled by the per table path.
+   *
+   * @param applicationConfigDataList rows of the tables to be migrated.
+   * @return number of tables created.
+   */
+  public int createTables(List<ApplicationConfigData> applicationConfigDataList) {
+    if (!batchEnabled) {
+      return 0;
+    }
+    // Script runs in a single location, hence statements are grouped by location of the dataset
+    Map<String, List<PendingDDL>> pendingDDLsByLocation = new LinkedHashMap<>();
+    for (ApplicationConfigData applicationConfigData : applicationConfigDataList) {
+      if (applicationConfigData.isBQTableCreated()
+          || StringUtils.isBlank(applicationConfigData.getTranslatedDDLGCSPath())) {
+        continue;
+      }
+      BigQueryDetailsDataDTO bigQueryDetailsDataDTO =
+          MigrateRequestMapper.migrateRequestToBigQueryDetailDataDto(applicationConfigData);
+      // Existing table is an error for the row, which is reported by the per table path
+      if (bigQueryOperationsService.isTableExists(bigQueryDetailsDataDTO)) {
+        continue;
+      }
+      String statement;
+      try {
+        statement = toStatement(translatedDDLCacheService.getTargetTableDDL(applicationConfigData));
+      } catch (Exception e) {
+        log.warn(
+            "Could not read translated DDL of table:{}, it will be created individually. Error Message:{}",
+            applicationConfigData.getTargetTableName(),
+            e.getMessage());
+        continue;
+      }
+      if (statement == null) {
+        continue;
+      }
+      pendingDDLsByLocation
+          .computeIfAbsent(
+              StringUtils.defaultIfBlank(applicationConfigData.getLocation(), "us").toLowerCase(),
+              location -> new ArrayList<>())
+          .add(new PendingDDL(applicationConfigData, bigQueryDetailsDataDTO, statement));
+    }
+
+    int createdTables = 0;
+    for (Map.Entry<String, List<PendingDDL>> entry : pendingDDLsByLocation.entrySet()) {
+      createdTables += createTablesInLocation(entry.getKey(), entry.getValue());
+    }
+    return createdTables;
+  }
+
+  private int createTablesInLocation(String location, List<PendingDDL> pendingDDLs) {
+    Deque<PendingDDL> queue = new ArrayDeque<>(pendingDDLs);
+    int createdTables = 0;
+    while (!queue.isEmpty()) {
+      List<PendingDDL> batch = nextBatch(queue);
+      // Nothing to gain from a script of one statement(or of a DDL too big to be batched)
+      if (batch.size() == 1) {
+        continue;
+      }
+      String script =
+          batch.stream().map(pendingDDL -> pendingDDL.statement).collect(Collectors.joining("\n"));
+      List<Job> childJobs;
+      Instant scriptStartedAt = Instant.now();
+      try {
+        childJobs = bigQueryOperationsService.executeScript(script, location);
+      } catch (Exception e) {
+        log.warn(
+            "Script of {} DDLs failed, tables will be created individually. Error Message:{}",
+            batch.size(),
+            e.getMessage());
+        continue;
+      }
+
+      Set<String> createdTableKeys = new HashSet<>();
+      boolean statementFailed = false;
+      for (Job childJob : childJobs) {
+        if (childJob.getStatus() != null && childJob.getStatus().getError() != null) {
+          statementFailed = true;
+          continue;
+        }
+        if (childJob.getStatistics() instanceof JobStatistics.QueryStatistics) {
+          TableId ddlTargetTable =
+              ((JobStatistics.QueryStatistics) childJob.getStatistics()).getDdlTargetTable();
+          if (ddlTargetTable != null) {
+            createdTableKeys.add(
+                getTableKey(
+                    ddlTargetTable.getProject(),
+                    ddlTargetTable.getDataset(),
+                    ddlTargetTable.getTable()));
+          }
+        }
+      }
+
+      // Statements run in order, so the first one without a created table is the failed one and
+      // the ones after it never ran
+      boolean failedStatementFound = false;
+      List<PendingDDL> notExecuted = new ArrayList<>();
+      for (PendingDDL pendingDDL : batch) {
+        BigQueryDetailsDataDTO dto = pendingDDL.bigQueryDetailsDataDTO;
+        if (createdTableKeys.contains(
+            getTableKey(dto.getProjectId(), dto.getDatasetId(), dto.getTableName()))) {
+          markTableCreated(pendingDDL, scriptStartedAt);
+          createdTables++;
+        } else if (statementFailed && !failedStatementFound) {
+          failedStatementFound = true;
+          log.warn(
+              "DDL of table:{} failed in the script, it will be created individually",
+              dto.getTableName());
+        } else if (statementFailed) {
+          notExecuted.add(pendingDDL);
+        } else {
+          log.warn(
+              "Outcome of DDL of table:{} is not known from the script, it will be created individually",
+              dto.getTableName());
+        }
+      }
+      for (int i = notExecuted.size() - 1; i >= 0; i--) {
+        queue.addFirst(notExecuted.get(i));
+      }
+    }
+    return createdTables;
+  }
+
+  /* Takes the statements from the queue till the statement count or script size limit is hit. */
+  private List<PendingDDL> nextBatch(Deque<PendingDDL> queue) {
+    List<PendingDDL> batch = new ArrayList<>();
+    long scriptBytes = 0;
+    while (!queue.isEmpty() && batch.size() < maxStatements) {
+      // One extra byte for the new line separating the statements
+      long statementBytes =
+          queue.peekFirst().statement.getBytes(StandardCharsets.UTF_8).length + 1;
+      if (!batch.isEmpty() && scriptBytes + statementBytes > maxScriptBytes) {
+        break;
+      }
+      batch.add(queue.pollFirst());
+      scriptBytes += statementBytes;
+    }
+    return batch;
+  }
+
+  private void markTableCreated(PendingDDL pendingDDL, Instant scriptStartedAt) {
+    ApplicationConfigData applicationConfigData = pendingDDL.applicationConfigData;
+    BigQueryDetailsDataDTO dto = pendingDDL.bigQueryDetailsDataDTO;
+    log.info("Table:{} created through DDL script", dto.getTableName());
+    // Table task may still be unloading the data of the same row
+    synchronized (applicationConfigData) {
+      applicationConfigData.setBQTableCreated(true);
+      // Tables of a script are created together, each of them is timed with the whole script
+      applicationConfigData.setTableCreationStartedAt(scriptStartedAt);
+      applicationConfigData.setTableCreationEndedAt(Instant.now());
+      applicationConfigData.setLastUpdatedTime(
+          PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
+    }
+    applicationConfigDataJournal.saveAndWait(applicationConfigData);
+    bigQueryTableMetadataCache.tableCreated(
+        TableId.of(dto.getProjectId(), dto.getDatasetId(), dto.getTableName()));
+  }
+
+  /* Makes the DDL a single script statement, returns null for a blank DDL. */
+  private static String toStatement(String ddl) {
+    String statement = StringUtils.stripEnd(StringUtils.trim(ddl), "; \n\r\t");
+    return StringUtils.isBlank(statement) ? null : statement + ";";
+  }
+
+  private static String getTableKey(String projectId, String datasetId, String tableName) {
+    return String.format("%s.%s.%s", projectId, datasetId, tableName).toLowerCase();
+  }
+
+  /** DDL of a row waiting to be executed in a script. */
+  private static class PendingDDL {
+    private final ApplicationConfigData applicationConfigData;
+    private final BigQueryDetailsDataDTO bigQueryDetailsDataDTO;
+    private final String statement;
+
+    PendingDDL(
+        ApplicationConfigData applicationConfigData,
+        BigQueryDetailsDataDTO bigQueryDetailsDataDTO,
+        String statement) {
+      this.applicationConfigData = applicationConfigData;
+      this.bigQueryDetailsDataDTO = bigQueryDetailsDataDTO;
+      this.statement = statement;
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service;
+
+import static com.google.connector.snowflakeToBQ.util.ErrorCode.BQ_QUERY_JOB_EXECUTION_ERROR;
+
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobId;
+import com.google.cloud.bigquery.JobStatus;
+import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
+import com.google.connector.snowflakeToBQ.service.Instancecreator.BigQueryInstanceCreator;
+import java.util.concurrent.CompletableFuture;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Class which tracks the submitted BigQuery jobs till they finish. Rather than every caller
+ * blocking its thread in {@link Job#waitFor}, callers register the {@link JobId} and receive a
+ * {@link CompletableFuture} which gets completed once the job is done. Jobs are polled by {@link
+ * AdaptivePoller} on the bigQueryJobTrackerScheduler thread, getJob calls of the jobs due in a tick
+ * run in parallel on the bigQueryJobPollExecutor.
+ */
+@Service
+public class BigQueryJobTracker extends AdaptivePoller<JobId, Job> {
+
+  final BigQueryInstanceCreator bigQueryInstanceCreator;
+
+  @Value("${bigquery.job.tracker.tick.ms}")
+  private long tickMs;
+
+  @Value("${bigquery.job.tracker.initial.poll.interval.ms}")
+  private long initialPollIntervalMs;
+
+  @Value("${bigquery.job.tracker.max.poll.interval.ms}")
+  private long maxPollIntervalMs;
+
+  @Setter
+  @Value("${bigquery.job.tracker.timeout.ms}")
+  private long timeoutMs;
+
+  public BigQueryJobTracker(
+      BigQueryInstanceCreator bigQueryInstanceCreator,
+      @Qualifier("bigQueryJobTrackerScheduler")
+          ThreadPoolTaskScheduler bigQueryJobTrackerScheduler,
+      @Qualifier("bigQueryJobPollExecutor") ThreadPoolTaskExecutor bigQueryJobPollExecutor) {
+    super(bigQueryJobTrackerScheduler, bigQueryJobPollExecutor, "BigQuery job");
+    this.bigQueryInstanceCreator = bigQueryInstanceCreator;
+  }
+
+  /**
+   * Registers the submitted job for tracking.
+   *
+   * @param jobId id of the job submitted to BigQuery.
+   * @return {@link CompletableFuture} which completes with the finished {@link Job}(check its
+   *     status for errors), with null if the job does not exist anymore, or exceptionally if the job
+   *     does not finish within the configured timeout.
+   */
+  public CompletableFuture<Job> track(JobId jobId) {
+    return register(jobId);
+  }
+
+  /** Number of jobs which are submitted but not finished yet. */
+  public int getTrackedJobCount() {
+    return getTrackedCount();
+  }
+
+  @Override
+  protected Job fetchStatus(JobId jobId) {
+    return bigQueryInstanceCreator.getBigQueryClient().getJob(jobId);
+  }
+
+  @Override
+  protected boolean isTerminal(Job job) {
+    return job.getStatus() != null && job.getStatus().getState() == JobStatus.State.DONE;
+  }
+
+  @Override
+  protected SnowflakeConnectorException timeoutError() {
+    return new SnowflakeConnectorException(
+        BQ_QUERY_JOB_EXECUTION_ERROR.getMessage(), BQ_QUERY_JOB_EXECUTION_ERROR.getErrorCode());
+  }
+
+  @Override
+  protected long getTickMs() {
+    return tickMs;
+  }
+
+  @Override
+  protected long getInitialPollIntervalMs() {
+    return initialPollIntervalMs;
+  }
+
+  @Override
+  protected long getMaxPollIntervalMs() {
+    return maxPollIntervalMs;
+  }
+
+  @Override
+  protected long getTimeoutMs() {
+    return timeoutMs;
+  }
+}
@@ -21,14 +21,32 @@ import static com.google.connector.snowflakeToBQ.util.ErrorCode.*;
 import com.google.cloud.bigquery.*;
 import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
 import com.google.connector.snowflakeToBQ.model.datadto.BigQueryDetailsDataDTO;
+import com.google.connector.snowflakeToBQ.model.datadto.LoadJobStatisticsDataDTO;
+import com.google.connector.snowflakeToBQ.model.datadto.StagingInventoryDataDTO;
 import com.google.connector.snowflakeToBQ.service.Instancecreator.BigQueryInstanceCreator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import com.google.connector.snowflakeToBQ.service.bigqueryjoboptions.LoadJobFactory;
 import com.google.connector.snowflakeToBQ.service.bigqueryjoboptions.LoadOption;
+import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 /**
@@ -38,32 +56,111 @@ import org.springframework.stereotype.Service;
 @Service
 public class BigQueryOperationsService {
   private static final Logger log = LoggerFactory.getLogger(BigQueryOperationsService.class);
+  // Name of the table created by a ddl, e.g. `project`.dataset.table
+  private static final Pattern CREATE_TABLE_NAME =
+      Pattern.compile(
+          "\\bcreate\\s+(?:or\\s+replace\\s+)?table\\s+(?:if\\s+not\\s+exists\\s+)?"
+              + "([`\\w.-]+)",
+          Pattern.CASE_INSENSITIVE);
+
   final BigQueryInstanceCreator bigQueryInstanceCreator;
   final LoadJobFactory loadJobFactory;
+  final BigQueryJobTracker bigQueryJobTracker;
+  final BigQueryTableMetadataCache bigQueryTableMetadataCache;
+  final ThreadPoolTaskExecutor stagingCleanupExecutor;
+  // Follow-up jobs(shard retries, staging swap) are submitted here and not on the tracker thread
+  final ThreadPoolTaskExecutor customExecutor;
+
+  // Loads go in a staging table of the run which then replaces the table data with a copy job
+  @Setter
+  @Value("${bigquery.load.staging.swap.enabled}")
+  private boolean stagingSwapEnabled;
+
+  // Staging table expires on its own if it could not be dropped after the swap
+  @Value("${bigquery.load.staging.table.expiration.hours}")
+  private long stagingTableExpirationHours;
+
+  @Setter
+  @Value("${bigquery.load.shard.enabled}")
+  private boolean loadShardingEnabled;
+
+  // Max files and bytes loaded by a single load job when the load is sharded
+  @Setter
+  @Value("${bigquery.load.shard.max.files}")
+  private int shardMaxFiles;
+
+  @Setter
+  @Value("${bigquery.load.shard.max.bytes}")
+  private long shardMaxBytes;
+
+  @Value("${bigquery.load.shard.max.attempts}")
+  private int shardMaxAttempts;
 
   public BigQueryOperationsService(
-      BigQueryInstanceCreator bigQueryInstanceCreator, LoadJobFactory loadJobFactory) {
+      BigQueryInstanceCreator bigQueryInstanceCreator,
+      LoadJobFactory loadJobFactory,
+      BigQueryJobTracker bigQueryJobTracker,
+      BigQueryTableMetadataCache bigQueryTableMetadataCache,
+      @Qualifier("stagingCleanupExecutor") ThreadPoolTaskExecutor stagingCleanupExecutor,
+      @Qualifier("customExecutor") ThreadPoolTaskExecutor customExecutor) {
     this.bigQueryInstanceCreator = bigQueryInstanceCreator;
     this.loadJobFactory = loadJobFactory;
+    this.bigQueryJobTracker = bigQueryJobTracker;
+    this.bigQueryTableMetadataCache = bigQueryTableMetadataCache;
+    this.stagingCleanupExecutor = stagingCleanupExecutor;
+    this.customExecutor = customExecutor;
   }
 
   /**
-   * Method to perform the load job in BigQuery.
+   * Method to perform the load job in BigQuery. Blocks the calling thread till the job finishes,
+   * use {@link #loadBigQueryJobAsync(BigQueryDetailsDataDTO)} to not hold the thread.
    *
    * @param bigqueryDetailsDto required parameter for executing the load job.
    * @return @boolean status
    */
   public boolean loadBigQueryJob(BigQueryDetailsDataDTO bigqueryDetailsDto) {
-    // Create the Translation Service client
-    boolean returnValue = false;
+    try {
+      return loadBigQueryJobAsync(bigqueryDetailsDto).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof SnowflakeConnectorException) {
+        throw (SnowflakeConnectorException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Method to submit the load job in BigQuery. Job is submitted on the calling thread and then
+   * handed over to {@link BigQueryJobTracker}, so no thread waits while BigQuery loads the data.
+   *
+   * <p>If staging swap is enabled, data is loaded in a new staging table(same definition as the
+   * table) and once the load succeeds the table data is replaced with it using a WRITE_TRUNCATE
+   * copy job. Readers never see a partially loaded table, a retried load does not duplicate the
+   * rows and concurrent attempts do not interfere as each one has its own staging table. Sharded
+   * loads always go through a staging table, shards append their rows and a failed shard must not
+   * leave the rows of the other shards in the table. Without staging swap the staging table of the
+   * shards is appended to the table(WRITE_APPEND copy), the same as a single load job would do.
+   *
+   * <p>Statistics of every finished load job are added to {@link
+   * BigQueryDetailsDataDTO#getLoadJobStatistics()} of the dto.
+   *
+   * @param bigqueryDetailsDto required parameter for executing the load job.
+   * @return {@link CompletableFuture} which completes with true if the data got loaded, false if the
+   *     job finished with error, or exceptionally with {@link SnowflakeConnectorException} if the
+   *     job could not be tracked till the end.
+   */
+  public CompletableFuture<Boolean> loadBigQueryJobAsync(
+      BigQueryDetailsDataDTO bigqueryDetailsDto) {
     TableId tableId =
         TableId.of(
             bigqueryDetailsDto.getProjectId(),
             bigqueryDetailsDto.getDatasetId(),
             bigqueryDetailsDto.getTableName());
 
-    // Validating if the table for which load job is to perform exists or not
-    if (!isTableExists(bigqueryDetailsDto)) {
+    // Validating if the table for which load job is to perform exists or not, schema is taken from
+    // the metadata cache and is fetched only once per table
+    Schema tableSchema = bigQueryTableMetadataCache.getTableSchema(tableId);
+    if (tableSchema == null) {
       log.error(
           "Error Message:{},Error Code:{}, table name:{}",
           TABLE_NOT_EXISTS.getMessage(),
@@ -72,15 +169,30 @@ public class BigQueryOperationsService {
       throw new SnowflakeConnectorException(
           TABLE_NOT_EXISTS.getMessage(), TABLE_NOT_EXISTS.getErrorCode());
     }
-    // fetching the schema of the table
-    Schema tableSchema =
-        bigQueryInstanceCreator.getBigQueryClient().getTable(tableId).getDefinition().getSchema();
-
     String sourceURI =
         String.format(
             "gs://%s/%s/*",
             bigqueryDetailsDto.getSnowflakeDataUnloadGCSPath(), bigqueryDetailsDto.getTableName());
 
+    if (bigqueryDetailsDto.getStagedFileCount() >= 0) {
+      log.info(
+          "Loading {} files of total {} bytes from {} into table:{}",
+          bigqueryDetailsDto.getStagedFileCount(),
+          bigqueryDetailsDto.getStagedBytes(),
+          sourceURI,
+          bigqueryDetailsDto.getTableName());
+    }
+
+    // Tables with more files or bytes than a load job should take are loaded in shards
+    List<List<String>> shards = planShards(bigqueryDetailsDto);
+    boolean sharded = shards.size() > 1;
+    if (sharded && !stagingSwapEnabled) {
+      log.info(
+          "Loading table:{} in {} shards through a staging table",
+          bigqueryDetailsDto.getTableName(),
+          shards.size());
+    }
+    TableId stagingTableId = stagingSwapEnabled || sharded ? createStagingTable(tableId) : null;
     // Getting the appropriate loadjobconfiguration object based on the csv format received in the
     // request.
     // It could be CSV, Parquet etc.
@@ -88,38 +200,63 @@ public class BigQueryOperationsService {
         loadJobFactory
             .createService(
                 LoadOption.valueOf(bigqueryDetailsDto.getBqLoadFileFormat()), tableSchema)
-            .createLoadJob(tableId, sourceURI);
+            .createLoadJob(stagingTableId == null ? tableId : stagingTableId, sourceURI);
+    String runId = getRunId(bigqueryDetailsDto);
+    LoadJobConfiguration.Builder loadConfigBuilder =
+        loadConfig.toBuilder().setLabels(jobLabels(runId, tableId.getTable(), "load"));
+    if (stagingTableId != null) {
+      loadConfigBuilder.setWriteDisposition(JobInfo.WriteDisposition.WRITE_TRUNCATE);
+    }
+    loadConfig = loadConfigBuilder.build();
 
+    String location =
+        StringUtils.isBlank(bigqueryDetailsDto.getLocation())
+            ? "us"
+            : bigqueryDetailsDto.getLocation();
+    CompletableFuture<Boolean> loadFuture;
+    try {
+      loadFuture =
+          sharded
+              ? loadShards(loadConfig, shards, location, bigqueryDetailsDto)
+              : submitLoadJob(loadConfig, location, bigqueryDetailsDto);
+    } catch (SnowflakeConnectorException e) {
+      if (stagingTableId != null) {
+        dropStagingTableAsync(stagingTableId);
+      }
+      throw e;
+    }
+    if (stagingTableId == null) {
+      return loadFuture;
+    }
+    return loadFuture
+        .thenComposeAsync(
+            loaded ->
+                loaded
+                    ? swapStagingTable(
+                        stagingTableId,
+                        tableId,
+                        location,
+                        runId,
+                        stagingSwapEnabled
+                            ? JobInfo.WriteDisposition.WRITE_TRUNCATE
+                            : JobInfo.WriteDisposition.WRITE_APPEND)
+                    : CompletableFuture.completedFuture(false),
+            customExecutor)
+        .whenComplete((swapped, throwable) -> dropStagingTableAsync(stagingTableId));
+  }
+
+  /* Submits the load job and gives the future which completes with its outcome. */
+  private CompletableFuture<Boolean> submitLoadJob(
+      LoadJobConfiguration loadConfig, String location, BigQueryDetailsDataDTO bigqueryDetailsDto) {
     JobId jobId =
         JobId.newBuilder()
             .setJob("Snowflake_" + UUID.randomUUID())
-            .setLocation(
-                StringUtils.isBlank(bigqueryDetailsDto.getLocation())
-                    ? "us"
-                    : bigqueryDetailsDto.getLocation())
+            .setLocation(location)
             .build();
-
     try {
-      Job loadJob =
-          bigQueryInstanceCreator
-              .getBigQueryClient()
-              .create(JobInfo.newBuilder(loadConfig).setJobId(jobId).build());
-      // Waiting for job to finish, no options has been give so it will wait max 12 hour with
-      // unlimited retry attempts, we can add the max timeout and initial delay later based on the
-      // real world use case
-      loadJob = loadJob.waitFor();
-
-      if (loadJob == null) {
-        log.error(
-            "Error executing BigQuery load job for JobId::{} and application's row:{}, return load job object is null",
-            jobId.getJob(),
-            bigqueryDetailsDto.getUniqueIdentifier());
-      } else if (loadJob.getStatus().getError() == null) {
-        returnValue = true;
-        log.info("Data loaded successfully.");
-      } else {
-        log.error("Error executing BigQuery load job: {}", loadJob.getStatus().getError());
-      }
+      bigQueryInstanceCreator
+          .getBigQueryClient()
+          .create(JobInfo.newBuilder(loadConfig).setJobId(jobId).build());
     } catch (Exception e) {
       log.error(
           "Error executing BigQuery load job for JobId::{} and application's row:{}, Error Message:{}\nStack Trace:",
@@ -127,22 +264,502 @@ public class BigQueryOperationsService {
           bigqueryDetailsDto.getUniqueIdentifier(),
           e.getMessage(),
           e);
+      if (isNotFound(e)) {
+        bigQueryTableMetadataCache.tableNotFound(loadConfig.getDestinationTable());
+      }
+      throw new SnowflakeConnectorException(
+          BQ_QUERY_JOB_EXECUTION_ERROR.getMessage(), BQ_QUERY_JOB_EXECUTION_ERROR.getErrorCode());
+    }
+    return trackLoadJob(jobId, loadConfig.getDestinationTable(), bigqueryDetailsDto);
+  }
+
+  /*
+   * Splits the staged files in shards of up to the max files and bytes of a shard. Gives an empty
+   * list if sharding is disabled, files are not known or all of them fit in a single load job.
+   */
+  private List<List<String>> planShards(BigQueryDetailsDataDTO bigqueryDetailsDto) {
+    StagingInventoryDataDTO stagingInventory = bigqueryDetailsDto.getStagingInventory();
+    if (!loadShardingEnabled
+        || stagingInventory == null
+        || (stagingInventory.getFileCount() <= shardMaxFiles
+            && stagingInventory.getTotalBytes() <= shardMaxBytes)) {
+      return Collections.emptyList();
+    }
+    List<List<String>> shards = new ArrayList<>();
+    List<String> shard = new ArrayList<>();
+    long shardBytes = 0;
+    for (int i = 0; i < stagingInventory.getFileNames().size(); i++) {
+      long fileSize =
+          i < stagingInventory.getFileSizes().size() ? stagingInventory.getFileSizes().get(i) : 0;
+      if (!shard.isEmpty()
+          && (shard.size() >= shardMaxFiles || shardBytes + fileSize > shardMaxBytes)) {
+        shards.add(shard);
+        shard = new ArrayList<>();
+        shardBytes = 0;
+      }
+      shard.add(
+          String.format(
+              "gs://%s/%s",
+              stagingInventory.getBucketName(), stagingInventory.getFileNames().get(i)));
+      shardBytes += fileSize;
+    }
+    if (!shard.isEmpty()) {
+      shards.add(shard);
+    }
+    return shards;
+  }
+
+  /*
+   * Submits a load job per shard, all appending in the same table. Future completes with true only
+   * if all the shards got loaded. If a shard can not be submitted, future fails only once the
+   * shards already submitted are finished, so that the staging table is not dropped under them.
+   */
+  private CompletableFuture<Boolean> loadShards(
+      LoadJobConfiguration loadConfig,
+      List<List<String>> shards,
+      String location,
+      BigQueryDetailsDataDTO bigqueryDetailsDto) {
+    log.info(
+        "Loading table:{} in {} shards", bigqueryDetailsDto.getTableName(), shards.size());
+    List<CompletableFuture<Boolean>> shardFutures = new ArrayList<>();
+    for (int i = 0; i < shards.size(); i++) {
+      // Shards of a staging load append too, the staging table is empty at start
+      LoadJobConfiguration shardConfig =
+          loadConfig.toBuilder()
+              .setSourceUris(shards.get(i))
+              .setWriteDisposition(JobInfo.WriteDisposition.WRITE_APPEND)
+              .build();
+      try {
+        shardFutures.add(loadShard(shardConfig, i, 1, location, bigqueryDetailsDto));
+      } catch (SnowflakeConnectorException e) {
+        log.error(
+            "Load of table:{} failed at shard:{}, waiting for the {} submitted shards",
+            bigqueryDetailsDto.getTableName(),
+            i,
+            shardFutures.size());
+        return CompletableFuture.allOf(shardFutures.toArray(new CompletableFuture[0]))
+            .handle(
+                (unused, throwable) -> {
+                  throw e;
+                });
+      }
+    }
+    return CompletableFuture.allOf(shardFutures.toArray(new CompletableFuture[0]))
+        .thenApply(unused -> shardFutures.stream().allMatch(CompletableFuture::join));
+  }
+
+  /*
+   * Loads a single shard. A load job which fails does not write any row, so only the failed shard
+   * is submitted again(up to max attempts). Jobs whose outcome is not known are not retried. Retry
+   * is submitted on the "customExecutor" pool, the tracker thread only polls the jobs.
+   */
+  private CompletableFuture<Boolean> loadShard(
+      LoadJobConfiguration shardConfig,
+      int shardIndex,
+      int attempt,
+      String location,
+      BigQueryDetailsDataDTO bigqueryDetailsDto) {
+    JobId jobId =
+        JobId.newBuilder()
+            .setJob("Snowflake_" + UUID.randomUUID())
+            .setLocation(location)
+            .build();
+    try {
+      bigQueryInstanceCreator
+          .getBigQueryClient()
+          .create(JobInfo.newBuilder(shardConfig).setJobId(jobId).build());
+    } catch (Exception e) {
+      log.error(
+          "Error submitting load job of shard:{} for table:{}, Error Message:{}",
+          shardIndex,
+          bigqueryDetailsDto.getTableName(),
+          e.getMessage());
       throw new SnowflakeConnectorException(
           BQ_QUERY_JOB_EXECUTION_ERROR.getMessage(), BQ_QUERY_JOB_EXECUTION_ERROR.getErrorCode());
     }
-    return returnValue;
+    return bigQueryJobTracker
+        .track(jobId)
+        .thenComposeAsync(
+            loadJob -> {
+              if (loadJob != null) {
+                recordLoadStatistics(jobId, loadJob, bigqueryDetailsDto);
+              }
+              if (loadJob != null && loadJob.getStatus().getError() == null) {
+                log.info(
+                    "Shard:{} of table:{} loaded by job:{}",
+                    shardIndex,
+                    bigqueryDetailsDto.getTableName(),
+                    jobId.getJob());
+                return CompletableFuture.completedFuture(true);
+              }
+              if (loadJob != null && attempt < shardMaxAttempts) {
+                log.warn(
+                    "Shard:{} of table:{} failed in attempt:{}, Error:{}, retrying",
+                    shardIndex,
+                    bigqueryDetailsDto.getTableName(),
+                    attempt,
+                    loadJob.getStatus().getError());
+                return loadShard(
+                    shardConfig, shardIndex, attempt + 1, location, bigqueryDetailsDto);
+              }
+              log.error(
+                  "Shard:{} of table:{} could not be loaded, Error:{}",
+                  shardIndex,
+                  bigqueryDetailsDto.getTableName(),
+                  loadJob == null ? "job does not exist" : loadJob.getStatus().getError());
+              return CompletableFuture.completedFuture(false);
+            },
+            customExecutor);
+  }
+
+  /*
+   * Gives the future which completes with the outcome of the submitted load job. Cached metadata of
+   * the destination table is invalidated if the job did not find it.
+   */
+  private CompletableFuture<Boolean> trackLoadJob(
+      JobId jobId, TableId destinationTableId, BigQueryDetailsDataDTO bigqueryDetailsDto) {
+    return bigQueryJobTracker
+        .track(jobId)
+        .handle(
+            (loadJob, throwable) -> {
+              if (throwable != null) {
+                log.error(
+                    "Error executing BigQuery load job for JobId::{} and application's row:{}, Error Message:{}",
+                    jobId.getJob(),
+                    bigqueryDetailsDto.getUniqueIdentifier(),
+                    throwable.getMessage());
+                throw new SnowflakeConnectorException(
+                    BQ_QUERY_JOB_EXECUTION_ERROR.getMessage(),
+                    BQ_QUERY_JOB_EXECUTION_ERROR.getErrorCode());
+              }
+              if (loadJob == null) {
+                log.error(
+                    "Error executing BigQuery load job for JobId::{} and application's row:{}, return load job object is null",
+                    jobId.getJob(),
+                    bigqueryDetailsDto.getUniqueIdentifier());
+                return false;
+              }
+              recordLoadStatistics(jobId, loadJob, bigqueryDetailsDto);
+              if (loadJob.getStatus().getError() != null) {
+                log.error("Error executing BigQuery load job: {}", loadJob.getStatus().getError());
+                if (isNotFound(loadJob.getStatus().getError())) {
+                  bigQueryTableMetadataCache.tableNotFound(destinationTableId);
+                }
+                return false;
+              }
+              log.info("Data loaded successfully.");
+              return true;
+            });
+  }
+
+  /* Adds the statistics of the finished load job to the load statistics of the table. */
+  private void recordLoadStatistics(
+      JobId jobId, Job loadJob, BigQueryDetailsDataDTO bigqueryDetailsDto) {
+    LoadJobStatisticsDataDTO loadJobStatistics = bigqueryDetailsDto.getLoadJobStatistics();
+    JobStatistics.LoadStatistics statistics = loadJob.getStatistics();
+    // Jobs of the shards of a table can finish together
+    synchronized (loadJobStatistics) {
+      loadJobStatistics.getJobIds().add(jobId.getJob());
+      if (statistics == null) {
+        return;
+      }
+      loadJobStatistics.setInputFiles(
+          loadJobStatistics.getInputFiles() + valueOrZero(statistics.getInputFiles()));
+      loadJobStatistics.setInputBytes(
+          loadJobStatistics.getInputBytes() + valueOrZero(statistics.getInputBytes()));
+      loadJobStatistics.setOutputRows(
+          loadJobStatistics.getOutputRows() + valueOrZero(statistics.getOutputRows()));
+      loadJobStatistics.setBadRecords(
+          loadJobStatistics.getBadRecords() + valueOrZero(statistics.getBadRecords()));
+      loadJobStatistics.setSlotMs(
+          loadJobStatistics.getSlotMs() + valueOrZero(statistics.getTotalSlotMs()));
+      if (statistics.getStartTime() != null
+          && (loadJobStatistics.getStartTime() == null
+              || statistics.getStartTime() < loadJobStatistics.getStartTime())) {
+        loadJobStatistics.setStartTime(statistics.getStartTime());
+      }
+      if (statistics.getEndTime() != null
+          && (loadJobStatistics.getEndTime() == null
+              || statistics.getEndTime() > loadJobStatistics.getEndTime())) {
+        loadJobStatistics.setEndTime(statistics.getEndTime());
+      }
+    }
+  }
+
+  private static long valueOrZero(Long value) {
+    return value == null ? 0 : value;
+  }
+
+  /*
+   * Labels put on every job submitted by this class, so the jobs of a run, table or stage can be
+   * found in the job history and in the billing export. Values are lower cased and the characters
+   * not allowed in a label value are replaced with underscore.
+   */
+  static Map<String, String> jobLabels(String runId, String tableName, String stage) {
+    Map<String, String> labels = new HashMap<>();
+    labels.put("stage", toLabelValue(stage));
+    if (StringUtils.isNotBlank(runId)) {
+      labels.put("run_id", toLabelValue(runId));
+    }
+    if (StringUtils.isNotBlank(tableName)) {
+      labels.put("table", toLabelValue(tableName));
+    }
+    return labels;
+  }
+
+  private static String toLabelValue(String value) {
+    String labelValue = value.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_-]", "_");
+    return labelValue.length() > 63 ? labelValue.substring(0, 63) : labelValue;
+  }
+
+  /*
+   * Run id of the table, falls back to the request log id of the current thread which is in the
+   * form of <requestLogId>:<uuid>:<table> on the migration threads.
+   */
+  private static String getRunId(BigQueryDetailsDataDTO bigqueryDetailsDto) {
+    if (bigqueryDetailsDto != null && StringUtils.isNotBlank(bigqueryDetailsDto.getRunId())) {
+      return bigqueryDetailsDto.getRunId();
+    }
+    String requestLogId = MDC.get("requestLogId");
+    return requestLogId == null ? null : requestLogId.split(":")[0];
+  }
+
+  /*
+   * Creates an empty staging table for the load, with the schema, partitioning and clustering of
+   * the table so that the copy job can replace the table data with it. Definition of the table is
+   * taken from the metadata cache, it is already fetched for the schema of the load.
+   */
+  private TableId createStagingTable(TableId tableId) {
+    TableId stagingTableId =
+        TableId.of(
+            tableId.getProject(),
+            tableId.getDataset(),
+            String.format(
+                "%s_staging_%s",
+                tableId.getTable(),
+                UUID.randomUUID().toString().replace("-", "").substring(0, 12)));
+    try {
+      BigQuery bigQuery = bigQueryInstanceCreator.getBigQueryClient();
+      TableDefinition tableDefinition = bigQueryTableMetadataCache.getTableDefinition(tableId);
+      if (tableDefinition == null) {
+        throw new SnowflakeConnectorException(
+            TABLE_NOT_EXISTS.getMessage(), TABLE_NOT_EXISTS.getErrorCode());
+      }
+      StandardTableDefinition.Builder stagingDefinition =
+          StandardTableDefinition.newBuilder().setSchema(tableDefinition.getSchema());
+      if (tableDefinition instanceof StandardTableDefinition) {
+        StandardTableDefinition standardTableDefinition =
+            (StandardTableDefinition) tableDefinition;
+        stagingDefinition
+            .setTimePartitioning(standardTableDefinition.getTimePartitioning())
+            .setRangePartitioning(standardTableDefinition.getRangePartitioning())
+            .setClustering(standardTableDefinition.getClustering());
+      }
+      bigQuery.create(
+          TableInfo.newBuilder(stagingTableId, stagingDefinition.build())
+              .setExpirationTime(
+                  System.currentTimeMillis()
+                      + TimeUnit.HOURS.toMillis(stagingTableExpirationHours))
+              .build());
+    } catch (Exception e) {
+      log.error(
+          "Error while creating staging table:{}, Error Message:{}\nStack Trace:",
+          stagingTableId.getTable(),
+          e.getMessage(),
+          e);
+      // Definition came from the cache, the table(or its dataset) may have been dropped meanwhile
+      if (isNotFound(e)) {
+        bigQueryTableMetadataCache.tableNotFound(tableId);
+      }
+      throw new SnowflakeConnectorException(
+          STAGING_TABLE_ERROR.getMessage(), STAGING_TABLE_ERROR.getErrorCode());
+    }
+    log.info(
+        "Created staging table:{} for table:{}", stagingTableId.getTable(), tableId.getTable());
+    return stagingTableId;
+  }
+
+  /*
+   * Copies the staging table data in the table, WRITE_TRUNCATE replaces the table data and
+   * WRITE_APPEND adds to it.
+   */
+  private CompletableFuture<Boolean> swapStagingTable(
+      TableId stagingTableId,
+      TableId tableId,
+      String location,
+      String runId,
+      JobInfo.WriteDisposition writeDisposition) {
+    CopyJobConfiguration copyConfig =
+        CopyJobConfiguration.newBuilder(tableId, stagingTableId)
+            .setCreateDisposition(JobInfo.CreateDisposition.CREATE_NEVER)
+            .setWriteDisposition(writeDisposition)
+            .setLabels(jobLabels(runId, tableId.getTable(), "staging_swap"))
+            .build();
+    JobId jobId =
+        JobId.newBuilder()
+            .setJob("Snowflake_" + UUID.randomUUID())
+            .setLocation(location)
+            .build();
+    try {
+      bigQueryInstanceCreator
+          .getBigQueryClient()
+          .create(JobInfo.newBuilder(copyConfig).setJobId(jobId).build());
+    } catch (Exception e) {
+      log.error(
+          "Error while submitting copy job from staging table:{} to table:{}, Error Message:{}",
+          stagingTableId.getTable(),
+          tableId.getTable(),
+          e.getMessage());
+      if (isNotFound(e)) {
+        bigQueryTableMetadataCache.tableNotFound(tableId);
+      }
+      throw new SnowflakeConnectorException(
+          STAGING_TABLE_ERROR.getMessage(), STAGING_TABLE_ERROR.getErrorCode());
+    }
+    return bigQueryJobTracker
+        .track(jobId)
+        .handle(
+            (copyJob, throwable) -> {
+              if (throwable != null) {
+                log.error(
+                    "Error executing copy job:{} from staging table:{}, Error Message:{}",
+                    jobId.getJob(),
+                    stagingTableId.getTable(),
+                    throwable.getMessage());
+                throw new SnowflakeConnectorException(
+                    STAGING_TABLE_ERROR.getMessage(), STAGING_TABLE_ERROR.getErrorCode());
+              }
+              if (copyJob == null || copyJob.getStatus().getError() != null) {
+                log.error(
+                    "Copy job:{} from staging table:{} failed, Error:{}",
+                    jobId.getJob(),
+                    stagingTableId.getTable(),
+                    copyJob == null ? "job does not exist" : copyJob.getStatus().getError());
+                if (copyJob != null && isNotFound(copyJob.getStatus().getError())) {
+                  bigQueryTableMetadataCache.tableNotFound(tableId);
+                }
+                return false;
+              }
+              log.info(
+                  "Table:{} data copied from staging table:{}, write disposition:{}",
+                  tableId.getTable(),
+                  stagingTableId.getTable(),
+                  writeDisposition);
+              return true;
+            });
+  }
+
+  /* True if BigQuery reported the table(or its dataset) as not found. */
+  private static boolean isNotFound(Exception e) {
+    return e instanceof BigQueryException
+        && (((BigQueryException) e).getCode() == 404
+            || isNotFound(((BigQueryException) e).getError()));
+  }
+
+  private static boolean isNotFound(BigQueryError error) {
+    return error != null && "notFound".equals(error.getReason());
+  }
+
+  /* Drops the staging table on the cleanup thread pool, failure is only logged. */
+  private void dropStagingTableAsync(TableId stagingTableId) {
+    CompletableFuture.runAsync(
+        () -> {
+          try {
+            boolean deleted = bigQueryInstanceCreator.getBigQueryClient().delete(stagingTableId);
+            log.info("Staging table:{} dropped:{}", stagingTableId.getTable(), deleted);
+          } catch (Exception e) {
+            log.warn(
+                "Could not drop staging table:{}, it expires in {} hours. Error Message:{}",
+                stagingTableId.getTable(),
+                stagingTableExpirationHours,
+                e.getMessage());
+          }
+        },
+        stagingCleanupExecutor);
   }
 
   /**
-   * Method to create table in bigquery
+   * Method to create table in bigquery, cached metadata of the table gets invalidated once it is
+   * created. If the creation fails, state of the dataset is not known(e.g. dataset not found), its
+   * cached metadata is invalidated.
+   *
+   * @param ddl ddl to create the table.
+   * @param location location of the dataset.
+   * @param bigqueryDetailsDto dto containing the details of the table created by the ddl.
+   * @return boolean status
+   */
+  public boolean createTableUsingDDL(
+      String ddl, String location, BigQueryDetailsDataDTO bigqueryDetailsDto) {
+    boolean tableCreated;
+    try {
+      tableCreated =
+          executeDDL(
+              ddl,
+              location,
+              jobLabels(
+                  getRunId(bigqueryDetailsDto),
+                  bigqueryDetailsDto.getTableName(),
+                  "create_table"));
+    } catch (SnowflakeConnectorException e) {
+      bigQueryTableMetadataCache.invalidateDataset(
+          bigqueryDetailsDto.getProjectId(), bigqueryDetailsDto.getDatasetId());
+      throw e;
+    }
+    bigQueryTableMetadataCache.tableCreated(
+        TableId.of(
+            bigqueryDetailsDto.getProjectId(),
+            bigqueryDetailsDto.getDatasetId(),
+            bigqueryDetailsDto.getTableName()));
+    return tableCreated;
+  }
+
+  /**
+   * Method to create table in bigquery. Table created is taken from the ddl and only its cached
+   * metadata(or of its dataset, if the creation fails) is invalidated, whole cache is cleared only
+   * if the ddl does not name the table with its project and dataset. Use {@link
+   * #createTableUsingDDL(String, String, BigQueryDetailsDataDTO)} when table is known.
    *
    * @param ddl ddl to create the table.
    * @return boolean status
    */
   public boolean createTableUsingDDL(String ddl, String location) {
+    TableId tableId = getCreatedTableId(ddl);
+    boolean tableCreated;
+    try {
+      tableCreated = executeDDL(ddl, location, jobLabels(getRunId(null), null, "create_table"));
+    } catch (SnowflakeConnectorException e) {
+      if (tableId == null) {
+        bigQueryTableMetadataCache.clear();
+      } else {
+        bigQueryTableMetadataCache.invalidateDataset(tableId.getProject(), tableId.getDataset());
+      }
+      throw e;
+    }
+    if (tableId == null) {
+      bigQueryTableMetadataCache.clear();
+    } else {
+      bigQueryTableMetadataCache.tableCreated(tableId);
+    }
+    return tableCreated;
+  }
+
+  /*
+   * Table created by a CREATE TABLE ddl, null if the ddl does not name it as project.dataset.table.
+   */
+  static TableId getCreatedTableId(String ddl) {
+    Matcher matcher = StringUtils.isBlank(ddl) ? null : CREATE_TABLE_NAME.matcher(ddl);
+    if (matcher == null || !matcher.find()) {
+      return null;
+    }
+    String[] nameParts = matcher.group(1).replace("`", "").split("\\.");
+    return nameParts.length == 3 ? TableId.of(nameParts[0], nameParts[1], nameParts[2]) : null;
+  }
+
+  /* Executes the ddl, throws SnowflakeConnectorException if table could not be created. */
+  private boolean executeDDL(String ddl, String location, Map<String, String> labels) {
     log.info("Received ddl for creating table:{}", ddl);
     // Create table using DDL query
-    if (!StringUtils.isBlank(ddl) && queryJob(ddl, location)) {
+    if (!StringUtils.isBlank(ddl) && queryJob(ddl, location, labels)) {
       log.info("Table successfully got created from ddl");
     } else {
       log.error("Failed to create table from the ddl");
@@ -153,7 +770,116 @@ public class BigQueryOperationsService {
   }
 
   /**
-   * Method to check if the table exists in BigQuery or not.
+   * Method to execute a multi-statement script in BigQuery. Script stops at the first statement
+   * which fails, outcome of each statement is available in the child jobs of the script.
+   *
+   * @param script statements separated by semicolon.
+   * @param location location of the datasets used by the script.
+   * @return child jobs of the script(one per executed statement), empty list if the script job does
+   *     not exist anymore.
+   */
+  public List<Job> executeScript(String script, String location) {
+    QueryJobConfiguration queryJobConfiguration =
+        QueryJobConfiguration.newBuilder(script)
+            .setUseLegacySql(false)
+            .setLabels(jobLabels(getRunId(null), null, "create_tables_batch"))
+            .build();
+    JobId jobId =
+        JobId.newBuilder()
+            .setJob("Snowflake_" + UUID.randomUUID())
+            .setLocation(StringUtils.isBlank(location) ? "us" : location)
+            .build();
+    try {
+      BigQuery bigQuery = bigQueryInstanceCreator.getBigQueryClient();
+      bigQuery.create(JobInfo.newBuilder(queryJobConfiguration).setJobId(jobId).build());
+
+      Job scriptJob = bigQueryJobTracker.track(jobId).join();
+      if (scriptJob == null) {
+        log.error("Script job:{} does not exist anymore", jobId.getJob());
+        return Collections.emptyList();
+      }
+      if (scriptJob.getStatus().getError() != null) {
+        log.warn(
+            "Script job:{} finished with error:{}",
+            jobId.getJob(),
+            scriptJob.getStatus().getError());
+      }
+      List<Job> childJobs = new ArrayList<>();
+      bigQuery
+          .listJobs(BigQuery.JobListOption.parentJobId(jobId.getJob()))
+          .iterateAll()
+          .forEach(childJobs::add);
+      log.info("Script job:{} executed {} statements", jobId.getJob(), childJobs.size());
+      return childJobs;
+    } catch (Exception e) {
+      log.error(
+          "Error while executing script job:{}, Error Message:{}\nStack Trace: ",
+          jobId.getJob(),
+          e.getMessage(),
+          e);
+      throw new SnowflakeConnectorException(
+          BQ_QUERY_JOB_EXECUTION_ERROR.getMessage(), BQ_QUERY_JOB_EXECUTION_ERROR.getErrorCode());
+    }
+  }
+
+  /**
+   * Method to execute a query whose result has two columns and get the rows as a map of the first
+   * column value to the second column value, both read as string.
+   *
+   * @param sql query to execute.
+   * @param parameters values bound to the ? placeholders of the query, in order.
+   * @param location location of the dataset.
+   * @param tableName table queried, used in the job labels.
+   * @return map of first column to second column of the result rows.
+   */
+  public Map<String, String> queryKeyValues(
+      String sql, List<String> parameters, String location, String tableName) {
+    QueryJobConfiguration.Builder queryJobConfigurationBuilder =
+        QueryJobConfiguration.newBuilder(sql)
+            .setUseLegacySql(false)
+            .setLabels(jobLabels(getRunId(null), tableName, "checksum_validation"));
+    for (String parameter : parameters) {
+      queryJobConfigurationBuilder.addPositionalParameter(QueryParameterValue.string(parameter));
+    }
+    QueryJobConfiguration queryJobConfiguration = queryJobConfigurationBuilder.build();
+    JobId jobId =
+        JobId.newBuilder()
+            .setJob("Snowflake_" + UUID.randomUUID())
+            .setLocation(StringUtils.isBlank(location) ? "us" : location)
+            .build();
+    try {
+      bigQueryInstanceCreator
+          .getBigQueryClient()
+          .create(JobInfo.newBuilder(queryJobConfiguration).setJobId(jobId).build());
+      Job queryJob = bigQueryJobTracker.track(jobId).join();
+      if (queryJob == null || queryJob.getStatus().getError() != null) {
+        throw new IllegalStateException(
+            queryJob == null
+                ? "Query job does not exist anymore"
+                : queryJob.getStatus().getError().toString());
+      }
+      Map<String, String> keyValues = new HashMap<>();
+      for (FieldValueList row : queryJob.getQueryResults().iterateAll()) {
+        keyValues.put(
+            row.get(0).isNull() ? null : row.get(0).getStringValue(),
+            row.get(1).isNull() ? null : row.get(1).getStringValue());
+      }
+      return keyValues;
+    } catch (Exception e) {
+      log.error(
+          "Error while executing query job:{}. Error Message:{},\n Sql Query:{}",
+          jobId.getJob(),
+          e.getMessage(),
+          sql);
+      throw new SnowflakeConnectorException(
+          BQ_QUERY_JOB_EXECUTION_ERROR.getMessage(), BQ_QUERY_JOB_EXECUTION_ERROR.getErrorCode());
+    }
+  }
+
+  /**
+   * Method to check if the table exists in BigQuery or not. Answered from the cached listing of the
+   * dataset of the table, which is shared by the migration runs and listed again once it is older
+   * than bigquery.table.metadata.cache.expiry.ms.
    *
    * @param bigqueryDetailsDto dto containing the required details like tablename, dataset,
    *     projectId
@@ -165,23 +891,23 @@ public class BigQueryOperationsService {
             bigqueryDetailsDto.getProjectId(),
             bigqueryDetailsDto.getDatasetId(),
             bigqueryDetailsDto.getTableName());
-    // Check if the table exists
-    Table existingTable = bigQueryInstanceCreator.getBigQueryClient().getTable(tableIdObj);
-    return existingTable != null;
+    // Check if the table exists, answered from the listing of the dataset
+    return bigQueryTableMetadataCache.isTableExists(tableIdObj);
   }
 
   /**
    * Helper method to execute the query in BigQuery
    *
    * @param sql Sql statement as string
-   * @return true if this job is in JobStatus.State.DONE state or if it does not exist, false if the
-   *     state is not JobStatus.State.DONE
+   * @param labels labels of the query job
+   * @return true if this job reached JobStatus.State.DONE without error, false if it finished with
+   *     error or does not exist anymore
    */
-  private boolean queryJob(String sql, String location) {
+  private boolean queryJob(String sql, String location, Map<String, String> labels) {
     boolean jobStatus = false;
 
     QueryJobConfiguration queryJobConfiguration =
-        QueryJobConfiguration.newBuilder(sql).setUseLegacySql(false).build();
+        QueryJobConfiguration.newBuilder(sql).setUseLegacySql(false).setLabels(labels).build();
     // creating the jobId
     JobId jobId =
         JobId.newBuilder()
@@ -190,18 +916,19 @@ public class BigQueryOperationsService {
             .build();
     // Executing the query job
     try {
-      Job queryJob =
-          bigQueryInstanceCreator
-              .getBigQueryClient()
-              .create(JobInfo.newBuilder(queryJobConfiguration).setJobId(jobId).build());
+      bigQueryInstanceCreator
+          .getBigQueryClient()
+          .create(JobInfo.newBuilder(queryJobConfiguration).setJobId(jobId).build());
 
-      // waiting for job to finish
-      queryJob = queryJob.waitFor();
+      // waiting for job to finish, tracker completes the future only when the job is done
+      Job queryJob = bigQueryJobTracker.track(jobId).join();
 
       // checking if the job has any error
-      if (queryJob.getStatus().getError() == null) {
+      if (queryJob == null) {
+        log.error("Query job does not exist anymore, Sql Query:{}", sql);
+      } else if (queryJob.getStatus().getError() == null) {
         log.info("Query job executed successful for sql query:{}", sql);
-        jobStatus = queryJob.isDone();
+        jobStatus = true;
       } else {
         log.error(
             "Error query job contains error while executing. Error Message:{},\n Sql Query:{} ",
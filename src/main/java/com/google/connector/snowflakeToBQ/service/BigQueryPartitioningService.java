@@ -0,0 +1,269 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import com.google.connector.snowflakeToBQ.config.SnowflakeConfigLoader;
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import com.google.connector.snowflakeToBQ.model.datadto.TablePartitioningDataDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Class to carry the Snowflake clustering of a table into the BigQuery table. Snowflake CLUSTER BY
+ * keys are taken from the extracted DDL and are lost in the translation, hence the translated DDL
+ * is rewritten before the table gets created.
+ *
+ * <p>First clustering key on a DATE, DATETIME or TIMESTAMP column becomes the daily partition of
+ * the table and the other key columns(up to four) become its cluster columns. Partitioning and
+ * clustering of a table can be given in the table partitioning mapping file, which takes preference
+ * over the Snowflake keys.
+ */
+@Service
+@Setter
+public class BigQueryPartitioningService {
+  private static final Logger log = LoggerFactory.getLogger(BigQueryPartitioningService.class);
+  private static final int MAX_CLUSTER_COLUMNS = 4;
+  private static final Pattern SNOWFLAKE_CLUSTER_BY =
+      Pattern.compile("\\bcluster\\s+by\\s*(?:linear\\s*)?\\(", Pattern.CASE_INSENSITIVE);
+  private static final Pattern BIGQUERY_PARTITION_OR_CLUSTER_BY =
+      Pattern.compile("\\b(?:partition|cluster)\\s+by\\b", Pattern.CASE_INSENSITIVE);
+  private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*");
+  private static final Set<String> PARTITION_TYPES =
+      new HashSet<>(Arrays.asList("DATE", "DATETIME", "TIMESTAMP"));
+  private static final Set<String> CLUSTER_TYPES =
+      new HashSet<>(
+          Arrays.asList(
+              "STRING", "INT64", "NUMERIC", "BIGNUMERIC", "BOOL", "DATE", "DATETIME", "TIMESTAMP",
+              "GEOGRAPHY"));
+
+  final SnowflakeConfigLoader snowflakeConfigLoader;
+
+  @Value("${bigquery.partitioning.from.clustering.enabled}")
+  private boolean partitioningFromClusteringEnabled;
+
+  public BigQueryPartitioningService(SnowflakeConfigLoader snowflakeConfigLoader) {
+    this.snowflakeConfigLoader = snowflakeConfigLoader;
+  }
+
+  /**
+   * Gives the keys of the CLUSTER BY clause of the Snowflake DDL.
+   *
+   * @param snowflakeDDL DDL extracted from Snowflake using GET_DDL.
+   * @return clustering keys as written in the DDL(e.g. "REGION, TO_DATE(ORDER_TS)"), null if the
+   *     table is not clustered.
+   */
+  public static String extractClusteringKeys(String snowflakeDDL) {
+    if (StringUtils.isBlank(snowflakeDDL)) {
+      return null;
+    }
+    Matcher matcher = SNOWFLAKE_CLUSTER_BY.matcher(snowflakeDDL);
+    if (!matcher.find()) {
+      return null;
+    }
+    int start = matcher.end() - 1;
+    int end = findClosingParenthesis(snowflakeDDL, start);
+    if (end < 0) {
+      return null;
+    }
+    return StringUtils.trimToNull(snowflakeDDL.substring(start + 1, end));
+  }
+
+  /**
+   * Adds PARTITION BY and CLUSTER BY to the translated DDL as per the mapping file or the Snowflake
+   * clustering keys of the table. DDL is returned unchanged if it already partitions or clusters
+   * the table, or if its columns could not be read.
+   *
+   * @param ddl BigQuery DDL of the table.
+   * @param applicationConfigData Data related to the table.
+   * @return DDL to create the table.
+   */
+  public String applyPartitioningAndClustering(
+      String ddl, ApplicationConfigData applicationConfigData) {
+    if (!partitioningFromClusteringEnabled
+        || StringUtils.isBlank(ddl)
+        || BIGQUERY_PARTITION_OR_CLUSTER_BY.matcher(ddl).find()) {
+      return ddl;
+    }
+    int columnsStart = ddl.indexOf('(');
+    int columnsEnd = columnsStart < 0 ? -1 : findClosingParenthesis(ddl, columnsStart);
+    if (columnsEnd < 0) {
+      return ddl;
+    }
+    Map<String, String[]> columns = getColumns(ddl.substring(columnsStart + 1, columnsEnd));
+
+    TablePartitioningDataDTO tablePartitioning =
+        snowflakeConfigLoader.getTablePartitioning(applicationConfigData.getSourceTableName());
+    List<String[]> keyColumns =
+        getKeyColumns(applicationConfigData.getSnowflakeClusteringKeys(), columns);
+
+    String partitionBy;
+    if (tablePartitioning != null && tablePartitioning.getPartitionBy() != null) {
+      partitionBy = StringUtils.trimToNull(tablePartitioning.getPartitionBy());
+    } else {
+      partitionBy = derivePartitionBy(keyColumns);
+    }
+    List<String> clusterBy;
+    if (tablePartitioning != null && tablePartitioning.getClusterBy() != null) {
+      clusterBy = tablePartitioning.getClusterBy();
+    } else {
+      clusterBy = deriveClusterBy(keyColumns, partitionBy);
+    }
+    if (clusterBy.size() > MAX_CLUSTER_COLUMNS) {
+      clusterBy = clusterBy.subList(0, MAX_CLUSTER_COLUMNS);
+    }
+
+    StringBuilder clauses = new StringBuilder();
+    if (partitionBy != null) {
+      clauses.append("\nPARTITION BY ").append(partitionBy);
+    }
+    if (!clusterBy.isEmpty()) {
+      clauses.append("\nCLUSTER BY ").append(String.join(", ", clusterBy));
+    }
+    if (clauses.length() == 0) {
+      return ddl;
+    }
+    log.info(
+        "Table:{}, Snowflake clustering keys:{}, BigQuery partitioning and clustering:{}",
+        applicationConfigData.getTargetTableName(),
+        applicationConfigData.getSnowflakeClusteringKeys(),
+        clauses);
+    return ddl.substring(0, columnsEnd + 1) + clauses + ddl.substring(columnsEnd + 1);
+  }
+
+  /* First key on a date or timestamp column becomes the daily partition. */
+  private static String derivePartitionBy(List<String[]> keyColumns) {
+    for (String[] column : keyColumns) {
+      if (PARTITION_TYPES.contains(column[1])) {
+        return "DATE".equals(column[1]) ? column[0] : "DATE(" + column[0] + ")";
+      }
+    }
+    return null;
+  }
+
+  /* Key columns of the clusterable types in the key order, partition column is left out. */
+  private static List<String> deriveClusterBy(List<String[]> keyColumns, String partitionBy) {
+    List<String> clusterBy = new ArrayList<>();
+    for (String[] column : keyColumns) {
+      boolean partitionColumn =
+          partitionBy != null
+              && (partitionBy.equals(column[0]) || partitionBy.equals("DATE(" + column[0] + ")"));
+      if (!partitionColumn && CLUSTER_TYPES.contains(column[1])) {
+        clusterBy.add(column[0]);
+      }
+    }
+    return clusterBy;
+  }
+
+  /*
+   * Columns referred by the clustering keys in the key order. Keys can be expressions(e.g.
+   * TO_DATE(ORDER_TS)), in that case the table columns used in the expression are taken.
+   */
+  private static List<String[]> getKeyColumns(
+      String clusteringKeys, Map<String, String[]> columns) {
+    List<String[]> keyColumns = new ArrayList<>();
+    Set<String> added = new HashSet<>();
+    for (String key : splitTopLevel(StringUtils.defaultString(clusteringKeys))) {
+      Matcher matcher = IDENTIFIER.matcher(key.replace("\"", ""));
+      while (matcher.find()) {
+        String[] column = columns.get(matcher.group().toUpperCase());
+        if (column != null && added.add(column[0])) {
+          keyColumns.add(column);
+        }
+      }
+    }
+    return keyColumns;
+  }
+
+  /* Gives the column name and type(without parameters) keyed by upper case name. */
+  private static Map<String, String[]> getColumns(String columnDefinitions) {
+    Map<String, String[]> columns = new LinkedHashMap<>();
+    for (String definition : splitTopLevel(columnDefinitions)) {
+      String[] tokens = definition.trim().split("\\s+", 2);
+      if (tokens.length < 2) {
+        continue;
+      }
+      String name = tokens[0].replace("`", "").replace("\"", "");
+      String type = tokens[1].split("[\\s(<]", 2)[0].toUpperCase();
+      columns.put(name.toUpperCase(), new String[] {name, type});
+    }
+    return columns;
+  }
+
+  /* Splits on the commas which are not inside parenthesis, angle brackets or quotes. */
+  static List<String> splitTopLevel(String value) {
+    List<String> parts = new ArrayList<>();
+    int depth = 0;
+    char quote = 0;
+    int start = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"' || c == '`') {
+        quote = c;
+      } else if (c == '(' || c == '<') {
+        depth++;
+      } else if (c == ')' || c == '>') {
+        depth--;
+      } else if (c == ',' && depth == 0) {
+        parts.add(value.substring(start, i).trim());
+        start = i + 1;
+      }
+    }
+    if (StringUtils.isNotBlank(value.substring(start))) {
+      parts.add(value.substring(start).trim());
+    }
+    return parts;
+  }
+
+  /* Index of the parenthesis which closes the one at the given index, -1 if not closed. */
+  static int findClosingParenthesis(String value, int openIndex) {
+    int depth = 0;
+    char quote = 0;
+    for (int i = openIndex; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"' || c == '`') {
+        quote = c;
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')' && --depth == 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service;
+
+import com.google.api.gax.paging.Page;
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryException;
+import com.google.cloud.bigquery.DatasetId;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.Table;
+import com.google.cloud.bigquery.TableDefinition;
+import com.google.cloud.bigquery.TableId;
+import com.google.connector.snowflakeToBQ.service.Instancecreator.BigQueryInstanceCreator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache of the BigQuery table metadata used by the migration runs. Tables of a target dataset are
+ * listed once and existence checks are answered from that listing, definition(schema, partitioning
+ * and clustering) of a table is fetched once and reused by all the load jobs and staging tables of
+ * the table. Without it every table needed a getTable call for each existence check and one more
+ * for the schema, which adds up to thousands of calls and quota usage on large schemas.
+ *
+ * <p>Cache is shared by the runs which are in progress at the same time, hence it is not cleared
+ * per run. Listing of a dataset and definition of a table are fetched again once they are older
+ * than bigquery.table.metadata.cache.expiry.ms, so tables created or dropped outside the
+ * application are picked up.
+ */
+@Service
+public class BigQueryTableMetadataCache {
+  private static final Logger log = LoggerFactory.getLogger(BigQueryTableMetadataCache.class);
+
+  final BigQueryInstanceCreator bigQueryInstanceCreator;
+
+  // Key is project.dataset, value is the names of the tables present in the dataset
+  private final Map<String, CachedValue<Set<String>>> datasetTables = new ConcurrentHashMap<>();
+  private final Map<TableId, CachedValue<TableDefinition>> tableDefinitions =
+      new ConcurrentHashMap<>();
+
+  @Value("${bigquery.table.metadata.cache.expiry.ms}")
+  @Setter
+  private long cacheExpiryMs;
+
+  public BigQueryTableMetadataCache(BigQueryInstanceCreator bigQueryInstanceCreator) {
+    this.bigQueryInstanceCreator = bigQueryInstanceCreator;
+  }
+
+  /**
+   * Checks if the table exists using the cached listing of its dataset, dataset is listed on first
+   * use. If the listing fails the table is looked up directly.
+   *
+   * @param tableId id of the table to check.
+   * @return true if table exists.
+   */
+  public boolean isTableExists(TableId tableId) {
+    Set<String> tables = getDatasetTables(tableId.getProject(), tableId.getDataset());
+    if (tables != null) {
+      return tables.contains(tableId.getTable());
+    }
+    return getTableSchema(tableId) != null;
+  }
+
+  /**
+   * Gives the schema of the table, fetched from BigQuery only on the first call for the table.
+   *
+   * @param tableId id of the table.
+   * @return {@link Schema} of the table or null if the table does not exist.
+   */
+  public Schema getTableSchema(TableId tableId) {
+    TableDefinition tableDefinition = getTableDefinition(tableId);
+    return tableDefinition == null ? null : tableDefinition.getSchema();
+  }
+
+  /**
+   * Gives the definition of the table, fetched from BigQuery only on the first call for the table.
+   *
+   * @param tableId id of the table.
+   * @return {@link TableDefinition} of the table or null if the table does not exist.
+   */
+  public TableDefinition getTableDefinition(TableId tableId) {
+    CachedValue<TableDefinition> cachedDefinition = tableDefinitions.get(tableId);
+    if (cachedDefinition != null && !isExpired(cachedDefinition)) {
+      return cachedDefinition.value;
+    }
+    Table table = bigQueryInstanceCreator.getBigQueryClient().getTable(tableId);
+    if (table == null) {
+      tableDefinitions.remove(tableId);
+      return null;
+    }
+    TableDefinition tableDefinition = table.getDefinition();
+    if (tableDefinition != null && tableDefinition.getSchema() != null) {
+      tableDefinitions.put(tableId, new CachedValue<>(tableDefinition));
+    }
+    markTableExists(tableId);
+    return tableDefinition;
+  }
+
+  /**
+   * Invalidates the cached metadata of the table once it is created(or replaced), table is marked
+   * as existing and its schema is fetched again on next use.
+   *
+   * @param tableId id of the table created.
+   */
+  public void tableCreated(TableId tableId) {
+    tableDefinitions.remove(tableId);
+    markTableExists(tableId);
+  }
+
+  /**
+   * Invalidates the cached metadata of the table once BigQuery reports it as not found(e.g. a load
+   * or copy job into it failed with notFound), table is marked as missing and its definition is
+   * fetched again on next use.
+   *
+   * @param tableId id of the table not found.
+   */
+  public void tableNotFound(TableId tableId) {
+    tableDefinitions.remove(tableId);
+    CachedValue<Set<String>> cachedTables =
+        datasetTables.get(getDatasetKey(tableId.getProject(), tableId.getDataset()));
+    if (cachedTables != null) {
+      cachedTables.value.remove(tableId.getTable());
+    }
+  }
+
+  /**
+   * Invalidates the cached metadata of a dataset whose tables may have changed in an unknown way,
+   * dataset is listed again and definitions of its tables are fetched again on next use.
+   *
+   * @param projectId project of the dataset.
+   * @param datasetId id of the dataset.
+   */
+  public void invalidateDataset(String projectId, String datasetId) {
+    datasetTables.remove(getDatasetKey(projectId, datasetId));
+    tableDefinitions
+        .keySet()
+        .removeIf(
+            tableId ->
+                Objects.equals(projectId, tableId.getProject())
+                    && Objects.equals(datasetId, tableId.getDataset()));
+  }
+
+  /** Clears the cached metadata of all the datasets. */
+  public void clear() {
+    datasetTables.clear();
+    tableDefinitions.clear();
+  }
+
+  /*
+   * Listing of the dataset from cache, lists the dataset if not cached or expired. Null if listing
+   * fails.
+   */
+  private Set<String> getDatasetTables(String projectId, String datasetId) {
+    String datasetKey = getDatasetKey(projectId, datasetId);
+    CachedValue<Set<String>> cachedTables = datasetTables.get(datasetKey);
+    if (cachedTables != null && !isExpired(cachedTables)) {
+      return cachedTables.value;
+    }
+    Set<String> tables = listDatasetTables(projectId, datasetId);
+    if (tables == null) {
+      return null;
+    }
+    CachedValue<Set<String>> listedTables = new CachedValue<>(tables);
+    // Another thread may have listed the dataset meanwhile, its listing is kept
+    CachedValue<Set<String>> existingTables =
+        datasetTables.compute(
+            datasetKey,
+            (key, current) ->
+                current == null || current == cachedTables || isExpired(current)
+                    ? listedTables
+                    : current);
+    return existingTables.value;
+  }
+
+  private Set<String> listDatasetTables(String projectId, String datasetId) {
+    Set<String> tables = ConcurrentHashMap.newKeySet();
+    try {
+      Page<Table> tablePage =
+          bigQueryInstanceCreator
+              .getBigQueryClient()
+              .listTables(
+                  DatasetId.of(projectId, datasetId), BigQuery.TableListOption.pageSize(1000));
+      if (tablePage == null) {
+        return null;
+      }
+      for (Table table : tablePage.iterateAll()) {
+        tables.add(table.getTableId().getTable());
+      }
+    } catch (BigQueryException e) {
+      if (e.getCode() != 404) {
+        log.warn(
+            "Could not list the tables of dataset:{}.{}, Error Message:{}",
+            projectId,
+            datasetId,
+            e.getMessage());
+        return null;
+      }
+      // Dataset does not exist yet, hence none of its tables
+    } catch (Exception e) {
+      log.warn(
+          "Could not list the tables of dataset:{}.{}, Error Message:{}",
+          projectId,
+          datasetId,
+          e.getMessage());
+      return null;
+    }
+    log.info("Listed {} tables of dataset:{}.{}", tables.size(), projectId, datasetId);
+    return tables;
+  }
+
+  private void markTableExists(TableId tableId) {
+    CachedValue<Set<String>> cachedTables =
+        datasetTables.get(getDatasetKey(tableId.getProject(), tableId.getDataset()));
+    if (cachedTables != null) {
+      cachedTables.value.add(tableId.getTable());
+    }
+  }
+
+  private boolean isExpired(CachedValue<?> cachedValue) {
+    return System.currentTimeMillis() - cachedValue.cachedAtMillis > cacheExpiryMs;
+  }
+
+  private static String getDatasetKey(String projectId, String datasetId) {
+    return projectId + "." + datasetId;
+  }
+
+  /* Cached metadata along with the time it was fetched. */
+  private static class CachedValue<T> {
+    final T value;
+    final long cachedAtMillis;
+
+    CachedValue(T value) {
+      this.value = value;
+      this.cachedAtMillis = System.currentTimeMillis();
+    }
+  }
+}
@@ -0,0 +1,551 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import static com.google.connector.snowflakeToBQ.util.ErrorCode.INVALID_TABLE_OR_COLUMN_NAME;
+import static com.google.connector.snowflakeToBQ.util.ErrorCode.TABLE_NOT_EXISTS;
+
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import com.google.cloud.bigquery.TableId;
+import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
+import com.google.connector.snowflakeToBQ.model.request.ChecksumValidationRequestDTO;
+import com.google.connector.snowflakeToBQ.model.response.ChecksumValidationResponse;
+import com.google.connector.snowflakeToBQ.util.ChecksumBucketType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Class which validates the content of a migrated table by comparing fingerprints of its buckets
+ * in Snowflake and in BigQuery. Rows are split in buckets by a date or by the hash of a column and
+ * both sides compute the row count and an order independent fingerprint of every bucket in a
+ * single aggregation query, run in parallel. Only the buckets which differ are drilled into row by
+ * row, so the cost of finding the differences is proportional to the differences.
+ *
+ * <p>Fingerprint of a row is the MD5 of its column values and the fingerprint of a bucket is the
+ * sum of the first 60 bits of its row fingerprints. MD5 gives the same value in both Snowflake and
+ * BigQuery, HASH_AGG and FARM_FINGERPRINT do not, hence they can not be compared with each other.
+ * Each column value is converted to the same canonical text on both sides as per its BigQuery type
+ * (e.g. timestamps in UTC with microseconds, numbers without trailing zeros), columns whose text
+ * can not be made the same(e.g. FLOAT64, BYTES, JSON) are left out unless asked for in the request.
+ *
+ * <p>Table and column names of the request are only accepted as plain identifiers and are quoted
+ * in the queries, values are bound as query parameters.
+ */
+@Service
+@Setter
+public class ChecksumValidationService {
+  private static final Logger log = LoggerFactory.getLogger(ChecksumValidationService.class);
+  private static final String NULL_VALUE = "<NULL>";
+  // Unquoted identifier of Snowflake, BigQuery dataset, table and column names are a subset of it
+  private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*");
+  // BigQuery project id, can be domain scoped e.g. example.com:project
+  private static final Pattern PROJECT_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_.:-]*");
+  // Types whose canonical text is computed the same way in Snowflake and in BigQuery
+  private static final Set<StandardSQLTypeName> COMPARABLE_TYPES =
+      EnumSet.of(
+          StandardSQLTypeName.STRING,
+          StandardSQLTypeName.INT64,
+          StandardSQLTypeName.NUMERIC,
+          StandardSQLTypeName.BIGNUMERIC,
+          StandardSQLTypeName.BOOL,
+          StandardSQLTypeName.DATE,
+          StandardSQLTypeName.DATETIME,
+          StandardSQLTypeName.TIME,
+          StandardSQLTypeName.TIMESTAMP);
+
+  final SnowflakeQueryExecutor snowflakeQueryExecutor;
+  final BigQueryOperationsService bigQueryOperationsService;
+  final BigQueryTableMetadataCache bigQueryTableMetadataCache;
+  final ThreadPoolTaskExecutor customExecutor;
+
+  // Max mismatched buckets drilled into in a single validation
+  @Value("${validation.checksum.drilldown.max.buckets}")
+  private int drillDownMaxBuckets;
+
+  // Buckets with more rows than this are not compared row by row
+  @Value("${validation.checksum.drilldown.max.rows}")
+  private int drillDownMaxRows;
+
+  @Value("${validation.checksum.max.reported.keys}")
+  private int maxReportedKeys;
+
+  public ChecksumValidationService(
+      SnowflakeQueryExecutor snowflakeQueryExecutor,
+      BigQueryOperationsService bigQueryOperationsService,
+      BigQueryTableMetadataCache bigQueryTableMetadataCache,
+      @Qualifier("customExecutor") ThreadPoolTaskExecutor customExecutor) {
+    this.snowflakeQueryExecutor = snowflakeQueryExecutor;
+    this.bigQueryOperationsService = bigQueryOperationsService;
+    this.bigQueryTableMetadataCache = bigQueryTableMetadataCache;
+    this.customExecutor = customExecutor;
+  }
+
+  /**
+   * Validates the table data in BigQuery against its data in Snowflake.
+   *
+   * @param request details of the table, the bucketing and the columns to compare.
+   * @return {@link ChecksumValidationResponse} with the mismatched buckets and keys.
+   */
+  public ChecksumValidationResponse validate(ChecksumValidationRequestDTO request) {
+    String targetTableName =
+        StringUtils.isBlank(request.getTargetTableName())
+            ? request.getSourceTableName()
+            : request.getTargetTableName();
+    String snowflakeTable = snowflakeIdentifier(request.getSourceTableName());
+    String bigQueryTable =
+        String.format(
+            "%s.%s.%s",
+            bigQueryIdentifier(request.getTargetDatabaseName(), PROJECT_ID),
+            bigQueryIdentifier(request.getTargetSchemaName(), IDENTIFIER),
+            bigQueryIdentifier(targetTableName, IDENTIFIER));
+    TableId tableId =
+        TableId.of(request.getTargetDatabaseName(), request.getTargetSchemaName(), targetTableName);
+    Map<String, Field> fields = getFields(tableId);
+    List<Column> columns = getColumns(request, fields);
+    Column bucketColumn = getColumn(request.getBucketColumn(), fields);
+
+    String snowflakeBucket = snowflakeBucketExpression(request, bucketColumn);
+    String bigQueryBucket = bigQueryBucketExpression(request, bucketColumn);
+    Map<String, String>[] bucketFingerprints =
+        queryBothSides(
+            request,
+            targetTableName,
+            String.format(
+                "SELECT %s AS BUCKET, %s AS FINGERPRINT FROM %s GROUP BY 1",
+                snowflakeBucket, snowflakeFingerprint(snowflakeRowHash(columns)), snowflakeTable),
+            String.format(
+                "SELECT %s AS BUCKET, %s AS FINGERPRINT FROM %s GROUP BY 1",
+                bigQueryBucket, bigQueryFingerprint(bigQueryRowHash(columns)), bigQueryTable),
+            Collections.emptyList());
+
+    ChecksumValidationResponse response = new ChecksumValidationResponse();
+    response.setSourceTableName(request.getSourceTableName());
+    response.setTargetTableName(targetTableName);
+    List<String> mismatchedBuckets =
+        getMismatchedKeys(bucketFingerprints[0], bucketFingerprints[1]);
+    int comparedBucketCount =
+        (int)
+            bucketFingerprints[0].keySet().stream()
+                .filter(bucket -> !bucketFingerprints[1].containsKey(bucket))
+                .count()
+            + bucketFingerprints[1].size();
+    response.setComparedBucketCount(comparedBucketCount);
+    response.setMatchedBucketCount(comparedBucketCount - mismatchedBuckets.size());
+    response.setMismatchedBuckets(mismatchedBuckets);
+    response.setSuccess(mismatchedBuckets.isEmpty());
+    log.info(
+        "Checksum validation of table:{}, buckets compared:{}, mismatched:{}",
+        targetTableName,
+        comparedBucketCount,
+        mismatchedBuckets.size());
+
+    if (!mismatchedBuckets.isEmpty() && StringUtils.isNotBlank(request.getKeyColumn())) {
+      drillDown(
+          request,
+          targetTableName,
+          snowflakeTable,
+          bigQueryTable,
+          getColumn(request.getKeyColumn(), fields),
+          bucketColumn,
+          columns,
+          mismatchedBuckets,
+          response);
+    } else {
+      response.setDrillDownTruncated(!mismatchedBuckets.isEmpty());
+    }
+    return response;
+  }
+
+  /* Compares the mismatched buckets row by row to find the keys of the rows which differ. */
+  private void drillDown(
+      ChecksumValidationRequestDTO request,
+      String targetTableName,
+      String snowflakeTable,
+      String bigQueryTable,
+      Column keyColumn,
+      Column bucketColumn,
+      List<Column> columns,
+      List<String> mismatchedBuckets,
+      ChecksumValidationResponse response) {
+    response.setDrillDownTruncated(mismatchedBuckets.size() > drillDownMaxBuckets);
+    int drillDownBuckets = Math.min(mismatchedBuckets.size(), drillDownMaxBuckets);
+    for (String bucket : mismatchedBuckets.subList(0, drillDownBuckets)) {
+      // Bucket value comes from the query result, it is bound and not put in the query text
+      Map<String, String>[] rowHashes =
+          queryBothSides(
+              request,
+              targetTableName,
+              String.format(
+                  "SELECT %s, %s FROM %s WHERE %s = ? LIMIT %d",
+                  keyColumn.snowflakeText(),
+                  snowflakeRowHash(columns),
+                  snowflakeTable,
+                  snowflakeBucketExpression(request, bucketColumn),
+                  drillDownMaxRows + 1),
+              String.format(
+                  "SELECT %s, %s FROM %s WHERE %s = ? LIMIT %d",
+                  keyColumn.bigQueryText(),
+                  bigQueryRowHash(columns),
+                  bigQueryTable,
+                  bigQueryBucketExpression(request, bucketColumn),
+                  drillDownMaxRows + 1),
+              Collections.singletonList(bucket));
+      // Rows beyond the limit are not the same rows on both sides, comparing them is pointless
+      if (rowHashes[0].size() > drillDownMaxRows || rowHashes[1].size() > drillDownMaxRows) {
+        log.warn(
+            "Bucket:{} of table:{} has more than {} rows, not compared row by row",
+            bucket,
+            targetTableName,
+            drillDownMaxRows);
+        response.setDrillDownTruncated(true);
+        continue;
+      }
+      for (String key : getMismatchedKeys(rowHashes[0], rowHashes[1])) {
+        if (response.getMismatchedKeys().size() >= maxReportedKeys) {
+          response.setDrillDownTruncated(true);
+          return;
+        }
+        response.getMismatchedKeys().add(key);
+      }
+    }
+  }
+
+  /* Runs the queries in Snowflake and in BigQuery in parallel, index 0 has the Snowflake result. */
+  @SuppressWarnings("unchecked")
+  private Map<String, String>[] queryBothSides(
+      ChecksumValidationRequestDTO request,
+      String targetTableName,
+      String snowflakeQuery,
+      String bigQueryQuery,
+      List<String> parameters) {
+    log.info(
+        "Checksum validation queries, Snowflake:{}, BigQuery:{}, parameters:{}",
+        snowflakeQuery,
+        bigQueryQuery,
+        parameters);
+    CompletableFuture<Map<String, String>> snowflakeResult =
+        supplyAsync(
+            () ->
+                snowflakeQueryExecutor.queryKeyValues(
+                    request.getSourceDatabaseName(),
+                    request.getSourceSchemaName(),
+                    snowflakeQuery,
+                    parameters));
+    CompletableFuture<Map<String, String>> bigQueryResult =
+        supplyAsync(
+            () ->
+                bigQueryOperationsService.queryKeyValues(
+                    bigQueryQuery, parameters, request.getLocation(), targetTableName));
+    return new Map[] {join(snowflakeResult), join(bigQueryResult)};
+  }
+
+  /* Runs on the custom executor with the request log id of the caller, used in logs and labels. */
+  private <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+    String requestLogId = MDC.get("requestLogId");
+    return CompletableFuture.supplyAsync(
+        () -> {
+          if (requestLogId != null) {
+            MDC.put("requestLogId", requestLogId);
+          }
+          try {
+            return supplier.get();
+          } finally {
+            MDC.remove("requestLogId");
+          }
+        },
+        customExecutor);
+  }
+
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof SnowflakeConnectorException) {
+        throw (SnowflakeConnectorException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /* Gives the sorted keys whose value differ or which are present only on one side. */
+  static List<String> getMismatchedKeys(
+      Map<String, String> snowflake, Map<String, String> bigQuery) {
+    TreeSet<String> keys = new TreeSet<>(snowflake.keySet());
+    keys.addAll(bigQuery.keySet());
+    return keys.stream()
+        .filter(key -> !Objects.equals(snowflake.get(key), bigQuery.get(key)))
+        .collect(Collectors.toList());
+  }
+
+  /* Fields of the BigQuery table by their upper case name, types of the columns come from it. */
+  private Map<String, Field> getFields(TableId tableId) {
+    Schema schema = bigQueryTableMetadataCache.getTableSchema(tableId);
+    if (schema == null) {
+      log.error(
+          "Error Message:{},Error Code:{}, table name:{}",
+          TABLE_NOT_EXISTS.getMessage(),
+          TABLE_NOT_EXISTS.getErrorCode(),
+          tableId.getTable());
+      throw new SnowflakeConnectorException(
+          TABLE_NOT_EXISTS.getMessage(), TABLE_NOT_EXISTS.getErrorCode());
+    }
+    Map<String, Field> fields = new LinkedHashMap<>();
+    for (Field field : schema.getFields()) {
+      fields.put(field.getName().toUpperCase(Locale.ROOT), field);
+    }
+    return fields;
+  }
+
+  /*
+   * Compared columns from the request, otherwise all the columns of the BigQuery table whose
+   * canonical text is the same on both sides.
+   */
+  private List<Column> getColumns(ChecksumValidationRequestDTO request, Map<String, Field> fields) {
+    List<Column> columns = new ArrayList<>();
+    if (request.getColumns() != null && !request.getColumns().isEmpty()) {
+      for (String columnName : request.getColumns()) {
+        Column column = getColumn(columnName, fields);
+        if (!column.isComparable()) {
+          log.warn(
+              "Column:{} of type:{} may not have the same text in Snowflake and BigQuery",
+              columnName,
+              column.type);
+        }
+        columns.add(column);
+      }
+      return columns;
+    }
+    for (Field field : fields.values()) {
+      Column column =
+          new Column(
+              field.getName(),
+              field.getType().getStandardType(),
+              field.getMode() == Field.Mode.REPEATED);
+      if (IDENTIFIER.matcher(field.getName()).matches() && column.isComparable()) {
+        columns.add(column);
+      } else {
+        log.info("Column:{} of type:{} is not compared", field.getName(), column.type);
+      }
+    }
+    return columns;
+  }
+
+  /* Column of the BigQuery table, name must be a plain identifier. */
+  private static Column getColumn(String columnName, Map<String, Field> fields) {
+    Field field =
+        columnName == null ? null : fields.get(columnName.toUpperCase(Locale.ROOT));
+    if (field == null || !IDENTIFIER.matcher(columnName).matches()) {
+      log.error(
+          "Error Message:{},Error Code:{}, column name:{}",
+          INVALID_TABLE_OR_COLUMN_NAME.getMessage(),
+          INVALID_TABLE_OR_COLUMN_NAME.getErrorCode(),
+          columnName);
+      throw new SnowflakeConnectorException(
+          INVALID_TABLE_OR_COLUMN_NAME.getMessage(), INVALID_TABLE_OR_COLUMN_NAME.getErrorCode());
+    }
+    return new Column(
+        columnName,
+        field.getType().getStandardType(),
+        field.getMode() == Field.Mode.REPEATED);
+  }
+
+  /*
+   * Quoted Snowflake identifier. Unquoted identifiers are resolved in upper case by Snowflake, the
+   * quoted upper case name refers to the same object.
+   */
+  static String snowflakeIdentifier(String name) {
+    validateIdentifier(name, IDENTIFIER);
+    return "\"" + name.toUpperCase(Locale.ROOT) + "\"";
+  }
+
+  static String bigQueryIdentifier(String name, Pattern pattern) {
+    validateIdentifier(name, pattern);
+    return "`" + name + "`";
+  }
+
+  private static void validateIdentifier(String name, Pattern pattern) {
+    if (name == null || !pattern.matcher(name).matches()) {
+      log.error(
+          "Error Message:{},Error Code:{}, name:{}",
+          INVALID_TABLE_OR_COLUMN_NAME.getMessage(),
+          INVALID_TABLE_OR_COLUMN_NAME.getErrorCode(),
+          name);
+      throw new SnowflakeConnectorException(
+          INVALID_TABLE_OR_COLUMN_NAME.getMessage(), INVALID_TABLE_OR_COLUMN_NAME.getErrorCode());
+    }
+  }
+
+  static String snowflakeRowHash(List<Column> columns) {
+    return String.format(
+        "MD5(CONCAT_WS('|', %s))",
+        columns.stream()
+            .map(column -> String.format("COALESCE(%s, '%s')", column.snowflakeText(), NULL_VALUE))
+            .collect(Collectors.joining(", ")));
+  }
+
+  static String bigQueryRowHash(List<Column> columns) {
+    return String.format(
+        "TO_HEX(MD5(ARRAY_TO_STRING([%s], '|')))",
+        columns.stream()
+            .map(column -> String.format("COALESCE(%s, '%s')", column.bigQueryText(), NULL_VALUE))
+            .collect(Collectors.joining(", ")));
+  }
+
+  // Row count and the sum of the first 15 hex digits(60 bits) of the row hashes
+  static String snowflakeFingerprint(String rowHash) {
+    return String.format(
+        "COUNT(*) || ':' || TO_VARCHAR(SUM(TO_NUMBER(SUBSTR(%s, 1, 15), 'XXXXXXXXXXXXXXX')))",
+        rowHash);
+  }
+
+  // NUMERIC sum does not overflow where INT64 would for the big buckets
+  static String bigQueryFingerprint(String rowHash) {
+    return String.format(
+        "CONCAT(CAST(COUNT(*) AS STRING), ':', CAST(SUM(CAST(CAST(CONCAT('0x', "
+            + "SUBSTR(%s, 1, 15)) AS INT64) AS NUMERIC)) AS STRING))",
+        rowHash);
+  }
+
+  static String snowflakeBucketExpression(ChecksumValidationRequestDTO request, Column column) {
+    String bucket =
+        request.getBucketType() == ChecksumBucketType.HASH
+            ? String.format(
+                "TO_VARCHAR(MOD(TO_NUMBER(SUBSTR(MD5(%s), 1, 15), 'XXXXXXXXXXXXXXX'), %d))",
+                column.snowflakeText(), request.getBucketCount())
+            : String.format(
+                "TO_VARCHAR(TO_DATE(%s), 'YYYY-MM-DD')",
+                column.type == StandardSQLTypeName.TIMESTAMP
+                    ? String.format("CONVERT_TIMEZONE('UTC', %s)", column.snowflakeName())
+                    : column.snowflakeName());
+    return String.format("COALESCE(%s, '%s')", bucket, NULL_VALUE);
+  }
+
+  static String bigQueryBucketExpression(ChecksumValidationRequestDTO request, Column column) {
+    String bucket =
+        request.getBucketType() == ChecksumBucketType.HASH
+            ? String.format(
+                "CAST(MOD(CAST(CONCAT('0x', SUBSTR(TO_HEX(MD5(%s)), 1, 15)) "
+                    + "AS INT64), %d) AS STRING)",
+                column.bigQueryText(), request.getBucketCount())
+            : String.format("FORMAT_DATE('%%Y-%%m-%%d', DATE(%s))", column.bigQueryName());
+    return String.format("COALESCE(%s, '%s')", bucket, NULL_VALUE);
+  }
+
+  /* Compared column with its BigQuery type, gives the canonical text of its value on each side. */
+  static class Column {
+    final String name;
+    final StandardSQLTypeName type;
+    final boolean repeated;
+
+    Column(String name, StandardSQLTypeName type, boolean repeated) {
+      this.name = name;
+      this.type = type;
+      this.repeated = repeated;
+    }
+
+    boolean isComparable() {
+      return !repeated && COMPARABLE_TYPES.contains(type);
+    }
+
+    String snowflakeName() {
+      return snowflakeIdentifier(name);
+    }
+
+    String bigQueryName() {
+      return bigQueryIdentifier(name, IDENTIFIER);
+    }
+
+    // Numbers without trailing zeros of the scale, date and time with microseconds, UTC timestamps
+    String snowflakeText() {
+      String column = snowflakeName();
+      if (!isComparable()) {
+        return String.format("TO_VARCHAR(%s)", column);
+      }
+      switch (type) {
+        case NUMERIC:
+        case BIGNUMERIC:
+          String text = String.format("TO_VARCHAR(%s)", column);
+          return String.format(
+              "IFF(CONTAINS(%1$s, '.'), RTRIM(RTRIM(%1$s, '0'), '.'), %1$s)", text);
+        case BOOL:
+          return String.format("CASE WHEN %1$s THEN 'true' WHEN NOT %1$s THEN 'false' END", column);
+        case DATE:
+          return String.format("TO_VARCHAR(%s, 'YYYY-MM-DD')", column);
+        case DATETIME:
+          return String.format("TO_VARCHAR(%s, 'YYYY-MM-DD HH24:MI:SS.FF6')", column);
+        case TIME:
+          return String.format("TO_VARCHAR(%s, 'HH24:MI:SS.FF6')", column);
+        case TIMESTAMP:
+          return String.format(
+              "TO_VARCHAR(CONVERT_TIMEZONE('UTC', %s), 'YYYY-MM-DD HH24:MI:SS.FF6')", column);
+        default:
+          return String.format("TO_VARCHAR(%s)", column);
+      }
+    }
+
+    String bigQueryText() {
+      String column = bigQueryName();
+      if (!isComparable()) {
+        return String.format("CAST(%s AS STRING)", column);
+      }
+      switch (type) {
+        case NUMERIC:
+        case BIGNUMERIC:
+          String text = String.format("CAST(%s AS STRING)", column);
+          return String.format(
+              "IF(STRPOS(%1$s, '.') > 0, RTRIM(RTRIM(%1$s, '0'), '.'), %1$s)", text);
+        case BOOL:
+          return String.format("CASE WHEN %1$s THEN 'true' WHEN NOT %1$s THEN 'false' END", column);
+        case DATE:
+          return String.format("FORMAT_DATE('%%Y-%%m-%%d', %s)", column);
+        case DATETIME:
+          return String.format("FORMAT_DATETIME('%%Y-%%m-%%d %%H:%%M:%%E6S', %s)", column);
+        case TIME:
+          return String.format("FORMAT_TIME('%%H:%%M:%%E6S', %s)", column);
+        case TIMESTAMP:
+          return String.format("FORMAT_TIMESTAMP('%%Y-%%m-%%d %%H:%%M:%%E6S', %s, 'UTC')", column);
+        default:
+          return String.format("CAST(%s AS STRING)", column);
+      }
+    }
+  }
+}
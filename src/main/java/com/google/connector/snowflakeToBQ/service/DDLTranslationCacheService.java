@@ -0,0 +1,302 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import static com.google.connector.snowflakeToBQ.util.PropertyManager.OUTPUT_FORMATTER1;
+
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.Storage;
+import com.google.connector.snowflakeToBQ.entity.DDLTranslationCache;
+import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
+import com.google.connector.snowflakeToBQ.model.datadto.CommonDataDTO;
+import com.google.connector.snowflakeToBQ.repository.DDLTranslationCacheRepository;
+import com.google.connector.snowflakeToBQ.service.Instancecreator.StorageInstanceCreator;
+import com.google.connector.snowflakeToBQ.util.PropertyManager;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Class which remembers the translated DDLs by the content hash of their source DDL. Extracted DDLs
+ * of a schema rarely change between the requests, a DDL whose hash is already known is neither
+ * uploaded nor translated again, its earlier translation output is used for the table creation.
+ *
+ * <p>Output folders of the translations are day-scoped, a later translation of the same table on
+ * the same day overwrites its file. Translated file is therefore copied to a content addressed
+ * object({@code cached-translated-snowflake-ddls/<hash>.sql}) which is never overwritten by a
+ * different translation, and the cache entry points to the copy. Entry whose file does not exist
+ * anymore is removed on lookup and the DDL is translated again.
+ */
+@Service
+@Transactional
+public class DDLTranslationCacheService {
+  private static final Logger log = LoggerFactory.getLogger(DDLTranslationCacheService.class);
+
+  private final DDLTranslationCacheRepository ddlTranslationCacheRepository;
+  private final StorageInstanceCreator storageInstanceCreator;
+
+  @Value("${translation.cache.enabled}")
+  private boolean translationCacheEnabled;
+
+  public DDLTranslationCacheService(
+      DDLTranslationCacheRepository ddlTranslationCacheRepository,
+      StorageInstanceCreator storageInstanceCreator) {
+    this.ddlTranslationCacheRepository = ddlTranslationCacheRepository;
+    this.storageInstanceCreator = storageInstanceCreator;
+  }
+
+  /**
+   * Computes the hash which identifies the translation of the DDL. Whitespaces are normalized so
+   * that formatting differences do not cause a new translation, name mapping is included as the
+   * same DDL translates differently for a different target.
+   *
+   * @param ddl source DDL as it is uploaded for translation.
+   * @param nameMapping source and target database and schema of the translation.
+   * @return SHA-256 of the DDL and the name mapping as a hex string.
+   */
+  public static String hash(String ddl, CommonDataDTO nameMapping) {
+    String content =
+        String.format(
+            "%s|%s.%s|%s.%s",
+            StringUtils.normalizeSpace(ddl),
+            nameMapping.getSourceDatabaseName(),
+            nameMapping.getSourceSchemaName(),
+            nameMapping.getTargetDatabaseName(),
+            nameMapping.getTargetSchemaName());
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+      return String.format("%064x", new BigInteger(1, digest));
+    } catch (NoSuchAlgorithmException e) {
+      throw new SnowflakeConnectorException(e.getMessage(), 0);
+    }
+  }
+
+  /**
+   * Finds the earlier translation of the DDL.
+   *
+   * @param sourceDDLHash hash of the DDL computed by {@link #hash(String, CommonDataDTO)}.
+   * @param gcsBucketForTranslation bucket in which translation of the request is written, only the
+   *     translations in the same bucket are reused.
+   * @return cached translation pointing to the content addressed copy of the translated file, null
+   *     if the cache is disabled, the DDL is not translated yet or the copy does not exist anymore.
+   */
+  public DDLTranslationCache lookup(String sourceDDLHash, String gcsBucketForTranslation) {
+    if (!translationCacheEnabled || sourceDDLHash == null) {
+      return null;
+    }
+    DDLTranslationCache ddlTranslationCache =
+        ddlTranslationCacheRepository.findById(sourceDDLHash).orElse(null);
+    if (ddlTranslationCache == null
+        || !StringUtils.equals(
+            ddlTranslationCache.getGcsBucketForTranslation(), gcsBucketForTranslation)) {
+      return null;
+    }
+    try {
+      Blob blob =
+          storageInstanceCreator
+              .getStorageClient()
+              .get(
+                  BlobId.of(
+                      ddlTranslationCache.getGcsBucketForTranslation(),
+                      ddlTranslationCache.getTranslatedDDLGCSPath()));
+      if (blob == null) {
+        log.info(
+            "Cached translation:{} does not exist anymore, DDL will be translated again",
+            ddlTranslationCache.getTranslatedDDLGCSPath());
+        ddlTranslationCacheRepository.delete(ddlTranslationCache);
+        return null;
+      }
+    } catch (Exception e) {
+      // Cache is only an optimization, DDL gets translated if the file can not be verified.
+      log.warn(
+          "Error while verifying the cached translation:{}, Error Message:{}",
+          ddlTranslationCache.getTranslatedDDLGCSPath(),
+          e.getMessage());
+      return null;
+    }
+    ddlTranslationCache.setLastUsedTime(
+        PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
+    return ddlTranslationCacheRepository.save(ddlTranslationCache);
+  }
+
+  /**
+   * Saves the translations produced by a migration workflow. Output folder is listed once and only
+   * the tables whose translated file exists are cached, a DDL which failed translation is
+   * translated again by the next request. Translated file of each table is copied to its content
+   * addressed object, as the day-scoped output folder can be overwritten by a later workflow.
+   *
+   * @param gcsBucketForTranslation bucket which contains the translated DDLs.
+   * @param translatedFolderPath output folder(without bucket name) of the workflow.
+   * @param workflowName name of the workflow which translated the DDLs.
+   * @param sourceDDLHashByTableName hash of the source DDL of each translated table.
+   * @return number of the translations cached.
+   */
+  public int saveTranslations(
+      String gcsBucketForTranslation,
+      String translatedFolderPath,
+      String workflowName,
+      Map<String, String> sourceDDLHashByTableName) {
+    if (!translationCacheEnabled || sourceDDLHashByTableName.isEmpty()) {
+      return 0;
+    }
+    Set<String> translatedFiles = new HashSet<>();
+    try {
+      storageInstanceCreator
+          .getStorageClient()
+          .list(
+              gcsBucketForTranslation,
+              Storage.BlobListOption.prefix(translatedFolderPath + "/"))
+          .iterateAll()
+          .forEach(blob -> translatedFiles.add(blob.getName()));
+    } catch (Exception e) {
+      log.warn(
+          "Error while listing the translated DDL folder:{}, translations are not cached. Error"
+              + " Message:{}",
+          translatedFolderPath,
+          e.getMessage());
+      return 0;
+    }
+    String currentTime =
+        PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1);
+    List<DDLTranslationCache> ddlTranslationCaches = new ArrayList<>();
+    sourceDDLHashByTableName.forEach(
+        (tableName, sourceDDLHash) -> {
+          String translatedDDLGCSPath = String.format("%s/%s.sql", translatedFolderPath, tableName);
+          if (sourceDDLHash == null || !translatedFiles.contains(translatedDDLGCSPath)) {
+            return;
+          }
+          String cachedDDLGCSPath =
+              copyToCache(gcsBucketForTranslation, translatedDDLGCSPath, sourceDDLHash);
+          if (cachedDDLGCSPath == null) {
+            return;
+          }
+          ddlTranslationCaches.add(
+              newDDLTranslationCache(
+                  sourceDDLHash,
+                  gcsBucketForTranslation,
+                  cachedDDLGCSPath,
+                  workflowName,
+                  currentTime));
+        });
+    ddlTranslationCacheRepository.saveAll(ddlTranslationCaches);
+    log.info(
+        "Cached {} of {} translations of workflow:{}",
+        ddlTranslationCaches.size(),
+        sourceDDLHashByTableName.size(),
+        workflowName);
+    return ddlTranslationCaches.size();
+  }
+
+  /**
+   * Saves the translation of a single DDL whose translated file has just been written, e.g. by the
+   * interactive translation. The file is copied to its content addressed object like in {@link
+   * #saveTranslations(String, String, String, Map)}.
+   *
+   * @param gcsBucketForTranslation bucket which contains the translated DDL.
+   * @param translatedDDLGCSPath path of the translated DDL file(without bucket name).
+   * @param workflowName name of the workflow which translated the DDL.
+   * @param sourceDDLHash hash of the source DDL.
+   */
+  public void saveTranslation(
+      String gcsBucketForTranslation,
+      String translatedDDLGCSPath,
+      String workflowName,
+      String sourceDDLHash) {
+    if (!translationCacheEnabled || sourceDDLHash == null) {
+      return;
+    }
+    String cachedDDLGCSPath =
+        copyToCache(gcsBucketForTranslation, translatedDDLGCSPath, sourceDDLHash);
+    if (cachedDDLGCSPath == null) {
+      return;
+    }
+    ddlTranslationCacheRepository.save(
+        newDDLTranslationCache(
+            sourceDDLHash,
+            gcsBucketForTranslation,
+            cachedDDLGCSPath,
+            workflowName,
+            PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1)));
+  }
+
+  /**
+   * Path(without bucket name) of the content addressed copy of the translation of a DDL.
+   *
+   * @param sourceDDLHash hash of the source DDL.
+   * @return path like cached-translated-snowflake-ddls/HASH.sql
+   */
+  public static String getCachedDDLPath(String sourceDDLHash) {
+    return String.format(
+        "%s/%s.sql", PropertyManager.CACHED_TRANSLATED_FOLDER_PREFIX, sourceDDLHash);
+  }
+
+  /* Copies the translated file within the bucket, returns null if the copy failed. */
+  private String copyToCache(
+      String gcsBucketForTranslation, String translatedDDLGCSPath, String sourceDDLHash) {
+    String cachedDDLGCSPath = getCachedDDLPath(sourceDDLHash);
+    try {
+      storageInstanceCreator
+          .getStorageClient()
+          .copy(
+              Storage.CopyRequest.of(
+                  gcsBucketForTranslation,
+                  translatedDDLGCSPath,
+                  BlobId.of(gcsBucketForTranslation, cachedDDLGCSPath)))
+          .getResult();
+      return cachedDDLGCSPath;
+    } catch (Exception e) {
+      // Cache is only an optimization, the DDL is translated again by the next request.
+      log.warn(
+          "Error while copying the translation:{} to the cache, Error Message:{}",
+          translatedDDLGCSPath,
+          e.getMessage());
+      return null;
+    }
+  }
+
+  private static DDLTranslationCache newDDLTranslationCache(
+      String sourceDDLHash,
+      String gcsBucketForTranslation,
+      String translatedDDLGCSPath,
+      String workflowName,
+      String currentTime) {
+    DDLTranslationCache ddlTranslationCache = new DDLTranslationCache();
+    ddlTranslationCache.setSourceDDLHash(sourceDDLHash);
+    ddlTranslationCache.setGcsBucketForTranslation(gcsBucketForTranslation);
+    ddlTranslationCache.setTranslatedDDLGCSPath(translatedDDLGCSPath);
+    ddlTranslationCache.setWorkflowName(workflowName);
+    ddlTranslationCache.setCreatedTime(currentTime);
+    ddlTranslationCache.setLastUsedTime(currentTime);
+    return ddlTranslationCache;
+  }
+}
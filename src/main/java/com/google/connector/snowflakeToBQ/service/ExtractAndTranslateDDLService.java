@@ -29,6 +29,7 @@ import com.google.connector.snowflakeToBQ.model.response.WorkflowMigrationRespon
 import com.google.connector.snowflakeToBQ.util.PropertyManager;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -40,14 +41,17 @@ public class ExtractAndTranslateDDLService {
   final SchemaExtractorService schemaExtractorService;
   final GoogleCloudStorageService googleCloudStorageService;
   final WorkflowMigrationService workflowMigrationService;
+  final DDLTranslationCacheService ddlTranslationCacheService;
 
   public ExtractAndTranslateDDLService(
       SchemaExtractorService schemaExtractorService,
       GoogleCloudStorageService googleCloudStorageService,
-      WorkflowMigrationService workflowMigrationService) {
+      WorkflowMigrationService workflowMigrationService,
+      DDLTranslationCacheService ddlTranslationCacheService) {
     this.schemaExtractorService = schemaExtractorService;
     this.googleCloudStorageService = googleCloudStorageService;
     this.workflowMigrationService = workflowMigrationService;
+    this.ddlTranslationCacheService = ddlTranslationCacheService;
   }
 
   /**
@@ -68,26 +72,42 @@ public class ExtractAndTranslateDDLService {
       GCSDetailsDataDTO gcsDetailsDataDTO =
           MigrateRequestMapper.getGCSDetailsDataDTOFromExtractDDLRequestDTO(extractDDLRequestDTO);
       // Writing ddls to GCS
-      googleCloudStorageService.writeToGCS(ddls, gcsDetailsDataDTO);
+      List<GCSDetailsDataDTO> gcsDetailsDataDTOS =
+          googleCloudStorageService.writeToGCS(ddls, gcsDetailsDataDTO);
+      // Hash of the DDLs of each translation chunk, DDLs which are already translated are skipped
+      Map<String, Map<String, String>> sourceDDLHashesByChunk = new LinkedHashMap<>();
+      for (GCSDetailsDataDTO gcsDetailsDataDTOTemp : gcsDetailsDataDTOS) {
+        if (gcsDetailsDataDTOTemp.getTranslatedDDLGCSPath() != null) {
+          continue;
+        }
+        sourceDDLHashesByChunk
+            .computeIfAbsent(
+                Objects.toString(gcsDetailsDataDTOTemp.getTranslationChunk(), ""),
+                chunk -> new HashMap<>())
+            .put(
+                gcsDetailsDataDTOTemp.getSourceTableName(),
+                gcsDetailsDataDTOTemp.getSourceDDLHash());
+      }
 
       TranslateDDLDataDTO translateDDLDataDTO =
           MigrateRequestMapper.getTranslateDDLDataDTOFromExtractDDLRequestDTO(extractDDLRequestDTO);
 
-      // Creating the migration workflow
-      WorkflowMigrationResponse workflowMigrationResponse =
-          workflowMigrationService.createMigrationWorkflow(translateDDLDataDTO);
-
-      boolean returnValue =
-          workflowMigrationService.isMigrationWorkflowCompleted(
-              workflowMigrationResponse.getWorkflowName());
-
-      if (returnValue) {
-        return String.format(
-            "Extract & translate DDL request completed successfully at %s",
-            PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
-      } else {
-        throw new RuntimeException("Workflow could not complete");
+      // Creating a migration workflow per translation chunk and waiting for all of them to complete
+      for (Map.Entry<String, CompletableFuture<WorkflowMigrationResponse>> workflow :
+          workflowMigrationService
+              .createMigrationWorkflows(translateDDLDataDTO, sourceDDLHashesByChunk.keySet())
+              .entrySet()) {
+        WorkflowMigrationResponse workflowMigrationResponse =
+            WorkflowMigrationService.getCompletedWorkflow(workflow.getValue());
+        ddlTranslationCacheService.saveTranslations(
+            translateDDLDataDTO.getGcsBucketForTranslation(),
+            workflowMigrationResponse.getTranslatedFileFullGCSPath(),
+            workflowMigrationResponse.getWorkflowName(),
+            sourceDDLHashesByChunk.get(workflow.getKey()));
       }
+      return String.format(
+          "Extract & translate DDL request completed successfully at %s",
+          PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
     } catch (Exception e) {
       log.error(
           "Error while performing extractAndTranslateDDLs request,{}\nStack Trace:",
@@ -17,21 +17,34 @@
 package com.google.connector.snowflakeToBQ.service;
 
 import com.google.cloud.storage.*;
+import com.google.connector.snowflakeToBQ.entity.DDLTranslationCache;
 import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
 import com.google.connector.snowflakeToBQ.model.datadto.GCSDetailsDataDTO;
+import com.google.connector.snowflakeToBQ.model.datadto.StagingInventoryDataDTO;
+import com.google.connector.snowflakeToBQ.model.datadto.TranslateDDLDataDTO;
+import com.google.connector.snowflakeToBQ.model.response.WorkflowMigrationResponse;
 import com.google.connector.snowflakeToBQ.service.Instancecreator.StorageInstanceCreator;
 import com.google.connector.snowflakeToBQ.util.PropertyManager;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import lombok.Setter;
 import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 /** Class to perform all the operations related to Google cloud Storage. */
@@ -39,18 +52,54 @@ import org.springframework.stereotype.Service;
 public class GoogleCloudStorageService {
   private static final Logger log = LoggerFactory.getLogger(GoogleCloudStorageService.class);
 
+  public static final String TRANSLATION_CHUNK_PREFIX = "chunk_";
+
   final StorageInstanceCreator storageInstanceCreator;
   final ApplicationConfigDataService applicationConfigDataService;
+  final DDLTranslationCacheService ddlTranslationCacheService;
+  final LocalDDLTranslator localDDLTranslator;
+  final WorkflowMigrationService workflowMigrationService;
+  final ThreadPoolTaskExecutor customExecutor;
+
+  // Max DDL files translated by a single migration workflow, 0 translates the schema in one
+  @Value("${migration.workflow.chunk.max.tables}")
+  private int translationChunkMaxTables;
+
+  @Setter
+  @Value("${translation.local.enabled}")
+  private boolean localTranslationEnabled;
+
+  // Max DDLs translated interactively(in memory) instead of the batch workflow, 0 disables it
+  @Setter
+  @Value("${translation.interactive.max.tables}")
+  private int interactiveTranslationMaxTables;
 
   public GoogleCloudStorageService(
       StorageInstanceCreator storageInstanceCreator,
-      ApplicationConfigDataService applicationConfigDataService) {
+      ApplicationConfigDataService applicationConfigDataService,
+      DDLTranslationCacheService ddlTranslationCacheService,
+      LocalDDLTranslator localDDLTranslator,
+      WorkflowMigrationService workflowMigrationService,
+      @Qualifier("customExecutor") ThreadPoolTaskExecutor customExecutor) {
     this.storageInstanceCreator = storageInstanceCreator;
     this.applicationConfigDataService = applicationConfigDataService;
+    this.ddlTranslationCacheService = ddlTranslationCacheService;
+    this.localDDLTranslator = localDDLTranslator;
+    this.workflowMigrationService = workflowMigrationService;
+    this.customExecutor = customExecutor;
   }
 
   /**
-   * Method to write the ddls into the given GCS location as a file.
+   * Method to write the ddls into the given GCS location as a file. When the schema has more tables
+   * than migration.workflow.chunk.max.tables, the files are spread over chunk_N sub folders of the
+   * schema folder so that each sub folder can be translated by its own workflow in parallel. DDLs
+   * which are already translated by an earlier request(same content hash) are not written, their
+   * cached translation is returned instead. Simple DDLs are translated by {@link
+   * LocalDDLTranslator} and only their translation is written. If no more than
+   * translation.interactive.max.tables DDLs are left, they are translated in memory by the
+   * interactive translation and are not written either. When the request does not need the
+   * translation(tables already exist in BigQuery) none of these steps run and all the DDLs are
+   * written.
    *
    * @param ddlMap map containing table name and respective ddls for it.
    * @param gcsDetailsDataDTO receive request data which contains information required to perform
@@ -63,24 +112,16 @@ public class GoogleCloudStorageService {
       Map<String, String> ddlMap, GCSDetailsDataDTO gcsDetailsDataDTO) {
     moveFolder(gcsDetailsDataDTO.getSourceDatabaseName(), gcsDetailsDataDTO.getGcsBucketForDDLs());
     List<GCSDetailsDataDTO> gcsDetailsDataDTOS = new ArrayList<>();
+    Map<String, String> updatedDDLs = new HashMap<>();
+    // Locally translated DDLs are kept apart from the output folders of the migration workflows
+    String localTranslationFolder =
+        getTranslationFolder(PropertyManager.LOCAL_TRANSLATED_FOLDER_PREFIX, gcsDetailsDataDTO);
     ddlMap.forEach(
         (tableName, ddl) -> {
-          // Creating the full gcs path. Path will be like
-          // bucket_name/database_name/schema_name/table_name.sql
-          BlobInfo blobInfo =
-              BlobInfo.newBuilder(
-                      gcsDetailsDataDTO.getGcsBucketForDDLs(),
-                      String.format(
-                          "%s/%s/%s/%s.sql",
-                          PropertyManager.DDL_PREFIX,
-                          gcsDetailsDataDTO.getSourceDatabaseName(),
-                          gcsDetailsDataDTO.getSourceSchemaName(),
-                          tableName))
-                  .build();
           // Replacing the table name in the ddl in bigquery format. Received ddls only contains
           // tablename, including these details helps during translation. By providing translation
           // mapping these values will get replaced with BigQuery specific value
-          ddl =
+          String updatedDDL =
               replaceSnowflakeTableNameWithBQ(
                   ddl,
                   String.format(
@@ -88,13 +129,6 @@ public class GoogleCloudStorageService {
                       gcsDetailsDataDTO.getSourceDatabaseName(),
                       gcsDetailsDataDTO.getSourceSchemaName(),
                       tableName));
-
-          // write the file in GCS
-          Blob blob =
-              storageInstanceCreator
-                  .getStorageClient()
-                  .create(blobInfo, ddl.getBytes(StandardCharsets.UTF_8));
-
           // Cloning the incoming object as it contains several values needed in the new object,
           // along with additional values. We generate multiple objects from a single one because
           // the incoming object specifies the input GCS path where all the output objects will be
@@ -107,18 +141,278 @@ public class GoogleCloudStorageService {
           gcsDetailsDataDTOCloned.setSourceSchemaName(gcsDetailsDataDTO.getSourceSchemaName());
           gcsDetailsDataDTOCloned.setTargetDatabaseName(gcsDetailsDataDTO.getTargetDatabaseName());
           gcsDetailsDataDTOCloned.setTargetSchemaName(gcsDetailsDataDTO.getTargetSchemaName());
-          // Updating path of the Snowflake DDLs file after saving it GCS
-          gcsDetailsDataDTOCloned.setSnowflakeDDLsPath(
-              String.format("gs://%s/%s", blob.getBucket(), blob.getName()));
           gcsDetailsDataDTOCloned.setSourceTableName(tableName);
-          // Setting this property to true make sure that in table this step is completed.
-          gcsDetailsDataDTOCloned.setSourceDDLCopied(true);
+          gcsDetailsDataDTOCloned.setSourceDDLHash(
+              DDLTranslationCacheService.hash(updatedDDL, gcsDetailsDataDTO));
           gcsDetailsDataDTOS.add(gcsDetailsDataDTOCloned);
-          log.info("File written to GCS {}::", blob.getMediaLink());
+          // Tables which already exist in BigQuery are not translated, their DDLs are only written
+          if (!gcsDetailsDataDTO.isTranslationRequired()) {
+            updatedDDLs.put(tableName, updatedDDL);
+            return;
+          }
+          DDLTranslationCache cachedTranslation =
+              ddlTranslationCacheService.lookup(
+                  gcsDetailsDataDTOCloned.getSourceDDLHash(),
+                  gcsDetailsDataDTO.getGcsBucketForTranslation());
+          if (cachedTranslation != null) {
+            log.info(
+                "DDL of table:{} is unchanged, reusing its translation:{}",
+                tableName,
+                cachedTranslation.getTranslatedDDLGCSPath());
+            gcsDetailsDataDTOCloned.setTranslatedDDLGCSPath(
+                cachedTranslation.getTranslatedDDLGCSPath());
+            gcsDetailsDataDTOCloned.setTranslationWorkflowName(cachedTranslation.getWorkflowName());
+            // Setting this property to true make sure that in table this step is completed.
+            gcsDetailsDataDTOCloned.setSourceDDLCopied(true);
+          } else if (!writeLocalTranslation(
+              updatedDDL, localTranslationFolder, gcsDetailsDataDTOCloned)) {
+            updatedDDLs.put(tableName, updatedDDL);
+          }
         });
+
+    // Few DDLs are translated in memory, without the upload and the batch workflow round trip
+    int interactivelyTranslated = 0;
+    if (gcsDetailsDataDTO.isTranslationRequired()
+        && !updatedDDLs.isEmpty()
+        && updatedDDLs.size() <= interactiveTranslationMaxTables) {
+      interactivelyTranslated =
+          translateInteractively(updatedDDLs, gcsDetailsDataDTOS, gcsDetailsDataDTO);
+    }
+
+    // Only the DDLs which need translation are written and spread over the translation chunks
+    Map<String, String> translationChunks =
+        assignTranslationChunks(updatedDDLs.keySet(), translationChunkMaxTables);
+    for (GCSDetailsDataDTO gcsDetailsDataDTOCloned : gcsDetailsDataDTOS) {
+      String tableName = gcsDetailsDataDTOCloned.getSourceTableName();
+      if (!updatedDDLs.containsKey(tableName)) {
+        continue;
+      }
+      String translationChunk = translationChunks.get(tableName);
+      // Creating the full gcs path. Path will be like
+      // bucket_name/database_name/schema_name/table_name.sql or
+      // bucket_name/database_name/schema_name/chunk_N/table_name.sql if chunked
+      BlobInfo blobInfo =
+          BlobInfo.newBuilder(
+                  gcsDetailsDataDTO.getGcsBucketForDDLs(),
+                  getSourceDDLPath(
+                      gcsDetailsDataDTO.getSourceDatabaseName(),
+                      gcsDetailsDataDTO.getSourceSchemaName(),
+                      translationChunk,
+                      tableName))
+              .build();
+
+      // write the file in GCS
+      Blob blob =
+          storageInstanceCreator
+              .getStorageClient()
+              .create(blobInfo, updatedDDLs.get(tableName).getBytes(StandardCharsets.UTF_8));
+
+      // Updating path of the Snowflake DDLs file after saving it GCS
+      gcsDetailsDataDTOCloned.setSnowflakeDDLsPath(
+          String.format("gs://%s/%s", blob.getBucket(), blob.getName()));
+      gcsDetailsDataDTOCloned.setTranslationChunk(translationChunk);
+      // Setting this property to true make sure that in table this step is completed.
+      gcsDetailsDataDTOCloned.setSourceDDLCopied(true);
+      log.info("File written to GCS {}::", blob.getMediaLink());
+    }
+    long locallyTranslated =
+        gcsDetailsDataDTOS.stream()
+            .filter(
+                dto ->
+                    LocalDDLTranslator.LOCAL_TRANSLATION_WORKFLOW_NAME.equals(
+                        dto.getTranslationWorkflowName()))
+            .count();
+    log.info(
+        "DDLs written to GCS:{}, translated locally:{}, translated interactively:{}, reused "
+            + "translations:{}",
+        updatedDDLs.size(),
+        locallyTranslated,
+        interactivelyTranslated,
+        gcsDetailsDataDTOS.size()
+            - updatedDDLs.size()
+            - locallyTranslated
+            - interactivelyTranslated);
     return gcsDetailsDataDTOS;
   }
 
+  /*
+   * Translates the DDL with LocalDDLTranslator and writes the translation in the translation
+   * bucket, false if local translation is disabled or the DDL needs the migration workflow.
+   */
+  private boolean writeLocalTranslation(
+      String ddl, String localTranslationFolder, GCSDetailsDataDTO gcsDetailsDataDTO) {
+    if (!localTranslationEnabled) {
+      return false;
+    }
+    String translatedDDL =
+        localDDLTranslator.translate(
+            ddl,
+            String.format(
+                "%s.%s.%s",
+                gcsDetailsDataDTO.getSourceDatabaseName(),
+                gcsDetailsDataDTO.getSourceSchemaName(),
+                gcsDetailsDataDTO.getSourceTableName()));
+    if (translatedDDL == null) {
+      return false;
+    }
+    log.info("DDL of table:{} is translated locally", gcsDetailsDataDTO.getSourceTableName());
+    writeTranslation(
+        translatedDDL,
+        localTranslationFolder,
+        LocalDDLTranslator.LOCAL_TRANSLATION_WORKFLOW_NAME,
+        gcsDetailsDataDTO);
+    return true;
+  }
+
+  /*
+   * Translates the DDLs in memory with parallel interactive translations and writes their
+   * translation. Translated DDLs are removed from the map, the ones whose interactive translation
+   * failed are left for the migration workflow. Returns the number of translated DDLs.
+   */
+  private int translateInteractively(
+      Map<String, String> updatedDDLs,
+      List<GCSDetailsDataDTO> gcsDetailsDataDTOS,
+      GCSDetailsDataDTO gcsDetailsDataDTO) {
+    TranslateDDLDataDTO translateDDLDataDTO = new TranslateDDLDataDTO();
+    translateDDLDataDTO.setSourceDatabaseName(gcsDetailsDataDTO.getSourceDatabaseName());
+    translateDDLDataDTO.setSourceSchemaName(gcsDetailsDataDTO.getSourceSchemaName());
+    translateDDLDataDTO.setTargetDatabaseName(gcsDetailsDataDTO.getTargetDatabaseName());
+    translateDDLDataDTO.setTargetSchemaName(gcsDetailsDataDTO.getTargetSchemaName());
+    translateDDLDataDTO.setGcsBucketForTranslation(gcsDetailsDataDTO.getGcsBucketForTranslation());
+    translateDDLDataDTO.setTranslationJobLocation(gcsDetailsDataDTO.getTranslationJobLocation());
+
+    Map<String, CompletableFuture<WorkflowMigrationResponse>> translations = new HashMap<>();
+    updatedDDLs.forEach(
+        (tableName, ddl) ->
+            translations.put(
+                tableName,
+                CompletableFuture.supplyAsync(
+                        () ->
+                            workflowMigrationService.translateDDL(
+                                translateDDLDataDTO, tableName, ddl),
+                        customExecutor)
+                    .thenCompose(Function.identity())));
+    String interactiveTranslationFolder =
+        getTranslationFolder(
+            PropertyManager.INTERACTIVE_TRANSLATED_FOLDER_PREFIX, gcsDetailsDataDTO);
+    int translatedCount = 0;
+    for (GCSDetailsDataDTO gcsDetailsDataDTOCloned : gcsDetailsDataDTOS) {
+      String tableName = gcsDetailsDataDTOCloned.getSourceTableName();
+      CompletableFuture<WorkflowMigrationResponse> translation = translations.get(tableName);
+      if (translation == null) {
+        continue;
+      }
+      try {
+        WorkflowMigrationResponse workflowMigrationResponse =
+            WorkflowMigrationService.getCompletedWorkflow(translation);
+        if (StringUtils.isBlank(workflowMigrationResponse.getTranslatedDDL())) {
+          log.warn(
+              "Interactive translation:{} did not return the DDL of table:{}",
+              workflowMigrationResponse.getWorkflowName(),
+              tableName);
+          continue;
+        }
+        writeTranslation(
+            workflowMigrationResponse.getTranslatedDDL(),
+            interactiveTranslationFolder,
+            workflowMigrationResponse.getWorkflowName(),
+            gcsDetailsDataDTOCloned);
+        ddlTranslationCacheService.saveTranslation(
+            gcsDetailsDataDTOCloned.getGcsBucketForTranslation(),
+            gcsDetailsDataDTOCloned.getTranslatedDDLGCSPath(),
+            workflowMigrationResponse.getWorkflowName(),
+            gcsDetailsDataDTOCloned.getSourceDDLHash());
+        updatedDDLs.remove(tableName);
+        translatedCount++;
+      } catch (Exception e) {
+        log.warn(
+            "Interactive translation of table:{} failed, it will be translated by the migration "
+                + "workflow. Error Message:{}",
+            tableName,
+            e.getMessage());
+      }
+    }
+    return translatedCount;
+  }
+
+  /*
+   * Writes the translation done without the batch workflow in the translation bucket, it is
+   * written once so that the table can be created again(e.g. reprocessing of failed request).
+   */
+  private void writeTranslation(
+      String translatedDDL,
+      String translationFolder,
+      String workflowName,
+      GCSDetailsDataDTO gcsDetailsDataDTO) {
+    String translatedDDLGCSPath =
+        String.format("%s/%s.sql", translationFolder, gcsDetailsDataDTO.getSourceTableName());
+    BlobInfo blobInfo =
+        BlobInfo.newBuilder(gcsDetailsDataDTO.getGcsBucketForTranslation(), translatedDDLGCSPath)
+            .build();
+    storageInstanceCreator
+        .getStorageClient()
+        .create(blobInfo, translatedDDL.getBytes(StandardCharsets.UTF_8));
+    gcsDetailsDataDTO.setTranslatedDDLGCSPath(translatedDDLGCSPath);
+    gcsDetailsDataDTO.setTranslationWorkflowName(workflowName);
+    gcsDetailsDataDTO.setTranslatedDDL(translatedDDL);
+    // Setting this property to true make sure that in table this step is completed.
+    gcsDetailsDataDTO.setSourceDDLCopied(true);
+  }
+
+  /* Folder of the schema for the translations done without the batch workflow. */
+  private static String getTranslationFolder(
+      String folderPrefix, GCSDetailsDataDTO gcsDetailsDataDTO) {
+    return String.format(
+        "%s/%s/%s/%s",
+        folderPrefix,
+        gcsDetailsDataDTO.getSourceDatabaseName(),
+        gcsDetailsDataDTO.getSourceSchemaName(),
+        PropertyManager.getDateInDesiredFormat(
+            LocalDateTime.now(), PropertyManager.OUTPUT_FORMATTER));
+  }
+
+  /**
+   * Path(without bucket name) of the uploaded Snowflake DDL of a table, the migration workflow of
+   * the chunk translates the files of the chunk folder.
+   *
+   * @param databaseName source database name.
+   * @param schemaName source schema name.
+   * @param translationChunk sub folder of the chunk, blank if the schema is not chunked.
+   * @param tableName name of the table.
+   * @return path like snowflake-ddls/DATABASE/SCHEMA/[chunk_N/]TABLE.sql
+   */
+  public static String getSourceDDLPath(
+      String databaseName, String schemaName, String translationChunk, String tableName) {
+    return String.format(
+        "%s/%s/%s/%s%s.sql",
+        PropertyManager.DDL_PREFIX,
+        databaseName,
+        schemaName,
+        StringUtils.isBlank(translationChunk) ? "" : translationChunk + "/",
+        tableName);
+  }
+
+  /**
+   * Assigns the tables to the translation chunks, tables are sorted by name and every chunk gets
+   * up to maxTables consecutive tables, so the assignment is the same for the same tables.
+   *
+   * @param tableNames names of the tables of the schema.
+   * @param maxTables max tables in a chunk, 0 or less means no chunking.
+   * @return map of table name to its chunk(chunk_0, chunk_1...), chunk is null for all the tables
+   *     if they fit in a single chunk.
+   */
+  static Map<String, String> assignTranslationChunks(Collection<String> tableNames, int maxTables) {
+    Map<String, String> translationChunks = new HashMap<>();
+    boolean chunked = maxTables > 0 && tableNames.size() > maxTables;
+    int index = 0;
+    for (String tableName : new TreeSet<>(tableNames)) {
+      translationChunks.put(
+          tableName, chunked ? TRANSLATION_CHUNK_PREFIX + (index / maxTables) : null);
+      index++;
+    }
+    return translationChunks;
+  }
+
   public boolean moveFolder(String databaseName, String translationGcsFolder) {
     boolean moveFolderStatus;
     // Check if any object exists with the specified prefix (folder path)
@@ -180,6 +474,23 @@ public class GoogleCloudStorageService {
     return moveFolderStatus;
   }
 
+  /**
+   * Method to copy a file within the bucket, waits till the copy is done.
+   *
+   * @param bucketName Name of the bucket containing the file
+   * @param sourcePath path of the file to copy, without bucket name.
+   * @param targetPath path of the copy, without bucket name.
+   */
+  public void copyFile(String bucketName, String sourcePath, String targetPath) {
+    Storage.CopyRequest request =
+        Storage.CopyRequest.newBuilder()
+            .setSource(BlobId.of(bucketName, sourcePath))
+            .setTarget(BlobId.of(bucketName, targetPath))
+            .build();
+    storageInstanceCreator.getStorageClient().copy(request).getResult();
+    log.info("File gs://{}/{} copied to {}", bucketName, sourcePath, targetPath);
+  }
+
   /**
    * Method to get the content of the file present in GCS
    *
@@ -197,6 +508,118 @@ public class GoogleCloudStorageService {
     return new String(ddlBytes, StandardCharsets.UTF_8);
   }
 
+  /**
+   * Method to list the names of all the files present under a folder(prefix) of the bucket. Only
+   * the name of the object is requested from GCS, so listing a folder having thousands of files
+   * stays cheap.
+   *
+   * @param bucketName Name of the bucket containing the folder
+   * @param folderPath path of the folder in the bucket, without bucket name.
+   * @return {@link List} of full object names present under the folder.
+   */
+  public List<String> listFiles(String bucketName, String folderPath) {
+    if (StringUtils.isBlank(bucketName) || StringUtils.isBlank(folderPath)) {
+      String errorMessage = "bucket name or folder path is blank";
+      log.error(errorMessage);
+      throw new SnowflakeConnectorException(errorMessage, 0);
+    }
+    String prefix = folderPath.endsWith("/") ? folderPath : folderPath + "/";
+    List<String> fileNames = new ArrayList<>();
+    storageInstanceCreator
+        .getStorageClient()
+        .list(
+            bucketName,
+            Storage.BlobListOption.prefix(prefix),
+            Storage.BlobListOption.fields(Storage.BlobField.NAME))
+        .iterateAll()
+        .forEach(blob -> fileNames.add(blob.getName()));
+    log.info("Found {} files in gs://{}/{}", fileNames.size(), bucketName, prefix);
+    return fileNames;
+  }
+
+  /**
+   * Method to build the inventory of the files unloaded by Snowflake for a table. Staging location
+   * of the table is listed only once and only name and size of the objects are requested from GCS.
+   *
+   * @param stageLocation Snowflake stage location in the form of bucket/folder, it can optionally
+   *     start with gs:// or gcs://
+   * @param tableName name of the table, Snowflake unload writes the files of the table under this
+   *     folder of the stage location.
+   * @return {@link StagingInventoryDataDTO} containing number of files, their total size and names.
+   */
+  public StagingInventoryDataDTO getStagingInventory(String stageLocation, String tableName) {
+    if (StringUtils.isBlank(stageLocation) || StringUtils.isBlank(tableName)) {
+      String errorMessage = "stage location or table name is blank";
+      log.error(errorMessage);
+      throw new SnowflakeConnectorException(errorMessage, 0);
+    }
+    String stagePath =
+        StringUtils.removeEnd(
+            StringUtils.removeStartIgnoreCase(
+                StringUtils.removeStartIgnoreCase(stageLocation, "gs://"), "gcs://"),
+            "/");
+    String bucketName = StringUtils.substringBefore(stagePath, "/");
+    String folderPath = StringUtils.substringAfter(stagePath, "/");
+    String prefix =
+        StringUtils.isBlank(folderPath) ? tableName + "/" : folderPath + "/" + tableName + "/";
+
+    StagingInventoryDataDTO stagingInventoryDataDTO = new StagingInventoryDataDTO();
+    stagingInventoryDataDTO.setBucketName(bucketName);
+    stagingInventoryDataDTO.setPrefix(prefix);
+    storageInstanceCreator
+        .getStorageClient()
+        .list(
+            bucketName,
+            Storage.BlobListOption.prefix(prefix),
+            Storage.BlobListOption.fields(Storage.BlobField.NAME, Storage.BlobField.SIZE))
+        .iterateAll()
+        .forEach(
+            blob -> {
+              // Skipping the folder placeholder objects, they are not part of the unloaded data
+              if (blob.getName().endsWith("/")) {
+                return;
+              }
+              stagingInventoryDataDTO.getFileNames().add(blob.getName());
+              stagingInventoryDataDTO
+                  .getFileSizes()
+                  .add(blob.getSize() == null ? 0L : blob.getSize());
+              stagingInventoryDataDTO.setFileCount(stagingInventoryDataDTO.getFileCount() + 1);
+              if (blob.getSize() != null) {
+                stagingInventoryDataDTO.setTotalBytes(
+                    stagingInventoryDataDTO.getTotalBytes() + blob.getSize());
+              }
+            });
+    log.info("Staging inventory for table:{} is {}", tableName, stagingInventoryDataDTO);
+    return stagingInventoryDataDTO;
+  }
+
+  /**
+   * Method to delete the given files from the bucket. All the files are deleted in a single batch
+   * request, so caller should keep the number of files per call within the GCS batch limit(100).
+   *
+   * @param bucketName Name of the bucket containing the files
+   * @param fileNames full object names(without bucket name) of the files to be deleted.
+   * @return number of files deleted, files which did not exist are not counted.
+   */
+  public int deleteFiles(String bucketName, List<String> fileNames) {
+    if (fileNames.isEmpty()) {
+      return 0;
+    }
+    List<BlobId> blobIds = new ArrayList<>();
+    for (String fileName : fileNames) {
+      blobIds.add(BlobId.of(bucketName, fileName));
+    }
+    List<Boolean> deleteStatus = storageInstanceCreator.getStorageClient().delete(blobIds);
+    int deletedCount = 0;
+    for (Boolean deleted : deleteStatus) {
+      if (Boolean.TRUE.equals(deleted)) {
+        deletedCount++;
+      }
+    }
+    log.info("Deleted {} of {} files from bucket:{}", deletedCount, fileNames.size(), bucketName);
+    return deletedCount;
+  }
+
   private BlobInfo createFolder(String bucketName, String folderName) {
     BlobInfo folderInfo = BlobInfo.newBuilder(BlobId.of(bucketName, folderName + "/")).build();
     return storageInstanceCreator.getStorageClient().create(folderInfo);
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Class to translate the simple Snowflake CREATE TABLE DDLs to BigQuery in process, without
+ * uploading them for a migration workflow. A DDL is translated only if every part of it is
+ * understood: plain columns of the types listed in docs/DATATYPES.md with optional NOT NULL and
+ * COMMENT, and an optional CLUSTER BY(clustering is carried by {@link
+ * BigQueryPartitioningService}). Any other DDL(constraints, defaults, identity columns, collations,
+ * policies, table options, semi-structured or geography columns etc.) is left to the migration
+ * workflow.
+ *
+ * <p>DDL is read in a single pass using precompiled patterns, hence tens of thousands of DDLs are
+ * translated in seconds.
+ */
+@Service
+public class LocalDDLTranslator {
+  private static final Logger log = LoggerFactory.getLogger(LocalDDLTranslator.class);
+
+  // Saved as workflow name of the tables translated by this class
+  public static final String LOCAL_TRANSLATION_WORKFLOW_NAME = "local-translation";
+
+  private static final Pattern CREATE_TABLE =
+      Pattern.compile(
+          "\\s*create\\s+(?:or\\s+replace\\s+)?(?:transient\\s+)?table\\s+"
+              + "(?:if\\s+not\\s+exists\\s+)?(?:\"[^\"]+\"|[A-Za-z0-9_.])+\\s*",
+          Pattern.CASE_INSENSITIVE);
+  private static final Pattern CLUSTER_BY =
+      Pattern.compile("cluster\\s+by\\s*(?:linear\\s*)?\\(", Pattern.CASE_INSENSITIVE);
+  private static final Pattern COLUMN_NAME =
+      Pattern.compile("(\"?)([A-Za-z_][A-Za-z0-9_]*)\\1\\s+");
+  private static final Pattern COLUMN_TYPE =
+      Pattern.compile(
+          "([A-Za-z_][A-Za-z0-9_]*(?:\\s+precision|\\s+varying)?)\\s*"
+              + "(?:\\(\\s*(\\d{1,9})\\s*(?:,\\s*(\\d{1,9})\\s*)?\\))?\\s*",
+          Pattern.CASE_INSENSITIVE);
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Pattern NULLABILITY =
+      Pattern.compile("(not\\s+)?null\\s*", Pattern.CASE_INSENSITIVE);
+  private static final Pattern COMMENT =
+      Pattern.compile("comment\\s+'([^'\"\\\\\\r\\n]*)'\\s*", Pattern.CASE_INSENSITIVE);
+
+  /**
+   * Translates the CREATE TABLE DDL of Snowflake to BigQuery.
+   *
+   * @param snowflakeDDL DDL extracted from Snowflake using GET_DDL.
+   * @param tableName name(database.schema.table) to be given to the table in the BigQuery DDL,
+   *     source names are kept so that the DDL is mapped to the target in the same way as the
+   *     translation of the migration workflow.
+   * @return BigQuery DDL of the table, null if the DDL can not be translated locally.
+   */
+  public String translate(String snowflakeDDL, String tableName) {
+    if (StringUtils.isBlank(snowflakeDDL)) {
+      return null;
+    }
+    String ddl = StringUtils.stripEnd(snowflakeDDL, "; \n\r\t");
+    Matcher matcher = CREATE_TABLE.matcher(ddl);
+    if (!matcher.lookingAt()) {
+      return null;
+    }
+    int position = skipClusterBy(ddl, matcher.end());
+    if (position < 0 || position >= ddl.length() || ddl.charAt(position) != '(') {
+      return null;
+    }
+    int columnsEnd = BigQueryPartitioningService.findClosingParenthesis(ddl, position);
+    // Only a CLUSTER BY is allowed after the columns, other table options are not translated
+    if (columnsEnd < 0 || skipClusterBy(ddl, columnsEnd + 1) != ddl.length()) {
+      return null;
+    }
+
+    StringBuilder translatedDDL =
+        new StringBuilder(ddl.length()).append("CREATE TABLE ").append(tableName).append("\n(\n");
+    Set<String> columnNames = new HashSet<>();
+    List<String> columns =
+        BigQueryPartitioningService.splitTopLevel(ddl.substring(position + 1, columnsEnd));
+    if (columns.isEmpty()) {
+      return null;
+    }
+    for (int i = 0; i < columns.size(); i++) {
+      if (!appendColumn(columns.get(i), columnNames, translatedDDL)) {
+        log.debug("Column:{} of table:{} is not translated locally", columns.get(i), tableName);
+        return null;
+      }
+      translatedDDL.append(i < columns.size() - 1 ? ",\n" : "\n");
+    }
+    return translatedDDL.append(");").toString();
+  }
+
+  /* Appends the BigQuery definition of the column, false if the column is not understood. */
+  private static boolean appendColumn(
+      String column, Set<String> columnNames, StringBuilder translatedDDL) {
+    Matcher matcher = COLUMN_NAME.matcher(column);
+    if (!matcher.lookingAt()) {
+      return false;
+    }
+    String name = matcher.group(2);
+    // Column names are case insensitive in BigQuery, "id" and "ID" can not be in the same table
+    if (!columnNames.add(name.toUpperCase(Locale.ROOT))) {
+      return false;
+    }
+    matcher.usePattern(COLUMN_TYPE).region(matcher.end(), column.length());
+    if (!matcher.lookingAt()) {
+      return false;
+    }
+    String type = toBigQueryType(matcher.group(1), matcher.group(2), matcher.group(3));
+    if (type == null) {
+      return false;
+    }
+    translatedDDL.append("  `").append(name).append("` ").append(type);
+
+    matcher.usePattern(NULLABILITY).region(matcher.end(), column.length());
+    if (matcher.lookingAt()) {
+      if (matcher.group(1) != null) {
+        translatedDDL.append(" NOT NULL");
+      }
+      matcher.region(matcher.end(), column.length());
+    }
+    matcher.usePattern(COMMENT);
+    if (matcher.lookingAt()) {
+      translatedDDL.append(" OPTIONS(description=\"").append(matcher.group(1)).append("\")");
+      matcher.region(matcher.end(), column.length());
+    }
+    // Anything left(DEFAULT, IDENTITY, COLLATE, constraint, policy...) is not translated locally
+    return matcher.regionStart() == column.length();
+  }
+
+  /**
+   * Gives the BigQuery type of the Snowflake column type.
+   *
+   * @param type Snowflake type without parameters, e.g. NUMBER or DOUBLE PRECISION.
+   * @param precision precision or length given to the type, null if not given.
+   * @param scale scale given to the type, null if not given.
+   * @return BigQuery type, null if the type is not translated locally.
+   */
+  static String toBigQueryType(String type, String precision, String scale) {
+    switch (WHITESPACE.matcher(type.toUpperCase(Locale.ROOT)).replaceAll(" ")) {
+      case "NUMBER":
+      case "DECIMAL":
+      case "DEC":
+      case "NUMERIC":
+        // Snowflake NUMBER defaults to NUMBER(38,0)
+        return toBigQueryNumeric(
+            precision == null ? 38 : Integer.parseInt(precision),
+            scale == null ? 0 : Integer.parseInt(scale));
+      case "INT":
+      case "INTEGER":
+      case "BIGINT":
+      case "SMALLINT":
+      case "TINYINT":
+      case "BYTEINT":
+        return "INT64";
+      case "FLOAT":
+      case "FLOAT4":
+      case "FLOAT8":
+      case "DOUBLE":
+      case "DOUBLE PRECISION":
+      case "REAL":
+        return "FLOAT64";
+      case "VARCHAR":
+      case "CHAR":
+      case "CHARACTER":
+      case "CHAR VARYING":
+      case "NCHAR":
+      case "NCHAR VARYING":
+      case "NVARCHAR":
+      case "NVARCHAR2":
+      case "STRING":
+      case "TEXT":
+        return "STRING";
+      case "BINARY":
+      case "VARBINARY":
+        return "BYTES";
+      case "BOOLEAN":
+        return "BOOL";
+      case "DATE":
+        return "DATE";
+      case "TIME":
+        return "TIME";
+      case "DATETIME":
+      case "TIMESTAMP":
+      case "TIMESTAMP_NTZ":
+        return "DATETIME";
+      case "TIMESTAMP_LTZ":
+      case "TIMESTAMP_TZ":
+        return "TIMESTAMP";
+      default:
+        return null;
+    }
+  }
+
+  /*
+   * NUMERIC holds up to 29 integer digits with up to 9 decimal digits, BIGNUMERIC up to 38 of each.
+   * Null if the precision and scale fit neither.
+   */
+  private static String toBigQueryNumeric(int precision, int scale) {
+    int integerDigits = precision - scale;
+    if (integerDigits < 1) {
+      return null;
+    }
+    String numericType;
+    if (integerDigits <= 29 && scale <= 9) {
+      numericType = "NUMERIC";
+    } else if (integerDigits <= 38 && scale <= 38) {
+      numericType = "BIGNUMERIC";
+    } else {
+      return null;
+    }
+    return scale == 0
+        ? String.format("%s(%d)", numericType, precision)
+        : String.format("%s(%d, %d)", numericType, precision, scale);
+  }
+
+  /* Index after the CLUSTER BY clause starting at the given index(if any), -1 if not closed. */
+  private static int skipClusterBy(String ddl, int index) {
+    int position = skipWhitespace(ddl, index);
+    Matcher matcher = CLUSTER_BY.matcher(ddl).region(position, ddl.length());
+    if (!matcher.lookingAt()) {
+      return position;
+    }
+    int end = BigQueryPartitioningService.findClosingParenthesis(ddl, matcher.end() - 1);
+    return end < 0 ? -1 : skipWhitespace(ddl, end + 1);
+  }
+
+  private static int skipWhitespace(String value, int index) {
+    while (index < value.length() && Character.isWhitespace(value.charAt(index))) {
+      index++;
+    }
+    return index;
+  }
+}
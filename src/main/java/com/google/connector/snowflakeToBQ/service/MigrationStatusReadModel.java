@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import com.google.connector.snowflakeToBQ.mapper.MigrateRequestMapper;
+import com.google.connector.snowflakeToBQ.model.response.SFDataMigrationResponse;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory read model of the migration status of the recently changed tables. Every change of an
+ * {@link ApplicationConfigData} row replaces the status of its table here once its write to the
+ * application_data table commits(for journaled changes, after their flush), so the status of the
+ * running migrations is served without reading the table and never shows a state which is not
+ * committed.
+ *
+ * <p>Only the compact {@link SFDataMigrationResponse} of a row is kept and the model is bounded by
+ * migration.status.read.model.max.rows, the least recently changed tables are dropped first and
+ * their status is read from the database again when asked.
+ */
+@Service
+public class MigrationStatusReadModel {
+
+  private final Map<Long, SFDataMigrationResponse> statusByRequestId;
+
+  public MigrationStatusReadModel(
+      @Value("${migration.status.read.model.max.rows}") int maxRows) {
+    this.statusByRequestId =
+        new LinkedHashMap<>() {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Long, SFDataMigrationResponse> eldest) {
+            return size() > maxRows;
+          }
+        };
+  }
+
+  /**
+   * Replaces the status of the table with the current state of its row. Row which was never
+   * saved(no id) is ignored.
+   *
+   * @param applicationConfigData changed row.
+   */
+  public void update(ApplicationConfigData applicationConfigData) {
+    if (applicationConfigData.getId() == null) {
+      return;
+    }
+    SFDataMigrationResponse sfDataMigrationResponse =
+        MigrateRequestMapper.applicationConfigDataToSFSfDataMigrationResponse(
+            applicationConfigData);
+    synchronized (statusByRequestId) {
+      // Removing first so that the changed table moves to the end of the eviction order
+      statusByRequestId.remove(applicationConfigData.getId());
+      statusByRequestId.put(applicationConfigData.getId(), sfDataMigrationResponse);
+    }
+  }
+
+  public void updateAll(Collection<ApplicationConfigData> applicationConfigDataList) {
+    applicationConfigDataList.forEach(this::update);
+  }
+
+  /**
+   * Returns the status of the requested tables which are held in the model.
+   *
+   * @param requestIds ids of the {@link ApplicationConfigData} rows.
+   * @return status by request id, tables not held in the model are missing from the map.
+   */
+  public Map<Long, SFDataMigrationResponse> getStatuses(Collection<Long> requestIds) {
+    Map<Long, SFDataMigrationResponse> statuses = new LinkedHashMap<>();
+    synchronized (statusByRequestId) {
+      for (Long requestId : requestIds) {
+        SFDataMigrationResponse sfDataMigrationResponse = statusByRequestId.get(requestId);
+        if (sfDataMigrationResponse != null) {
+          statuses.put(requestId, sfDataMigrationResponse);
+        }
+      }
+    }
+    return statuses;
+  }
+
+  /**
+   * Returns the status of the tables of a migration request which are held in the model.
+   *
+   * @param requestLogId request log id of the migration request, all the held tables if null.
+   * @return status of the tables ordered by request id.
+   */
+  public List<SFDataMigrationResponse> getStatuses(String requestLogId) {
+    List<SFDataMigrationResponse> statuses = new ArrayList<>();
+    synchronized (statusByRequestId) {
+      for (SFDataMigrationResponse sfDataMigrationResponse : statusByRequestId.values()) {
+        if (requestLogId == null
+            || Objects.equals(requestLogId, sfDataMigrationResponse.getRequestLogId())) {
+          statuses.add(sfDataMigrationResponse);
+        }
+      }
+    }
+    statuses.sort((first, second) -> first.getRequestId().compareTo(second.getRequestId()));
+    return statuses;
+  }
+
+  public int size() {
+    synchronized (statusByRequestId) {
+      return statusByRequestId.size();
+    }
+  }
+}
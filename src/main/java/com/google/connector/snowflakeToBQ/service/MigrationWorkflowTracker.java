@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service;
+
+import static com.google.connector.snowflakeToBQ.util.ErrorCode.MIGRATION_WORKFLOW_EXECUTION_ERROR;
+
+import com.google.cloud.bigquery.migration.v2.MigrationWorkflow;
+import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
+import com.google.connector.snowflakeToBQ.service.Instancecreator.MigrationServiceInstanceCreator;
+import java.util.concurrent.CompletableFuture;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Class which tracks the created migration workflows(DDL translation) till they finish. Callers
+ * register the workflow name and receive a {@link CompletableFuture} which gets completed once the
+ * workflow is COMPLETED or PAUSED, so no thread sleeps while the translation is running and any
+ * number of workflows(e.g. one per schema) can be tracked at the same time. Workflows are polled by
+ * {@link AdaptivePoller} on the migrationWorkflowTrackerScheduler thread.
+ */
+@Service
+public class MigrationWorkflowTracker extends AdaptivePoller<String, MigrationWorkflow> {
+
+  final MigrationServiceInstanceCreator migrationServiceInstanceCreator;
+
+  @Value("${migration.workflow.tracker.tick.ms}")
+  private long tickMs;
+
+  @Value("${migration.workflow.tracker.initial.poll.interval.ms}")
+  private long initialPollIntervalMs;
+
+  @Value("${migration.workflow.tracker.max.poll.interval.ms}")
+  private long maxPollIntervalMs;
+
+  // Max time(ms) to wait for a workflow to finish
+  @Setter
+  @Value("${migration.workflow.duration}")
+  private long timeoutMs;
+
+  public MigrationWorkflowTracker(
+      MigrationServiceInstanceCreator migrationServiceInstanceCreator,
+      @Qualifier("migrationWorkflowTrackerScheduler")
+          ThreadPoolTaskScheduler migrationWorkflowTrackerScheduler) {
+    super(migrationWorkflowTrackerScheduler, "Migration workflow");
+    this.migrationServiceInstanceCreator = migrationServiceInstanceCreator;
+  }
+
+  /**
+   * Registers the created workflow for tracking.
+   *
+   * @param workflowName name of the created migration workflow.
+   * @return {@link CompletableFuture} which completes with the finished {@link MigrationWorkflow}
+   *     (check its state and the state of its tasks), or exceptionally if the workflow does not
+   *     finish within the configured time.
+   */
+  public CompletableFuture<MigrationWorkflow> track(String workflowName) {
+    return register(workflowName);
+  }
+
+  /** Number of workflows which are created but not finished yet. */
+  public int getTrackedWorkflowCount() {
+    return getTrackedCount();
+  }
+
+  @Override
+  protected MigrationWorkflow fetchStatus(String workflowName) {
+    return migrationServiceInstanceCreator
+        .getMigrationServiceClient()
+        .getMigrationWorkflow(workflowName);
+  }
+
+  /* PAUSED is final for a translation workflow, it means some of its tasks did not succeed. */
+  @Override
+  protected boolean isTerminal(MigrationWorkflow workflow) {
+    return workflow.getState() == MigrationWorkflow.State.COMPLETED
+        || workflow.getState() == MigrationWorkflow.State.PAUSED;
+  }
+
+  @Override
+  protected SnowflakeConnectorException timeoutError() {
+    return new SnowflakeConnectorException(
+        MIGRATION_WORKFLOW_EXECUTION_ERROR.getMessage() + " Could not finish with in given time",
+        MIGRATION_WORKFLOW_EXECUTION_ERROR.getErrorCode());
+  }
+
+  @Override
+  protected long getTickMs() {
+    return tickMs;
+  }
+
+  @Override
+  protected long getInitialPollIntervalMs() {
+    return initialPollIntervalMs;
+  }
+
+  @Override
+  protected long getMaxPollIntervalMs() {
+    return maxPollIntervalMs;
+  }
+
+  @Override
+  protected long getTimeoutMs() {
+    return timeoutMs;
+  }
+}
@@ -209,6 +209,30 @@ public class RestAPIExecutionService {
             });
   }
 
+  /**
+   * Method to get the result of an executed statement, e.g. the rows_unloaded of a COPY INTO
+   * statement or the handles of the statements of a multi statement request. It only reads the
+   * result kept by Snowflake, no statement is executed.
+   *
+   * @param url Rest API url of the statements.
+   * @param statementHandle handle of the executed statement.
+   * @return result of the statement as map.
+   */
+  public Map<String, Object> getStatementResult(String url, String statementHandle) {
+    checkAndRefreshToken();
+    String accessToken =
+        encryptDecryptValues.decryptValue(oauthCredentials.getOauthMap().get("accessToken"));
+    return webClientConfig
+        .webClient()
+        .get()
+        .uri(url + statementHandle)
+        .header("Authorization", "Bearer " + accessToken)
+        .retrieve()
+        .bodyToMono(String.class)
+        .flatMap(this::parseStatus)
+        .block();
+  }
+
   /*Helper method to parse the received response (JSON format) in to the Map  */
   private Mono<Map<String, Object>> parseStatus(String jsonStatus) {
     try {
@@ -16,6 +16,7 @@
 
 package com.google.connector.snowflakeToBQ.service;
 
+import static com.google.connector.snowflakeToBQ.util.ErrorCode.MIGRATION_WORKFLOW_EXECUTION_ERROR;
 import static com.google.connector.snowflakeToBQ.util.PropertyManager.OUTPUT_FORMATTER1;
 
 import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
@@ -25,20 +26,27 @@ import com.google.connector.snowflakeToBQ.model.OperationResult;
 import com.google.connector.snowflakeToBQ.model.datadto.DDLDataDTO;
 import com.google.connector.snowflakeToBQ.model.datadto.GCSDetailsDataDTO;
 import com.google.connector.snowflakeToBQ.model.datadto.TranslateDDLDataDTO;
+import com.google.connector.snowflakeToBQ.model.datadto.TranslationReportDataDTO;
 import com.google.connector.snowflakeToBQ.model.request.SFDataMigrationRequestDTO;
+import com.google.connector.snowflakeToBQ.model.response.LoadStatisticsResponse;
+import com.google.connector.snowflakeToBQ.model.response.MigrationStatusPageResponse;
 import com.google.connector.snowflakeToBQ.model.response.SFDataMigrationResponse;
 import com.google.connector.snowflakeToBQ.model.response.WorkflowMigrationResponse;
 import com.google.connector.snowflakeToBQ.service.async.SnowflakeToBQAsyncService;
-import com.google.connector.snowflakeToBQ.util.ErrorCode;
 import com.google.connector.snowflakeToBQ.util.PropertyManager;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import lombok.Setter;
 import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 
 /**
@@ -58,9 +66,23 @@ public class SnowflakeMigrateDataService {
 
   final BigQueryOperationsService loadBigQueryJobService;
   final ApplicationConfigDataService applicationConfigDataService;
+  final ApplicationConfigDataJournal applicationConfigDataJournal;
 
   final SnowflakesService snowflakesService;
   final SnowflakeToBQAsyncService snowflakeToBQAsyncService;
+  final TranslatedDDLCacheService translatedDDLCacheService;
+  final BigQueryDDLBatchService bigQueryDDLBatchService;
+  final DDLTranslationCacheService ddlTranslationCacheService;
+  final TranslationReportService translationReportService;
+  final MigrationStatusReadModel migrationStatusReadModel;
+
+  // Follow-up workflows for the tables whose translation failed in a workflow, 0 disables them
+  @Setter
+  @Value("${migration.workflow.translation.max.retries}")
+  private int translationMaxRetries;
+
+  @Value("${migration.status.page.max.size}")
+  private int statusPageMaxSize;
 
   public SnowflakeMigrateDataService(
       WorkflowMigrationService workflowMigrationService,
@@ -69,16 +91,28 @@ public class SnowflakeMigrateDataService {
       GoogleCloudStorageService googleCloudStorageService,
       BigQueryOperationsService loadBigQueryJobService,
       ApplicationConfigDataService applicationConfigDataService,
+      ApplicationConfigDataJournal applicationConfigDataJournal,
       SnowflakesService snowflakesService,
-      SnowflakeToBQAsyncService snowflakeToBQAsyncService) {
+      SnowflakeToBQAsyncService snowflakeToBQAsyncService,
+      TranslatedDDLCacheService translatedDDLCacheService,
+      BigQueryDDLBatchService bigQueryDDLBatchService,
+      DDLTranslationCacheService ddlTranslationCacheService,
+      TranslationReportService translationReportService,
+      MigrationStatusReadModel migrationStatusReadModel) {
     this.workflowMigrationService = workflowMigrationService;
     this.schemaExtractorService = schemaExtractorService;
     this.bigQueryJobService = bigQueryJobService;
     this.googleCloudStorageService = googleCloudStorageService;
     this.loadBigQueryJobService = loadBigQueryJobService;
     this.applicationConfigDataService = applicationConfigDataService;
+    this.applicationConfigDataJournal = applicationConfigDataJournal;
     this.snowflakesService = snowflakesService;
     this.snowflakeToBQAsyncService = snowflakeToBQAsyncService;
+    this.translatedDDLCacheService = translatedDDLCacheService;
+    this.bigQueryDDLBatchService = bigQueryDDLBatchService;
+    this.ddlTranslationCacheService = ddlTranslationCacheService;
+    this.translationReportService = translationReportService;
+    this.migrationStatusReadModel = migrationStatusReadModel;
   }
 
   /**
@@ -104,15 +138,31 @@ public class SnowflakeMigrateDataService {
       GCSDetailsDataDTO gcsDetailsDataDTO =
           MigrateRequestMapper.getGCSDetailsDataDTOFromSFDataMigrationRequestDTO(
               sfDataMigrationRequestDTO);
-      // Writing ddls to GCS bucket
+      // Writing ddls to GCS bucket, cached and local translations are done along with it
+      Instant ddlWriteStartedAt = Instant.now();
       List<GCSDetailsDataDTO> gcsDetailsDataDTOS =
           googleCloudStorageService.writeToGCS(ddls, gcsDetailsDataDTO);
+      Instant ddlWriteEndedAt = Instant.now();
+      // DDLs translated without the batch workflow are already in memory for the table creation
+      for (GCSDetailsDataDTO gcsDetailsDataDTOTemp : gcsDetailsDataDTOS) {
+        if (gcsDetailsDataDTOTemp.getTranslatedDDL() != null) {
+          translatedDDLCacheService.put(
+              gcsDetailsDataDTOTemp.getGcsBucketForTranslation(),
+              gcsDetailsDataDTOTemp.getTranslatedDDLGCSPath(),
+              gcsDetailsDataDTOTemp.getTranslatedDDL());
+        }
+      }
 
       // Retrieving the already save rows where processing is not done and new rows which are based
       // on
       // received Input.
       List<ApplicationConfigData> applicationConfigDataList =
-          saveAllTheRequestsToDatabase(sfDataMigrationRequestDTO, gcsDetailsDataDTOS);
+          saveAllTheRequestsToDatabase(
+              sfDataMigrationRequestDTO,
+              gcsDetailsDataDTOS,
+              ddls,
+              ddlWriteStartedAt,
+              ddlWriteEndedAt);
 
       requestIds = getCurrentlyProcessingRequestIdsFromDatabase(applicationConfigDataList);
 
@@ -133,11 +183,12 @@ public class SnowflakeMigrateDataService {
             MigrateRequestMapper.getTranslateDDLDataDTOFromSFDataMigrationRequestDTO(
                 sfDataMigrationRequestDTO);
 
-        // Translating the ddls using migration workflow service
-        applicationConfigDataList =
-            executeDDLTranslation(translateDDLDataDTO, applicationConfigDataList);
+        // Translating the ddls using migration workflow service, tables of a translation chunk are
+        // migrated as soon as the chunk is translated
+        migrateTranslatedChunks(translateDDLDataDTO, applicationConfigDataList);
+      } else {
+        commonCodeToExecuteApplicationConfigDataForMigration(applicationConfigDataList);
       }
-      commonCodeToExecuteApplicationConfigDataForMigration(applicationConfigDataList);
     } catch (Exception e) {
       log.error(
           "Error while performing SnowflakeMigrationData request,{}\nStack Trace:",
@@ -149,7 +200,9 @@ public class SnowflakeMigrateDataService {
 
   /**
    * Method to read all the rows of {@link ApplicationConfigData} from table based on the promiary
-   * key id values
+   * key id values. Status of the tables held in the {@link MigrationStatusReadModel} is returned
+   * from memory, only the rest are read from the table. Responses are in the order of the given
+   * ids, ids which are not found are left out.
    *
    * @param requestIds Primary key of the @{@link ApplicationConfigData} table, requestIDs from
    *     application perspective.
@@ -157,17 +210,105 @@ public class SnowflakeMigrateDataService {
    *     ApplicationConfigData} for the received input.
    */
   public List<SFDataMigrationResponse> getApplicationConfigDataByIds(List<Long> requestIds) {
-    List<ApplicationConfigData> applicationConfigDataList =
-        applicationConfigDataService.findByIds(requestIds);
+    Map<Long, SFDataMigrationResponse> statuses =
+        new HashMap<>(migrationStatusReadModel.getStatuses(requestIds));
+    List<Long> missingRequestIds = new ArrayList<>();
+    for (Long requestId : requestIds) {
+      if (!statuses.containsKey(requestId)) {
+        missingRequestIds.add(requestId);
+      }
+    }
+    if (!missingRequestIds.isEmpty()) {
+      List<ApplicationConfigData> applicationConfigDataList =
+          applicationConfigDataService.findByIds(missingRequestIds);
+      for (ApplicationConfigData tempApplicationConfigData : applicationConfigDataList) {
+        statuses.put(
+            tempApplicationConfigData.getId(),
+            MigrateRequestMapper.applicationConfigDataToSFSfDataMigrationResponse(
+                tempApplicationConfigData));
+      }
+    }
     List<SFDataMigrationResponse> sfDataMigrationResponses = new ArrayList<>();
-    for (ApplicationConfigData tempApplicationConfigData : applicationConfigDataList) {
+    for (Long requestId : requestIds) {
+      SFDataMigrationResponse sfDataMigrationResponse = statuses.get(requestId);
+      if (sfDataMigrationResponse != null) {
+        sfDataMigrationResponses.add(sfDataMigrationResponse);
+      }
+    }
+    return sfDataMigrationResponses;
+  }
 
-      SFDataMigrationResponse sfDataMigrationResponse =
+  /**
+   * Method to read one page of the migration status of the tables from the table, filtered by the
+   * given values.
+   *
+   * @param requestLogId request log id of the migration request, all the requests if null.
+   * @param rowProcessingDone processing state of the tables, all the tables if null.
+   * @param createdFrom tables created at or after this time(yyyy-MM-dd HH:mm:ss), if given.
+   * @param createdTo tables created at or before this time(yyyy-MM-dd HH:mm:ss), if given.
+   * @param page page number starting from 0.
+   * @param size number of tables of the page, capped at migration.status.page.max.size.
+   * @return {@link MigrationStatusPageResponse} with the tables of the page, newest first.
+   */
+  public MigrationStatusPageResponse getMigrationStatusPage(
+      String requestLogId,
+      Boolean rowProcessingDone,
+      String createdFrom,
+      String createdTo,
+      int page,
+      int size) {
+    Page<ApplicationConfigData> applicationConfigDataPage =
+        applicationConfigDataService.findPage(
+            requestLogId,
+            rowProcessingDone,
+            createdFrom,
+            createdTo,
+            Math.max(page, 0),
+            Math.max(1, Math.min(size, statusPageMaxSize)));
+    List<SFDataMigrationResponse> sfDataMigrationResponses = new ArrayList<>();
+    for (ApplicationConfigData tempApplicationConfigData : applicationConfigDataPage) {
+      sfDataMigrationResponses.add(
           MigrateRequestMapper.applicationConfigDataToSFSfDataMigrationResponse(
-              tempApplicationConfigData);
-      sfDataMigrationResponses.add(sfDataMigrationResponse);
+              tempApplicationConfigData));
     }
-    return sfDataMigrationResponses;
+    MigrationStatusPageResponse migrationStatusPageResponse = new MigrationStatusPageResponse();
+    migrationStatusPageResponse.setTables(sfDataMigrationResponses);
+    migrationStatusPageResponse.setPage(applicationConfigDataPage.getNumber());
+    migrationStatusPageResponse.setSize(applicationConfigDataPage.getSize());
+    migrationStatusPageResponse.setTotalElements(applicationConfigDataPage.getTotalElements());
+    migrationStatusPageResponse.setTotalPages(applicationConfigDataPage.getTotalPages());
+    return migrationStatusPageResponse;
+  }
+
+  /**
+   * Method to read the live migration status of the tables from the {@link
+   * MigrationStatusReadModel}, without reading the table. Only the recently changed tables are
+   * held in memory, {@link #getMigrationStatusPage} covers the complete history.
+   *
+   * @param requestLogId request log id of the migration request, all the held tables if null.
+   * @return List of {@link SFDataMigrationResponse} ordered by request id.
+   */
+  public List<SFDataMigrationResponse> getLiveMigrationStatus(String requestLogId) {
+    return migrationStatusReadModel.getStatuses(requestLogId);
+  }
+
+  /**
+   * Method to read the BigQuery load statistics of the tables, helps in finding the expensive loads
+   * and tuning the load format and file sizes.
+   *
+   * @param requestLogId request log id of the migration request, statistics of all the requests if
+   *     null.
+   * @return List of {@link LoadStatisticsResponse}, one per table with a finished load job.
+   */
+  public List<LoadStatisticsResponse> getLoadStatistics(String requestLogId) {
+    List<LoadStatisticsResponse> loadStatisticsResponses = new ArrayList<>();
+    for (ApplicationConfigData tempApplicationConfigData :
+        applicationConfigDataService.findLoadedRows(requestLogId)) {
+      loadStatisticsResponses.add(
+          MigrateRequestMapper.applicationConfigDataToLoadStatisticsResponse(
+              tempApplicationConfigData));
+    }
+    return loadStatisticsResponses;
   }
 
   /*
@@ -177,7 +318,9 @@ public class SnowflakeMigrateDataService {
    * Snowflake unload, etc. This step will process the failed requests which have passed the
    * Snowflake unload step. This means that if the extraction DDL, translation DDL and Snowflake
    * unload are successfully executed for any request, but it failed while executing the next steps,
-   * then this method can be used to reprocess those requests.
+   * then this method can be used to reprocess those requests. Tables are unloaded while their DDL
+   * is translated, a table whose translation failed is not reprocessed here as it has no DDL to
+   * create the table from.
    *
    * @return List of Ids created and executed during this method call.
    */
@@ -204,7 +347,7 @@ public class SnowflakeMigrateDataService {
       requestIds =
           getCurrentlyProcessingRequestIdsFromDatabase(eligibleFailedRequestsForProcessing);
 
-      commonCodeToExecuteApplicationConfigDataForMigration(applicationConfigDataList);
+      commonCodeToExecuteApplicationConfigDataForMigration(eligibleFailedRequestsForProcessing);
     } catch (Exception e) {
       log.error(
           "Error while performing SnowflakeMigrationData for the failed request of the table,{}\nStack Trace:",
@@ -225,9 +368,210 @@ public class SnowflakeMigrateDataService {
    */
   private void commonCodeToExecuteApplicationConfigDataForMigration(
       List<ApplicationConfigData> applicationConfigDataList) {
+    waitForMigration(applicationConfigDataList, submitForMigration(applicationConfigDataList));
+  }
+
+  /**
+   * Translates the DDLs with one migration workflow per translation chunk, all running in
+   * parallel. Snowflake unload of every table starts right away as it does not need the translated
+   * DDL, table creation and the BigQuery load of the tables of a chunk wait till its workflow
+   * completes, while the other chunks are still being translated. Tables of a chunk whose
+   * translation fails are left unprocessed after their unload. Tables whose DDL translation is
+   * reused from the cache or done locally do not wait for any workflow.
+   *
+   * <p>A completed workflow can still fail some of its files, only those tables are translated
+   * again by a follow-up workflow(up to migration.workflow.translation.max.retries times) while the
+   * rest of the chunk moves on.
+   *
+   * @param translateDDLDataDTO DTO which contain values required for performing the translation
+   * @param applicationConfigDataList rows of the tables to be translated and migrated
+   */
+  private void migrateTranslatedChunks(
+      TranslateDDLDataDTO translateDDLDataDTO,
+      List<ApplicationConfigData> applicationConfigDataList) {
+    Map<String, List<ApplicationConfigData>> tablesByChunk = new LinkedHashMap<>();
+    List<ApplicationConfigData> translatedTables = new ArrayList<>();
+    for (ApplicationConfigData applicationConfigDataTemp : applicationConfigDataList) {
+      if (applicationConfigDataTemp.isTranslatedDDLCopied()) {
+        translatedTables.add(applicationConfigDataTemp);
+        continue;
+      }
+      tablesByChunk
+          .computeIfAbsent(
+              StringUtils.defaultString(applicationConfigDataTemp.getTranslationChunk()),
+              chunk -> new ArrayList<>())
+          .add(applicationConfigDataTemp);
+    }
+    Map<String, CompletableFuture<WorkflowMigrationResponse>> pendingWorkflows =
+        new LinkedHashMap<>();
+    Instant translationStartedAt = Instant.now();
+    tablesByChunk.values().stream()
+        .flatMap(List::stream)
+        .forEach(table -> table.setTranslationStartedAt(translationStartedAt));
+    if (!tablesByChunk.isEmpty()) {
+      pendingWorkflows.putAll(
+          workflowMigrationService.createMigrationWorkflows(
+              translateDDLDataDTO, tablesByChunk.keySet()));
+    }
 
     List<CompletableFuture<OperationResult<ApplicationConfigData>>> asyncFutureResultList =
         new ArrayList<>();
+    if (!translatedTables.isEmpty()) {
+      log.info("Tables migrated with the cached or local translation:{}", translatedTables.size());
+      asyncFutureResultList.addAll(submitForMigration(translatedTables));
+    }
+    // Unload of the tables being translated starts now, rest of their steps wait for their DDL
+    Map<ApplicationConfigData, CompletableFuture<Void>> translatedDDLs = new IdentityHashMap<>();
+    tablesByChunk.forEach(
+        (chunk, chunkTables) -> {
+          for (ApplicationConfigData applicationConfigDataTemp : chunkTables) {
+            CompletableFuture<Void> translatedDDL = new CompletableFuture<>();
+            translatedDDLs.put(applicationConfigDataTemp, translatedDDL);
+            asyncFutureResultList.add(
+                snowflakeToBQAsyncService.snowflakeUnloadAndLoadToBQLoad(
+                    applicationConfigDataTemp, translatedDDL));
+          }
+        });
+
+    // Retry attempt of the follow-up workflows, keyed by their retry chunk
+    Map<String, Integer> translationAttempts = new HashMap<>();
+    try {
+      while (!pendingWorkflows.isEmpty()) {
+        Map<String, CompletableFuture<WorkflowMigrationResponse>> retryWorkflows =
+            new LinkedHashMap<>();
+        // Waiting for any of the pending workflows to finish, failures are handled per chunk below
+        CompletableFuture.anyOf(pendingWorkflows.values().toArray(new CompletableFuture[0]))
+            .exceptionally(throwable -> null)
+            .join();
+        Iterator<Map.Entry<String, CompletableFuture<WorkflowMigrationResponse>>> iterator =
+            pendingWorkflows.entrySet().iterator();
+        while (iterator.hasNext()) {
+          Map.Entry<String, CompletableFuture<WorkflowMigrationResponse>> workflow =
+              iterator.next();
+          if (!workflow.getValue().isDone()) {
+            continue;
+          }
+          iterator.remove();
+          List<ApplicationConfigData> chunkTables = tablesByChunk.get(workflow.getKey());
+          int attempt = translationAttempts.getOrDefault(workflow.getKey(), 0);
+          boolean retryAllowed = attempt < translationMaxRetries;
+          try {
+            List<ApplicationConfigData> failedTables =
+                applyDDLTranslation(workflow.getValue(), chunkTables, retryAllowed);
+            List<ApplicationConfigData> chunkTranslatedTables = new ArrayList<>(chunkTables);
+            chunkTranslatedTables.removeAll(failedTables);
+            createTablesInBatch(chunkTranslatedTables);
+            chunkTranslatedTables.forEach(table -> translatedDDLs.get(table).complete(null));
+            if (failedTables.isEmpty()) {
+              continue;
+            }
+            if (!retryAllowed) {
+              failTranslation(failedTables, translatedDDLs);
+              continue;
+            }
+            String retryChunk = getRetryChunk(workflow.getKey(), attempt + 1);
+            tablesByChunk.put(retryChunk, failedTables);
+            translationAttempts.put(retryChunk, attempt + 1);
+            retryWorkflows.putAll(
+                retryFailedTranslations(translateDDLDataDTO, retryChunk, failedTables));
+          } catch (Exception e) {
+            log.error(
+                "Translation of chunk:{} failed, its {} tables are not migrated. Error Message:{}",
+                workflow.getKey(),
+                chunkTables.size(),
+                e.getMessage());
+            chunkTables.forEach(table -> translatedDDLs.get(table).completeExceptionally(e));
+          }
+        }
+        pendingWorkflows.putAll(retryWorkflows);
+      }
+    } finally {
+      // Tables without a finished workflow must not wait forever
+      translatedDDLs
+          .values()
+          .forEach(
+              translatedDDL ->
+                  translatedDDL.completeExceptionally(
+                      new SnowflakeConnectorException(
+                          MIGRATION_WORKFLOW_EXECUTION_ERROR.getMessage(),
+                          MIGRATION_WORKFLOW_EXECUTION_ERROR.getErrorCode())));
+    }
+    waitForMigration(applicationConfigDataList, asyncFutureResultList);
+  }
+
+  /**
+   * Copies the source DDLs of the failed tables in a retry chunk folder and translates only that
+   * folder with a new workflow.
+   *
+   * @param translateDDLDataDTO DTO which contain values required for performing the translation
+   * @param retryChunk sub folder of the schema DDLs for the retry e.g. chunk_3_retry_1
+   * @param failedTables rows of the tables whose translation failed
+   * @return map of the retry chunk to the future of its workflow.
+   */
+  private Map<String, CompletableFuture<WorkflowMigrationResponse>> retryFailedTranslations(
+      TranslateDDLDataDTO translateDDLDataDTO,
+      String retryChunk,
+      List<ApplicationConfigData> failedTables) {
+    for (ApplicationConfigData applicationConfigDataTemp : failedTables) {
+      googleCloudStorageService.copyFile(
+          applicationConfigDataTemp.getGcsBucketForDDLs(),
+          GoogleCloudStorageService.getSourceDDLPath(
+              applicationConfigDataTemp.getSourceDatabaseName(),
+              applicationConfigDataTemp.getSourceSchemaName(),
+              applicationConfigDataTemp.getTranslationChunk(),
+              applicationConfigDataTemp.getSourceTableName()),
+          GoogleCloudStorageService.getSourceDDLPath(
+              applicationConfigDataTemp.getSourceDatabaseName(),
+              applicationConfigDataTemp.getSourceSchemaName(),
+              retryChunk,
+              applicationConfigDataTemp.getSourceTableName()));
+    }
+    log.info("Translating again the {} failed tables in chunk:{}", failedTables.size(), retryChunk);
+    return workflowMigrationService.createMigrationWorkflows(
+        translateDDLDataDTO, Collections.singletonList(retryChunk));
+  }
+
+  /* Name of the retry chunk, e.g. chunk_3_retry_2 for chunk_3 or retry_2 if not chunked. */
+  static String getRetryChunk(String translationChunk, int attempt) {
+    String chunk = translationChunk.replaceAll("_?retry_\\d+$", "");
+    return chunk.isEmpty() ? "retry_" + attempt : chunk + "_retry_" + attempt;
+  }
+
+  /* Fails the tables whose translation did not succeed even after the retries. */
+  private static void failTranslation(
+      List<ApplicationConfigData> failedTables,
+      Map<ApplicationConfigData, CompletableFuture<Void>> translatedDDLs) {
+    for (ApplicationConfigData applicationConfigDataTemp : failedTables) {
+      log.error(
+          "Translation of table:{} failed, it is not migrated. Error Message:{}",
+          applicationConfigDataTemp.getSourceTableName(),
+          applicationConfigDataTemp.getTranslationError());
+      translatedDDLs
+          .get(applicationConfigDataTemp)
+          .completeExceptionally(
+              new SnowflakeConnectorException(
+                  String.format(
+                      "%s Table:%s, translation error:%s",
+                      MIGRATION_WORKFLOW_EXECUTION_ERROR.getMessage(),
+                      applicationConfigDataTemp.getSourceTableName(),
+                      applicationConfigDataTemp.getTranslationError()),
+                  MIGRATION_WORKFLOW_EXECUTION_ERROR.getErrorCode()));
+    }
+  }
+
+  /**
+   * Creates the tables in batches(if enabled) and submits the unload and load of each table.
+   *
+   * @param applicationConfigDataList {@link List} of {@link ApplicationConfigData} which is a data
+   *     related to table to be migrated.
+   * @return futures of the submitted tables.
+   */
+  private List<CompletableFuture<OperationResult<ApplicationConfigData>>> submitForMigration(
+      List<ApplicationConfigData> applicationConfigDataList) {
+
+    List<CompletableFuture<OperationResult<ApplicationConfigData>>> asyncFutureResultList =
+        new ArrayList<>();
+    createTablesInBatch(applicationConfigDataList);
 
     // Executing all the request for each table in parallel(Async)
     for (ApplicationConfigData applicationConfigDataTemp : applicationConfigDataList) {
@@ -235,7 +579,25 @@ public class SnowflakeMigrateDataService {
           snowflakeToBQAsyncService.snowflakeUnloadAndLoadToBQLoad(applicationConfigDataTemp);
       asyncFutureResultList.add(asyncFutureResult);
     }
+    return asyncFutureResultList;
+  }
 
+  /* Creates the tables in batches(if enabled), table not created here is created by its request. */
+  private void createTablesInBatch(List<ApplicationConfigData> applicationConfigDataList) {
+    try {
+      int createdTables = bigQueryDDLBatchService.createTables(applicationConfigDataList);
+      log.info("Tables created through DDL scripts:{}", createdTables);
+    } catch (Exception e) {
+      log.error(
+          "Error while creating tables through DDL scripts, tables will be created individually. Error Message:{}",
+          e.getMessage());
+    }
+  }
+
+  /* Waits for the submitted tables and marks the processing of the successful ones done. */
+  private void waitForMigration(
+      List<ApplicationConfigData> applicationConfigDataList,
+      List<CompletableFuture<OperationResult<ApplicationConfigData>>> asyncFutureResultList) {
     // Fetching the result of each table request. Below code will wait to fetch the
     // result of each request and make sure that we send response to user once everything is done.
     for (CompletableFuture<OperationResult<ApplicationConfigData>> tempAsyncFutureResult :
@@ -253,8 +615,7 @@ public class SnowflakeMigrateDataService {
               .getResult()
               .setLastUpdatedTime(
                   PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
-          applicationConfigDataService.saveApplicationConfigDataService(
-              tempOperationResult.getResult());
+          applicationConfigDataJournal.saveAndWait(tempOperationResult.getResult());
         } else {
           log.error("Error:Snowflake Unload and load to BQ");
         }
@@ -265,54 +626,114 @@ public class SnowflakeMigrateDataService {
             e);
       }
     }
+    // Translated DDLs are no longer needed once the tables are processed.
+    for (ApplicationConfigData applicationConfigDataTemp : applicationConfigDataList) {
+      translatedDDLCacheService.evict(
+          applicationConfigDataTemp.getGcsBucketForTranslation(),
+          applicationConfigDataTemp.getTranslatedDDLGCSPath());
+    }
   }
 
   /**
-   * Helper method to perform the translation of the extracted DDLS for the Snowflake tables. It
-   * also updates the {@link ApplicationConfigData} table after finishing the translation step
+   * Helper method to apply the translation of the extracted DDLS of a translation chunk to its
+   * Snowflake tables. It updates the {@link ApplicationConfigData} table once the workflow of the
+   * chunk has completed. Rows are the same objects the table tasks use while unloading the data,
+   * hence each row is changed holding its monitor, the same as the unload does. Errors reported
+   * for a table are stored in its translation_error, and the table is left untranslated if its
+   * translated file is missing, or if it can still be retried.
    *
-   * @param translateDDLDataDTO DTO which contain values required for performing the translation
-   * @param allApplicationDatas All the rows which are present in the table for processing
-   * @return List of updated {@link ApplicationConfigData}
+   * @param workflow finished migration workflow of the chunk
+   * @param allApplicationDatas rows of the tables of the chunk
+   * @param retryAllowed whether the tables with errors are translated again, when not allowed the
+   *     translated file of such a table is used if the workflow wrote it.
+   * @return rows of the tables whose translation failed.
    */
-  private List<ApplicationConfigData> executeDDLTranslation(
-      TranslateDDLDataDTO translateDDLDataDTO, List<ApplicationConfigData> allApplicationDatas) {
+  private List<ApplicationConfigData> applyDDLTranslation(
+      CompletableFuture<WorkflowMigrationResponse> workflow,
+      List<ApplicationConfigData> allApplicationDatas,
+      boolean retryAllowed) {
 
+    // Fails with the state of the workflow tasks if the translation did not complete
     WorkflowMigrationResponse workflowMigrationResponse =
-        workflowMigrationService.createMigrationWorkflow(translateDDLDataDTO);
-
-    boolean returnValue =
-        workflowMigrationService.isMigrationWorkflowCompleted(
-            workflowMigrationResponse.getWorkflowName());
-
-    if (!returnValue) {
-      throw new SnowflakeConnectorException(
-          ErrorCode.MIGRATION_WORKFLOW_EXECUTION_ERROR.getMessage()
-              + " Could not finish with in given time",
-          ErrorCode.MIGRATION_WORKFLOW_EXECUTION_ERROR.getErrorCode());
+        WorkflowMigrationService.getCompletedWorkflow(workflow);
+
+    // Workflow completes even if some of its files failed, finding them from its output folder
+    List<String> tableNames = new ArrayList<>();
+    allApplicationDatas.forEach(table -> tableNames.add(table.getTargetTableName()));
+    TranslationReportDataDTO translationReportDataDTO =
+        translationReportService.getTranslationReport(
+            allApplicationDatas.get(0).getGcsBucketForTranslation(),
+            workflowMigrationResponse.getTranslatedFileFullGCSPath(),
+            tableNames);
+
+    List<ApplicationConfigData> failedTables = new ArrayList<>();
+    List<String> translatedDDLGCSPaths = new ArrayList<>();
+    for (ApplicationConfigData applicationConfigDataTemp : allApplicationDatas) {
+      String tableName = applicationConfigDataTemp.getTargetTableName();
+      // Table with errors but with a translated file uses that file once it cannot be retried
+      boolean translatedFileWritten =
+          translationReportDataDTO.getTranslatedTables().contains(tableName);
+      boolean translationFailed =
+          translationReportDataDTO.isFailed(tableName) && (retryAllowed || !translatedFileWritten);
+      if (translationFailed) {
+        failedTables.add(applicationConfigDataTemp);
+      }
+      synchronized (applicationConfigDataTemp) {
+        applicationConfigDataTemp.setWorkflowName(workflowMigrationResponse.getWorkflowName());
+        applicationConfigDataTemp.setTranslationError(
+            translationReportDataDTO.getTranslationErrors().get(tableName));
+        applicationConfigDataTemp.setLastUpdatedTime(
+            PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
+        if (translationFailed) {
+          continue;
+        }
+        // Updating the translation path to be saved in table.
+        applicationConfigDataTemp.setTranslatedDDLGCSPath(
+            String.format(
+                "%s/%s.sql",
+                workflowMigrationResponse.getTranslatedFileFullGCSPath(),
+                applicationConfigDataTemp.getTargetTableName()));
+        applicationConfigDataTemp.setTranslatedDDLCopied(true);
+        // Retried tables are timed from the first workflow, the retries are part of the stage
+        applicationConfigDataTemp.setTranslationEndedAt(Instant.now());
+        translatedDDLGCSPaths.add(applicationConfigDataTemp.getTranslatedDDLGCSPath());
+      }
     }
-
+    // Starting the download of the translated DDLs of these tables in parallel, so that by the
+    // time table creation starts for each table its DDL is already in memory. Only the paths of
+    // the rows are prefetched as the rows are what the cache is evicted by.
+    translatedDDLCacheService.prefetch(
+        allApplicationDatas.get(0).getGcsBucketForTranslation(), translatedDDLGCSPaths);
+    applicationConfigDataJournal.saveAllAndWait(allApplicationDatas);
+
+    // Remembering the clean translations, these DDLs are not translated again till they change
+    Map<String, String> sourceDDLHashByTableName = new HashMap<>();
     for (ApplicationConfigData applicationConfigDataTemp : allApplicationDatas) {
-      applicationConfigDataTemp.setWorkflowName(workflowMigrationResponse.getWorkflowName());
-      // Updating the translation path to be saved in table.
-      applicationConfigDataTemp.setTranslatedDDLGCSPath(
-          String.format(
-              "%s/%s.sql",
-              workflowMigrationResponse.getTranslatedFileFullGCSPath(),
-              applicationConfigDataTemp.getTargetTableName()));
-      applicationConfigDataTemp.setTranslatedDDLCopied(true);
-      applicationConfigDataTemp.setLastUpdatedTime(
-          PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
+      if (applicationConfigDataTemp.getTranslationError() != null) {
+        continue;
+      }
+      sourceDDLHashByTableName.put(
+          applicationConfigDataTemp.getTargetTableName(),
+          applicationConfigDataTemp.getSourceDDLHash());
     }
-    allApplicationDatas =
-        applicationConfigDataService.saveAllApplicationConfigDataServices(allApplicationDatas);
-    return allApplicationDatas;
+    ddlTranslationCacheService.saveTranslations(
+        allApplicationDatas.get(0).getGcsBucketForTranslation(),
+        workflowMigrationResponse.getTranslatedFileFullGCSPath(),
+        workflowMigrationResponse.getWorkflowName(),
+        sourceDDLHashByTableName);
+    return failedTables;
   }
 
-  /** Helper method to update Application data table for GCS related data. */
+  /**
+   * Helper method to update Application data table for GCS related data. Tables translated while
+   * writing their DDLs to GCS are timed with the whole write.
+   */
   private List<ApplicationConfigData> saveAllTheRequestsToDatabase(
       SFDataMigrationRequestDTO sfDataMigrationRequestDTO,
-      List<GCSDetailsDataDTO> gcsDetailsDataDTOS) {
+      List<GCSDetailsDataDTO> gcsDetailsDataDTOS,
+      Map<String, String> ddls,
+      Instant ddlWriteStartedAt,
+      Instant ddlWriteEndedAt) {
 
     List<ApplicationConfigData> applicationConfigDataList = new ArrayList<>();
     ApplicationConfigData applicationConfigData =
@@ -325,6 +746,23 @@ public class SnowflakeMigrateDataService {
       applicationConfigDataTemp.setSourceTableName(gcsDetailsDataDTOTemp.getSourceTableName());
       applicationConfigDataTemp.setTargetTableName(gcsDetailsDataDTOTemp.getSourceTableName());
       applicationConfigDataTemp.setSourceDDLCopied(gcsDetailsDataDTOTemp.isSourceDDLCopied());
+      applicationConfigDataTemp.setSourceDDLHash(gcsDetailsDataDTOTemp.getSourceDDLHash());
+      if (gcsDetailsDataDTOTemp.getTranslatedDDLGCSPath() != null) {
+        // DDL is unchanged since its last translation or is translated locally, table is created
+        // from that translation
+        applicationConfigDataTemp.setWorkflowName(
+            gcsDetailsDataDTOTemp.getTranslationWorkflowName());
+        applicationConfigDataTemp.setTranslatedDDLGCSPath(
+            gcsDetailsDataDTOTemp.getTranslatedDDLGCSPath());
+        applicationConfigDataTemp.setTranslatedDDLCopied(true);
+        applicationConfigDataTemp.setTranslationStartedAt(ddlWriteStartedAt);
+        applicationConfigDataTemp.setTranslationEndedAt(ddlWriteEndedAt);
+      }
+      // Clustering keys are dropped by the translation, keeping them for the table creation
+      applicationConfigDataTemp.setTranslationChunk(gcsDetailsDataDTOTemp.getTranslationChunk());
+      applicationConfigDataTemp.setSnowflakeClusteringKeys(
+          BigQueryPartitioningService.extractClusteringKeys(
+              ddls.get(gcsDetailsDataDTOTemp.getSourceTableName())));
       applicationConfigDataTemp.setCreatedTime(
           PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
       applicationConfigDataTemp.setLastUpdatedTime(
@@ -347,7 +785,8 @@ public class SnowflakeMigrateDataService {
   /**
    * This method give the filters the {@link ApplicationConfigData} list based on the
    * isTranslatedDDLCopied flag. It returns the list where isDataUnloadedFromSnowflake=true, means
-   * the snowflake unload table command for those feeds are done.
+   * the snowflake unload table command for those feeds are done, and where the table can be
+   * created(isTranslatedDDLCopied=true) or is already created.
    *
    * @param applicationConfigDataList {@link List} of {@link ApplicationConfigData}
    * @return {@link List} of {@link ApplicationConfigData} where isTranslatedDDLCopied=true
@@ -357,7 +796,9 @@ public class SnowflakeMigrateDataService {
     List<ApplicationConfigData> eligibleRequestReprocessingList = new ArrayList<>();
     for (ApplicationConfigData tempApplicationConfigData : applicationConfigDataList) {
 
-      if (tempApplicationConfigData.isDataUnloadedFromSnowflake()) {
+      if (tempApplicationConfigData.isDataUnloadedFromSnowflake()
+          && (tempApplicationConfigData.isTranslatedDDLCopied()
+              || tempApplicationConfigData.isBQTableCreated())) {
         tempApplicationConfigData.setLastUpdatedTime(
             PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
         tempApplicationConfigData.setRequestLogId(MDC.get("requestLogId"));
@@ -21,6 +21,8 @@ import static com.google.connector.snowflakeToBQ.util.ErrorCode.JDBC_EXECUTION_E
 import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
 import com.google.connector.snowflakeToBQ.mapper.MigrateRequestMapper;
 import com.google.connector.snowflakeToBQ.model.datadto.DDLDataDTO;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +33,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 
 /** Class to execute queries on snowflake database using jdbc template. */
@@ -40,6 +43,9 @@ public class SnowflakeQueryExecutor {
   private static final Logger log = LoggerFactory.getLogger(SnowflakeQueryExecutor.class);
   private static final String GET_DDL_QUERY = "select GET_DDL('TABLE', '%s')";
   private static final String SHOW_TABLES_QUERY = "SHOW TABLES IN SCHEMA %s";
+  private static final String TABLE_SIZE_QUERY =
+      "SELECT BYTES FROM INFORMATION_SCHEMA.TABLES WHERE UPPER(TABLE_SCHEMA) = UPPER(?) AND"
+          + " UPPER(TABLE_NAME) = UPPER(?)";
   private final JdbcTemplateProvider jdbcTemplates;
 
   @Value("${jdbc.url}")
@@ -155,4 +161,113 @@ public class SnowflakeQueryExecutor {
     }
     return tableMap;
   }
+
+  /**
+   * Gives the size of the table in bytes as reported by Snowflake INFORMATION_SCHEMA. This value is
+   * the storage size of the table(compressed), so it is only an estimate of the size of the data
+   * which will be unloaded.
+   *
+   * @param databaseName Snowflake database name
+   * @param schemaName Snowflake schema name
+   * @param tableName Snowflake table name
+   * @return size of the table in bytes or null if Snowflake does not report it(e.g. for views).
+   */
+  public Long getTableSizeInBytes(String databaseName, String schemaName, String tableName) {
+    try {
+      List<Long> sizes =
+          jdbcTemplates
+              .getOrCreateJdbcTemplate(databaseName, schemaName)
+              .query(
+                  TABLE_SIZE_QUERY,
+                  (rs, rowNum) -> {
+                    long bytes = rs.getLong("BYTES");
+                    return rs.wasNull() ? null : bytes;
+                  },
+                  schemaName,
+                  tableName);
+      Long tableSize = sizes.isEmpty() ? null : sizes.get(0);
+      log.info("Table Name:{}, size in bytes:{}", tableName, tableSize);
+      return tableSize;
+    } catch (Exception e) {
+      log.error(
+          JDBC_EXECUTION_EXCEPTION.getMessage() + ", Error Message:{}\nStack Trace:",
+          e.getMessage(),
+          e);
+      throw new SnowflakeConnectorException(
+          JDBC_EXECUTION_EXCEPTION.getMessage(), JDBC_EXECUTION_EXCEPTION.getErrorCode());
+    }
+  }
+
+  /**
+   * Executes the query whose result has two columns and gives the rows as a map of the first
+   * column value to the second column value, both read as string.
+   *
+   * @param databaseName Snowflake database name
+   * @param schemaName Snowflake schema name
+   * @param sql query to execute
+   * @param parameters values bound to the ? placeholders of the query, in order
+   * @return map of first column to second column of the result rows
+   */
+  public Map<String, String> queryKeyValues(
+      String databaseName, String schemaName, String sql, List<String> parameters) {
+    Map<String, String> keyValues = new HashMap<>();
+    try {
+      jdbcTemplates
+          .getOrCreateJdbcTemplate(databaseName, schemaName)
+          .query(
+              sql,
+              (RowCallbackHandler) rs -> keyValues.put(rs.getString(1), rs.getString(2)),
+              parameters.toArray());
+    } catch (Exception e) {
+      log.error(
+          JDBC_EXECUTION_EXCEPTION.getMessage() + ", Error Message:{}\nStack Trace:",
+          e.getMessage(),
+          e);
+      throw new SnowflakeConnectorException(
+          JDBC_EXECUTION_EXCEPTION.getMessage(), JDBC_EXECUTION_EXCEPTION.getErrorCode());
+    }
+    return keyValues;
+  }
+
+  /**
+   * Executes the query and hands over the rows one by one to the given handler, rows are never
+   * collected in memory. Snowflake JDBC driver fetches the result in Arrow chunks and downloads the
+   * next chunks in background while the current one is being processed.
+   *
+   * @param databaseName Snowflake database name
+   * @param schemaName Snowflake schema name
+   * @param sql query to execute
+   * @param fetchSize number of rows to fetch per round trip
+   * @param rowCallbackHandler handler called for each row of the result
+   */
+  public void streamQuery(
+      String databaseName,
+      String schemaName,
+      String sql,
+      int fetchSize,
+      RowCallbackHandler rowCallbackHandler) {
+    try {
+      jdbcTemplates
+          .getOrCreateJdbcTemplate(databaseName, schemaName)
+          .query(
+              connection -> {
+                PreparedStatement preparedStatement =
+                    connection.prepareStatement(
+                        sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                preparedStatement.setFetchSize(fetchSize);
+                return preparedStatement;
+              },
+              rowCallbackHandler);
+    } catch (SnowflakeConnectorException e) {
+      // Error thrown by the handler itself, already logged there
+      throw e;
+    } catch (Exception e) {
+      log.error(
+          JDBC_EXECUTION_EXCEPTION.getMessage() + ", Error Message:{}\nStack Trace:",
+          e.getMessage(),
+          e);
+      throw new SnowflakeConnectorException(
+          JDBC_EXECUTION_EXCEPTION.getMessage(), JDBC_EXECUTION_EXCEPTION.getErrorCode());
+    }
+  }
 }
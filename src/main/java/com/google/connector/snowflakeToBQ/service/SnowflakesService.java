@@ -30,6 +30,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.google.connector.snowflakeToBQ.util.PropertyManager.SNOWFLAKE_STATEMENT_POST_REST_API;
@@ -39,6 +40,7 @@ public class SnowflakesService {
   private static final Logger log = LoggerFactory.getLogger(SnowflakesService.class);
   final RestAPIExecutionService restService;
   final SnowflakeConfigLoader snowflakeConfigLoader;
+  final UnloadFileSizePlanner unloadFileSizePlanner;
 
   @Value("${snowflake.account.url}")
   @Setter
@@ -51,9 +53,12 @@ public class SnowflakesService {
   String gcsStorageIntegration;
 
   public SnowflakesService(
-      RestAPIExecutionService restService, SnowflakeConfigLoader snowflakeConfigLoader) {
+      RestAPIExecutionService restService,
+      SnowflakeConfigLoader snowflakeConfigLoader,
+      UnloadFileSizePlanner unloadFileSizePlanner) {
     this.restService = restService;
     this.snowflakeConfigLoader = snowflakeConfigLoader;
+    this.unloadFileSizePlanner = unloadFileSizePlanner;
   }
 
   public String executeUnloadDataCommand(SnowflakeUnloadToGCSDataDTO snowflakeUnloadToGCSDataDTO) {
@@ -97,6 +102,80 @@ public class SnowflakesService {
     return response.getStatementHandle();
   }
 
+  /**
+   * Method to get the number of rows unloaded by the COPY INTO statement of an unload request. Row
+   * count is read from the result which Snowflake keeps for the executed statements, hence it does
+   * not need any warehouse.
+   *
+   * @param statementHandle statement handle of the unload request.
+   * @return rows_unloaded of the COPY INTO statement, null if it could not be found.
+   */
+  public Long getUnloadedRowCount(String statementHandle) {
+    if (StringUtils.isEmpty(statementHandle)) {
+      return null;
+    }
+    String url = snowflakeAccountURl + SNOWFLAKE_STATEMENT_POST_REST_API;
+    try {
+      Map<String, Object> result = restService.getStatementResult(url, statementHandle);
+      if (result == null) {
+        return null;
+      }
+      Long rowsUnloaded = getRowsUnloaded(result);
+      if (rowsUnloaded != null || !(result.get("statementHandles") instanceof List)) {
+        return rowsUnloaded;
+      }
+      // Unload is a multi statement request, COPY INTO is one of its last statements
+      List<?> statementHandles = (List<?>) result.get("statementHandles");
+      for (int i = statementHandles.size() - 1; i >= 0; i--) {
+        rowsUnloaded =
+            getRowsUnloaded(
+                restService.getStatementResult(url, String.valueOf(statementHandles.get(i))));
+        if (rowsUnloaded != null) {
+          return rowsUnloaded;
+        }
+      }
+    } catch (Exception e) {
+      log.warn(
+          "Could not get the rows unloaded by statement:{}, Error Message:{}",
+          statementHandle,
+          e.getMessage());
+    }
+    return null;
+  }
+
+  /*
+   * Gives the sum of the rows_unloaded column of the statement result, null if the result does
+   * not have the column.
+   */
+  static Long getRowsUnloaded(Map<String, Object> result) {
+    if (result == null
+        || !(result.get("resultSetMetaData") instanceof Map)
+        || !(result.get("data") instanceof List)) {
+      return null;
+    }
+    Object rowType = ((Map<?, ?>) result.get("resultSetMetaData")).get("rowType");
+    if (!(rowType instanceof List)) {
+      return null;
+    }
+    List<?> columns = (List<?>) rowType;
+    int columnIndex = -1;
+    for (int i = 0; i < columns.size(); i++) {
+      if (columns.get(i) instanceof Map
+          && "rows_unloaded".equalsIgnoreCase(
+              String.valueOf(((Map<?, ?>) columns.get(i)).get("name")))) {
+        columnIndex = i;
+      }
+    }
+    if (columnIndex < 0) {
+      return null;
+    }
+    long rowsUnloaded = 0;
+    for (Object row : (List<?>) result.get("data")) {
+      rowsUnloaded += Long.parseLong(String.valueOf(((List<?>) row).get(columnIndex)));
+    }
+    return rowsUnloaded;
+  }
+
   /**
    * Replaces placeholders in the given content with values from the provided map.
    *
@@ -146,6 +225,9 @@ public class SnowflakesService {
           "(" + snowflakeConfigLoader.getQuery(snowflakeUnloadToGCSDataDTO.getTableName()) + ")";
     }
     placeHolders.put("SNOWFLAKE_QUERY", snowflakeQuery);
+    // MAX_FILE_SIZE/SINGLE copy options based on the size of the table
+    placeHolders.put(
+        "UNLOAD_OPTIONS", unloadFileSizePlanner.planUnloadOptions(snowflakeUnloadToGCSDataDTO));
     return placeHolders;
   }
 }
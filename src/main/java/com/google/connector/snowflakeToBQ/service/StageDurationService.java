@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import com.google.connector.snowflakeToBQ.model.response.CriticalPathStepResponse;
+import com.google.connector.snowflakeToBQ.model.response.RunStageDurationsResponse;
+import com.google.connector.snowflakeToBQ.model.response.StageDurationResponse;
+import com.google.connector.snowflakeToBQ.util.MigrationStage;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import org.springframework.stereotype.Service;
+
+/**
+ * Class which reports how long each stage of the tables of a migration request took, used for
+ * tuning the concurrency of the stages. Stage durations are summarized with their p50 and p95 and
+ * the critical path shows the chain of stages which decided the end of the request, i.e. the stages
+ * of the table which finished last with the time each of them waited for its turn.
+ */
+@Service
+public class StageDurationService {
+
+  final ApplicationConfigDataService applicationConfigDataService;
+
+  public StageDurationService(ApplicationConfigDataService applicationConfigDataService) {
+    this.applicationConfigDataService = applicationConfigDataService;
+  }
+
+  /**
+   * Reads the rows of the migration request and summarizes the durations of their stages.
+   *
+   * @param requestLogId request log id of the migration request.
+   * @return {@link RunStageDurationsResponse} of the request.
+   */
+  public RunStageDurationsResponse getStageDurations(String requestLogId) {
+    return summarize(requestLogId, applicationConfigDataService.findByRequestLogId(requestLogId));
+  }
+
+  static RunStageDurationsResponse summarize(
+      String requestLogId, List<ApplicationConfigData> applicationConfigDataList) {
+    Instant runStartedAt = null;
+    Instant runEndedAt = null;
+    ApplicationConfigData lastTable = null;
+    List<StageDurationResponse> stages = new ArrayList<>();
+    for (MigrationStage stage : MigrationStage.values()) {
+      List<Long> durations = new ArrayList<>();
+      for (ApplicationConfigData applicationConfigData : applicationConfigDataList) {
+        if (!isTimed(stage, applicationConfigData)) {
+          continue;
+        }
+        Instant startedAt = stage.getStartedAt(applicationConfigData);
+        Instant endedAt = stage.getEndedAt(applicationConfigData);
+        durations.add(Duration.between(startedAt, endedAt).toMillis());
+        if (runStartedAt == null || startedAt.isBefore(runStartedAt)) {
+          runStartedAt = startedAt;
+        }
+        if (runEndedAt == null || endedAt.isAfter(runEndedAt)) {
+          runEndedAt = endedAt;
+          lastTable = applicationConfigData;
+        }
+      }
+      stages.add(getStageDuration(stage, durations));
+    }
+
+    RunStageDurationsResponse runStageDurationsResponse = new RunStageDurationsResponse();
+    runStageDurationsResponse.setRequestLogId(requestLogId);
+    runStageDurationsResponse.setTableCount(applicationConfigDataList.size());
+    runStageDurationsResponse.setRunStartedAt(runStartedAt);
+    runStageDurationsResponse.setRunEndedAt(runEndedAt);
+    if (runStartedAt != null) {
+      runStageDurationsResponse.setRunDurationMs(
+          Duration.between(runStartedAt, runEndedAt).toMillis());
+    }
+    runStageDurationsResponse.setStages(stages);
+    runStageDurationsResponse.setCriticalPath(getCriticalPath(lastTable, runStartedAt));
+    return runStageDurationsResponse;
+  }
+
+  private static StageDurationResponse getStageDuration(
+      MigrationStage stage, List<Long> durations) {
+    Collections.sort(durations);
+    StageDurationResponse stageDurationResponse = new StageDurationResponse();
+    stageDurationResponse.setStage(stage.name());
+    stageDurationResponse.setTableCount(durations.size());
+    stageDurationResponse.setP50Ms(percentile(durations, 50));
+    stageDurationResponse.setP95Ms(percentile(durations, 95));
+    stageDurationResponse.setMaxMs(durations.isEmpty() ? 0 : durations.get(durations.size() - 1));
+    return stageDurationResponse;
+  }
+
+  /* Nearest-rank percentile of the sorted durations, 0 if there is none. */
+  static long percentile(List<Long> sortedDurations, int percentile) {
+    if (sortedDurations.isEmpty()) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(percentile / 100.0 * sortedDurations.size());
+    return sortedDurations.get(Math.max(rank, 1) - 1);
+  }
+
+  /*
+   * Walks back from the last ended stage of the table through the predecessor which ended last,
+   * e.g. LOAD <- TABLE_CREATION <- TRANSLATION when the table creation ended after the unload.
+   */
+  private static List<CriticalPathStepResponse> getCriticalPath(
+      ApplicationConfigData lastTable, Instant runStartedAt) {
+    LinkedList<CriticalPathStepResponse> criticalPath = new LinkedList<>();
+    if (lastTable == null) {
+      return criticalPath;
+    }
+    MigrationStage stage = getLastEndedStage(lastTable, List.of(MigrationStage.values()));
+    while (stage != null) {
+      CriticalPathStepResponse criticalPathStepResponse = new CriticalPathStepResponse();
+      criticalPathStepResponse.setStage(stage.name());
+      criticalPathStepResponse.setSourceTableName(lastTable.getSourceTableName());
+      criticalPathStepResponse.setStartedAt(stage.getStartedAt(lastTable));
+      criticalPathStepResponse.setEndedAt(stage.getEndedAt(lastTable));
+      criticalPathStepResponse.setDurationMs(
+          Duration.between(stage.getStartedAt(lastTable), stage.getEndedAt(lastTable))
+              .toMillis());
+      criticalPath.addFirst(criticalPathStepResponse);
+      stage = getLastEndedStage(lastTable, stage.getPredecessors());
+    }
+    Instant previousEndedAt = runStartedAt;
+    for (CriticalPathStepResponse criticalPathStepResponse : criticalPath) {
+      long waitMs =
+          Duration.between(previousEndedAt, criticalPathStepResponse.getStartedAt()).toMillis();
+      criticalPathStepResponse.setWaitMs(Math.max(0, waitMs));
+      previousEndedAt = criticalPathStepResponse.getEndedAt();
+    }
+    return criticalPath;
+  }
+
+  private static MigrationStage getLastEndedStage(
+      ApplicationConfigData applicationConfigData, List<MigrationStage> stages) {
+    MigrationStage lastEndedStage = null;
+    for (MigrationStage stage : stages) {
+      if (isTimed(stage, applicationConfigData)
+          && (lastEndedStage == null
+              || stage
+                  .getEndedAt(applicationConfigData)
+                  .isAfter(lastEndedStage.getEndedAt(applicationConfigData)))) {
+        lastEndedStage = stage;
+      }
+    }
+    return lastEndedStage;
+  }
+
+  /* Stage is timed if it has started and ended, rows saved before the stages were timed are not. */
+  private static boolean isTimed(
+      MigrationStage stage, ApplicationConfigData applicationConfigData) {
+    Instant startedAt = stage.getStartedAt(applicationConfigData);
+    Instant endedAt = stage.getEndedAt(applicationConfigData);
+    return startedAt != null && endedAt != null && !endedAt.isBefore(startedAt);
+  }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service;
+
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Class which keeps the translated DDLs in memory so that the table migration tasks do not have to
+ * read them from GCS one by one.
+ *
+ * <p>Once the migration workflow completes, {@link #prefetch(String, Collection)} starts
+ * downloading the translated files of the request tables in parallel. Each table task then
+ * calls {@link #getTranslatedDDL(String, String)} which waits only for its own file (if it is still
+ * being downloaded) rather than for the whole folder. Cache is bounded by the total number of bytes
+ * held, once the limit is reached the downloaded content is handed over to the waiting task but not
+ * kept in the cache, and any later read falls back to GCS.
+ */
+@Service
+public class TranslatedDDLCacheService {
+  private static final Logger log = LoggerFactory.getLogger(TranslatedDDLCacheService.class);
+
+  private final GoogleCloudStorageService googleCloudStorageService;
+  private final ThreadPoolTaskExecutor translatedDDLPrefetchExecutor;
+  private final BigQueryPartitioningService bigQueryPartitioningService;
+  private final Map<String, CompletableFuture<String>> translatedDDLs = new ConcurrentHashMap<>();
+  private final AtomicLong cachedBytes = new AtomicLong();
+
+  @Value("${translated.ddl.cache.max.bytes}")
+  private long translatedDDLCacheMaxBytes;
+
+  public TranslatedDDLCacheService(
+      GoogleCloudStorageService googleCloudStorageService,
+      @Qualifier("translatedDDLPrefetchExecutor")
+          ThreadPoolTaskExecutor translatedDDLPrefetchExecutor,
+      BigQueryPartitioningService bigQueryPartitioningService) {
+    this.googleCloudStorageService = googleCloudStorageService;
+    this.translatedDDLPrefetchExecutor = translatedDDLPrefetchExecutor;
+    this.bigQueryPartitioningService = bigQueryPartitioningService;
+  }
+
+  /**
+   * Starts downloading the given translated DDL files in parallel. Method does not wait for the
+   * downloads to finish.
+   *
+   * @param bucketName bucket which contains the translated DDLs.
+   * @param filePaths paths(without bucket name) of the translated DDLs of the request tables, only
+   *     these are kept in memory so that every entry is evicted once its table is processed.
+   * @return number of files for which download has been started.
+   */
+  public int prefetch(String bucketName, Collection<String> filePaths) {
+    int prefetchCount = 0;
+    for (String filePath : filePaths) {
+      String cacheKey = getCacheKey(bucketName, filePath);
+      AtomicBoolean started = new AtomicBoolean();
+      CompletableFuture<String> download =
+          translatedDDLs.computeIfAbsent(
+              cacheKey,
+              key -> {
+                started.set(true);
+                return CompletableFuture.supplyAsync(
+                    () -> googleCloudStorageService.getContentFromGCSFile(bucketName, filePath),
+                    translatedDDLPrefetchExecutor);
+              });
+      // Callback is attached once the entry is in the map, a download which is already complete
+      // runs it right here and it must not update the map from inside computeIfAbsent.
+      if (started.get()) {
+        download.whenComplete(
+            (ddl, throwable) -> onDownloadComplete(cacheKey, download, ddl, throwable));
+        prefetchCount++;
+      }
+    }
+    log.info("Started prefetching {} translated DDL files from gs://{}", prefetchCount, bucketName);
+    return prefetchCount;
+  }
+
+  /**
+   * Keeps the DDL translated without the batch workflow(locally or interactively) in memory, so
+   * that the table creation does not read it back from GCS.
+   *
+   * @param bucketName bucket which contains the translated DDL.
+   * @param filePath path of the translated DDL file(without bucket name).
+   * @param ddl translated DDL.
+   */
+  public void put(String bucketName, String filePath, String ddl) {
+    String cacheKey = getCacheKey(bucketName, filePath);
+    CompletableFuture<String> cachedDDL = CompletableFuture.completedFuture(ddl);
+    if (translatedDDLs.putIfAbsent(cacheKey, cachedDDL) == null) {
+      onDownloadComplete(cacheKey, cachedDDL, ddl, null);
+    }
+  }
+
+  /**
+   * Gives the translated DDL content for the file. If the file is prefetched(or being prefetched)
+   * then the content is served from memory, otherwise it is read from GCS.
+   *
+   * @param bucketName Name of the bucket containing the file
+   * @param filePath path of the file in GCS.
+   * @return Content of the file as String
+   */
+  public String getTranslatedDDL(String bucketName, String filePath) {
+    CompletableFuture<String> cachedDDL = translatedDDLs.get(getCacheKey(bucketName, filePath));
+    if (cachedDDL != null) {
+      try {
+        return cachedDDL.join();
+      } catch (CompletionException e) {
+        log.warn(
+            "Prefetch of translated DDL file:{} failed, reading it again from GCS. Error Message:{}",
+            filePath,
+            e.getMessage());
+      }
+    }
+    return googleCloudStorageService.getContentFromGCSFile(bucketName, filePath);
+  }
+
+  /**
+   * This method is needed because migration API name mapping is not working. It seems they have
+   * updated the API behind the scene. here Its updated the source Database, Schema and table name
+   * with target values. Partitioning and clustering of the table is also added here as the
+   * translation drops the Snowflake clustering keys.
+   *
+   * @param applicationConfigData Data related to migrate request
+   * @return updated ddl
+   */
+  public String getTargetTableDDL(ApplicationConfigData applicationConfigData) {
+    // Translated DDL is normally prefetched once the translation finishes, cache falls back to GCS
+    // if it is not present in memory(e.g. failed request being reprocessed).
+    String ddlContent =
+        getTranslatedDDL(
+            applicationConfigData.getGcsBucketForTranslation(),
+            applicationConfigData.getTranslatedDDLGCSPath());
+    // Update the source database with target
+    String updatedContent =
+        StringUtils.replaceIgnoreCase(
+            ddlContent,
+            applicationConfigData.getSourceDatabaseName(),
+            "`" + applicationConfigData.getTargetDatabaseName() + "`");
+    // Update the source schema with target
+    updatedContent =
+        StringUtils.replaceIgnoreCase(
+            updatedContent,
+            applicationConfigData.getSourceSchemaName(),
+            applicationConfigData.getTargetSchemaName());
+    // Update the source table name with target
+    updatedContent =
+        StringUtils.replaceIgnoreCase(
+            updatedContent,
+            applicationConfigData.getSourceTableName(),
+            applicationConfigData.getTargetTableName());
+    return bigQueryPartitioningService.applyPartitioningAndClustering(
+        updatedContent, applicationConfigData);
+  }
+
+  /**
+   * Removes the cached entries of the given file, or of all the files if a folder is given. It
+   * should be called once the table is processed so that the memory gets released for the next
+   * request.
+   *
+   * @param bucketName bucket which contains the translated DDLs.
+   * @param translatedPath path of the file or folder(without bucket name) of translated DDLs.
+   */
+  public void evict(String bucketName, String translatedPath) {
+    if (StringUtils.isBlank(bucketName) || StringUtils.isBlank(translatedPath)) {
+      return;
+    }
+    String folderKey = getCacheKey(bucketName, translatedPath);
+    translatedDDLs
+        .entrySet()
+        .removeIf(
+            entry -> {
+              if (!entry.getKey().startsWith(folderKey)) {
+                return false;
+              }
+              String ddl = entry.getValue().getNow(null);
+              if (ddl != null) {
+                cachedBytes.addAndGet(-ddl.getBytes(StandardCharsets.UTF_8).length);
+              }
+              return true;
+            });
+  }
+
+  /* Keeps the downloaded content only if it fits in the configured memory limit. */
+  private void onDownloadComplete(
+      String cacheKey, CompletableFuture<String> download, String ddl, Throwable throwable) {
+    if (throwable != null) {
+      log.error(
+          "Error while prefetching translated DDL file:{}, Error Message:{}",
+          cacheKey,
+          throwable.getMessage());
+      translatedDDLs.remove(cacheKey, download);
+      return;
+    }
+    long totalBytes = cachedBytes.addAndGet(ddl.getBytes(StandardCharsets.UTF_8).length);
+    if (totalBytes > translatedDDLCacheMaxBytes) {
+      log.warn(
+          "Translated DDL cache reached the limit of {} bytes, file:{} will be read from GCS",
+          translatedDDLCacheMaxBytes,
+          cacheKey);
+      // Entry may have been evicted meanwhile, the bytes are given back only if it is removed here
+      if (translatedDDLs.remove(cacheKey, download)) {
+        cachedBytes.addAndGet(-ddl.getBytes(StandardCharsets.UTF_8).length);
+      }
+    }
+  }
+
+  private String getCacheKey(String bucketName, String filePath) {
+    return bucketName + "/" + filePath;
+  }
+}
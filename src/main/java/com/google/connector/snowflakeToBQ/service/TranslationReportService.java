@@ -0,0 +1,220 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service;
+
+import com.google.connector.snowflakeToBQ.model.datadto.TranslationReportDataDTO;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Class which finds the tables whose DDL translation failed in a completed migration workflow. A
+ * workflow completes even if some of its files fail, the batch translation then reports them in
+ * the CSV report files(e.g. batch_translation_report.csv) of its output folder and may not write
+ * their translated file at all.
+ */
+@Service
+public class TranslationReportService {
+  private static final Logger log = LoggerFactory.getLogger(TranslationReportService.class);
+
+  static final String MISSING_TRANSLATION_ERROR = "Translated DDL file not found";
+  // Length of the translation_error column
+  static final int MAX_ERROR_LENGTH = 4000;
+  private static final Set<String> ERROR_SEVERITIES = Set.of("ERROR", "FATAL");
+
+  final GoogleCloudStorageService googleCloudStorageService;
+
+  public TranslationReportService(GoogleCloudStorageService googleCloudStorageService) {
+    this.googleCloudStorageService = googleCloudStorageService;
+  }
+
+  /**
+   * Lists the output folder of the workflow once, checks which tables have their translated DDL
+   * file and reads the errors reported for each file from the report files of the folder. Output
+   * folder is unique to the workflow, so only the files of this workflow are read, and only the
+   * given tables are reported.
+   *
+   * @param bucketName bucket which contains the translated DDLs.
+   * @param translatedFolderPath output folder(without bucket name) of the workflow.
+   * @param tableNames tables translated by the workflow, translated file of a table is
+   *     TABLE_NAME.sql
+   * @return {@link TranslationReportDataDTO} with the translated tables and the errors of the
+   *     failed ones.
+   */
+  public TranslationReportDataDTO getTranslationReport(
+      String bucketName, String translatedFolderPath, Collection<String> tableNames) {
+    String prefix = StringUtils.appendIfMissing(translatedFolderPath, "/");
+    Set<String> translatedFiles = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    Map<String, List<String>> reportedErrors = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (String fileName : googleCloudStorageService.listFiles(bucketName, translatedFolderPath)) {
+      String relativePath = StringUtils.removeStart(fileName, prefix);
+      // Sub folders belong to the other chunks or the retries
+      if (relativePath.contains("/")) {
+        continue;
+      }
+      if (StringUtils.endsWithIgnoreCase(relativePath, ".sql")) {
+        translatedFiles.add(StringUtils.removeEndIgnoreCase(relativePath, ".sql"));
+      } else if (StringUtils.endsWithIgnoreCase(relativePath, ".csv")) {
+        try {
+          parseReportErrors(
+                  googleCloudStorageService.getContentFromGCSFile(bucketName, fileName))
+              .forEach(
+                  (table, errors) ->
+                      reportedErrors
+                          .computeIfAbsent(table, key -> new ArrayList<>())
+                          .addAll(errors));
+        } catch (Exception e) {
+          // Missing translated file still marks the table as failed without the report
+          log.warn(
+              "Error while reading the translation report:{}, Error Message:{}",
+              fileName,
+              e.getMessage());
+        }
+      }
+    }
+
+    TranslationReportDataDTO translationReportDataDTO = new TranslationReportDataDTO();
+    for (String tableName : tableNames) {
+      boolean translated = translatedFiles.contains(tableName);
+      if (translated) {
+        translationReportDataDTO.getTranslatedTables().add(tableName);
+      }
+      List<String> errors = reportedErrors.get(tableName);
+      if (!translated || errors != null) {
+        String translationError =
+            errors == null ? MISSING_TRANSLATION_ERROR : StringUtils.join(errors, "; ");
+        translationReportDataDTO
+            .getTranslationErrors()
+            .put(tableName, StringUtils.abbreviate(translationError, MAX_ERROR_LENGTH));
+      }
+    }
+    if (!translationReportDataDTO.getTranslationErrors().isEmpty()) {
+      log.warn(
+          "Translation failed for {} of {} tables in gs://{}/{}, errors:{}",
+          translationReportDataDTO.getTranslationErrors().size(),
+          tableNames.size(),
+          bucketName,
+          translatedFolderPath,
+          translationReportDataDTO.getTranslationErrors());
+    }
+    return translationReportDataDTO;
+  }
+
+  /**
+   * Reads the errors from a translation report. Columns are found by their header, so only the
+   * severity, file path(or file name) and message columns are needed, in any order.
+   *
+   * @param report content of the CSV report.
+   * @return map of the file name(without .sql) to the messages of its ERROR or FATAL rows, empty if
+   *     the report does not have the required columns.
+   */
+  static Map<String, List<String>> parseReportErrors(String report) {
+    Map<String, List<String>> reportedErrors = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    List<List<String>> rows = parseCsv(report);
+    if (rows.isEmpty()) {
+      return reportedErrors;
+    }
+    List<String> header = new ArrayList<>();
+    for (String column : rows.get(0)) {
+      header.add(StringUtils.lowerCase(column).replaceAll("[^a-z]", ""));
+    }
+    int severityIndex = header.indexOf("severity");
+    int fileIndex =
+        header.contains("filepath") ? header.indexOf("filepath") : header.indexOf("filename");
+    int messageIndex = header.indexOf("message");
+    int categoryIndex = header.indexOf("category");
+    if (severityIndex < 0 || fileIndex < 0) {
+      log.warn("Translation report does not have the severity and file columns:{}", rows.get(0));
+      return reportedErrors;
+    }
+    for (List<String> row : rows.subList(1, rows.size())) {
+      String severity = getColumn(row, severityIndex);
+      String filePath = getColumn(row, fileIndex);
+      if (!ERROR_SEVERITIES.contains(StringUtils.upperCase(severity.trim()))
+          || StringUtils.isBlank(filePath)) {
+        continue;
+      }
+      String tableName =
+          StringUtils.removeEndIgnoreCase(
+              StringUtils.substringAfterLast("/" + filePath.trim(), "/"), ".sql");
+      String category = getColumn(row, categoryIndex);
+      String message = getColumn(row, messageIndex);
+      reportedErrors
+          .computeIfAbsent(tableName, key -> new ArrayList<>())
+          .add(StringUtils.isBlank(category) ? message : category + ": " + message);
+    }
+    return reportedErrors;
+  }
+
+  private static String getColumn(List<String> row, int index) {
+    return index >= 0 && index < row.size() ? row.get(index) : "";
+  }
+
+  /* Splits the CSV content into rows and columns, quoted values can have commas and new lines. */
+  static List<List<String>> parseCsv(String content) {
+    List<List<String>> rows = new ArrayList<>();
+    if (StringUtils.isBlank(content)) {
+      return rows;
+    }
+    List<String> row = new ArrayList<>();
+    StringBuilder value = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < content.length(); i++) {
+      char c = content.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < content.length() && content.charAt(i + 1) == '"') {
+          value.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          value.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        row.add(value.toString());
+        value.setLength(0);
+      } else if (c == '\n' || c == '\r') {
+        if (c == '\r' && i + 1 < content.length() && content.charAt(i + 1) == '\n') {
+          i++;
+        }
+        row.add(value.toString());
+        value.setLength(0);
+        if (!(row.size() == 1 && row.get(0).isEmpty())) {
+          rows.add(row);
+        }
+        row = new ArrayList<>();
+      } else {
+        value.append(c);
+      }
+    }
+    row.add(value.toString());
+    if (!(row.size() == 1 && row.get(0).isEmpty())) {
+      rows.add(row);
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service;
+
+import com.google.connector.snowflakeToBQ.model.datadto.SnowflakeUnloadToGCSDataDTO;
+import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Class to decide the size of the files which Snowflake writes during the unload(COPY INTO) of a
+ * table. Without any option Snowflake writes files of max 16 MB, which means big tables end up as
+ * tens of thousands of small files in GCS and small tables get split needlessly. This class picks
+ * the MAX_FILE_SIZE(and SINGLE for small tables) based on the size of the table and the target
+ * number of files.
+ */
+@Service
+@Setter
+public class UnloadFileSizePlanner {
+  private static final Logger log = LoggerFactory.getLogger(UnloadFileSizePlanner.class);
+
+  final SnowflakeQueryExecutor snowflakeQueryExecutor;
+
+  @Value("${snowflake.unload.file.sizing.enabled}")
+  private boolean fileSizingEnabled;
+
+  @Value("${snowflake.unload.target.file.count}")
+  private long targetFileCount;
+
+  @Value("${snowflake.unload.single.file.max.bytes}")
+  private long singleFileMaxBytes;
+
+  @Value("${snowflake.unload.min.file.size.bytes}")
+  private long minFileSizeBytes;
+
+  @Value("${snowflake.unload.max.file.size.bytes}")
+  private long maxFileSizeBytes;
+
+  public UnloadFileSizePlanner(SnowflakeQueryExecutor snowflakeQueryExecutor) {
+    this.snowflakeQueryExecutor = snowflakeQueryExecutor;
+  }
+
+  /**
+   * Decides the file size options for the unload of the table and records the decision in the
+   * received dto so that it can be saved for tuning later.
+   *
+   * @param snowflakeUnloadToGCSDataDTO dto containing data related to Snowflake unload request.
+   * @return copy options to be appended to the COPY INTO command, empty string if Snowflake
+   *     defaults should be used.
+   */
+  public String planUnloadOptions(SnowflakeUnloadToGCSDataDTO snowflakeUnloadToGCSDataDTO) {
+    if (!fileSizingEnabled) {
+      return "";
+    }
+    Long tableBytes;
+    try {
+      tableBytes =
+          snowflakeQueryExecutor.getTableSizeInBytes(
+              snowflakeUnloadToGCSDataDTO.getDatabaseName(),
+              snowflakeUnloadToGCSDataDTO.getSchemaName(),
+              snowflakeUnloadToGCSDataDTO.getTableName());
+    } catch (Exception e) {
+      // Sizing is only an optimization, unload will go ahead with Snowflake defaults.
+      log.warn(
+          "Could not get the size of the table:{}, using Snowflake default file size. Error Message:{}",
+          snowflakeUnloadToGCSDataDTO.getTableName(),
+          e.getMessage());
+      return "";
+    }
+    if (tableBytes == null) {
+      return "";
+    }
+    boolean singleFile = isSingleFile(tableBytes);
+    long maxFileSize = getMaxFileSize(tableBytes);
+
+    snowflakeUnloadToGCSDataDTO.setSourceTableBytes(tableBytes);
+    snowflakeUnloadToGCSDataDTO.setUnloadMaxFileSize(maxFileSize);
+    snowflakeUnloadToGCSDataDTO.setUnloadSingleFile(singleFile);
+    log.info(
+        "Unload plan for table:{}, table size:{}, max file size:{}, single file:{}",
+        snowflakeUnloadToGCSDataDTO.getTableName(),
+        tableBytes,
+        maxFileSize,
+        singleFile);
+    return String.format(
+        "MAX_FILE_SIZE=%d SINGLE=%s", maxFileSize, singleFile ? "TRUE" : "FALSE");
+  }
+
+  /**
+   * Small tables are unloaded in a single file, splitting them only adds GCS objects without giving
+   * any benefit in the BigQuery load.
+   *
+   * @param tableBytes size of the table in bytes.
+   * @return true if the table should be unloaded as a single file.
+   */
+  boolean isSingleFile(long tableBytes) {
+    return tableBytes <= singleFileMaxBytes;
+  }
+
+  /**
+   * Gives the max file size so that the table gets unloaded in roughly the target number of files.
+   * Value is kept between min and max configured size, max being the Snowflake limit for the GCS
+   * stage. Snowflake applies MAX_FILE_SIZE even when SINGLE=TRUE and unloaded data can be bigger
+   * than the stored(compressed) table size, hence for single file the max allowed size is used.
+   *
+   * @param tableBytes size of the table in bytes.
+   * @return value for MAX_FILE_SIZE in bytes.
+   */
+  long getMaxFileSize(long tableBytes) {
+    if (isSingleFile(tableBytes)) {
+      return maxFileSizeBytes;
+    }
+    // Ceil division
+    long fileSize = (tableBytes + targetFileCount - 1) / targetFileCount;
+    return Math.min(Math.max(fileSize, minFileSizeBytes), maxFileSizeBytes);
+  }
+}
@@ -30,11 +30,16 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import net.snowflake.client.jdbc.internal.apache.tika.utils.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /** Class to help in executing the migration workflow(translation of query) */
@@ -43,22 +48,27 @@ public class WorkflowMigrationService {
 
   private static final Logger log = LoggerFactory.getLogger(WorkflowMigrationService.class);
 
-  @Value("${migration.workflow.duration}")
-  private int migratingWorkflowDuration;
-
   private final MigrationServiceInstanceCreator migrationServiceInstanceCreator;
+  private final MigrationWorkflowTracker migrationWorkflowTracker;
 
-  public WorkflowMigrationService(MigrationServiceInstanceCreator migrationServiceInstanceCreator) {
+  public WorkflowMigrationService(
+      MigrationServiceInstanceCreator migrationServiceInstanceCreator,
+      MigrationWorkflowTracker migrationWorkflowTracker) {
     this.migrationServiceInstanceCreator = migrationServiceInstanceCreator;
+    this.migrationWorkflowTracker = migrationWorkflowTracker;
   }
 
   /**
-   * Method to create new workflow migration
+   * Method to create new workflow migration. Workflow is created right away and tracked by {@link
+   * MigrationWorkflowTracker} till it finishes, calling thread is not blocked while the DDLs are
+   * being translated.
    *
    * @param translateDDLDataDTO required parameter for creating the migration workflow.
-   * @return workflow name
+   * @return {@link CompletableFuture} which completes with the workflow details, its final state
+   *     and the state of its tasks once the workflow finishes. Completes exceptionally if the
+   *     workflow does not finish within migration.workflow.duration.
    */
-  public WorkflowMigrationResponse createMigrationWorkflow(
+  public CompletableFuture<WorkflowMigrationResponse> createMigrationWorkflow(
       TranslateDDLDataDTO translateDDLDataDTO) {
 
     log.info("Creating the migration flow for request:{}", translateDDLDataDTO.toString());
@@ -66,14 +76,15 @@ public class WorkflowMigrationService {
     WorkflowMigrationResponse workflowMigrationResponse;
 
     try {
+      String outputFolder = getOutputFolderForTranslation(translateDDLDataDTO);
       MigrationWorkflow response =
           migrationServiceInstanceCreator
               .getMigrationServiceClient()
-              .createMigrationWorkflow(buildCreateMigrationWorkflowRequest(translateDDLDataDTO));
+              .createMigrationWorkflow(
+                  buildCreateMigrationWorkflowRequest(translateDDLDataDTO, outputFolder));
       workflowMigrationResponse = new WorkflowMigrationResponse();
       workflowMigrationResponse.setWorkflowName(response.getName());
-      workflowMigrationResponse.setTranslatedFileFullGCSPath(
-          getOutputFolderForTranslation(translateDDLDataDTO));
+      workflowMigrationResponse.setTranslatedFileFullGCSPath(outputFolder);
     } catch (Exception e) {
       log.error(
           "Error while creating the executing the migration workflow:{}\nStack Trace:",
@@ -82,71 +93,164 @@ public class WorkflowMigrationService {
           MIGRATION_WORKFLOW_EXECUTION_ERROR.getMessage(),
           MIGRATION_WORKFLOW_EXECUTION_ERROR.getErrorCode());
     }
-    return workflowMigrationResponse;
+    return migrationWorkflowTracker
+        .track(workflowMigrationResponse.getWorkflowName())
+        .thenApply(workflow -> setWorkflowState(workflowMigrationResponse, workflow));
   }
 
   /**
-   * Verify if the workflow is completed or not. It run a while loop with max period of 2 min. Loop
-   * pauses 5 sec after each execution. If workflow does not finish in 2 min it returns false as an
-   * output
+   * Method to create one migration workflow per translation chunk of the schema, all the workflows
+   * run in parallel and are tracked together.
    *
-   * @param migrationWorkflowName created workflow name whose status is to be checked.
-   * @return true if workflow completes with in the max time defined in while loop, otherwise false.
+   * @param translateDDLDataDTO required parameter for creating the migration workflows.
+   * @param translationChunks sub folders of the schema DDLs, blank chunk translates the schema
+   *     folder itself.
+   * @return map of the chunk to the future of its workflow, in the order of the given chunks.
    */
-  public boolean isMigrationWorkflowCompleted(String migrationWorkflowName) {
-    boolean returnValue = false;
-    long startTime = System.currentTimeMillis();
-
-    migratingWorkflowDuration = migratingWorkflowDuration != 0 ? migratingWorkflowDuration : 120000;
+  public Map<String, CompletableFuture<WorkflowMigrationResponse>> createMigrationWorkflows(
+      TranslateDDLDataDTO translateDDLDataDTO, Collection<String> translationChunks) {
+    Map<String, CompletableFuture<WorkflowMigrationResponse>> workflows = new LinkedHashMap<>();
+    for (String translationChunk : translationChunks) {
+      TranslateDDLDataDTO chunkTranslateDDLDataDTO = new TranslateDDLDataDTO();
+      chunkTranslateDDLDataDTO.setSourceDatabaseName(translateDDLDataDTO.getSourceDatabaseName());
+      chunkTranslateDDLDataDTO.setSourceSchemaName(translateDDLDataDTO.getSourceSchemaName());
+      chunkTranslateDDLDataDTO.setTargetDatabaseName(translateDDLDataDTO.getTargetDatabaseName());
+      chunkTranslateDDLDataDTO.setTargetSchemaName(translateDDLDataDTO.getTargetSchemaName());
+      chunkTranslateDDLDataDTO.setGcsBucketForTranslation(
+          translateDDLDataDTO.getGcsBucketForTranslation());
+      chunkTranslateDDLDataDTO.setTranslationJobLocation(
+          translateDDLDataDTO.getTranslationJobLocation());
+      chunkTranslateDDLDataDTO.setTranslationChunk(translationChunk);
+      workflows.put(translationChunk, createMigrationWorkflow(chunkTranslateDDLDataDTO));
+    }
+    log.info("Created {} migration workflows for chunks:{}", workflows.size(), workflows.keySet());
+    return workflows;
+  }
 
-    log.info(
-        "Waiting for Migration Workflow to complete, will wait for {} Sec before terminating the"
-            + " process",
-        migratingWorkflowDuration);
-    while (System.currentTimeMillis() - startTime < migratingWorkflowDuration) {
-      try {
-        Thread.sleep(5000);
-      } catch (InterruptedException e) {
-        log.error(
-            "Thread.sleep got interrupted while sleeping in Migration Workflow to check the status"
-                + " of migration flow");
-        throw new SnowflakeConnectorException(
-            MIGRATION_WORKFLOW_EXECUTION_ERROR.getMessage(),
-            MIGRATION_WORKFLOW_EXECUTION_ERROR.getErrorCode());
-      }
+  /**
+   * Method to translate a single DDL in memory(interactive translation). DDL is given inline to the
+   * workflow and its translation is returned in the task result, hence no DDL file is written to or
+   * read from GCS.
+   *
+   * @param translateDDLDataDTO source database and schema of the DDL, and the job location.
+   * @param tableName name of the table whose DDL is translated.
+   * @param ddl Snowflake DDL of the table.
+   * @return {@link CompletableFuture} which completes with the workflow details and the translated
+   *     DDL(null if the workflow did not return it) once the workflow finishes. Completes
+   *     exceptionally if the workflow does not finish within migration.workflow.duration.
+   */
+  public CompletableFuture<WorkflowMigrationResponse> translateDDL(
+      TranslateDDLDataDTO translateDDLDataDTO, String tableName, String ddl) {
+    String fileName = tableName + ".sql";
+    WorkflowMigrationResponse workflowMigrationResponse = new WorkflowMigrationResponse();
+    try {
       MigrationWorkflow response =
           migrationServiceInstanceCreator
               .getMigrationServiceClient()
-              .getMigrationWorkflow(migrationWorkflowName);
-
-      if (response.getState()
-          == com.google.cloud.bigquery.migration.v2.MigrationWorkflow.State.COMPLETED) {
-        returnValue = true;
-        log.info(
-            "Migration Workflow response state:{}, return value :{}",
-            response.getState(),
-            returnValue);
-        break;
-      } else if (response.getState()
-          == com.google.cloud.bigquery.migration.v2.MigrationWorkflow.State.PAUSED) {
-        log.info(
-            "Migration Workflow  response state:{}, return value :{}",
-            response.getState(),
-            returnValue);
-        break;
+              .createMigrationWorkflow(
+                  buildLiteralTranslationWorkflowRequest(translateDDLDataDTO, fileName, ddl));
+      workflowMigrationResponse.setWorkflowName(response.getName());
+    } catch (Exception e) {
+      log.error(
+          "Error while creating the interactive translation of table:{}, Error Message:{}\n"
+              + "Stack Trace:",
+          tableName,
+          e.getMessage(),
+          e);
+      throw new SnowflakeConnectorException(
+          MIGRATION_WORKFLOW_EXECUTION_ERROR.getMessage(),
+          MIGRATION_WORKFLOW_EXECUTION_ERROR.getErrorCode());
+    }
+    return migrationWorkflowTracker
+        .track(workflowMigrationResponse.getWorkflowName())
+        .thenApply(
+            workflow -> {
+              setWorkflowState(workflowMigrationResponse, workflow);
+              workflowMigrationResponse.setTranslatedDDL(getTranslatedLiteral(workflow, fileName));
+              return workflowMigrationResponse;
+            });
+  }
+
+  /* Translated content of the given file from the task results, null if not returned. */
+  private static String getTranslatedLiteral(MigrationWorkflow workflow, String fileName) {
+    for (MigrationTask task : workflow.getTasksMap().values()) {
+      for (Literal literal :
+          task.getTaskResult().getTranslationTaskResult().getTranslatedLiteralsList()) {
+        if (literal.getRelativePath().endsWith(fileName)) {
+          return literal.getLiteralString();
+        }
       }
     }
-    return returnValue;
+    return null;
+  }
+
+  /**
+   * Waits for the workflow to finish and verifies that it completed without any failed task.
+   *
+   * @param workflowMigrationResponse future returned by {@link #createMigrationWorkflow}.
+   * @return the finished workflow details.
+   * @throws SnowflakeConnectorException if the workflow did not complete in time, or was paused or
+   *     any of its tasks failed, with the task states and errors in the message.
+   */
+  public static WorkflowMigrationResponse getCompletedWorkflow(
+      CompletableFuture<WorkflowMigrationResponse> workflowMigrationResponse) {
+    WorkflowMigrationResponse response;
+    try {
+      response = workflowMigrationResponse.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof SnowflakeConnectorException) {
+        throw (SnowflakeConnectorException) e.getCause();
+      }
+      throw e;
+    }
+    if (!response.isCompleted()) {
+      log.error("Migration workflow did not complete:{}", response);
+      throw new SnowflakeConnectorException(
+          String.format(
+              "%s Workflow:%s, state:%s, task states:%s, task errors:%s",
+              MIGRATION_WORKFLOW_EXECUTION_ERROR.getMessage(),
+              response.getWorkflowName(),
+              response.getState(),
+              response.getTaskStates(),
+              response.getTaskErrors()),
+          MIGRATION_WORKFLOW_EXECUTION_ERROR.getErrorCode());
+    }
+    return response;
+  }
+
+  /* Copies the final state of the workflow and of its tasks in the response. */
+  private static WorkflowMigrationResponse setWorkflowState(
+      WorkflowMigrationResponse workflowMigrationResponse, MigrationWorkflow workflow) {
+    workflowMigrationResponse.setState(workflow.getState().name());
+    for (Map.Entry<String, MigrationTask> task : workflow.getTasksMap().entrySet()) {
+      workflowMigrationResponse
+          .getTaskStates()
+          .put(task.getKey(), task.getValue().getState().name());
+      if (task.getValue().hasProcessingError()) {
+        workflowMigrationResponse
+            .getTaskErrors()
+            .add(
+                String.format(
+                    "%s:%s", task.getKey(), task.getValue().getProcessingError().getReason()));
+      }
+    }
+    log.info(
+        "Migration workflow:{} finished with state:{}, task states:{}",
+        workflowMigrationResponse.getWorkflowName(),
+        workflowMigrationResponse.getState(),
+        workflowMigrationResponse.getTaskStates());
+    return workflowMigrationResponse;
   }
 
   /**
    * Build workflow request based on the input parameters received from caller.
    *
    * @param translateDDLDataDTO required parameter for creating the workflow.
+   * @param outputFolder folder(without bucket name) in which the workflow writes the translations.
    * @return @{@link CreateMigrationWorkflowRequest}
    */
   private CreateMigrationWorkflowRequest buildCreateMigrationWorkflowRequest(
-      TranslateDDLDataDTO translateDDLDataDTO) {
+      TranslateDDLDataDTO translateDDLDataDTO, String outputFolder) {
     Dialect bigqueryDialect =
         Dialect.newBuilder().setBigqueryDialect(BigQueryDialect.getDefaultInstance()).build();
     Dialect snowflakeDialect =
@@ -187,14 +291,63 @@ public class WorkflowMigrationService {
             .setGcsTargetPath(
                 String.format(
                     "gs://%s/%s",
-                    translateDDLDataDTO.getGcsBucketForTranslation(),
-                    getOutputFolderForTranslation(translateDDLDataDTO)))
+                    translateDDLDataDTO.getGcsBucketForTranslation(), outputFolder))
             .setSourceDialect(snowflakeDialect)
             .setTargetDialect(bigqueryDialect)
             .setSourceEnv(sourceEnv)
             .setNameMappingList(l)
             .build();
 
+    return buildCreateMigrationWorkflowRequest(
+        translateDDLDataDTO,
+        getChunkFolder(translateDDLDataDTO).replace('/', '-'),
+        MigrationTask.newBuilder()
+            .setType(TRANSLATION_TYPE)
+            .setTranslationConfigDetails(translationConfigDetails)
+            .build());
+  }
+
+  /**
+   * Build the workflow request which translates a single DDL given inline, translation is returned
+   * in the result of the task instead of being written to GCS.
+   *
+   * @param translateDDLDataDTO source database and schema of the DDL, and the job location.
+   * @param fileName name given to the DDL file, translated DDL is returned with the same name.
+   * @param ddl DDL to translate.
+   * @return @{@link CreateMigrationWorkflowRequest}
+   */
+  private CreateMigrationWorkflowRequest buildLiteralTranslationWorkflowRequest(
+      TranslateDDLDataDTO translateDDLDataDTO, String fileName, String ddl) {
+    // Name mapping is not supported for the inline DDLs, source names are kept in the translation
+    // and are replaced with the target ones while creating the table.
+    TranslationDetails translationDetails =
+        TranslationDetails.newBuilder()
+            .addSourceTargetMapping(
+                SourceTargetMapping.newBuilder()
+                    .setSourceSpec(
+                        SourceSpec.newBuilder()
+                            .setLiteral(
+                                Literal.newBuilder()
+                                    .setRelativePath(fileName)
+                                    .setLiteralString(ddl)))
+                    .setTargetSpec(TargetSpec.newBuilder().setRelativePath(fileName)))
+            .setSourceEnvironment(
+                SourceEnvironment.newBuilder()
+                    .setDefaultDatabase(translateDDLDataDTO.getSourceDatabaseName())
+                    .addSchemaSearchPath(translateDDLDataDTO.getSourceSchemaName()))
+            .addTargetReturnLiterals(fileName)
+            .build();
+    return buildCreateMigrationWorkflowRequest(
+        translateDDLDataDTO,
+        "-" + fileName.replace('.', '-'),
+        MigrationTask.newBuilder()
+            .setType(TRANSLATION_TYPE)
+            .setTranslationDetails(translationDetails)
+            .build());
+  }
+
+  private static CreateMigrationWorkflowRequest buildCreateMigrationWorkflowRequest(
+      TranslateDDLDataDTO translateDDLDataDTO, String displayNameSuffix, MigrationTask task) {
     return CreateMigrationWorkflowRequest.newBuilder()
         .setParent(
             String.format(
@@ -208,32 +361,41 @@ public class WorkflowMigrationService {
                 .setDisplayName(
                     TRANSLATION_TYPE
                         + "-"
-                        + ZonedDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.ISO_INSTANT))
-                .putTasks(
-                    "translation-task",
-                    MigrationTask.newBuilder()
-                        .setType(TRANSLATION_TYPE)
-                        .setTranslationConfigDetails(translationConfigDetails)
-                        .build())
+                        + ZonedDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.ISO_INSTANT)
+                        + displayNameSuffix)
+                .putTasks("translation-task", task)
                 .build())
         .build();
   }
 
   private String getInputFolderForTranslation(TranslateDDLDataDTO translateDDLDataDTO) {
     return String.format(
-        "%s/%s/%s",
+        "%s/%s/%s%s",
         PropertyManager.DDL_PREFIX,
         translateDDLDataDTO.getSourceDatabaseName(),
-        translateDDLDataDTO.getSourceSchemaName());
+        translateDDLDataDTO.getSourceSchemaName(),
+        getChunkFolder(translateDDLDataDTO));
   }
 
+  /*
+   * Output folder of a workflow is unique, so its listing(translated files and reports) never
+   * contains the files of the other workflows of the same day.
+   */
   private String getOutputFolderForTranslation(TranslateDDLDataDTO translateDDLDataDTO) {
     return String.format(
-        "%s/%s/%s/%s",
+        "%s/%s/%s/%s/%s%s",
         PropertyManager.SNOWFLAKE_TRANSLATED_FOLDER_PREFIX,
         translateDDLDataDTO.getSourceDatabaseName(),
         translateDDLDataDTO.getSourceSchemaName(),
         PropertyManager.getDateInDesiredFormat(
-            LocalDateTime.now(), PropertyManager.OUTPUT_FORMATTER));
+            LocalDateTime.now(), PropertyManager.OUTPUT_FORMATTER),
+        UUID.randomUUID().toString().replace("-", "").substring(0, 12),
+        getChunkFolder(translateDDLDataDTO));
+  }
+
+  private static String getChunkFolder(TranslateDDLDataDTO translateDDLDataDTO) {
+    return StringUtils.isBlank(translateDDLDataDTO.getTranslationChunk())
+        ? ""
+        : "/" + translateDDLDataDTO.getTranslationChunk();
   }
 }
@@ -16,34 +16,52 @@
 
 package com.google.connector.snowflakeToBQ.service.async;
 
+import static com.google.connector.snowflakeToBQ.util.ErrorCode.BQ_QUERY_JOB_EXECUTION_ERROR;
+import static com.google.connector.snowflakeToBQ.util.ErrorCode.STREAMING_ROW_COUNT_MISMATCH;
 import static com.google.connector.snowflakeToBQ.util.ErrorCode.TABLE_ALREADY_EXISTS;
+import static com.google.connector.snowflakeToBQ.util.ErrorCode.UNLOAD_FORMAT_NOT_SUPPORTED;
 import static com.google.connector.snowflakeToBQ.util.PropertyManager.OUTPUT_FORMATTER1;
 
 import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
 import com.google.connector.snowflakeToBQ.mapper.MigrateRequestMapper;
 import com.google.connector.snowflakeToBQ.model.OperationResult;
 import com.google.connector.snowflakeToBQ.model.datadto.BigQueryDetailsDataDTO;
+import com.google.connector.snowflakeToBQ.model.datadto.LoadJobStatisticsDataDTO;
 import com.google.connector.snowflakeToBQ.model.datadto.SnowflakeUnloadToGCSDataDTO;
-import com.google.connector.snowflakeToBQ.service.ApplicationConfigDataService;
+import com.google.connector.snowflakeToBQ.model.datadto.StagingInventoryDataDTO;
+import com.google.connector.snowflakeToBQ.service.ApplicationConfigDataJournal;
 import com.google.connector.snowflakeToBQ.service.BigQueryOperationsService;
 import com.google.connector.snowflakeToBQ.service.GoogleCloudStorageService;
 import com.google.connector.snowflakeToBQ.service.SnowflakesService;
+import com.google.connector.snowflakeToBQ.service.TranslatedDDLCacheService;
+import com.google.connector.snowflakeToBQ.service.bigqueryjoboptions.LoadOption;
+import com.google.connector.snowflakeToBQ.service.streaming.SnowflakeStreamingTransferService;
 import com.google.connector.snowflakeToBQ.util.PropertyManager;
+import com.google.connector.snowflakeToBQ.util.RowCountVerificationStatus;
+import com.google.connector.snowflakeToBQ.util.TransferMode;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 /**
  * Class to perform Snowflake data unload and bigquery load operation in Asynchronous way. While
  * these two operations occur sequentially, other requests carrying out the same tasks will run in
- * parallel with each other, depending on the Thread Executor settings. This is using the spring
- * boot Async feature.
+ * parallel with each other, depending on the Thread Executor settings. Table creation and unload run
+ * on the "customExecutor" pool, the BigQuery load is handed over to the BigQuery job tracker so
+ * that no pool thread is held while BigQuery loads the data. Unload does not depend on the table
+ * DDL, hence it can run while the DDL is being translated.
  */
 @Service
 public class SnowflakeToBQAsyncService {
@@ -53,32 +71,66 @@ public class SnowflakeToBQAsyncService {
 
   final SnowflakesService snowflakesService;
 
-  final ApplicationConfigDataService applicationConfigDataService;
+  final ApplicationConfigDataJournal applicationConfigDataJournal;
 
   final GoogleCloudStorageService googleCloudStorageService;
 
+  final TranslatedDDLCacheService translatedDDLCacheService;
+
+  final StagingCleanupAsyncService stagingCleanupAsyncService;
+
+  final SnowflakeStreamingTransferService snowflakeStreamingTransferService;
+
+  final ThreadPoolTaskExecutor customExecutor;
+
   public SnowflakeToBQAsyncService(
       BigQueryOperationsService bigQueryOperationsService,
       SnowflakesService snowflakesService,
-      ApplicationConfigDataService applicationConfigDataService,
-      GoogleCloudStorageService googleCloudStorageService) {
+      ApplicationConfigDataJournal applicationConfigDataJournal,
+      GoogleCloudStorageService googleCloudStorageService,
+      TranslatedDDLCacheService translatedDDLCacheService,
+      StagingCleanupAsyncService stagingCleanupAsyncService,
+      SnowflakeStreamingTransferService snowflakeStreamingTransferService,
+      @Qualifier("customExecutor") ThreadPoolTaskExecutor customExecutor) {
     this.bigQueryOperationsService = bigQueryOperationsService;
     this.snowflakesService = snowflakesService;
-    this.applicationConfigDataService = applicationConfigDataService;
+    this.applicationConfigDataJournal = applicationConfigDataJournal;
     this.googleCloudStorageService = googleCloudStorageService;
+    this.translatedDDLCacheService = translatedDDLCacheService;
+    this.stagingCleanupAsyncService = stagingCleanupAsyncService;
+    this.snowflakeStreamingTransferService = snowflakeStreamingTransferService;
+    this.customExecutor = customExecutor;
   }
 
   /**
    * Method to perform the Snowflake table data unloading to GCS and loading the data in BigQuery in
-   * Asynchronous way. Here "customExecutor" annotation is used which defined the Thread executor
-   * and its property.
+   * Asynchronous way. Table creation and data unload run on the "customExecutor" Thread executor,
+   * once the load job is submitted the thread is released and the result is completed when the
+   * BigQuery job tracker finds the load job done.
    *
    * @param applicationConfigData Application data
    * @return @{@link CompletableFuture} result of the execution, success or fail
    */
-  @Async("customExecutor")
   public CompletableFuture<OperationResult<ApplicationConfigData>> snowflakeUnloadAndLoadToBQLoad(
       ApplicationConfigData applicationConfigData) {
+    return snowflakeUnloadAndLoadToBQLoad(
+        applicationConfigData, CompletableFuture.completedFuture(null));
+  }
+
+  /**
+   * Method to perform the Snowflake table data unloading to GCS and loading the data in BigQuery
+   * while the DDL of the table may still be getting translated. Unload does not need the translated
+   * DDL, hence it starts right away, table creation and the BigQuery load wait for the unload as
+   * well as for the translation. Table which is to be created but already exists fails before the
+   * unload.
+   *
+   * @param applicationConfigData Application data
+   * @param translatedDDLReady future which completes once the translated DDL path of the table is
+   *     set in the application data, or exceptionally if the translation failed.
+   * @return @{@link CompletableFuture} result of the execution, success or fail
+   */
+  public CompletableFuture<OperationResult<ApplicationConfigData>> snowflakeUnloadAndLoadToBQLoad(
+      ApplicationConfigData applicationConfigData, CompletableFuture<?> translatedDDLReady) {
 
     // We are using Aysnc method here so the method which is calling it can not pass its context to
     // this method directly and requestId was coming as null which was set in controller. Hence we
@@ -91,9 +143,178 @@ public class SnowflakeToBQAsyncService {
             + UUID.randomUUID()
             + ":"
             + applicationConfigData.getSourceTableName();
-    MDC.put("requestLogId", newMDCRequestId);
+    return CompletableFuture.supplyAsync(
+            () -> {
+              MDC.put("requestLogId", newMDCRequestId);
+              try {
+                return checkTableNotExists(applicationConfigData);
+              } finally {
+                MDC.remove("requestLogId");
+              }
+            },
+            customExecutor)
+        .thenCompose(
+            tableExistsError ->
+                tableExistsError != null
+                    ? CompletableFuture.completedFuture(tableExistsError)
+                    : unloadCreateTableAndLoad(
+                        applicationConfigData, translatedDDLReady, newMDCRequestId));
+  }
 
-    log.info("Inside SnowflakeUnloadToBQLoad() of SnowflakeToBQAsyncService class");
+  /* Unloads the table data and then creates the table and loads it once its DDL is translated. */
+  private CompletableFuture<OperationResult<ApplicationConfigData>> unloadCreateTableAndLoad(
+      ApplicationConfigData applicationConfigData,
+      CompletableFuture<?> translatedDDLReady,
+      String newMDCRequestId) {
+    return CompletableFuture.supplyAsync(
+            () -> {
+              MDC.put("requestLogId", newMDCRequestId);
+              try {
+                return unload(applicationConfigData);
+              } finally {
+                MDC.remove("requestLogId");
+              }
+            },
+            customExecutor)
+        .thenCombineAsync(
+            translatedDDLReady.handle((ready, throwable) -> throwable),
+            (transferMode, translationError) -> {
+              MDC.put("requestLogId", newMDCRequestId);
+              try {
+                return createTableAndLoad(
+                    applicationConfigData,
+                    transferMode,
+                    translationError instanceof CompletionException
+                            && translationError.getCause() != null
+                        ? translationError.getCause()
+                        : translationError,
+                    newMDCRequestId);
+              } finally {
+                MDC.remove("requestLogId");
+              }
+            },
+            customExecutor)
+        .thenCompose(Function.identity());
+  }
+
+  /*
+   * Checks that the table to be created does not exist yet, before Snowflake spends warehouse time
+   * on its unload. Returns the error result if it exists, null otherwise. As per design the code
+   * never drops or recreates a table which exists.
+   */
+  private OperationResult<ApplicationConfigData> checkTableNotExists(
+      ApplicationConfigData applicationConfigData) {
+    if (applicationConfigData.isBQTableCreated()) {
+      return null;
+    }
+    BigQueryDetailsDataDTO bigQueryDetailsDataDTO =
+        MigrateRequestMapper.migrateRequestToBigQueryDetailDataDto(applicationConfigData);
+    boolean isBQTableExistsTemp = bigQueryOperationsService.isTableExists(bigQueryDetailsDataDTO);
+
+    log.info(
+        "Table Name::{}, in Project::{} and Dataset::{}, exists ::{}",
+        bigQueryDetailsDataDTO.getTableName(),
+        bigQueryDetailsDataDTO.getProjectId(),
+        bigQueryDetailsDataDTO.getDatasetId(),
+        isBQTableExistsTemp);
+    if (!isBQTableExistsTemp) {
+      return null;
+    }
+    log.error(
+        "{},Error Code:{}, table name:{}",
+        TABLE_ALREADY_EXISTS.getMessage(),
+        TABLE_ALREADY_EXISTS.getErrorCode(),
+        bigQueryDetailsDataDTO.getTableName());
+
+    applicationConfigData.setLastUpdatedTime(
+        PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
+    applicationConfigDataJournal.save(applicationConfigData);
+
+    return new OperationResult<>(
+        new OperationResult.Error(
+            String.format(
+                "%s, %s, Error Code:%s",
+                bigQueryDetailsDataDTO.getTableName(),
+                TABLE_ALREADY_EXISTS.getMessage(),
+                TABLE_ALREADY_EXISTS.getErrorCode())));
+  }
+
+  /*
+   * Unloads the table data from Snowflake if not done yet. Returns STREAMING if the table is to be
+   * streamed instead, streaming writes in the table hence it only starts after the table creation.
+   */
+  private TransferMode unload(ApplicationConfigData applicationConfigData) {
+    log.info("Inside unload() of SnowflakeToBQAsyncService class");
+
+    // Streaming replaces both unload and load, only for the tables where none of them has started
+    if (!applicationConfigData.isDataUnloadedFromSnowflake()
+        && !applicationConfigData.isDataLoadedInBQ()
+        && snowflakeStreamingTransferService.isStreamingTransfer(applicationConfigData)) {
+      return TransferMode.STREAMING;
+    }
+
+    // Checking if this step is already completed
+    if (!applicationConfigData.isDataUnloadedFromSnowflake()) {
+      // AVRO and ORC files can only be loaded when staged by some other tool, failing before
+      // Snowflake spends warehouse time on an unload which can not be loaded
+      if (StringUtils.isNotBlank(applicationConfigData.getBqLoadFileFormat())
+          && !LoadOption.valueOf(applicationConfigData.getBqLoadFileFormat())
+              .isSnowflakeUnloadSupported()) {
+        log.error(
+            "{},Error Code:{}, load format:{}, table name:{}",
+            UNLOAD_FORMAT_NOT_SUPPORTED.getMessage(),
+            UNLOAD_FORMAT_NOT_SUPPORTED.getErrorCode(),
+            applicationConfigData.getBqLoadFileFormat(),
+            applicationConfigData.getTargetTableName());
+        throw new SnowflakeConnectorException(
+            UNLOAD_FORMAT_NOT_SUPPORTED.getMessage(), UNLOAD_FORMAT_NOT_SUPPORTED.getErrorCode());
+      }
+      // Translation of the chunk updates the same row while the unload runs, changes to the row
+      // are made holding its monitor till the translated DDL is ready
+      synchronized (applicationConfigData) {
+        applicationConfigData.setUnloadStartedAt(Instant.now());
+      }
+      // Starting the execution of Data unload from Snowflake using rest API.
+      SnowflakeUnloadToGCSDataDTO snowflakeUnloadToGCSDataDTO =
+          MigrateRequestMapper.applicationConfigDataToSnowflakeUnloadToGCSDataDTO(
+              applicationConfigData);
+      String snowflakeStatementHandle =
+          snowflakesService.executeUnloadDataCommand(snowflakeUnloadToGCSDataDTO);
+      log.info(
+          "Snowflake statement handle:: {}, for table name:: {}",
+          snowflakeStatementHandle,
+          applicationConfigData.getTargetTableName());
+      Long snowflakeRowsUnloaded = snowflakesService.getUnloadedRowCount(snowflakeStatementHandle);
+      synchronized (applicationConfigData) {
+        // Marking the step complete
+        applicationConfigData.setDataUnloadedFromSnowflake(true);
+        applicationConfigData.setTransferMode(TransferMode.UNLOAD.name());
+        applicationConfigData.setSnowflakeStatementHandle(snowflakeStatementHandle);
+        // Kept for verifying the row count once the data is loaded
+        applicationConfigData.setSnowflakeRowsUnloaded(snowflakeRowsUnloaded);
+        // Recording the file size decision of the unload for tuning
+        applicationConfigData.setSourceTableBytes(
+            snowflakeUnloadToGCSDataDTO.getSourceTableBytes());
+        applicationConfigData.setUnloadMaxFileSize(
+            snowflakeUnloadToGCSDataDTO.getUnloadMaxFileSize());
+        applicationConfigData.setUnloadSingleFile(
+            snowflakeUnloadToGCSDataDTO.getUnloadSingleFile());
+        applicationConfigData.setUnloadEndedAt(Instant.now());
+        applicationConfigData.setLastUpdatedTime(
+            PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
+      }
+      applicationConfigDataJournal.saveAndWait(applicationConfigData);
+    }
+    return TransferMode.UNLOAD;
+  }
+
+  /* Creates the table and loads the unloaded data, future completes once the load job is done. */
+  private CompletableFuture<OperationResult<ApplicationConfigData>> createTableAndLoad(
+      ApplicationConfigData applicationConfigData,
+      TransferMode transferMode,
+      Throwable translationError,
+      String mdcRequestId) {
+    log.info("Inside createTableAndLoad() of SnowflakeToBQAsyncService class");
 
     BigQueryDetailsDataDTO bigQueryDetailsDataDTO =
         MigrateRequestMapper.migrateRequestToBigQueryDetailDataDto(applicationConfigData);
@@ -107,135 +328,268 @@ public class SnowflakeToBQAsyncService {
     // value is true then false will take preference.
     if (!applicationConfigData.isBQTableCreated()) {
 
-      // Checking if table already existing and user request to create it based on above if
-      // condition
-      boolean isBQTableExistsTemp = bigQueryOperationsService.isTableExists(bigQueryDetailsDataDTO);
-
-      log.info(
-          "Table Name::{}, in Project::{} and Dataset::{}, exists ::{}",
-          bigQueryDetailsDataDTO.getTableName(),
-          bigQueryDetailsDataDTO.getProjectId(),
-          bigQueryDetailsDataDTO.getDatasetId(),
-          isBQTableExistsTemp);
-
-      // Error will be thrown becasue tables existing although user has request to create a new
-      // table. As per design code will never drop or recreate if it table exists
-      if (isBQTableExistsTemp) {
+      // Table can not be created without its translated DDL. Failed request processing only picks
+      // the tables having a translated DDL, the table has to be migrated again with a new request.
+      if (translationError != null) {
         log.error(
-            "{},Error Code:{}, table name:{}",
-            TABLE_ALREADY_EXISTS.getMessage(),
-            TABLE_ALREADY_EXISTS.getErrorCode(),
-            bigQueryDetailsDataDTO.getTableName());
-
+            "DDL translation of table:{} failed, Error Message:{}",
+            applicationConfigData.getTargetTableName(),
+            translationError.getMessage());
         applicationConfigData.setLastUpdatedTime(
             PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
-        applicationConfigDataService.saveApplicationConfigDataService(applicationConfigData);
-
+        applicationConfigDataJournal.save(applicationConfigData);
         return CompletableFuture.completedFuture(
             new OperationResult<>(
                 new OperationResult.Error(
                     String.format(
-                        "%s, %s, Error Code:%s",
-                        bigQueryDetailsDataDTO.getTableName(),
-                        TABLE_ALREADY_EXISTS.getMessage(),
-                        TABLE_ALREADY_EXISTS.getErrorCode()))));
+                        "%s, Error:%s",
+                        applicationConfigData.getTargetTableName(),
+                        translationError.getMessage()))));
       }
 
+      // Table was checked to not exist before the unload
+      applicationConfigData.setTableCreationStartedAt(Instant.now());
+
       // Update the DDl content
-      String updatedDDL = updateDDLContent(applicationConfigData);
+      String updatedDDL = translatedDDLCacheService.getTargetTableDDL(applicationConfigData);
       log.info("Translated ddl after updating the database, schema and tablename::{}", updatedDDL);
 
       // Creating a table based on the updated DDL
       boolean tableCreated =
           bigQueryOperationsService.createTableUsingDDL(
-              updatedDDL, bigQueryDetailsDataDTO.getLocation());
+              updatedDDL, bigQueryDetailsDataDTO.getLocation(), bigQueryDetailsDataDTO);
       log.info("createTableUsingDDL() returned value is ::{}", tableCreated);
       // Marking the step complete for the row
       applicationConfigData.setBQTableCreated(true);
+      applicationConfigData.setTableCreationEndedAt(Instant.now());
       applicationConfigData.setLastUpdatedTime(
           PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
-      applicationConfigDataService.saveApplicationConfigDataService(applicationConfigData);
+      applicationConfigDataJournal.saveAndWait(applicationConfigData);
     }
 
-    // Checking if this step is already completed
-    if (!applicationConfigData.isDataUnloadedFromSnowflake()) {
-      // Starting the execution of Data unload from Snowflake using rest API.
-      SnowflakeUnloadToGCSDataDTO snowflakeUnloadToGCSDataDTO =
-          MigrateRequestMapper.applicationConfigDataToSnowflakeUnloadToGCSDataDTO(
-              applicationConfigData);
-      String snowflakeStatementHandle =
-          snowflakesService.executeUnloadDataCommand(snowflakeUnloadToGCSDataDTO);
-      log.info(
-          "Snowflake statement handle:: {}, for table name:: {}",
-          snowflakeStatementHandle,
-          applicationConfigData.getTargetTableName());
-      // Marking the step complete
-      applicationConfigData.setDataUnloadedFromSnowflake(true);
-      applicationConfigData.setSnowflakeStatementHandle(snowflakeStatementHandle);
-      applicationConfigData.setLastUpdatedTime(
-          PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
-      applicationConfigDataService.saveApplicationConfigDataService(applicationConfigData);
+    if (transferMode == TransferMode.STREAMING) {
+      return CompletableFuture.completedFuture(
+          streamToBigQuery(applicationConfigData, bigQueryDetailsDataDTO));
     }
 
     // Checking if this step is already completed
     if (!applicationConfigData.isDataLoadedInBQ()) {
-      try {
-        bigQueryOperationsService.loadBigQueryJob(bigQueryDetailsDataDTO);
-      } catch (Exception e) {
-        log.error(
-            "Error while loading data in the table:{}\nStack Trace:",
-            applicationConfigData.getTargetTableName(),
-            e);
-
+      applicationConfigData.setLoadStartedAt(Instant.now());
+      StagingInventoryDataDTO stagingInventoryDataDTO =
+          getStagingInventory(applicationConfigData, bigQueryDetailsDataDTO);
+      // Snowflake does not write any file when table(or query) is empty, submitting the load job
+      // in that case only fails after getting queued in BigQuery, hence skipping it.
+      if (stagingInventoryDataDTO != null && stagingInventoryDataDTO.isEmpty()) {
+        log.info(
+            "No file unloaded in gs://{}/{} for table:{}, skipping the BigQuery load",
+            stagingInventoryDataDTO.getBucketName(),
+            stagingInventoryDataDTO.getPrefix(),
+            applicationConfigData.getTargetTableName());
+        verifyRowCount(applicationConfigData, 0L);
+        applicationConfigData.setDataLoadedInBQ(true);
+        applicationConfigData.setLoadEndedAt(Instant.now());
         applicationConfigData.setLastUpdatedTime(
             PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
-        applicationConfigDataService.saveApplicationConfigDataService(applicationConfigData);
-
-        return CompletableFuture.completedFuture(
-            new OperationResult<>(
-                new OperationResult.Error(
-                    String.format(
-                        "%s, Error:%s",
-                        applicationConfigData.getTargetTableName(), e.getMessage()))));
+        applicationConfigDataJournal.saveAndWait(applicationConfigData);
+        return CompletableFuture.completedFuture(new OperationResult<>(applicationConfigData));
       }
-      applicationConfigData.setDataLoadedInBQ(true);
-      applicationConfigData.setLastUpdatedTime(
-          PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
-      applicationConfigDataService.saveApplicationConfigDataService(applicationConfigData);
+      CompletableFuture<Boolean> loadFuture;
+      try {
+        loadFuture = bigQueryOperationsService.loadBigQueryJobAsync(bigQueryDetailsDataDTO);
+      } catch (Exception e) {
+        return CompletableFuture.completedFuture(loadFailed(applicationConfigData, e));
+      }
+      // Load result is handled on the "customExecutor" pool instead of the job tracker thread.
+      return loadFuture.handleAsync(
+          (loaded, throwable) -> {
+            MDC.put("requestLogId", mdcRequestId);
+            try {
+              recordLoadStatistics(applicationConfigData, bigQueryDetailsDataDTO);
+              if (throwable != null) {
+                return loadFailed(
+                    applicationConfigData,
+                    throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause()
+                        : throwable);
+              }
+              // Load job (or the staging swap) completed but did not succeed, the table is not
+              // loaded and staged files are kept for a rerun
+              if (!Boolean.TRUE.equals(loaded)) {
+                return loadFailed(
+                    applicationConfigData,
+                    new SnowflakeConnectorException(
+                        BQ_QUERY_JOB_EXECUTION_ERROR.getMessage(),
+                        BQ_QUERY_JOB_EXECUTION_ERROR.getErrorCode()));
+              }
+              verifyRowCount(
+                  applicationConfigData,
+                  bigQueryDetailsDataDTO.getLoadJobStatistics().isEmpty()
+                      ? null
+                      : bigQueryDetailsDataDTO.getLoadJobStatistics().getOutputRows());
+              applicationConfigData.setDataLoadedInBQ(true);
+              applicationConfigData.setLoadEndedAt(Instant.now());
+              applicationConfigData.setLastUpdatedTime(
+                  PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
+              applicationConfigDataJournal.saveAndWait(applicationConfigData);
+              // Staged files are not needed anymore, deletion runs in background as per retention
+              // policy
+              stagingCleanupAsyncService.scheduleCleanup(applicationConfigData);
+              return new OperationResult<>(applicationConfigData);
+            } finally {
+              MDC.remove("requestLogId");
+            }
+          },
+          customExecutor);
     }
-    MDC.remove("requestLogId");
     return CompletableFuture.completedFuture(new OperationResult<>(applicationConfigData));
   }
 
+  /* Streams the table data directly in BigQuery, no file is staged in GCS in this path. */
+  private OperationResult<ApplicationConfigData> streamToBigQuery(
+      ApplicationConfigData applicationConfigData, BigQueryDetailsDataDTO bigQueryDetailsDataDTO) {
+    // Streaming replaces both unload and load, the transfer is timed as the load
+    applicationConfigData.setLoadStartedAt(Instant.now());
+    long rowCount;
+    try {
+      rowCount =
+          snowflakeStreamingTransferService.transferTable(
+              applicationConfigData, bigQueryDetailsDataDTO);
+    } catch (Exception e) {
+      if (e instanceof SnowflakeConnectorException
+          && ((SnowflakeConnectorException) e).getErrorCode()
+              == STREAMING_ROW_COUNT_MISMATCH.getErrorCode()) {
+        applicationConfigData.setRowCountVerification(RowCountVerificationStatus.MISMATCHED.name());
+      }
+      return loadFailed(applicationConfigData, e);
+    }
+    log.info(
+        "Streamed {} rows in table:{}", rowCount, applicationConfigData.getTargetTableName());
+    // Rows are committed only when they match the rows read from Snowflake
+    applicationConfigData.setSnowflakeRowsUnloaded(rowCount);
+    applicationConfigData.setRowCountVerification(RowCountVerificationStatus.MATCHED.name());
+    applicationConfigData.setDataUnloadedFromSnowflake(true);
+    applicationConfigData.setDataLoadedInBQ(true);
+    applicationConfigData.setTransferMode(TransferMode.STREAMING.name());
+    applicationConfigData.setLoadEndedAt(Instant.now());
+    applicationConfigData.setLastUpdatedTime(
+        PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
+    applicationConfigDataJournal.saveAndWait(applicationConfigData);
+    return new OperationResult<>(applicationConfigData);
+  }
+
+  /* Records the failed load attempt and builds the error result for the table. */
+  private OperationResult<ApplicationConfigData> loadFailed(
+      ApplicationConfigData applicationConfigData, Throwable e) {
+    log.error(
+        "Error while loading data in the table:{}\nStack Trace:",
+        applicationConfigData.getTargetTableName(),
+        e);
+
+    applicationConfigData.setLastUpdatedTime(
+        PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
+    applicationConfigDataJournal.save(applicationConfigData);
+
+    return new OperationResult<>(
+        new OperationResult.Error(
+            String.format(
+                "%s, Error:%s", applicationConfigData.getTargetTableName(), e.getMessage())));
+  }
+
   /**
-   * This method is needed because migration API name mapping is not working. It seems they have
-   * updated the API behind the scene. here Its updated the source Database, Schema and table name
-   * with target values
+   * Builds the inventory of the files unloaded by Snowflake for the table and records the number
+   * of files and bytes in the application data as well as in the dto used for the BigQuery load.
+   * Inventory is only used for planning the load, hence any failure while building it is logged and
+   * the load continues with the wildcard URI as before.
    *
    * @param applicationConfigData Data related to migrate request
-   * @return updated ddl
+   * @param bigQueryDetailsDataDTO dto used for the load job, gets updated with the inventory values
+   * @return {@link StagingInventoryDataDTO} or null if inventory could not be built.
    */
-  private String updateDDLContent(ApplicationConfigData applicationConfigData) {
-    String ddlContent =
-        googleCloudStorageService.getContentFromGCSFile(
-            applicationConfigData.getGcsBucketForTranslation(),
-            applicationConfigData.getTranslatedDDLGCSPath());
-    // Update the source database with target
-    String updatedContent =
-        StringUtils.replaceIgnoreCase(
-            ddlContent,
-            applicationConfigData.getSourceDatabaseName(),
-            "`" + applicationConfigData.getTargetDatabaseName() + "`");
-    // Update the source schema with target
-    updatedContent =
-        StringUtils.replaceIgnoreCase(
-            updatedContent,
-            applicationConfigData.getSourceSchemaName(),
-            applicationConfigData.getTargetSchemaName());
-    // Update the source table name with target
-    return StringUtils.replaceIgnoreCase(
-        updatedContent,
-        applicationConfigData.getSourceTableName(),
-        applicationConfigData.getTargetTableName());
+  private StagingInventoryDataDTO getStagingInventory(
+      ApplicationConfigData applicationConfigData, BigQueryDetailsDataDTO bigQueryDetailsDataDTO) {
+    StagingInventoryDataDTO stagingInventoryDataDTO;
+    try {
+      stagingInventoryDataDTO =
+          googleCloudStorageService.getStagingInventory(
+              bigQueryDetailsDataDTO.getSnowflakeDataUnloadGCSPath(),
+              bigQueryDetailsDataDTO.getTableName());
+    } catch (Exception e) {
+      log.warn(
+          "Could not build the staging inventory for table:{}, Error Message:{}",
+          bigQueryDetailsDataDTO.getTableName(),
+          e.getMessage());
+      return null;
+    }
+    if (stagingInventoryDataDTO != null) {
+      bigQueryDetailsDataDTO.setStagedFileCount(stagingInventoryDataDTO.getFileCount());
+      bigQueryDetailsDataDTO.setStagedBytes(stagingInventoryDataDTO.getTotalBytes());
+      bigQueryDetailsDataDTO.setStagingInventory(stagingInventoryDataDTO);
+      applicationConfigData.setUnloadedFileCount(stagingInventoryDataDTO.getFileCount());
+      applicationConfigData.setUnloadedBytes(stagingInventoryDataDTO.getTotalBytes());
+    }
+    return stagingInventoryDataDTO;
+  }
+
+  /* Copies the statistics of the load jobs of the table in the application data. */
+  private void recordLoadStatistics(
+      ApplicationConfigData applicationConfigData, BigQueryDetailsDataDTO bigQueryDetailsDataDTO) {
+    LoadJobStatisticsDataDTO loadJobStatistics = bigQueryDetailsDataDTO.getLoadJobStatistics();
+    if (loadJobStatistics.isEmpty()) {
+      return;
+    }
+    applicationConfigData.setBqLoadJobIds(String.join(",", loadJobStatistics.getJobIds()));
+    applicationConfigData.setBqLoadInputFiles(loadJobStatistics.getInputFiles());
+    applicationConfigData.setBqLoadInputBytes(loadJobStatistics.getInputBytes());
+    applicationConfigData.setBqLoadOutputRows(loadJobStatistics.getOutputRows());
+    applicationConfigData.setBqLoadBadRecords(loadJobStatistics.getBadRecords());
+    applicationConfigData.setBqLoadSlotMs(loadJobStatistics.getSlotMs());
+    applicationConfigData.setBqLoadStartTime(toDisplayTime(loadJobStatistics.getStartTime()));
+    applicationConfigData.setBqLoadEndTime(toDisplayTime(loadJobStatistics.getEndTime()));
+    log.info(
+        "Load statistics of table:{}, jobs:{}, input files:{}, input bytes:{}, output rows:{}, bad records:{}, slot ms:{}",
+        applicationConfigData.getTargetTableName(),
+        loadJobStatistics.getJobIds().size(),
+        loadJobStatistics.getInputFiles(),
+        loadJobStatistics.getInputBytes(),
+        loadJobStatistics.getOutputRows(),
+        loadJobStatistics.getBadRecords(),
+        loadJobStatistics.getSlotMs());
+  }
+
+  /*
+   * Compares the rows unloaded by COPY INTO with the rows loaded by the BigQuery load jobs. Both
+   * counts come from the statistics of the executed statements, so no count query is run on
+   * either side. Mismatch is only flagged, the table data is left as it is.
+   */
+  private void verifyRowCount(ApplicationConfigData applicationConfigData, Long loadedRows) {
+    if (applicationConfigData.getSnowflakeRowsUnloaded() == null) {
+      // Unload may have been done in an earlier run whose count is not recorded
+      applicationConfigData.setSnowflakeRowsUnloaded(
+          snowflakesService.getUnloadedRowCount(
+              applicationConfigData.getSnowflakeStatementHandle()));
+    }
+    Long unloadedRows = applicationConfigData.getSnowflakeRowsUnloaded();
+    RowCountVerificationStatus rowCountVerificationStatus;
+    if (unloadedRows == null || loadedRows == null) {
+      rowCountVerificationStatus = RowCountVerificationStatus.NOT_VERIFIED;
+    } else if (unloadedRows.equals(loadedRows)) {
+      rowCountVerificationStatus = RowCountVerificationStatus.MATCHED;
+    } else {
+      rowCountVerificationStatus = RowCountVerificationStatus.MISMATCHED;
+      log.error(
+          "Row count mismatch for table:{}, rows unloaded from Snowflake:{}, rows loaded in BigQuery:{}",
+          applicationConfigData.getTargetTableName(),
+          unloadedRows,
+          loadedRows);
+    }
+    applicationConfigData.setRowCountVerification(rowCountVerificationStatus.name());
+  }
+
+  private static String toDisplayTime(Long epochMillis) {
+    return epochMillis == null
+        ? null
+        : PropertyManager.getDateInDesiredFormat(
+            LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()),
+            OUTPUT_FORMATTER1);
   }
 }
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service.async;
+
+import static com.google.connector.snowflakeToBQ.util.PropertyManager.OUTPUT_FORMATTER1;
+
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import com.google.connector.snowflakeToBQ.model.datadto.StagingInventoryDataDTO;
+import com.google.connector.snowflakeToBQ.repository.ApplicationConfigDataRepository;
+import com.google.connector.snowflakeToBQ.service.ApplicationConfigDataJournal;
+import com.google.connector.snowflakeToBQ.service.GoogleCloudStorageService;
+import com.google.connector.snowflakeToBQ.util.PropertyManager;
+import com.google.connector.snowflakeToBQ.util.RowCountVerificationStatus;
+import com.google.connector.snowflakeToBQ.util.StagingRetentionPolicy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Class to delete the files unloaded by Snowflake in the GCS staging location once the table data
+ * is loaded in BigQuery. Without it the files keep on piling up under the stage location and make
+ * the later listings and wildcard loads slower.
+ *
+ * <p>Cleanup runs on its own small, low priority thread pool and never on the threads executing
+ * the migration. Files are deleted in batches, batches run in parallel up to the pool size and each
+ * batch waits for the configured delay before deleting so that the cleanup does not compete with
+ * the active loads for GCS.
+ *
+ * <p>Files are deleted only for the tables whose load completed and whose row count did not
+ * mismatch. Scheduled deletions are only held in memory, hence the tables loaded but not cleaned
+ * up when the application stopped are scheduled again at startup.
+ */
+@Service
+@Setter
+public class StagingCleanupAsyncService {
+  private static final Logger log = LoggerFactory.getLogger(StagingCleanupAsyncService.class);
+
+  final GoogleCloudStorageService googleCloudStorageService;
+  final ApplicationConfigDataJournal applicationConfigDataJournal;
+  final ApplicationConfigDataRepository applicationConfigDataRepository;
+  final ThreadPoolTaskExecutor stagingCleanupExecutor;
+
+  @Value("${staging.cleanup.retention.policy}")
+  private StagingRetentionPolicy retentionPolicy;
+
+  // Time to wait after the load before deleting the files.
+  @Value("${staging.cleanup.delay.minutes}")
+  private long cleanupDelayMinutes;
+
+  @Value("${staging.cleanup.batch.size}")
+  private int batchSize;
+
+  @Value("${staging.cleanup.batch.delay.ms}")
+  private long batchDelayMs;
+
+  public StagingCleanupAsyncService(
+      GoogleCloudStorageService googleCloudStorageService,
+      ApplicationConfigDataJournal applicationConfigDataJournal,
+      ApplicationConfigDataRepository applicationConfigDataRepository,
+      @Qualifier("stagingCleanupExecutor") ThreadPoolTaskExecutor stagingCleanupExecutor) {
+    this.googleCloudStorageService = googleCloudStorageService;
+    this.applicationConfigDataJournal = applicationConfigDataJournal;
+    this.applicationConfigDataRepository = applicationConfigDataRepository;
+    this.stagingCleanupExecutor = stagingCleanupExecutor;
+  }
+
+  /**
+   * Schedules again the deletion of the staged files of the tables loaded in an earlier run whose
+   * files were not deleted, e.g. the application stopped before the delay of their cleanup was
+   * over.
+   */
+  @PostConstruct
+  public void recoverPendingCleanups() {
+    if (retentionPolicy != StagingRetentionPolicy.DELETE_AFTER_LOAD) {
+      return;
+    }
+    int scheduledTables = 0;
+    for (ApplicationConfigData applicationConfigData :
+        applicationConfigDataRepository.findByIsDataLoadedInBQAndIsStagedDataDeleted(true, false)) {
+      if (isCleanupAllowed(applicationConfigData)) {
+        scheduleCleanup(applicationConfigData);
+        scheduledTables++;
+      }
+    }
+    log.info("Scheduled the pending cleanup of the staged data of {} tables", scheduledTables);
+  }
+
+  /**
+   * Schedules the deletion of the staged files of the table as per the retention policy. Method
+   * returns immediately, deletion happens on the cleanup thread pool. Files of a table whose row
+   * count mismatched are kept, they are needed to check or reload the table data.
+   *
+   * @param applicationConfigData Data related to the table whose data is loaded in BigQuery.
+   * @return {@link CompletableFuture} which completes with the number of files deleted.
+   */
+  public CompletableFuture<Integer> scheduleCleanup(ApplicationConfigData applicationConfigData) {
+    if (retentionPolicy != StagingRetentionPolicy.DELETE_AFTER_LOAD
+        || !isCleanupAllowed(applicationConfigData)) {
+      return CompletableFuture.completedFuture(0);
+    }
+    Executor executor =
+        cleanupDelayMinutes > 0
+            ? CompletableFuture.delayedExecutor(
+                cleanupDelayMinutes, TimeUnit.MINUTES, stagingCleanupExecutor)
+            : stagingCleanupExecutor;
+
+    return CompletableFuture.supplyAsync(
+            () ->
+                googleCloudStorageService.getStagingInventory(
+                    applicationConfigData.getSnowflakeStageLocation(),
+                    applicationConfigData.getTargetTableName()),
+            executor)
+        .thenCompose(this::deleteInBatches)
+        .whenComplete(
+            (deletedCount, throwable) -> {
+              if (throwable != null) {
+                log.error(
+                    "Error while deleting the staged data of table:{}, Error Message:{}",
+                    applicationConfigData.getTargetTableName(),
+                    throwable.getMessage());
+                return;
+              }
+              log.info(
+                  "Deleted {} staged files of table:{}",
+                  deletedCount,
+                  applicationConfigData.getTargetTableName());
+              applicationConfigData.setStagedDataDeleted(true);
+              applicationConfigData.setLastUpdatedTime(
+                  PropertyManager.getDateInDesiredFormat(LocalDateTime.now(), OUTPUT_FORMATTER1));
+              applicationConfigDataJournal.saveAndWait(applicationConfigData);
+            });
+  }
+
+  /* Staged files are deleted only once the load is done and its row count did not mismatch. */
+  private static boolean isCleanupAllowed(ApplicationConfigData applicationConfigData) {
+    if (!applicationConfigData.isDataLoadedInBQ() || applicationConfigData.isStagedDataDeleted()) {
+      return false;
+    }
+    if (RowCountVerificationStatus.MISMATCHED
+        .name()
+        .equals(applicationConfigData.getRowCountVerification())) {
+      log.info(
+          "Keeping the staged data of table:{} as its row count did not match",
+          applicationConfigData.getTargetTableName());
+      return false;
+    }
+    return true;
+  }
+
+  /* Splits the files in batches and deletes them in parallel on the cleanup thread pool. */
+  private CompletableFuture<Integer> deleteInBatches(
+      StagingInventoryDataDTO stagingInventoryDataDTO) {
+    List<String> fileNames = stagingInventoryDataDTO.getFileNames();
+    List<CompletableFuture<Integer>> batchFutures = new ArrayList<>();
+    for (int start = 0; start < fileNames.size(); start += batchSize) {
+      List<String> batch =
+          new ArrayList<>(fileNames.subList(start, Math.min(start + batchSize, fileNames.size())));
+      batchFutures.add(
+          CompletableFuture.supplyAsync(
+              () -> {
+                throttle();
+                return googleCloudStorageService.deleteFiles(
+                    stagingInventoryDataDTO.getBucketName(), batch);
+              },
+              stagingCleanupExecutor));
+    }
+    return CompletableFuture.allOf(batchFutures.toArray(new CompletableFuture[0]))
+        .thenApply(
+            unused -> batchFutures.stream().mapToInt(CompletableFuture::join).sum());
+  }
+
+  private void throttle() {
+    if (batchDelayMs <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(batchDelayMs);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -31,6 +31,10 @@ public class LoadJobFactory {
         return new CSVLoadJob(parameter);
       case PARQUET:
         return new ParquetLoadJob(parameter);
+      case AVRO:
+        return new AvroLoadJob();
+      case ORC:
+        return new OrcLoadJob();
       default:
         throw new IllegalArgumentException(
             "Invalid load option, not yet defined in the factory: " + option);
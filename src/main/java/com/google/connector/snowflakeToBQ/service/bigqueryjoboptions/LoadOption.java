@@ -16,18 +16,31 @@
 
 package com.google.connector.snowflakeToBQ.service.bigqueryjoboptions;
 
-/** ENUM Class contains all the Bigquery load options currently supported by the application */
+/**
+ * ENUM Class contains all the Bigquery load options currently supported by the application. Snowflake
+ * can unload(COPY INTO location) only CSV and PARQUET files, AVRO and ORC are for the files which
+ * are staged in the unload location by some other tool.
+ */
 public enum LoadOption {
-  CSV("CSV"),
-  PARQUET("PARQUET");
+  CSV("CSV", true),
+  PARQUET("PARQUET", true),
+  AVRO("AVRO", false),
+  ORC("ORC", false);
 
   private final String loadOption;
+  private final boolean snowflakeUnloadSupported;
 
-  LoadOption(String loadOption) {
+  LoadOption(String loadOption, boolean snowflakeUnloadSupported) {
     this.loadOption = loadOption;
+    this.snowflakeUnloadSupported = snowflakeUnloadSupported;
   }
 
   public String getLoadOption() {
     return loadOption;
   }
+
+  /** true if Snowflake can unload the table data in this format. */
+  public boolean isSnowflakeUnloadSupported() {
+    return snowflakeUnloadSupported;
+  }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service.streaming;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Session writing the rows of a single table. Rows appended in the session become visible in the
+ * table only when {@link #commit(long)} succeeds, if the session is closed without commit none of
+ * the rows are written. Session is used by a single thread and is not thread safe.
+ */
+public interface BigQueryStreamWriteSession extends AutoCloseable {
+
+  /**
+   * Appends the rows to the table, the call may return before BigQuery acknowledges them.
+   *
+   * @param rows rows to write, key is the column name and value is the column value.
+   */
+  void append(List<Map<String, Object>> rows);
+
+  /**
+   * Waits for all the appended rows to be acknowledged and makes them visible in the table
+   * atomically, only if the number of rows written matches the expected count. On a mismatch
+   * nothing is committed and {@link
+   * com.google.connector.snowflakeToBQ.util.ErrorCode#STREAMING_ROW_COUNT_MISMATCH} is thrown.
+   *
+   * @param expectedRowCount number of rows read from the source.
+   * @return number of rows committed.
+   */
+  long commit(long expectedRowCount);
+
+  /** Releases the resources of the session, rows which are not committed are discarded. */
+  @Override
+  void close();
+}
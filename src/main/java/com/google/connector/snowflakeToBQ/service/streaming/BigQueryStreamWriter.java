@@ -0,0 +1,35 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service.streaming;
+
+import com.google.connector.snowflakeToBQ.model.datadto.BigQueryDetailsDataDTO;
+
+/**
+ * Interface for writing rows directly in a BigQuery table without staging them in GCS. Keeping the
+ * writer behind this interface allows the streaming transfer to run against a local fake, e.g. to
+ * benchmark the Snowflake read side without BigQuery.
+ */
+public interface BigQueryStreamWriter {
+
+  /**
+   * Opens a write session for the table.
+   *
+   * @param bigQueryDetailsDataDTO details of the target table like project, dataset and table name.
+   * @return {@link BigQueryStreamWriteSession} to write the rows of the table.
+   */
+  BigQueryStreamWriteSession openSession(BigQueryDetailsDataDTO bigQueryDetailsDataDTO);
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service.streaming;
+
+import static com.google.connector.snowflakeToBQ.util.ErrorCode.STREAMING_TRANSFER_ERROR;
+
+import com.google.connector.snowflakeToBQ.config.SnowflakeConfigLoader;
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
+import com.google.connector.snowflakeToBQ.model.datadto.BigQueryDetailsDataDTO;
+import com.google.connector.snowflakeToBQ.service.SnowflakeQueryExecutor;
+import com.google.connector.snowflakeToBQ.util.TransferMode;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Class to move the table data from Snowflake to BigQuery without staging it in GCS. Rows of the
+ * table(or of its mapped query) are read over JDBC and written with {@link BigQueryStreamWriter}
+ * in batches while the result is still being fetched, so the table is never held in memory.
+ *
+ * <p>This saves the fixed cost of COPY INTO, GCS listing and the load job which dominates the
+ * transfer time of small and medium tables. Big tables are still better off with the unload path
+ * where Snowflake and BigQuery both work in parallel on files.
+ */
+@Service
+@Setter
+public class SnowflakeStreamingTransferService {
+  private static final Logger log =
+      LoggerFactory.getLogger(SnowflakeStreamingTransferService.class);
+
+  final SnowflakeQueryExecutor snowflakeQueryExecutor;
+  final SnowflakeConfigLoader snowflakeConfigLoader;
+  final BigQueryStreamWriter bigQueryStreamWriter;
+
+  @Value("${snowflake.transfer.mode}")
+  private TransferMode transferMode;
+
+  // Tables up to this size are streamed when transfer mode is AUTO
+  @Value("${snowflake.streaming.max.table.bytes}")
+  private long streamingMaxTableBytes;
+
+  @Value("${snowflake.streaming.fetch.size}")
+  private int fetchSize;
+
+  @Value("${bigquery.streaming.append.rows}")
+  private int appendRows;
+
+  public SnowflakeStreamingTransferService(
+      SnowflakeQueryExecutor snowflakeQueryExecutor,
+      SnowflakeConfigLoader snowflakeConfigLoader,
+      BigQueryStreamWriter bigQueryStreamWriter) {
+    this.snowflakeQueryExecutor = snowflakeQueryExecutor;
+    this.snowflakeConfigLoader = snowflakeConfigLoader;
+    this.bigQueryStreamWriter = bigQueryStreamWriter;
+  }
+
+  /**
+   * Decides if the table data should be streamed instead of unloaded in GCS, as per the transfer
+   * mode. In AUTO mode tables whose size Snowflake does not report(e.g. views) use the unload path.
+   *
+   * @param applicationConfigData Data related to the table.
+   * @return true if the table should be streamed.
+   */
+  public boolean isStreamingTransfer(ApplicationConfigData applicationConfigData) {
+    if (transferMode == TransferMode.STREAMING) {
+      return true;
+    }
+    if (transferMode != TransferMode.AUTO) {
+      return false;
+    }
+    try {
+      Long tableBytes =
+          snowflakeQueryExecutor.getTableSizeInBytes(
+              applicationConfigData.getSourceDatabaseName(),
+              applicationConfigData.getSourceSchemaName(),
+              applicationConfigData.getSourceTableName());
+      applicationConfigData.setSourceTableBytes(tableBytes);
+      return tableBytes != null && tableBytes <= streamingMaxTableBytes;
+    } catch (Exception e) {
+      log.warn(
+          "Could not get the size of table:{}, using unload path. Error Message:{}",
+          applicationConfigData.getSourceTableName(),
+          e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Streams the rows of the table in BigQuery. Rows become visible in BigQuery only after all of
+   * them are written and their count matches the rows read from Snowflake, on any failure nothing
+   * is written so the transfer can simply be retried.
+   *
+   * @param applicationConfigData Data related to the table.
+   * @param bigQueryDetailsDataDTO details of the target BigQuery table.
+   * @return number of rows written in BigQuery.
+   */
+  public long transferTable(
+      ApplicationConfigData applicationConfigData, BigQueryDetailsDataDTO bigQueryDetailsDataDTO) {
+    String sql = getSourceQuery(applicationConfigData.getSourceTableName());
+    log.info(
+        "Streaming table:{} to BigQuery table:{} using query:{}",
+        applicationConfigData.getSourceTableName(),
+        bigQueryDetailsDataDTO.getTableName(),
+        sql);
+    try (BigQueryStreamWriteSession session =
+        bigQueryStreamWriter.openSession(bigQueryDetailsDataDTO)) {
+      List<List<Map<String, Object>>> batchHolder = new ArrayList<>();
+      batchHolder.add(new ArrayList<>(appendRows));
+      long[] readRowCount = new long[1];
+      snowflakeQueryExecutor.streamQuery(
+          applicationConfigData.getSourceDatabaseName(),
+          applicationConfigData.getSourceSchemaName(),
+          sql,
+          fetchSize,
+          resultSet -> {
+            List<Map<String, Object>> batch = batchHolder.get(0);
+            batch.add(toRow(resultSet));
+            readRowCount[0]++;
+            if (batch.size() >= appendRows) {
+              session.append(batch);
+              batchHolder.set(0, new ArrayList<>(appendRows));
+            }
+          });
+      session.append(batchHolder.get(0));
+      long rowCount = session.commit(readRowCount[0]);
+      log.info(
+          "Streamed {} rows of table:{} to BigQuery",
+          rowCount,
+          applicationConfigData.getSourceTableName());
+      return rowCount;
+    } catch (SnowflakeConnectorException e) {
+      throw e;
+    } catch (Exception e) {
+      log.error(
+          "Error while streaming table:{}, Error Message:{}\nStack Trace:",
+          applicationConfigData.getSourceTableName(),
+          e.getMessage(),
+          e);
+      throw new SnowflakeConnectorException(
+          STREAMING_TRANSFER_ERROR.getMessage(), STREAMING_TRANSFER_ERROR.getErrorCode());
+    }
+  }
+
+  /* Same query as the unload, mapped query if configured for the table else the whole table. */
+  private String getSourceQuery(String tableName) {
+    String mappedQuery = snowflakeConfigLoader.getQuery(tableName);
+    return StringUtils.isEmpty(mappedQuery) ? "SELECT * FROM " + tableName : mappedQuery;
+  }
+
+  /**
+   * Converts the current row of the result set to a map of column name and value, values are
+   * converted to the representation accepted by the BigQuery write API. Null values are left out.
+   * TIMESTAMP_TZ and TIMESTAMP_LTZ values are read with their offset, TIMESTAMP_NTZ values have no
+   * offset and are read as local date time.
+   */
+  static Map<String, Object> toRow(ResultSet resultSet) throws SQLException {
+    ResultSetMetaData metaData = resultSet.getMetaData();
+    Map<String, Object> row = new HashMap<>();
+    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+      Object value =
+          toBigQueryValue(
+              isTimestampWithTimeZone(metaData, i)
+                  ? toOffsetDateTime(resultSet.getTimestamp(i))
+                  : resultSet.getObject(i));
+      if (value != null) {
+        row.put(metaData.getColumnLabel(i), value);
+      }
+    }
+    return row;
+  }
+
+  static Object toBigQueryValue(Object value) {
+    if (value == null
+        || value instanceof Boolean
+        || value instanceof Integer
+        || value instanceof Long
+        || value instanceof Double
+        || value instanceof Float
+        || value instanceof String
+        || value instanceof byte[]) {
+      return value;
+    }
+    if (value instanceof BigDecimal) {
+      BigDecimal decimal = (BigDecimal) value;
+      // Snowflake returns NUMBER(38,0) columns as BigDecimal, INT64 columns need a long
+      if (decimal.scale() <= 0
+          && decimal.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) <= 0
+          && decimal.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) >= 0) {
+        return decimal.longValueExact();
+      }
+      return decimal.toPlainString();
+    }
+    if (value instanceof OffsetDateTime) {
+      // BigQuery TIMESTAMP is written as microseconds since the epoch, i.e. in UTC
+      return ChronoUnit.MICROS.between(Instant.EPOCH, ((OffsetDateTime) value).toInstant());
+    }
+    if (value instanceof Timestamp) {
+      // TIMESTAMP_NTZ, written as is in the DATETIME column
+      return ((Timestamp) value).toLocalDateTime().toString();
+    }
+    // DATE, TIME and semi-structured(VARIANT, OBJECT, ARRAY as JSON text) values
+    return value.toString();
+  }
+
+  /* Snowflake reports TIMESTAMPTZ and TIMESTAMPLTZ as type name, other drivers the JDBC type. */
+  private static boolean isTimestampWithTimeZone(ResultSetMetaData metaData, int column)
+      throws SQLException {
+    if (metaData.getColumnType(column) == Types.TIMESTAMP_WITH_TIMEZONE) {
+      return true;
+    }
+    String typeName =
+        StringUtils.defaultString(metaData.getColumnTypeName(column))
+            .replace("_", "")
+            .toUpperCase(Locale.ROOT);
+    return typeName.equals("TIMESTAMPTZ") || typeName.equals("TIMESTAMPLTZ");
+  }
+
+  /* Timestamp of the driver holds the instant of the value, offset of the JVM is not applied. */
+  private static OffsetDateTime toOffsetDateTime(Timestamp timestamp) {
+    return timestamp == null ? null : timestamp.toInstant().atOffset(ZoneOffset.UTC);
+  }
+}
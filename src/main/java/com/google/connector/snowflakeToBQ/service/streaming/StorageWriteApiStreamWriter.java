@@ -0,0 +1,257 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service.streaming;
+
+import static com.google.connector.snowflakeToBQ.util.ErrorCode.STREAMING_ROW_COUNT_MISMATCH;
+import static com.google.connector.snowflakeToBQ.util.ErrorCode.STREAMING_TRANSFER_ERROR;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.ServiceAccountCredentials;
+import com.google.cloud.bigquery.storage.v1.AppendRowsResponse;
+import com.google.cloud.bigquery.storage.v1.BatchCommitWriteStreamsRequest;
+import com.google.cloud.bigquery.storage.v1.BatchCommitWriteStreamsResponse;
+import com.google.cloud.bigquery.storage.v1.BigQueryWriteClient;
+import com.google.cloud.bigquery.storage.v1.BigQueryWriteSettings;
+import com.google.cloud.bigquery.storage.v1.CreateWriteStreamRequest;
+import com.google.cloud.bigquery.storage.v1.JsonStreamWriter;
+import com.google.cloud.bigquery.storage.v1.TableName;
+import com.google.cloud.bigquery.storage.v1.WriteStream;
+import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
+import com.google.connector.snowflakeToBQ.model.datadto.BigQueryDetailsDataDTO;
+import java.io.FileInputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.PreDestroy;
+import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link BigQueryStreamWriter} which writes the rows using the BigQuery Storage Write API.
+ *
+ * <p>Each session creates a set of PENDING write streams on the table and distributes the appended
+ * batches over them. Every append carries the offset of its first row in the stream, so a retried
+ * append can never write the same rows twice. On commit all the streams are finalized and committed
+ * together in a single batch commit, hence the rows of the table become visible all at once or not
+ * at all. Streams are committed only if the row counts of the finalized streams add up to the rows
+ * read from Snowflake, else they are left uncommitted and BigQuery discards them.
+ */
+@Service
+@Setter
+public class StorageWriteApiStreamWriter implements BigQueryStreamWriter {
+  private static final Logger log = LoggerFactory.getLogger(StorageWriteApiStreamWriter.class);
+
+  @Value("${service.account.file.path}")
+  private String serviceAccountFilePath;
+
+  // Number of PENDING streams written in parallel for a table
+  @Value("${bigquery.streaming.write.streams}")
+  private int writeStreamCount;
+
+  // Max number of appends waiting for acknowledgement in a session, bounds the memory used
+  @Value("${bigquery.streaming.max.inflight.appends}")
+  private int maxInflightAppends;
+
+  private BigQueryWriteClient writeClient;
+
+  @Override
+  public BigQueryStreamWriteSession openSession(BigQueryDetailsDataDTO bigQueryDetailsDataDTO) {
+    TableName tableName =
+        TableName.of(
+            bigQueryDetailsDataDTO.getProjectId(),
+            bigQueryDetailsDataDTO.getDatasetId(),
+            bigQueryDetailsDataDTO.getTableName());
+    StorageWriteApiSession session = new StorageWriteApiSession(getWriteClient(), tableName);
+    try {
+      for (int i = 0; i < Math.max(1, writeStreamCount); i++) {
+        session.addStream();
+      }
+    } catch (Exception e) {
+      session.close();
+      throw streamingError("Error while creating the write streams for table:" + tableName, e);
+    }
+    return session;
+  }
+
+  /* Client is created on first use so that the application starts even if streaming is not used. */
+  private synchronized BigQueryWriteClient getWriteClient() {
+    if (writeClient == null) {
+      try {
+        if (StringUtils.isEmpty(serviceAccountFilePath)) {
+          writeClient = BigQueryWriteClient.create();
+        } else {
+          try (FileInputStream serviceAccountStream =
+              new FileInputStream(serviceAccountFilePath)) {
+            writeClient =
+                BigQueryWriteClient.create(
+                    BigQueryWriteSettings.newBuilder()
+                        .setCredentialsProvider(
+                            FixedCredentialsProvider.create(
+                                ServiceAccountCredentials.fromStream(serviceAccountStream)))
+                        .build());
+          }
+        }
+      } catch (Exception e) {
+        throw streamingError("Unable to create BigQuery write client", e);
+      }
+    }
+    return writeClient;
+  }
+
+  @PreDestroy
+  synchronized void closeWriteClient() {
+    if (writeClient != null) {
+      writeClient.close();
+    }
+  }
+
+  private static SnowflakeConnectorException streamingError(String message, Exception e) {
+    log.error("{}, Error Message:{}\nStack Trace:", message, e.getMessage(), e);
+    return new SnowflakeConnectorException(
+        STREAMING_TRANSFER_ERROR.getMessage(), STREAMING_TRANSFER_ERROR.getErrorCode());
+  }
+
+  /** Write session over the PENDING streams of a single table. */
+  private class StorageWriteApiSession implements BigQueryStreamWriteSession {
+    private final BigQueryWriteClient client;
+    private final TableName tableName;
+    private final List<JsonStreamWriter> writers = new ArrayList<>();
+    private final List<Long> offsets = new ArrayList<>();
+    private final Deque<ApiFuture<AppendRowsResponse>> inflightAppends = new ArrayDeque<>();
+    private int nextStream;
+    private boolean closed;
+
+    StorageWriteApiSession(BigQueryWriteClient client, TableName tableName) {
+      this.client = client;
+      this.tableName = tableName;
+    }
+
+    void addStream() throws Exception {
+      WriteStream writeStream =
+          client.createWriteStream(
+              CreateWriteStreamRequest.newBuilder()
+                  .setParent(tableName.toString())
+                  .setWriteStream(WriteStream.newBuilder().setType(WriteStream.Type.PENDING))
+                  .build());
+      writers.add(
+          JsonStreamWriter.newBuilder(writeStream.getName(), writeStream.getTableSchema(), client)
+              .build());
+      offsets.add(0L);
+    }
+
+    @Override
+    public void append(List<Map<String, Object>> rows) {
+      if (rows.isEmpty()) {
+        return;
+      }
+      JSONArray jsonRows = new JSONArray();
+      for (Map<String, Object> row : rows) {
+        jsonRows.put(new JSONObject(row));
+      }
+      int stream = nextStream;
+      nextStream = (nextStream + 1) % writers.size();
+      try {
+        long offset = offsets.get(stream);
+        inflightAppends.addLast(writers.get(stream).append(jsonRows, offset));
+        offsets.set(stream, offset + rows.size());
+      } catch (Exception e) {
+        throw streamingError("Error while appending rows in table:" + tableName, e);
+      }
+      while (inflightAppends.size() > maxInflightAppends) {
+        waitForAppend(inflightAppends.removeFirst());
+      }
+    }
+
+    @Override
+    public long commit(long expectedRowCount) {
+      while (!inflightAppends.isEmpty()) {
+        waitForAppend(inflightAppends.removeFirst());
+      }
+      long rowCount = 0;
+      BatchCommitWriteStreamsRequest.Builder commitRequest =
+          BatchCommitWriteStreamsRequest.newBuilder().setParent(tableName.toString());
+      for (JsonStreamWriter writer : writers) {
+        writer.close();
+        rowCount += client.finalizeWriteStream(writer.getStreamName()).getRowCount();
+        commitRequest.addWriteStreams(writer.getStreamName());
+      }
+      closed = true;
+      if (rowCount != expectedRowCount) {
+        log.error(
+            "Row count mismatch for table:{}, rows read from Snowflake:{}, rows written in the "
+                + "write streams:{}, streams are not committed",
+            tableName,
+            expectedRowCount,
+            rowCount);
+        throw new SnowflakeConnectorException(
+            STREAMING_ROW_COUNT_MISMATCH.getMessage(), STREAMING_ROW_COUNT_MISMATCH.getErrorCode());
+      }
+      BatchCommitWriteStreamsResponse commitResponse =
+          client.batchCommitWriteStreams(commitRequest.build());
+      if (!commitResponse.hasCommitTime()) {
+        log.error(
+            "Error while committing the write streams of table:{}, Errors:{}",
+            tableName,
+            commitResponse.getStreamErrorsList());
+        throw new SnowflakeConnectorException(
+            STREAMING_TRANSFER_ERROR.getMessage(), STREAMING_TRANSFER_ERROR.getErrorCode());
+      }
+      log.info("Committed {} rows in table:{}", rowCount, tableName);
+      return rowCount;
+    }
+
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      // PENDING streams which are not committed are discarded by BigQuery
+      for (JsonStreamWriter writer : writers) {
+        writer.close();
+      }
+    }
+
+    private void waitForAppend(ApiFuture<AppendRowsResponse> appendFuture) {
+      try {
+        AppendRowsResponse response = appendFuture.get();
+        if (response.hasError()) {
+          log.error(
+              "Append rejected for table:{}, Error:{}", tableName, response.getError().getMessage());
+          throw new SnowflakeConnectorException(
+              STREAMING_TRANSFER_ERROR.getMessage(), STREAMING_TRANSFER_ERROR.getErrorCode());
+        }
+      } catch (SnowflakeConnectorException e) {
+        throw e;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw streamingError("Interrupted while appending rows in table:" + tableName, e);
+      } catch (Exception e) {
+        throw streamingError("Error while appending rows in table:" + tableName, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.util;
+
+/** ENUM Class contains the ways rows of a table are split in buckets for checksum validation. */
+public enum ChecksumBucketType {
+  // One bucket per date of the bucket column, suits the tables loaded by date.
+  DATE,
+  // Fixed number of buckets by the hash of the bucket column, suits the tables without a date.
+  HASH
+}
@@ -45,7 +45,15 @@ public enum ErrorCode {
   DECRYPTION_ERROR(1013, "Error: Decrypting the values"),
   TABLE_NOT_EXISTS(1014, "Error: table does not exists"),
   DDL_EXTRACTION_EXCEPTION(1015, "Error: Extracting DDL"),
-  SNOWFLAKE_REST_API_EXECUTION_ERROR(1016, "Error: Snowflake rest API execution");
+  SNOWFLAKE_REST_API_EXECUTION_ERROR(1016, "Error: Snowflake rest API execution"),
+  STREAMING_TRANSFER_ERROR(1017, "Error: Streaming the table data from Snowflake to BigQuery"),
+  UNLOAD_FORMAT_NOT_SUPPORTED(
+      1018, "Error: Snowflake can not unload the table data in the requested load format"),
+  STAGING_TABLE_ERROR(1019, "Error: Loading the BigQuery table through the staging table"),
+  INVALID_TABLE_OR_COLUMN_NAME(
+      1020, "Error: Table or column name is not a valid identifier or does not exist in the table"),
+  STREAMING_ROW_COUNT_MISMATCH(
+      1021, "Error: Rows written in BigQuery do not match the rows read from Snowflake");
 
   private final int errorCode;
   private final String message;
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.util;
+
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * ENUM Class contains the timed stages of a table migration along with the stages each of them
+ * waits for. Unload does not need the translated DDL and runs along with the translation and the
+ * table creation, the load waits for both the unload and the table creation.
+ */
+public enum MigrationStage {
+  TRANSLATION(
+      ApplicationConfigData::getTranslationStartedAt, ApplicationConfigData::getTranslationEndedAt),
+  TABLE_CREATION(
+      ApplicationConfigData::getTableCreationStartedAt,
+      ApplicationConfigData::getTableCreationEndedAt),
+  UNLOAD(ApplicationConfigData::getUnloadStartedAt, ApplicationConfigData::getUnloadEndedAt),
+  LOAD(ApplicationConfigData::getLoadStartedAt, ApplicationConfigData::getLoadEndedAt);
+
+  private final Function<ApplicationConfigData, Instant> startedAt;
+  private final Function<ApplicationConfigData, Instant> endedAt;
+
+  MigrationStage(
+      Function<ApplicationConfigData, Instant> startedAt,
+      Function<ApplicationConfigData, Instant> endedAt) {
+    this.startedAt = startedAt;
+    this.endedAt = endedAt;
+  }
+
+  public Instant getStartedAt(ApplicationConfigData applicationConfigData) {
+    return startedAt.apply(applicationConfigData);
+  }
+
+  public Instant getEndedAt(ApplicationConfigData applicationConfigData) {
+    return endedAt.apply(applicationConfigData);
+  }
+
+  /** Stages which must end before this stage can start. */
+  public List<MigrationStage> getPredecessors() {
+    switch (this) {
+      case TABLE_CREATION:
+        return Collections.singletonList(TRANSLATION);
+      case LOAD:
+        return List.of(UNLOAD, TABLE_CREATION);
+      default:
+        return Collections.emptyList();
+    }
+  }
+}
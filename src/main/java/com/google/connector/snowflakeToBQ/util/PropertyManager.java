@@ -29,6 +29,9 @@ public class PropertyManager {
   public static String TRANSLATION_TYPE = "Translation_Snowflake2BQ";
   public static String SNOWFLAKE_STATEMENT_POST_REST_API = "/api/v2/statements/";
   public static String SNOWFLAKE_TRANSLATED_FOLDER_PREFIX = "translated-snowflake-ddls";
+  public static String LOCAL_TRANSLATED_FOLDER_PREFIX = "local-translated-snowflake-ddls";
+  public static String INTERACTIVE_TRANSLATED_FOLDER_PREFIX = "interactive-translated-snowflake-ddls";
+  public static String CACHED_TRANSLATED_FOLDER_PREFIX = "cached-translated-snowflake-ddls";
   public static String BACKUP_FOLDER_PREFIX = "backup-ddls";
   public static String DDL_PREFIX = "snowflake-ddls";
 
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.util;
+
+/**
+ * ENUM Class contains the outcome of comparing the rows unloaded by Snowflake with the rows loaded
+ * in BigQuery for a table.
+ */
+public enum RowCountVerificationStatus {
+  // Rows unloaded by COPY INTO are equal to the output rows of the BigQuery load jobs.
+  MATCHED,
+  // Row counts differ, table data needs to be checked before it is used.
+  MISMATCHED,
+  // One of the counts is not known e.g. Snowflake result has expired or table was streamed.
+  NOT_VERIFIED
+}
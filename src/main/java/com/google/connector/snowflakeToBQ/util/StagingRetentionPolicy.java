@@ -0,0 +1,28 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.util;
+
+/**
+ * ENUM Class contains the options for what should happen with the files unloaded by Snowflake in
+ * the GCS staging location once they are loaded in BigQuery.
+ */
+public enum StagingRetentionPolicy {
+  // Files are never deleted by the application.
+  KEEP,
+  // Files of the table are deleted once the BigQuery load of the table is successful.
+  DELETE_AFTER_LOAD
+}
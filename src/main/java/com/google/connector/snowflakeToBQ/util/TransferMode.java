@@ -0,0 +1,27 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.util;
+
+/** ENUM Class contains the options for how the table data is moved from Snowflake to BigQuery. */
+public enum TransferMode {
+  // Data is unloaded in GCS using COPY INTO and then loaded in BigQuery with a load job.
+  UNLOAD,
+  // Rows are read over JDBC and written in BigQuery with the Storage Write API, without GCS.
+  STREAMING,
+  // STREAMING for the tables up to the configured size, UNLOAD for the bigger ones.
+  AUTO
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.benchmark;
+
+import com.google.connector.snowflakeToBQ.service.LocalDDLTranslator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of {@link LocalDDLTranslator}, translates a schema of {@link #TABLES} GET_DDL
+ * style DDLs per invocation. Run it with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.google.connector.snowflakeToBQ.benchmark.LocalDDLTranslatorBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalDDLTranslatorBenchmark {
+  private static final int TABLES = 10000;
+
+  @Param({"10", "50"})
+  private int columns;
+
+  private final LocalDDLTranslator localDDLTranslator = new LocalDDLTranslator();
+  private String[] ddls;
+
+  @Setup
+  public void setup() {
+    ddls = new String[TABLES];
+    for (int table = 0; table < TABLES; table++) {
+      StringBuilder ddl =
+          new StringBuilder("create or replace TABLE TABLE_").append(table).append(" (\n");
+      for (int column = 0; column < columns; column++) {
+        ddl.append("\tCOLUMN_").append(column);
+        switch (column % 5) {
+          case 0:
+            ddl.append(" NUMBER(38,0) NOT NULL");
+            break;
+          case 1:
+            ddl.append(" VARCHAR(16777216) COMMENT 'column ").append(column).append("'");
+            break;
+          case 2:
+            ddl.append(" NUMBER(12,2)");
+            break;
+          case 3:
+            ddl.append(" TIMESTAMP_NTZ(9)");
+            break;
+          default:
+            ddl.append(" BOOLEAN");
+        }
+        ddl.append(column < columns - 1 ? ",\n" : "\n");
+      }
+      ddls[table] = ddl.append(");").toString();
+    }
+  }
+
+  /** Average time is of translating all the {@link #TABLES} DDLs. */
+  @Benchmark
+  public void translateSchema(Blackhole blackhole) {
+    for (int table = 0; table < TABLES; table++) {
+      blackhole.consume(localDDLTranslator.translate(ddls[table], "DB.SCHEMA.TABLE_" + table));
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder().include(LocalDDLTranslatorBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
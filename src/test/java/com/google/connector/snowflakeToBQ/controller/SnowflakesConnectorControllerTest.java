@@ -29,6 +29,8 @@ import com.google.connector.snowflakeToBQ.model.datadto.SnowflakeUnloadToGCSData
 import com.google.connector.snowflakeToBQ.model.request.SFDataMigrationRequestDTO;
 import com.google.connector.snowflakeToBQ.model.request.SFExtractAndTranslateDDLRequestDTO;
 import com.google.connector.snowflakeToBQ.model.request.SnowflakeUnloadToGCSRequestDTO;
+import com.google.connector.snowflakeToBQ.model.response.MigrationStatusPageResponse;
+import com.google.connector.snowflakeToBQ.model.response.RunStageDurationsResponse;
 import com.google.connector.snowflakeToBQ.model.response.SFDataMigrationResponse;
 import com.google.connector.snowflakeToBQ.model.response.TokenResponse;
 import com.google.connector.snowflakeToBQ.service.ExtractAndTranslateDDLService;
@@ -228,6 +230,28 @@ public class SnowflakesConnectorControllerTest extends AbstractTestBase {
     Mockito.verify(tokenRefreshService, Mockito.times(1)).refreshToken();
   }
 
+  @Test
+  public void testGetMigrationStatus() {
+    MigrationStatusPageResponse migrationStatusPageResponse = new MigrationStatusPageResponse();
+    migrationStatusPageResponse.setTotalElements(1);
+    when(snowflakeMigrateDataService.getMigrationStatusPage(
+            "request-log-id", false, null, null, 0, 100))
+        .thenReturn(migrationStatusPageResponse);
+    Object outputBody =
+        snowflakesConnectorController
+            .getMigrationStatus("request-log-id", false, null, null, 0, 100)
+            .getBody();
+    Assert.assertEquals(1, ((MigrationStatusPageResponse) outputBody).getTotalElements());
+  }
+
+  @Test
+  public void testGetStageDurations() {
+    Object outputBody =
+        snowflakesConnectorController.getStageDurations("request-without-stages").getBody();
+    Assert.assertEquals(
+        "request-without-stages", ((RunStageDurationsResponse) outputBody).getRequestLogId());
+  }
+
   @Test
   public void testEncryptValue() {
     Map<String, String> inputMap = new HashMap<>();
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import com.google.connector.snowflakeToBQ.repository.ApplicationConfigDataRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+public class ApplicationConfigDataJournalTest extends AbstractTestBase {
+
+  @Autowired ApplicationConfigDataJournal applicationConfigDataJournal;
+
+  @SpyBean ApplicationConfigDataService applicationConfigDataService;
+
+  @Autowired ApplicationConfigDataRepository applicationConfigDataRepository;
+
+  @Test()
+  public void testSaveAndWaitWritesLatestState() {
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setSourceTableName("journal_table");
+    applicationConfigData =
+        applicationConfigDataService.saveApplicationConfigDataService(applicationConfigData);
+
+    applicationConfigData.setDataUnloadedFromSnowflake(true);
+    CompletableFuture<Void> unloaded = applicationConfigDataJournal.save(applicationConfigData);
+    applicationConfigData.setDataLoadedInBQ(true);
+    applicationConfigDataJournal.saveAndWait(applicationConfigData);
+
+    Assert.assertTrue(unloaded.isDone());
+    Assert.assertEquals(0, applicationConfigDataJournal.getPendingCount());
+    ApplicationConfigData savedData =
+        applicationConfigDataRepository.findById(applicationConfigData.getId()).orElseThrow();
+    Assert.assertTrue(savedData.isDataUnloadedFromSnowflake());
+    Assert.assertTrue(savedData.isDataLoadedInBQ());
+  }
+
+  @Test()
+  public void testSaveAllAndWait() {
+    List<ApplicationConfigData> applicationConfigDataList = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+      applicationConfigData.setSourceTableName("journal_table_" + i);
+      applicationConfigDataList.add(applicationConfigData);
+    }
+    applicationConfigDataList =
+        applicationConfigDataService.saveAllApplicationConfigDataServices(
+            applicationConfigDataList);
+    applicationConfigDataList.forEach(data -> data.setTranslatedDDLCopied(true));
+
+    applicationConfigDataJournal.saveAllAndWait(applicationConfigDataList);
+
+    for (ApplicationConfigData applicationConfigData : applicationConfigDataList) {
+      Assert.assertTrue(
+          applicationConfigDataRepository
+              .findById(applicationConfigData.getId())
+              .orElseThrow()
+              .isTranslatedDDLCopied());
+    }
+  }
+
+  @Test()
+  public void testSaveAndWaitRetriesFailedWrite() {
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setSourceTableName("journal_retry_table");
+    applicationConfigData =
+        applicationConfigDataService.saveApplicationConfigDataService(applicationConfigData);
+    // First write fails, the row is written with the next flush
+    doThrow(new RuntimeException("database not reachable"))
+        .doCallRealMethod()
+        .when(applicationConfigDataService)
+        .updateAllApplicationConfigDataServices(anyCollection());
+
+    applicationConfigData.setDataLoadedInBQ(true);
+    applicationConfigDataJournal.saveAndWait(applicationConfigData);
+
+    Assert.assertTrue(
+        applicationConfigDataRepository
+            .findById(applicationConfigData.getId())
+            .orElseThrow()
+            .isDataLoadedInBQ());
+  }
+
+  @Test()
+  public void testSaveAndWaitFailsAfterMaxAttempts() {
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setSourceTableName("journal_failed_table");
+    applicationConfigData =
+        applicationConfigDataService.saveApplicationConfigDataService(applicationConfigData);
+    doThrow(new RuntimeException("database not reachable"))
+        .when(applicationConfigDataService)
+        .updateAllApplicationConfigDataServices(anyCollection());
+
+    applicationConfigData.setDataLoadedInBQ(true);
+    try {
+      applicationConfigDataJournal.saveAndWait(applicationConfigData);
+      Assert.fail("Expected the write to fail");
+    } catch (RuntimeException e) {
+      Assert.assertEquals("database not reachable", e.getMessage());
+    } finally {
+      doCallRealMethod()
+          .when(applicationConfigDataService)
+          .updateAllApplicationConfigDataServices(anyCollection());
+    }
+    // Row is still pending and written once the database is back
+    applicationConfigDataJournal.saveAndWait(applicationConfigData);
+    Assert.assertTrue(
+        applicationConfigDataRepository
+            .findById(applicationConfigData.getId())
+            .orElseThrow()
+            .isDataLoadedInBQ());
+  }
+}
@@ -27,8 +27,11 @@ import java.util.List;
 import com.google.connector.snowflakeToBQ.util.PropertyManager;
 import org.junit.Assert;
 import org.junit.Test;
+import org.springframework.data.domain.Page;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.event.annotation.BeforeTestMethod;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import static com.google.connector.snowflakeToBQ.util.PropertyManager.OUTPUT_FORMATTER1;
 
@@ -38,6 +41,10 @@ public class ApplicationConfigDataRepositoryTest extends AbstractTestBase {
 
   @Autowired ApplicationConfigDataRepository applicationConfigDataRepository;
 
+  @Autowired MigrationStatusReadModel migrationStatusReadModel;
+
+  @Autowired PlatformTransactionManager transactionManager;
+
   @BeforeTestMethod
   public void cleanup() {
     applicationConfigDataRepository.deleteAll();
@@ -71,6 +78,39 @@ public class ApplicationConfigDataRepositoryTest extends AbstractTestBase {
     Assert.assertEquals(1, data.size());
   }
 
+  @Test()
+  public void testReadModelUpdatedOnlyAfterCommit() {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    ApplicationConfigData rolledBack =
+        transactionTemplate.execute(
+            status -> {
+              ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+              applicationConfigData.setSourceTableName("rolled_back_table");
+              ApplicationConfigData data =
+                  applicationConfigDataService.saveApplicationConfigDataService(
+                      applicationConfigData);
+              // Saved but not committed yet, status is not served
+              Assert.assertTrue(
+                  migrationStatusReadModel.getStatuses(List.of(data.getId())).isEmpty());
+              status.setRollbackOnly();
+              return data;
+            });
+    Assert.assertTrue(
+        migrationStatusReadModel.getStatuses(List.of(rolledBack.getId())).isEmpty());
+
+    ApplicationConfigData committed =
+        transactionTemplate.execute(
+            status -> {
+              ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+              applicationConfigData.setSourceTableName("committed_table");
+              return applicationConfigDataService.saveApplicationConfigDataService(
+                  applicationConfigData);
+            });
+    Assert.assertTrue(
+        migrationStatusReadModel.getStatuses(List.of(committed.getId())).containsKey(
+            committed.getId()));
+  }
+
   @Test()
   public void testGetApplicationConfigDataById() {
     ApplicationConfigData applicationConfigData = new ApplicationConfigData();
@@ -107,9 +147,56 @@ public class ApplicationConfigDataRepositoryTest extends AbstractTestBase {
     Assert.assertEquals(1, dataList.size());
   }
 
+  @Test()
+  public void testFindLoadedRows() {
+    ApplicationConfigData loadedData = new ApplicationConfigData();
+    loadedData.setSourceTableName("loaded_table");
+    loadedData.setRequestLogId("load-statistics-request");
+    loadedData.setBqLoadJobIds("Snowflake_job1,Snowflake_job2");
+    loadedData.setBqLoadOutputRows(100L);
+    ApplicationConfigData notLoadedData = new ApplicationConfigData();
+    notLoadedData.setSourceTableName("not_loaded_table");
+    notLoadedData.setRequestLogId("load-statistics-request");
+    applicationConfigDataService.saveApplicationConfigDataService(loadedData);
+    applicationConfigDataService.saveApplicationConfigDataService(notLoadedData);
+
+    List<ApplicationConfigData> dataList =
+        applicationConfigDataService.findLoadedRows("load-statistics-request");
+    Assert.assertEquals(1, dataList.size());
+    Assert.assertEquals("loaded_table", dataList.get(0).getSourceTableName());
+    Assert.assertEquals(Long.valueOf(100), dataList.get(0).getBqLoadOutputRows());
+  }
+
   @Test()
   public void testFindByColumnNameNoDataFound() {
     List<ApplicationConfigData> data = applicationConfigDataService.findByColumnName(true);
     Assert.assertEquals(0, data.size());
   }
+
+  @Test()
+  public void testFindPage() {
+    List<ApplicationConfigData> applicationConfigDataList = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+      applicationConfigData.setSourceTableName("paged_table_" + i);
+      applicationConfigData.setRequestLogId("paged-status-request");
+      applicationConfigData.setRowProcessingDone(i != 1);
+      applicationConfigData.setCreatedTime("2024-01-0" + (i + 1) + " 10:00:00");
+      applicationConfigDataList.add(applicationConfigData);
+    }
+    applicationConfigDataService.saveAllApplicationConfigDataServices(applicationConfigDataList);
+
+    Page<ApplicationConfigData> firstPage =
+        applicationConfigDataService.findPage("paged-status-request", true, null, null, 0, 1);
+    Assert.assertEquals(2, firstPage.getTotalElements());
+    Assert.assertEquals(2, firstPage.getTotalPages());
+    // Newest row first
+    Assert.assertEquals("paged_table_2", firstPage.getContent().get(0).getSourceTableName());
+
+    Page<ApplicationConfigData> createdPage =
+        applicationConfigDataService.findPage(
+            "paged-status-request", null, "2024-01-02 00:00:00", "2024-01-02 23:59:59", 0, 10);
+    Assert.assertEquals(1, createdPage.getTotalElements());
+    Assert.assertEquals("paged_table_1", createdPage.getContent().get(0).getSourceTableName());
+  }
 }
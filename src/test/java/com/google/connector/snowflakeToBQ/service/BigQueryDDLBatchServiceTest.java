@@ -0,0 +1,161 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.bigquery.BigQueryError;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobStatistics;
+import com.google.cloud.bigquery.JobStatus;
+import com.google.cloud.bigquery.TableId;
+import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import com.google.connector.snowflakeToBQ.model.datadto.BigQueryDetailsDataDTO;
+import com.google.connector.snowflakeToBQ.repository.ApplicationConfigDataRepository;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+public class BigQueryDDLBatchServiceTest extends AbstractTestBase {
+
+  @Autowired BigQueryDDLBatchService bigQueryDDLBatchService;
+
+  @Autowired ApplicationConfigDataRepository applicationConfigDataRepository;
+
+  @MockBean BigQueryOperationsService bigQueryOperationsService;
+
+  @MockBean GoogleCloudStorageService googleCloudStorageService;
+
+  @Before
+  public void setUp() {
+    applicationConfigDataRepository.deleteAll();
+    when(googleCloudStorageService.getContentFromGCSFile(any(String.class), any(String.class)))
+        .thenAnswer(
+            invocation ->
+                String.format(
+                    "CREATE TABLE dataset.%s (ID INT64);", tableOf(invocation.getArgument(1))));
+    bigQueryDDLBatchService.setBatchEnabled(true);
+  }
+
+  @After
+  public void tearDown() {
+    // Values from test properties
+    bigQueryDDLBatchService.setBatchEnabled(false);
+    bigQueryDDLBatchService.setMaxStatements(2);
+  }
+
+  @Test
+  public void testCreateTablesDisabled() {
+    bigQueryDDLBatchService.setBatchEnabled(false);
+    Assert.assertEquals(
+        0, bigQueryDDLBatchService.createTables(Arrays.asList(row("t1"), row("t2"))));
+    verify(bigQueryOperationsService, never()).executeScript(any(String.class), any(String.class));
+  }
+
+  @Test
+  public void testCreateTablesInBatches() {
+    List<ApplicationConfigData> rows = Arrays.asList(row("t1"), row("t2"), row("t3"));
+    when(bigQueryOperationsService.executeScript(any(String.class), eq("us")))
+        .thenReturn(Arrays.asList(createdJob("t1"), createdJob("t2")));
+
+    Assert.assertEquals(2, bigQueryDDLBatchService.createTables(rows));
+    Assert.assertTrue(rows.get(0).isBQTableCreated());
+    Assert.assertTrue(rows.get(1).isBQTableCreated());
+    // Last row alone is not worth a script, its table is created individually
+    Assert.assertFalse(rows.get(2).isBQTableCreated());
+    verify(bigQueryOperationsService, times(1))
+        .executeScript(
+            "CREATE TABLE dataset.t1 (ID INT64);\nCREATE TABLE dataset.t2 (ID INT64);", "us");
+  }
+
+  @Test
+  public void testCreateTablesRequeuesStatementsAfterFailure() {
+    bigQueryDDLBatchService.setMaxStatements(3);
+    List<ApplicationConfigData> rows = Arrays.asList(row("t1"), row("t2"), row("t3"), row("t4"));
+    when(bigQueryOperationsService.executeScript(any(String.class), eq("us")))
+        .thenReturn(Arrays.asList(createdJob("t1"), failedJob()))
+        .thenReturn(Arrays.asList(createdJob("t3"), createdJob("t4")));
+
+    Assert.assertEquals(3, bigQueryDDLBatchService.createTables(rows));
+    Assert.assertTrue(rows.get(0).isBQTableCreated());
+    // Failed statement is left for the individual table creation
+    Assert.assertFalse(rows.get(1).isBQTableCreated());
+    Assert.assertTrue(rows.get(2).isBQTableCreated());
+    Assert.assertTrue(rows.get(3).isBQTableCreated());
+    verify(bigQueryOperationsService, times(1))
+        .executeScript(
+            "CREATE TABLE dataset.t3 (ID INT64);\nCREATE TABLE dataset.t4 (ID INT64);", "us");
+  }
+
+  @Test
+  public void testCreateTablesSkipsExistingTables() {
+    List<ApplicationConfigData> rows = Arrays.asList(row("t1"), row("t2"));
+    when(bigQueryOperationsService.isTableExists(any(BigQueryDetailsDataDTO.class)))
+        .thenReturn(true);
+
+    Assert.assertEquals(0, bigQueryDDLBatchService.createTables(rows));
+    verify(bigQueryOperationsService, never()).executeScript(any(String.class), any(String.class));
+  }
+
+  private ApplicationConfigData row(String tableName) {
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setBQTableCreated(false);
+    applicationConfigData.setSourceTableName(tableName);
+    applicationConfigData.setTargetDatabaseName("project");
+    applicationConfigData.setTargetSchemaName("dataset");
+    applicationConfigData.setTargetTableName(tableName);
+    applicationConfigData.setGcsBucketForTranslation("bucket");
+    applicationConfigData.setTranslatedDDLGCSPath("translated/" + tableName + ".sql");
+    return applicationConfigDataRepository.save(applicationConfigData);
+  }
+
+  private static String tableOf(String filePath) {
+    return filePath.substring(filePath.lastIndexOf('/') + 1, filePath.indexOf(".sql"));
+  }
+
+  private Job createdJob(String tableName) {
+    Job job = mock(Job.class);
+    JobStatus jobStatus = mock(JobStatus.class);
+    JobStatistics.QueryStatistics queryStatistics = mock(JobStatistics.QueryStatistics.class);
+    when(job.getStatus()).thenReturn(jobStatus);
+    when(job.getStatistics()).thenReturn(queryStatistics);
+    when(queryStatistics.getDdlTargetTable())
+        .thenReturn(TableId.of("project", "dataset", tableName));
+    return job;
+  }
+
+  private Job failedJob() {
+    Job job = mock(Job.class);
+    JobStatus jobStatus = mock(JobStatus.class);
+    when(job.getStatus()).thenReturn(jobStatus);
+    when(jobStatus.getError()).thenReturn(new BigQueryError("invalidQuery", "", "error"));
+    return job;
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service;
+
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobId;
+import com.google.cloud.bigquery.JobStatus;
+import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
+import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
+import com.google.connector.snowflakeToBQ.service.Instancecreator.BigQueryInstanceCreator;
+import com.google.connector.snowflakeToBQ.util.ErrorCode;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+public class BigQueryJobTrackerTest extends AbstractTestBase {
+
+  @Autowired BigQueryJobTracker bigQueryJobTracker;
+
+  @MockBean BigQueryInstanceCreator bigQueryInstanceCreator;
+
+  BigQuery bigqueryMock;
+
+  @Before
+  public void setUp() {
+    bigqueryMock = mock(BigQuery.class);
+    when(bigQueryInstanceCreator.getBigQueryClient()).thenReturn(bigqueryMock);
+  }
+
+  @Test
+  public void testTrackCompletesWhenJobIsDone() {
+    JobId jobId = JobId.of("job_done");
+    Job runningJob = mockJob(JobStatus.State.RUNNING);
+    Job doneJob = mockJob(JobStatus.State.DONE);
+    when(bigqueryMock.getJob(jobId)).thenReturn(runningJob).thenReturn(doneJob);
+
+    CompletableFuture<Job> future = bigQueryJobTracker.track(jobId);
+
+    Assert.assertSame(doneJob, future.join());
+    verify(bigqueryMock, atLeast(2)).getJob(jobId);
+    Assert.assertEquals(0, bigQueryJobTracker.getTrackedJobCount());
+  }
+
+  @Test
+  public void testTrackCompletesWithNullForMissingJob() {
+    JobId jobId = JobId.of("job_missing");
+    when(bigqueryMock.getJob(jobId)).thenReturn(null);
+
+    Assert.assertNull(bigQueryJobTracker.track(jobId).join());
+  }
+
+  @Test
+  public void testTrackRetriesAfterPollingError() {
+    JobId jobId = JobId.of("job_retry");
+    Job doneJob = mockJob(JobStatus.State.DONE);
+    when(bigqueryMock.getJob(jobId))
+        .thenThrow(new RuntimeException("temporary error"))
+        .thenReturn(doneJob);
+
+    Assert.assertSame(doneJob, bigQueryJobTracker.track(jobId).join());
+  }
+
+  @Test
+  public void testTrackTimesOut() {
+    JobId jobId = JobId.of("job_timeout");
+    Job runningJob = mockJob(JobStatus.State.RUNNING);
+    when(bigqueryMock.getJob(jobId)).thenReturn(runningJob);
+    bigQueryJobTracker.setTimeoutMs(50);
+    try {
+      bigQueryJobTracker.track(jobId).join();
+      Assert.fail();
+    } catch (CompletionException e) {
+      Assert.assertTrue(e.getCause() instanceof SnowflakeConnectorException);
+      Assert.assertEquals(
+          ErrorCode.BQ_QUERY_JOB_EXECUTION_ERROR.getMessage(), e.getCause().getMessage());
+    } finally {
+      // Value from test properties
+      bigQueryJobTracker.setTimeoutMs(5000);
+    }
+  }
+
+  @Test
+  public void testDueJobsArePolledInParallel() throws Exception {
+    JobId firstJobId = JobId.of("job_parallel_1");
+    JobId secondJobId = JobId.of("job_parallel_2");
+    Job runningJob = mockJob(JobStatus.State.RUNNING);
+    Job doneJob = mockJob(JobStatus.State.DONE);
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    // Jobs stay running until two getJob calls have been seen in flight at the same time
+    Answer<Job> getJobAnswer =
+        invocation -> {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          try {
+            Thread.sleep(200);
+          } finally {
+            inFlight.decrementAndGet();
+          }
+          return maxInFlight.get() >= 2 ? doneJob : runningJob;
+        };
+    when(bigqueryMock.getJob(firstJobId)).thenAnswer(getJobAnswer);
+    when(bigqueryMock.getJob(secondJobId)).thenAnswer(getJobAnswer);
+
+    CompletableFuture<Job> firstFuture = bigQueryJobTracker.track(firstJobId);
+    CompletableFuture<Job> secondFuture = bigQueryJobTracker.track(secondJobId);
+
+    Assert.assertSame(doneJob, firstFuture.get(4, TimeUnit.SECONDS));
+    Assert.assertSame(doneJob, secondFuture.get(4, TimeUnit.SECONDS));
+    Assert.assertEquals(2, maxInFlight.get());
+  }
+
+  private Job mockJob(JobStatus.State state) {
+    Job job = mock(Job.class);
+    JobStatus jobStatus = mock(JobStatus.class);
+    when(job.getStatus()).thenReturn(jobStatus);
+    when(jobStatus.getState()).thenReturn(state);
+    return job;
+  }
+}
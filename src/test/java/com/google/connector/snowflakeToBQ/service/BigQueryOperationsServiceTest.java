@@ -23,11 +23,20 @@ import com.google.cloud.bigquery.*;
 import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
 import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
 import com.google.connector.snowflakeToBQ.model.datadto.BigQueryDetailsDataDTO;
+import com.google.connector.snowflakeToBQ.model.datadto.LoadJobStatisticsDataDTO;
+import com.google.connector.snowflakeToBQ.model.datadto.StagingInventoryDataDTO;
 import com.google.connector.snowflakeToBQ.service.Instancecreator.BigQueryInstanceCreator;
 import com.google.connector.snowflakeToBQ.service.bigqueryjoboptions.LoadOption;
 import com.google.connector.snowflakeToBQ.util.ErrorCode;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
@@ -41,6 +50,14 @@ public class BigQueryOperationsServiceTest extends AbstractTestBase {
 
   @MockBean GoogleCloudStorageService googleCloudStorageService;
 
+  @Autowired BigQueryTableMetadataCache bigQueryTableMetadataCache;
+
+  @Before
+  public void setUp() {
+    // Every test mocks its own table metadata
+    bigQueryTableMetadataCache.clear();
+  }
+
   @Test
   public void testLoadBigQueryJob() throws InterruptedException {
 
@@ -70,14 +87,253 @@ public class BigQueryOperationsServiceTest extends AbstractTestBase {
     JobStatus mockJobStatus = mock(JobStatus.class);
 
     when(bigqueryMock.create(any(JobInfo.class))).thenReturn(mockJob);
-    // Set a value in the mock job
-    when(mockJob.waitFor()).thenReturn(mockJob);
+    // Job tracker polls the job till it is done
+    when(bigqueryMock.getJob(any(JobId.class))).thenReturn(mockJob);
     when(mockJob.getStatus()).thenReturn(mockJobStatus);
+    when(mockJobStatus.getState()).thenReturn(JobStatus.State.DONE);
     when(mockJobStatus.getError()).thenReturn(null);
     boolean jobStatus = bigQueryOperationsService.loadBigQueryJob(bigQueryDetailsDto);
     Assert.assertTrue(jobStatus);
   }
 
+  @Test
+  public void testLoadBigQueryJobThroughStagingTable() {
+    BigQueryDetailsDataDTO bigQueryDetailsDto = new BigQueryDetailsDataDTO();
+    bigQueryDetailsDto.setTableName("source_table");
+    bigQueryDetailsDto.setProjectId("my_project");
+    bigQueryDetailsDto.setDatasetId("my_dataset");
+    bigQueryDetailsDto.setSnowflakeDataUnloadGCSPath("gs://snowflake_unload_path");
+    bigQueryDetailsDto.setBqLoadFileFormat(LoadOption.PARQUET.name());
+
+    BigQuery bigqueryMock = mock(BigQuery.class);
+    Table tableMock = mock(Table.class);
+    Schema schema = Schema.of(Field.of("name", StandardSQLTypeName.STRING));
+    when(bigQueryInstanceCreator.getBigQueryClient()).thenReturn(bigqueryMock);
+    when(bigqueryMock.getTable(any(TableId.class))).thenReturn(tableMock);
+    when(tableMock.getDefinition()).thenReturn(StandardTableDefinition.of(schema));
+    Job mockJob = mock(Job.class);
+    JobStatus mockJobStatus = mock(JobStatus.class);
+    when(bigqueryMock.create(any(JobInfo.class))).thenReturn(mockJob);
+    when(bigqueryMock.getJob(any(JobId.class))).thenReturn(mockJob);
+    when(mockJob.getStatus()).thenReturn(mockJobStatus);
+    when(mockJobStatus.getState()).thenReturn(JobStatus.State.DONE);
+
+    bigQueryOperationsService.setStagingSwapEnabled(true);
+    try {
+      Assert.assertTrue(bigQueryOperationsService.loadBigQueryJob(bigQueryDetailsDto));
+    } finally {
+      bigQueryOperationsService.setStagingSwapEnabled(false);
+    }
+
+    ArgumentCaptor<JobInfo> jobInfoCaptor = ArgumentCaptor.forClass(JobInfo.class);
+    verify(bigqueryMock, times(2)).create(jobInfoCaptor.capture());
+    LoadJobConfiguration loadConfiguration =
+        jobInfoCaptor.getAllValues().get(0).getConfiguration();
+    TableId stagingTableId = loadConfiguration.getDestinationTable();
+    Assert.assertTrue(stagingTableId.getTable().startsWith("source_table_staging_"));
+    Assert.assertEquals(
+        JobInfo.WriteDisposition.WRITE_TRUNCATE, loadConfiguration.getWriteDisposition());
+    // Table data is replaced with the staging table and staging table gets dropped
+    CopyJobConfiguration copyConfiguration =
+        jobInfoCaptor.getAllValues().get(1).getConfiguration();
+    Assert.assertEquals(stagingTableId, copyConfiguration.getSourceTables().get(0));
+    Assert.assertEquals("source_table", copyConfiguration.getDestinationTable().getTable());
+    Assert.assertEquals(
+        JobInfo.WriteDisposition.WRITE_TRUNCATE, copyConfiguration.getWriteDisposition());
+    verify(bigqueryMock, timeout(1000)).delete(stagingTableId);
+    // Staging table is created from the cached definition of the table
+    verify(bigqueryMock, times(1)).getTable(any(TableId.class));
+  }
+
+  @Test
+  public void testLoadBigQueryJobRecordsStatisticsAndLabels() {
+    BigQueryDetailsDataDTO bigQueryDetailsDto = new BigQueryDetailsDataDTO();
+    bigQueryDetailsDto.setTableName("Source_Table");
+    bigQueryDetailsDto.setProjectId("my_project");
+    bigQueryDetailsDto.setDatasetId("my_dataset");
+    bigQueryDetailsDto.setSnowflakeDataUnloadGCSPath("gs://snowflake_unload_path");
+    bigQueryDetailsDto.setBqLoadFileFormat(LoadOption.PARQUET.name());
+    bigQueryDetailsDto.setRunId("7f0c2a4e-Run");
+
+    BigQuery bigqueryMock = mock(BigQuery.class);
+    Table tableMock = mock(Table.class);
+    Schema schema = Schema.of(Field.of("name", StandardSQLTypeName.STRING));
+    when(bigQueryInstanceCreator.getBigQueryClient()).thenReturn(bigqueryMock);
+    when(bigqueryMock.getTable(any(TableId.class))).thenReturn(tableMock);
+    when(tableMock.getDefinition()).thenReturn(StandardTableDefinition.of(schema));
+    Job doneJob = mockJob(null);
+    JobStatistics.LoadStatistics loadStatistics = mock(JobStatistics.LoadStatistics.class);
+    when(loadStatistics.getInputFiles()).thenReturn(4L);
+    when(loadStatistics.getInputBytes()).thenReturn(4096L);
+    when(loadStatistics.getOutputRows()).thenReturn(1000L);
+    when(loadStatistics.getBadRecords()).thenReturn(2L);
+    when(loadStatistics.getTotalSlotMs()).thenReturn(1500L);
+    when(loadStatistics.getStartTime()).thenReturn(1000L);
+    when(loadStatistics.getEndTime()).thenReturn(5000L);
+    when(doneJob.<JobStatistics.LoadStatistics>getStatistics()).thenReturn(loadStatistics);
+    when(bigqueryMock.create(any(JobInfo.class))).thenReturn(doneJob);
+    when(bigqueryMock.getJob(any(JobId.class))).thenReturn(doneJob);
+
+    Assert.assertTrue(bigQueryOperationsService.loadBigQueryJob(bigQueryDetailsDto));
+
+    ArgumentCaptor<JobInfo> jobInfoCaptor = ArgumentCaptor.forClass(JobInfo.class);
+    verify(bigqueryMock).create(jobInfoCaptor.capture());
+    LoadJobConfiguration loadConfiguration = jobInfoCaptor.getValue().getConfiguration();
+    Assert.assertEquals("load", loadConfiguration.getLabels().get("stage"));
+    Assert.assertEquals("source_table", loadConfiguration.getLabels().get("table"));
+    Assert.assertEquals("7f0c2a4e-run", loadConfiguration.getLabels().get("run_id"));
+
+    LoadJobStatisticsDataDTO loadJobStatistics = bigQueryDetailsDto.getLoadJobStatistics();
+    Assert.assertEquals(
+        jobInfoCaptor.getValue().getJobId().getJob(), loadJobStatistics.getJobIds().get(0));
+    Assert.assertEquals(4, loadJobStatistics.getInputFiles());
+    Assert.assertEquals(4096, loadJobStatistics.getInputBytes());
+    Assert.assertEquals(1000, loadJobStatistics.getOutputRows());
+    Assert.assertEquals(2, loadJobStatistics.getBadRecords());
+    Assert.assertEquals(1500, loadJobStatistics.getSlotMs());
+    Assert.assertEquals(Long.valueOf(1000), loadJobStatistics.getStartTime());
+    Assert.assertEquals(Long.valueOf(5000), loadJobStatistics.getEndTime());
+  }
+
+  @Test
+  public void testJobLabelsAreValidLabelValues() {
+    String tableName = "Table.With.Dots_" + String.join("", Collections.nCopies(70, "x"));
+    Map<String, String> labels =
+        BigQueryOperationsService.jobLabels("Request:Log/Id", tableName, "load");
+    Assert.assertEquals("request_log_id", labels.get("run_id"));
+    Assert.assertEquals(63, labels.get("table").length());
+    Assert.assertTrue(labels.get("table").startsWith("table_with_dots_"));
+  }
+
+  @Test
+  public void testLoadBigQueryJobInShardsRetriesFailedShard() {
+    BigQueryDetailsDataDTO bigQueryDetailsDto = new BigQueryDetailsDataDTO();
+    bigQueryDetailsDto.setTableName("source_table");
+    bigQueryDetailsDto.setProjectId("my_project");
+    bigQueryDetailsDto.setDatasetId("my_dataset");
+    bigQueryDetailsDto.setSnowflakeDataUnloadGCSPath("gs://snowflake_unload_path");
+    bigQueryDetailsDto.setBqLoadFileFormat(LoadOption.PARQUET.name());
+    StagingInventoryDataDTO stagingInventory = new StagingInventoryDataDTO();
+    stagingInventory.setBucketName("bucketname");
+    stagingInventory.setFileNames(
+        Arrays.asList("data_0.parquet", "data_1.parquet", "data_2.parquet"));
+    stagingInventory.setFileSizes(Arrays.asList(100L, 100L, 100L));
+    stagingInventory.setFileCount(3);
+    stagingInventory.setTotalBytes(300);
+    bigQueryDetailsDto.setStagingInventory(stagingInventory);
+
+    BigQuery bigqueryMock = mock(BigQuery.class);
+    Table tableMock = mock(Table.class);
+    Schema schema = Schema.of(Field.of("name", StandardSQLTypeName.STRING));
+    when(bigQueryInstanceCreator.getBigQueryClient()).thenReturn(bigqueryMock);
+    when(bigqueryMock.getTable(any(TableId.class))).thenReturn(tableMock);
+    when(tableMock.getDefinition()).thenReturn(StandardTableDefinition.of(schema));
+
+    Job doneJob = mockJob(null);
+    Job failedJob = mockJob(new BigQueryError("backendError", "location", "backend error"));
+    // First job of the shard which has the first file fails, rest of the jobs succeed
+    Map<JobId, Job> jobs = new ConcurrentHashMap<>();
+    AtomicBoolean failed = new AtomicBoolean();
+    when(bigqueryMock.create(any(JobInfo.class)))
+        .thenAnswer(
+            invocation -> {
+              JobInfo jobInfo = invocation.getArgument(0);
+              boolean fail =
+                  jobInfo.getConfiguration() instanceof LoadJobConfiguration
+                      && ((LoadJobConfiguration) jobInfo.getConfiguration())
+                          .getSourceUris()
+                          .contains("gs://bucketname/data_0.parquet")
+                      && failed.compareAndSet(false, true);
+              jobs.put(jobInfo.getJobId(), fail ? failedJob : doneJob);
+              return doneJob;
+            });
+    when(bigqueryMock.getJob(any(JobId.class)))
+        .thenAnswer(invocation -> jobs.get(invocation.<JobId>getArgument(0)));
+
+    bigQueryOperationsService.setLoadShardingEnabled(true);
+    try {
+      Assert.assertTrue(bigQueryOperationsService.loadBigQueryJob(bigQueryDetailsDto));
+    } finally {
+      bigQueryOperationsService.setLoadShardingEnabled(false);
+    }
+
+    // Two shards(max 2 files in a shard from test properties), the retry of the failed one and the
+    // copy job swapping the staging table, sharded load always goes through a staging table
+    ArgumentCaptor<JobInfo> jobInfoCaptor = ArgumentCaptor.forClass(JobInfo.class);
+    verify(bigqueryMock, times(4)).create(jobInfoCaptor.capture());
+    TableId stagingTableId = null;
+    for (JobInfo jobInfo : jobInfoCaptor.getAllValues().subList(0, 3)) {
+      LoadJobConfiguration configuration = jobInfo.getConfiguration();
+      Assert.assertEquals(
+          JobInfo.WriteDisposition.WRITE_APPEND, configuration.getWriteDisposition());
+      stagingTableId = configuration.getDestinationTable();
+      Assert.assertTrue(stagingTableId.getTable().startsWith("source_table_staging_"));
+    }
+    LoadJobConfiguration retriedShard = jobInfoCaptor.getAllValues().get(2).getConfiguration();
+    Assert.assertEquals(
+        Arrays.asList("gs://bucketname/data_0.parquet", "gs://bucketname/data_1.parquet"),
+        retriedShard.getSourceUris());
+    CopyJobConfiguration copyConfiguration =
+        jobInfoCaptor.getAllValues().get(3).getConfiguration();
+    Assert.assertEquals(stagingTableId, copyConfiguration.getSourceTables().get(0));
+    Assert.assertEquals("source_table", copyConfiguration.getDestinationTable().getTable());
+    // Staging swap is off, rows already in the table are kept and the shards are appended
+    Assert.assertEquals(
+        JobInfo.WriteDisposition.WRITE_APPEND, copyConfiguration.getWriteDisposition());
+    verify(bigqueryMock, timeout(1000)).delete(stagingTableId);
+  }
+
+  @Test
+  public void testLoadBigQueryJobInShardsWaitsForSubmittedShards() {
+    BigQueryDetailsDataDTO bigQueryDetailsDto = new BigQueryDetailsDataDTO();
+    bigQueryDetailsDto.setTableName("source_table");
+    bigQueryDetailsDto.setProjectId("my_project");
+    bigQueryDetailsDto.setDatasetId("my_dataset");
+    bigQueryDetailsDto.setSnowflakeDataUnloadGCSPath("gs://snowflake_unload_path");
+    bigQueryDetailsDto.setBqLoadFileFormat(LoadOption.PARQUET.name());
+    StagingInventoryDataDTO stagingInventory = new StagingInventoryDataDTO();
+    stagingInventory.setBucketName("bucketname");
+    stagingInventory.setFileNames(
+        Arrays.asList("data_0.parquet", "data_1.parquet", "data_2.parquet"));
+    stagingInventory.setFileSizes(Arrays.asList(100L, 100L, 100L));
+    stagingInventory.setFileCount(3);
+    stagingInventory.setTotalBytes(300);
+    bigQueryDetailsDto.setStagingInventory(stagingInventory);
+
+    BigQuery bigqueryMock = mock(BigQuery.class);
+    Table tableMock = mock(Table.class);
+    Schema schema = Schema.of(Field.of("name", StandardSQLTypeName.STRING));
+    when(bigQueryInstanceCreator.getBigQueryClient()).thenReturn(bigqueryMock);
+    when(bigqueryMock.getTable(any(TableId.class))).thenReturn(tableMock);
+    when(tableMock.getDefinition()).thenReturn(StandardTableDefinition.of(schema));
+    Job doneJob = mockJob(null);
+    // First shard is submitted, submission of the second shard fails
+    when(bigqueryMock.create(any(JobInfo.class)))
+        .thenReturn(doneJob)
+        .thenThrow(new BigQueryException(500, "backend error"));
+    when(bigqueryMock.getJob(any(JobId.class))).thenReturn(doneJob);
+
+    bigQueryOperationsService.setLoadShardingEnabled(true);
+    try {
+      bigQueryOperationsService.loadBigQueryJob(bigQueryDetailsDto);
+      Assert.fail("Load must fail when a shard can not be submitted");
+    } catch (SnowflakeConnectorException e) {
+      Assert.assertEquals(
+          ErrorCode.BQ_QUERY_JOB_EXECUTION_ERROR.getErrorCode(), e.getErrorCode());
+    } finally {
+      bigQueryOperationsService.setLoadShardingEnabled(false);
+    }
+
+    // Submitted shard is tracked till the end, then the staging table is dropped, no copy job
+    ArgumentCaptor<JobInfo> jobInfoCaptor = ArgumentCaptor.forClass(JobInfo.class);
+    verify(bigqueryMock, times(2)).create(jobInfoCaptor.capture());
+    verify(bigqueryMock, atLeastOnce()).getJob(jobInfoCaptor.getAllValues().get(0).getJobId());
+    TableId stagingTableId =
+        ((LoadJobConfiguration) jobInfoCaptor.getAllValues().get(0).getConfiguration())
+            .getDestinationTable();
+    verify(bigqueryMock, timeout(1000)).delete(stagingTableId);
+  }
+
   @Test
   public void testLoadBigQueryJobNegative() throws InterruptedException {
 
@@ -107,9 +363,10 @@ public class BigQueryOperationsServiceTest extends AbstractTestBase {
     JobStatus mockJobStatus = mock(JobStatus.class);
 
     when(bigqueryMock.create(any(JobInfo.class))).thenReturn(mockJob);
-    // Set a value in the mock job
-    when(mockJob.waitFor()).thenReturn(mockJob);
+    // Job tracker polls the job till it is done
+    when(bigqueryMock.getJob(any(JobId.class))).thenReturn(mockJob);
     when(mockJob.getStatus()).thenReturn(mockJobStatus);
+    when(mockJobStatus.getState()).thenReturn(JobStatus.State.DONE);
     when(mockJobStatus.getError())
         .thenReturn(
             new BigQueryError("Test Error", "in test", "This is mocked error from test case"));
@@ -117,6 +374,33 @@ public class BigQueryOperationsServiceTest extends AbstractTestBase {
     Assert.assertFalse(jobStatus);
   }
 
+  @Test
+  public void testLoadBigQueryJobNotFoundInvalidatesTableMetadata() {
+    BigQueryDetailsDataDTO bigQueryDetailsDto = new BigQueryDetailsDataDTO();
+    bigQueryDetailsDto.setTableName("source_table");
+    bigQueryDetailsDto.setProjectId("my_project");
+    bigQueryDetailsDto.setDatasetId("my_dataset");
+    bigQueryDetailsDto.setSnowflakeDataUnloadGCSPath("gs://snowflake_unload_path");
+    bigQueryDetailsDto.setBqLoadFileFormat(LoadOption.PARQUET.name());
+
+    BigQuery bigqueryMock = mock(BigQuery.class);
+    Table tableMock = mock(Table.class);
+    when(bigQueryInstanceCreator.getBigQueryClient()).thenReturn(bigqueryMock);
+    when(bigqueryMock.getTable(any(TableId.class))).thenReturn(tableMock);
+    when(tableMock.getDefinition())
+        .thenReturn(
+            StandardTableDefinition.of(Schema.of(Field.of("name", StandardSQLTypeName.STRING))));
+    Job failedJob = mockJob(new BigQueryError("notFound", "", "Not found: Table"));
+    when(bigqueryMock.create(any(JobInfo.class))).thenReturn(failedJob);
+    when(bigqueryMock.getJob(any(JobId.class))).thenReturn(failedJob);
+
+    Assert.assertFalse(bigQueryOperationsService.loadBigQueryJob(bigQueryDetailsDto));
+    // Table dropped outside the application, its definition is fetched again on next use
+    bigQueryTableMetadataCache.getTableSchema(
+        TableId.of("my_project", "my_dataset", "source_table"));
+    verify(bigqueryMock, times(2)).getTable(any(TableId.class));
+  }
+
   @Test
   public void testLoadBigQueryJobNegativeLoadJobNull() throws InterruptedException {
 
@@ -145,8 +429,8 @@ public class BigQueryOperationsServiceTest extends AbstractTestBase {
     Job mockJob = mock(Job.class);
 
     when(bigqueryMock.create(any(JobInfo.class))).thenReturn(mockJob);
-    // Set a value in the mock job
-    when(mockJob.waitFor()).thenReturn(null);
+    // Job does not exist anymore when the tracker polls it
+    when(bigqueryMock.getJob(any(JobId.class))).thenReturn(null);
 
     boolean jobStatus = bigQueryOperationsService.loadBigQueryJob(bigQueryDetailsDto);
     Assert.assertFalse(jobStatus);
@@ -180,7 +464,6 @@ public class BigQueryOperationsServiceTest extends AbstractTestBase {
     Job mockJob = mock(Job.class);
 
     doThrow(RuntimeException.class).when(bigqueryMock).create(any(JobInfo.class));
-    when(mockJob.waitFor()).thenReturn(null);
     try {
       boolean jobStatus = bigQueryOperationsService.loadBigQueryJob(bigQueryDetailsDto);
       Assert.fail();
@@ -205,11 +488,11 @@ public class BigQueryOperationsServiceTest extends AbstractTestBase {
 
     // Need this setting for private method (queryJob())
     when(bigqueryMock.create(any(JobInfo.class))).thenReturn(mockJob);
-    // Set a value in the mock job
-    when(mockJob.waitFor()).thenReturn(mockJob);
+    // Job tracker polls the job till it is done
+    when(bigqueryMock.getJob(any(JobId.class))).thenReturn(mockJob);
     when(mockJob.getStatus()).thenReturn(mockJobStatus);
+    when(mockJobStatus.getState()).thenReturn(JobStatus.State.DONE);
     when(mockJobStatus.getError()).thenReturn(null);
-    when(mockJob.isDone()).thenReturn(true);
 
     boolean jobStatus = bigQueryOperationsService.createTableUsingDDL(CREATE_TABLE_COMMAND, "us");
     Assert.assertTrue(jobStatus);
@@ -226,15 +509,11 @@ public class BigQueryOperationsServiceTest extends AbstractTestBase {
         .thenReturn(CREATE_TABLE_COMMAND);
 
     Job mockJob = mock(Job.class);
-    JobStatus mockJobStatus = mock(JobStatus.class);
 
     // Need this setting for private method (queryJob())
     when(bigqueryMock.create(any(JobInfo.class))).thenReturn(mockJob);
-    // Set a value in the mock job
-    when(mockJob.waitFor()).thenReturn(mockJob);
-    when(mockJob.getStatus()).thenReturn(mockJobStatus);
-    when(mockJobStatus.getError()).thenReturn(null);
-    when(mockJob.isDone()).thenReturn(false);
+    // Job does not exist anymore when the tracker polls it
+    when(bigqueryMock.getJob(any(JobId.class))).thenReturn(null);
     try {
       boolean jobStatus = bigQueryOperationsService.createTableUsingDDL(CREATE_TABLE_COMMAND, "us");
       Assert.fail();
@@ -258,14 +537,14 @@ public class BigQueryOperationsServiceTest extends AbstractTestBase {
 
     // Need this setting for private method (queryJob())
     when(bigqueryMock.create(any(JobInfo.class))).thenReturn(mockJob);
-    // Set a value in the mock job
-    when(mockJob.waitFor()).thenReturn(mockJob);
+    // Job tracker polls the job till it is done
+    when(bigqueryMock.getJob(any(JobId.class))).thenReturn(mockJob);
     when(mockJob.getStatus()).thenReturn(mockJobStatus);
+    when(mockJobStatus.getState()).thenReturn(JobStatus.State.DONE);
     // Setting the scenario where the error is return from BigQuery Job Execution
     when(mockJobStatus.getError())
         .thenReturn(
             new BigQueryError("Test Error", "in test", "This is mocked error from test case"));
-    when(mockJob.isDone()).thenReturn(false);
     try {
       boolean jobStatus = bigQueryOperationsService.createTableUsingDDL(CREATE_TABLE_COMMAND, "");
       Assert.fail();
@@ -311,4 +590,51 @@ public class BigQueryOperationsServiceTest extends AbstractTestBase {
       Assert.assertEquals(ErrorCode.TABLE_CREATION_ERROR.getErrorCode(), e.getErrorCode());
     }
   }
+
+  @Test
+  public void testGetCreatedTableId() {
+    Assert.assertEquals(
+        TableId.of("project", "dataset", "table1"),
+        BigQueryOperationsService.getCreatedTableId(CREATE_TABLE_COMMAND));
+    Assert.assertEquals(
+        TableId.of("my-project", "dataset", "table2"),
+        BigQueryOperationsService.getCreatedTableId(
+            "CREATE TABLE IF NOT EXISTS `my-project.dataset.table2` (ID INT64)"));
+    // Table without project is not known for sure
+    Assert.assertNull(
+        BigQueryOperationsService.getCreatedTableId("CREATE TABLE dataset.table3 (ID INT64)"));
+    Assert.assertNull(BigQueryOperationsService.getCreatedTableId("SELECT 1"));
+  }
+
+  @Test
+  public void testCreateTableKeepsMetadataOfOtherTables() {
+    BigQuery bigqueryMock = mock(BigQuery.class);
+    Table tableMock = mock(Table.class);
+    when(bigQueryInstanceCreator.getBigQueryClient()).thenReturn(bigqueryMock);
+    when(bigqueryMock.getTable(any(TableId.class))).thenReturn(tableMock);
+    when(tableMock.getDefinition())
+        .thenReturn(
+            StandardTableDefinition.of(Schema.of(Field.of("name", StandardSQLTypeName.STRING))));
+    Job doneJob = mockJob(null);
+    when(bigqueryMock.create(any(JobInfo.class))).thenReturn(doneJob);
+    when(bigqueryMock.getJob(any(JobId.class))).thenReturn(doneJob);
+    TableId otherTableId = TableId.of("project", "other_dataset", "table2");
+    bigQueryTableMetadataCache.getTableSchema(otherTableId);
+
+    Assert.assertTrue(bigQueryOperationsService.createTableUsingDDL(CREATE_TABLE_COMMAND, "us"));
+    bigQueryTableMetadataCache.getTableSchema(otherTableId);
+    verify(bigqueryMock, times(1)).getTable(otherTableId);
+    // Created table is fetched again
+    bigQueryTableMetadataCache.getTableSchema(TableId.of("project", "dataset", "table1"));
+    verify(bigqueryMock, times(1)).getTable(TableId.of("project", "dataset", "table1"));
+  }
+
+  private Job mockJob(BigQueryError error) {
+    Job job = mock(Job.class);
+    JobStatus jobStatus = mock(JobStatus.class);
+    when(job.getStatus()).thenReturn(jobStatus);
+    when(jobStatus.getState()).thenReturn(JobStatus.State.DONE);
+    when(jobStatus.getError()).thenReturn(error);
+    return job;
+  }
 }
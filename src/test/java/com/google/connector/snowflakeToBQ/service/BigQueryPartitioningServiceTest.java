@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class BigQueryPartitioningServiceTest extends AbstractTestBase {
+
+  @Autowired BigQueryPartitioningService bigQueryPartitioningService;
+
+  private static final String TRANSLATED_DDL =
+      "CREATE TABLE `project`.dataset.%s\n"
+          + "(\n"
+          + "  ID INT64,\n"
+          + "  REGION STRING,\n"
+          + "  ORDER_DATE DATE,\n"
+          + "  ORDER_TS DATETIME,\n"
+          + "  AMOUNT FLOAT64,\n"
+          + "  NOTE STRING OPTIONS(description=\"free text, (optional)\")\n"
+          + ");";
+
+  @Test
+  public void testExtractClusteringKeys() {
+    String snowflakeDDL =
+        "create or replace TABLE ORDERS (\n\tID NUMBER(38,0),\n\tREGION VARCHAR(10),\n"
+            + "\tORDER_TS TIMESTAMP_NTZ(9)\n)cluster by linear(REGION, TO_DATE(ORDER_TS))\n;";
+    Assert.assertEquals(
+        "REGION, TO_DATE(ORDER_TS)",
+        BigQueryPartitioningService.extractClusteringKeys(snowflakeDDL));
+    Assert.assertNull(
+        BigQueryPartitioningService.extractClusteringKeys(
+            "create or replace TABLE ORDERS (\n\tID NUMBER(38,0)\n);"));
+  }
+
+  @Test
+  public void testPartitioningAndClusteringFromSnowflakeKeys() {
+    ApplicationConfigData applicationConfigData =
+        getApplicationConfigData("ORDERS", "REGION, TO_DATE(ORDER_TS), AMOUNT, \"ID\"");
+
+    String ddl =
+        bigQueryPartitioningService.applyPartitioningAndClustering(
+            String.format(TRANSLATED_DDL, "ORDERS"), applicationConfigData);
+    // FLOAT64 can not be a cluster column
+    Assert.assertTrue(ddl.endsWith(")\nPARTITION BY DATE(ORDER_TS)\nCLUSTER BY REGION, ID;"));
+  }
+
+  @Test
+  public void testPartitioningAndClusteringFromMapping() {
+    String ddl =
+        bigQueryPartitioningService.applyPartitioningAndClustering(
+            String.format(TRANSLATED_DDL, "ORDERS_OVERRIDE"),
+            getApplicationConfigData("ORDERS_OVERRIDE", "ORDER_TS"));
+    Assert.assertTrue(
+        ddl.endsWith(")\nPARTITION BY DATE(UPDATED_TS)\nCLUSTER BY REGION, CUSTOMER_ID;"));
+
+    // Partitioning disabled in mapping, cluster columns still come from Snowflake keys
+    ddl =
+        bigQueryPartitioningService.applyPartitioningAndClustering(
+            String.format(TRANSLATED_DDL, "ORDERS_NO_PARTITION"),
+            getApplicationConfigData("ORDERS_NO_PARTITION", "ORDER_DATE, REGION"));
+    Assert.assertTrue(ddl.endsWith(")\nCLUSTER BY ORDER_DATE, REGION;"));
+  }
+
+  @Test
+  public void testDDLUnchanged() {
+    String partitionedDDL =
+        String.format(TRANSLATED_DDL, "ORDERS").replace(");", ")\nPARTITION BY ORDER_DATE;");
+    Assert.assertEquals(
+        partitionedDDL,
+        bigQueryPartitioningService.applyPartitioningAndClustering(
+            partitionedDDL, getApplicationConfigData("ORDERS", "REGION")));
+
+    String ddl = String.format(TRANSLATED_DDL, "ORDERS");
+    Assert.assertEquals(
+        ddl,
+        bigQueryPartitioningService.applyPartitioningAndClustering(
+            ddl, getApplicationConfigData("ORDERS", null)));
+  }
+
+  private ApplicationConfigData getApplicationConfigData(String tableName, String clusteringKeys) {
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setSourceTableName(tableName);
+    applicationConfigData.setTargetTableName(tableName);
+    applicationConfigData.setSnowflakeClusteringKeys(clusteringKeys);
+    return applicationConfigData;
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.api.gax.paging.Page;
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryException;
+import com.google.cloud.bigquery.DatasetId;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import com.google.cloud.bigquery.Table;
+import com.google.cloud.bigquery.TableDefinition;
+import com.google.cloud.bigquery.TableId;
+import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
+import com.google.connector.snowflakeToBQ.service.Instancecreator.BigQueryInstanceCreator;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+public class BigQueryTableMetadataCacheTest extends AbstractTestBase {
+
+  @Autowired BigQueryTableMetadataCache bigQueryTableMetadataCache;
+
+  @MockBean BigQueryInstanceCreator bigQueryInstanceCreator;
+
+  BigQuery bigqueryMock;
+
+  @Before
+  public void setUp() {
+    bigQueryTableMetadataCache.clear();
+    bigqueryMock = mock(BigQuery.class);
+    when(bigQueryInstanceCreator.getBigQueryClient()).thenReturn(bigqueryMock);
+  }
+
+  @Test
+  public void testIsTableExistsListsDatasetOnce() {
+    Table table = mock(Table.class);
+    when(table.getTableId()).thenReturn(TableId.of("project", "dataset", "table1"));
+    Page<Table> tablePage = mock(Page.class);
+    when(tablePage.iterateAll()).thenReturn(Collections.singletonList(table));
+    when(bigqueryMock.listTables(any(DatasetId.class), any())).thenReturn(tablePage);
+
+    Assert.assertTrue(
+        bigQueryTableMetadataCache.isTableExists(TableId.of("project", "dataset", "table1")));
+    Assert.assertFalse(
+        bigQueryTableMetadataCache.isTableExists(TableId.of("project", "dataset", "table2")));
+    verify(bigqueryMock, times(1)).listTables(any(DatasetId.class), any());
+    verify(bigqueryMock, never()).getTable(any(TableId.class));
+
+    // Created table is marked as existing without listing the dataset again
+    bigQueryTableMetadataCache.tableCreated(TableId.of("project", "dataset", "table2"));
+    Assert.assertTrue(
+        bigQueryTableMetadataCache.isTableExists(TableId.of("project", "dataset", "table2")));
+    verify(bigqueryMock, times(1)).listTables(any(DatasetId.class), any());
+  }
+
+  @Test
+  public void testExpiredListingIsListedAgain() {
+    Table table = mock(Table.class);
+    when(table.getTableId()).thenReturn(TableId.of("project", "dataset", "table1"));
+    Page<Table> tablePage = mock(Page.class);
+    when(tablePage.iterateAll()).thenReturn(Collections.singletonList(table));
+    when(bigqueryMock.listTables(any(DatasetId.class), any())).thenReturn(tablePage);
+
+    bigQueryTableMetadataCache.setCacheExpiryMs(-1);
+    try {
+      TableId tableId = TableId.of("project", "dataset", "table1");
+      Assert.assertTrue(bigQueryTableMetadataCache.isTableExists(tableId));
+      // Table dropped outside the application
+      when(tablePage.iterateAll()).thenReturn(Collections.emptyList());
+      Assert.assertFalse(bigQueryTableMetadataCache.isTableExists(tableId));
+      verify(bigqueryMock, times(2)).listTables(any(DatasetId.class), any());
+    } finally {
+      bigQueryTableMetadataCache.setCacheExpiryMs(600000);
+    }
+  }
+
+  @Test
+  public void testTableNotFoundAndInvalidateDataset() {
+    Table table = mock(Table.class);
+    when(table.getTableId()).thenReturn(TableId.of("project", "dataset", "table1"));
+    Page<Table> tablePage = mock(Page.class);
+    when(tablePage.iterateAll()).thenReturn(Collections.singletonList(table));
+    when(bigqueryMock.listTables(any(DatasetId.class), any())).thenReturn(tablePage);
+    mockTable();
+    TableId tableId = TableId.of("project", "dataset", "table1");
+    Assert.assertTrue(bigQueryTableMetadataCache.isTableExists(tableId));
+    bigQueryTableMetadataCache.getTableSchema(tableId);
+
+    // Load reported the table as not found, listing is corrected without listing again
+    bigQueryTableMetadataCache.tableNotFound(tableId);
+    Assert.assertFalse(bigQueryTableMetadataCache.isTableExists(tableId));
+    verify(bigqueryMock, times(1)).listTables(any(DatasetId.class), any());
+    bigQueryTableMetadataCache.getTableSchema(tableId);
+    verify(bigqueryMock, times(2)).getTable(any(TableId.class));
+
+    // Dataset is listed again and its definitions are fetched again
+    bigQueryTableMetadataCache.invalidateDataset("project", "dataset");
+    Assert.assertTrue(bigQueryTableMetadataCache.isTableExists(tableId));
+    verify(bigqueryMock, times(2)).listTables(any(DatasetId.class), any());
+    bigQueryTableMetadataCache.getTableSchema(tableId);
+    verify(bigqueryMock, times(3)).getTable(any(TableId.class));
+  }
+
+  @Test
+  public void testIsTableExistsMissingDataset() {
+    when(bigqueryMock.listTables(any(DatasetId.class), any()))
+        .thenThrow(new BigQueryException(404, "Not found: Dataset"));
+
+    Assert.assertFalse(
+        bigQueryTableMetadataCache.isTableExists(TableId.of("project", "dataset", "table1")));
+    verify(bigqueryMock, never()).getTable(any(TableId.class));
+  }
+
+  @Test
+  public void testIsTableExistsFallsBackToGetTable() {
+    when(bigqueryMock.listTables(any(DatasetId.class), any()))
+        .thenThrow(new BigQueryException(403, "Access Denied"));
+    mockTable();
+
+    Assert.assertTrue(
+        bigQueryTableMetadataCache.isTableExists(TableId.of("project", "dataset", "table1")));
+  }
+
+  @Test
+  public void testGetTableSchemaFetchedOnce() {
+    Schema schema = mockTable();
+    TableId tableId = TableId.of("project", "dataset", "table1");
+
+    Assert.assertEquals(schema, bigQueryTableMetadataCache.getTableSchema(tableId));
+    Assert.assertEquals(schema, bigQueryTableMetadataCache.getTableSchema(tableId));
+    verify(bigqueryMock, times(1)).getTable(any(TableId.class));
+
+    // Recreated table can have a different schema
+    bigQueryTableMetadataCache.tableCreated(tableId);
+    bigQueryTableMetadataCache.getTableSchema(tableId);
+    verify(bigqueryMock, times(2)).getTable(any(TableId.class));
+  }
+
+  @Test
+  public void testGetTableDefinitionSharesFetchWithSchema() {
+    Schema schema = mockTable();
+    TableId tableId = TableId.of("project", "dataset", "table1");
+
+    Assert.assertEquals(schema, bigQueryTableMetadataCache.getTableSchema(tableId));
+    Assert.assertEquals(
+        schema, bigQueryTableMetadataCache.getTableDefinition(tableId).getSchema());
+    verify(bigqueryMock, times(1)).getTable(any(TableId.class));
+  }
+
+  private Schema mockTable() {
+    Schema schema = Schema.of(Field.of("name", StandardSQLTypeName.STRING));
+    Table table = mock(Table.class);
+    TableDefinition tableDefinition = mock(TableDefinition.class);
+    when(table.getDefinition()).thenReturn(tableDefinition);
+    when(tableDefinition.getSchema()).thenReturn(schema);
+    when(bigqueryMock.getTable(any(TableId.class))).thenReturn(table);
+    return schema;
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import static org.mockito.AdditionalMatchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import com.google.cloud.bigquery.TableId;
+import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
+import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
+import com.google.connector.snowflakeToBQ.model.request.ChecksumValidationRequestDTO;
+import com.google.connector.snowflakeToBQ.model.response.ChecksumValidationResponse;
+import com.google.connector.snowflakeToBQ.util.ChecksumBucketType;
+import com.google.connector.snowflakeToBQ.util.ErrorCode;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+public class ChecksumValidationServiceTest extends AbstractTestBase {
+
+  @Autowired ChecksumValidationService checksumValidationService;
+
+  @MockBean SnowflakeQueryExecutor snowflakeQueryExecutor;
+
+  @MockBean BigQueryOperationsService bigQueryOperationsService;
+
+  @MockBean BigQueryTableMetadataCache bigQueryTableMetadataCache;
+
+  @Test
+  public void testValidateFindsMismatchedBucketsAndKeys() {
+    when(snowflakeQueryExecutor.queryKeyValues(
+            eq("SF_DB"), eq("SF_SCHEMA"), contains("GROUP BY"), anyList()))
+        .thenReturn(map("2024-01-01", "2:100", "2024-01-02", "2:200"));
+    when(bigQueryOperationsService.queryKeyValues(
+            contains("GROUP BY"), anyList(), any(), eq("ORDERS")))
+        .thenReturn(map("2024-01-01", "2:100", "2024-01-02", "2:250"));
+    when(snowflakeQueryExecutor.queryKeyValues(
+            eq("SF_DB"), eq("SF_SCHEMA"), contains("WHERE COALESCE"), anyList()))
+        .thenReturn(map("1", "a", "2", "b"));
+    when(bigQueryOperationsService.queryKeyValues(
+            contains("WHERE COALESCE"), anyList(), any(), eq("ORDERS")))
+        .thenReturn(map("1", "a", "2", "c"));
+    when(bigQueryTableMetadataCache.getTableSchema(TableId.of("project", "dataset", "ORDERS")))
+        .thenReturn(schema());
+
+    ChecksumValidationResponse response = checksumValidationService.validate(request("ID"));
+
+    Assert.assertFalse(response.isSuccess());
+    Assert.assertEquals(2, response.getComparedBucketCount());
+    Assert.assertEquals(1, response.getMatchedBucketCount());
+    Assert.assertEquals(
+        Collections.singletonList("2024-01-02"), response.getMismatchedBuckets());
+    Assert.assertEquals(Collections.singletonList("2"), response.getMismatchedKeys());
+    Assert.assertFalse(response.isDrillDownTruncated());
+    // Only the mismatched bucket is drilled into, its value is bound as a parameter
+    verify(snowflakeQueryExecutor)
+        .queryKeyValues(
+            eq("SF_DB"),
+            eq("SF_SCHEMA"),
+            contains("= ? LIMIT"),
+            eq(Collections.singletonList("2024-01-02")));
+    verify(bigQueryOperationsService)
+        .queryKeyValues(
+            contains("= ? LIMIT"), eq(Collections.singletonList("2024-01-02")), any(), any());
+    verify(snowflakeQueryExecutor, never())
+        .queryKeyValues(
+            eq("SF_DB"), eq("SF_SCHEMA"), anyString(), eq(Collections.singletonList("2024-01-01")));
+  }
+
+  @Test
+  public void testValidateWithoutKeyColumnSkipsDrillDown() {
+    when(snowflakeQueryExecutor.queryKeyValues(anyString(), anyString(), anyString(), anyList()))
+        .thenReturn(map("1", "3:10"));
+    when(bigQueryOperationsService.queryKeyValues(anyString(), anyList(), any(), anyString()))
+        .thenReturn(map("1", "3:10", "5", "1:7"));
+    when(bigQueryTableMetadataCache.getTableSchema(any())).thenReturn(schema());
+    ChecksumValidationRequestDTO request = request(null);
+    request.setBucketType(ChecksumBucketType.HASH);
+    request.setColumns(Arrays.asList("ID", "AMOUNT"));
+
+    ChecksumValidationResponse response = checksumValidationService.validate(request);
+
+    Assert.assertFalse(response.isSuccess());
+    Assert.assertEquals(Collections.singletonList("5"), response.getMismatchedBuckets());
+    Assert.assertTrue(response.getMismatchedKeys().isEmpty());
+    Assert.assertTrue(response.isDrillDownTruncated());
+  }
+
+  @Test
+  public void testValidateFailsForMissingTable() {
+    when(bigQueryTableMetadataCache.getTableSchema(any())).thenReturn(null);
+    try {
+      checksumValidationService.validate(request("ID"));
+      Assert.fail();
+    } catch (SnowflakeConnectorException e) {
+      Assert.assertEquals(ErrorCode.TABLE_NOT_EXISTS.getMessage(), e.getMessage());
+    }
+  }
+
+  @Test
+  public void testQueriesUseSameFingerprintOnBothSides() {
+    ChecksumValidationRequestDTO request = request("ID");
+    request.setBucketType(ChecksumBucketType.HASH);
+    request.setBucketCount(16);
+    List<ChecksumValidationService.Column> columns =
+        Arrays.asList(
+            new ChecksumValidationService.Column("id", StandardSQLTypeName.INT64, false),
+            new ChecksumValidationService.Column("NAME", StandardSQLTypeName.STRING, false));
+    ChecksumValidationService.Column orderDate =
+        new ChecksumValidationService.Column("ORDER_DATE", StandardSQLTypeName.DATE, false);
+
+    Assert.assertEquals(
+        "MD5(CONCAT_WS('|', COALESCE(TO_VARCHAR(\"ID\"), '<NULL>'), "
+            + "COALESCE(TO_VARCHAR(\"NAME\"), '<NULL>')))",
+        ChecksumValidationService.snowflakeRowHash(columns));
+    Assert.assertEquals(
+        "TO_HEX(MD5(ARRAY_TO_STRING([COALESCE(CAST(`id` AS STRING), '<NULL>'), "
+            + "COALESCE(CAST(`NAME` AS STRING), '<NULL>')], '|')))",
+        ChecksumValidationService.bigQueryRowHash(columns));
+    Assert.assertTrue(
+        ChecksumValidationService.snowflakeBucketExpression(request, orderDate)
+            .contains("MD5(TO_VARCHAR(\"ORDER_DATE\", 'YYYY-MM-DD')), 1, 15)"));
+    Assert.assertTrue(
+        ChecksumValidationService.bigQueryBucketExpression(request, orderDate)
+            .contains("MD5(FORMAT_DATE('%Y-%m-%d', `ORDER_DATE`))), 1, 15)) AS INT64), 16)"));
+  }
+
+  @Test
+  public void testColumnsUseCanonicalTextOnBothSides() {
+    ChecksumValidationService.Column amount =
+        new ChecksumValidationService.Column("AMOUNT", StandardSQLTypeName.NUMERIC, false);
+    ChecksumValidationService.Column updatedAt =
+        new ChecksumValidationService.Column("UPDATED_AT", StandardSQLTypeName.TIMESTAMP, false);
+    ChecksumValidationService.Column active =
+        new ChecksumValidationService.Column("ACTIVE", StandardSQLTypeName.BOOL, false);
+
+    // Trailing zeros of the scale are removed, 1.50 and 1.5 give the same text
+    Assert.assertEquals(
+        "IFF(CONTAINS(TO_VARCHAR(\"AMOUNT\"), '.'), RTRIM(RTRIM(TO_VARCHAR(\"AMOUNT\"), '0'), '.'),"
+            + " TO_VARCHAR(\"AMOUNT\"))",
+        amount.snowflakeText());
+    Assert.assertEquals(
+        "IF(STRPOS(CAST(`AMOUNT` AS STRING), '.') > 0, RTRIM(RTRIM(CAST(`AMOUNT` AS STRING), '0'),"
+            + " '.'), CAST(`AMOUNT` AS STRING))",
+        amount.bigQueryText());
+    // Timestamps are compared in UTC with microseconds
+    Assert.assertEquals(
+        "TO_VARCHAR(CONVERT_TIMEZONE('UTC', \"UPDATED_AT\"), 'YYYY-MM-DD HH24:MI:SS.FF6')",
+        updatedAt.snowflakeText());
+    Assert.assertEquals(
+        "FORMAT_TIMESTAMP('%Y-%m-%d %H:%M:%E6S', `UPDATED_AT`, 'UTC')", updatedAt.bigQueryText());
+    Assert.assertEquals(
+        "CASE WHEN \"ACTIVE\" THEN 'true' WHEN NOT \"ACTIVE\" THEN 'false' END",
+        active.snowflakeText());
+    Assert.assertEquals(
+        "CASE WHEN `ACTIVE` THEN 'true' WHEN NOT `ACTIVE` THEN 'false' END", active.bigQueryText());
+  }
+
+  @Test
+  public void testDefaultColumnsLeaveOutTypesWithDifferentText() {
+    when(snowflakeQueryExecutor.queryKeyValues(anyString(), anyString(), anyString(), anyList()))
+        .thenReturn(map("2024-01-01", "1:10"));
+    when(bigQueryOperationsService.queryKeyValues(anyString(), anyList(), any(), anyString()))
+        .thenReturn(map("2024-01-01", "1:10"));
+    when(bigQueryTableMetadataCache.getTableSchema(any()))
+        .thenReturn(
+            Schema.of(
+                Field.of("ID", StandardSQLTypeName.INT64),
+                Field.of("ORDER_DATE", StandardSQLTypeName.DATE),
+                Field.of("RATE", StandardSQLTypeName.FLOAT64)));
+
+    Assert.assertTrue(checksumValidationService.validate(request("ID")).isSuccess());
+
+    verify(snowflakeQueryExecutor)
+        .queryKeyValues(
+            anyString(), anyString(), not(contains("RATE")), eq(Collections.emptyList()));
+    verify(bigQueryOperationsService)
+        .queryKeyValues(not(contains("RATE")), eq(Collections.emptyList()), any(), anyString());
+  }
+
+  @Test
+  public void testValidateRejectsInvalidNames() {
+    when(bigQueryTableMetadataCache.getTableSchema(any())).thenReturn(schema());
+    ChecksumValidationRequestDTO request = request("ID");
+    request.setSourceTableName("ORDERS; DROP TABLE ORDERS");
+    assertInvalidName(request);
+
+    request = request("ID");
+    request.setColumns(Collections.singletonList("ID) FROM OTHER_TABLE --"));
+    assertInvalidName(request);
+
+    // Column must exist in the BigQuery table
+    request = request("ID");
+    request.setColumns(Collections.singletonList("MISSING_COLUMN"));
+    assertInvalidName(request);
+    verify(snowflakeQueryExecutor, never())
+        .queryKeyValues(anyString(), anyString(), anyString(), anyList());
+  }
+
+  private void assertInvalidName(ChecksumValidationRequestDTO request) {
+    try {
+      checksumValidationService.validate(request);
+      Assert.fail();
+    } catch (SnowflakeConnectorException e) {
+      Assert.assertEquals(ErrorCode.INVALID_TABLE_OR_COLUMN_NAME.getMessage(), e.getMessage());
+    }
+  }
+
+  private static Schema schema() {
+    return Schema.of(
+        Field.of("ID", StandardSQLTypeName.INT64),
+        Field.of("AMOUNT", StandardSQLTypeName.NUMERIC),
+        Field.of("ORDER_DATE", StandardSQLTypeName.DATE));
+  }
+
+  private ChecksumValidationRequestDTO request(String keyColumn) {
+    ChecksumValidationRequestDTO request = new ChecksumValidationRequestDTO();
+    request.setSourceDatabaseName("SF_DB");
+    request.setSourceSchemaName("SF_SCHEMA");
+    request.setSourceTableName("ORDERS");
+    request.setTargetDatabaseName("project");
+    request.setTargetSchemaName("dataset");
+    request.setBucketColumn("ORDER_DATE");
+    request.setKeyColumn(keyColumn);
+    return request;
+  }
+
+  private static Map<String, String> map(String... keyValues) {
+    Map<String, String> map = new HashMap<>();
+    for (int i = 0; i < keyValues.length; i += 2) {
+      map.put(keyValues[i], keyValues[i + 1]);
+    }
+    return map;
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.api.gax.paging.Page;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.CopyWriter;
+import com.google.cloud.storage.Storage;
+import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
+import com.google.connector.snowflakeToBQ.entity.DDLTranslationCache;
+import com.google.connector.snowflakeToBQ.model.datadto.CommonDataDTO;
+import com.google.connector.snowflakeToBQ.repository.DDLTranslationCacheRepository;
+import com.google.connector.snowflakeToBQ.service.Instancecreator.StorageInstanceCreator;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+public class DDLTranslationCacheServiceTest extends AbstractTestBase {
+
+  @Autowired DDLTranslationCacheService ddlTranslationCacheService;
+
+  @Autowired DDLTranslationCacheRepository ddlTranslationCacheRepository;
+
+  @MockBean StorageInstanceCreator storageInstanceCreator;
+
+  Storage storageMock;
+
+  @Before
+  public void setUp() {
+    ddlTranslationCacheRepository.deleteAll();
+    storageMock = mock(Storage.class);
+    when(storageInstanceCreator.getStorageClient()).thenReturn(storageMock);
+  }
+
+  @Test
+  public void testHashIgnoresWhitespacesButNotNameMapping() {
+    CommonDataDTO nameMapping = nameMapping("target_schema");
+    String hash =
+        DDLTranslationCacheService.hash(
+            "create or replace TABLE db.public.orders ( ID NUMBER, NAME VARCHAR)", nameMapping);
+
+    Assert.assertEquals(64, hash.length());
+    Assert.assertEquals(
+        hash,
+        DDLTranslationCacheService.hash(
+            "create or replace TABLE db.public.orders (\n  ID NUMBER,\n  NAME VARCHAR\n)\n",
+            nameMapping));
+    Assert.assertNotEquals(
+        hash,
+        DDLTranslationCacheService.hash(
+            "create or replace TABLE db.public.orders ( ID NUMBER, NAME VARCHAR(10))",
+            nameMapping));
+    Assert.assertNotEquals(
+        hash,
+        DDLTranslationCacheService.hash(
+            "create or replace TABLE db.public.orders ( ID NUMBER, NAME VARCHAR)",
+            nameMapping("other_schema")));
+  }
+
+  @Test
+  public void testSaveTranslationsCachesOnlyTranslatedFiles() {
+    String folder = "Translated/db/public/2024_01_01_00_00_00";
+    Blob translatedBlob = mock(Blob.class);
+    when(translatedBlob.getName()).thenReturn(folder + "/orders.sql");
+    Page<Blob> page = mock(Page.class);
+    when(page.iterateAll()).thenReturn(Collections.singletonList(translatedBlob));
+    when(storageMock.list(anyString(), any(Storage.BlobListOption.class))).thenReturn(page);
+    when(storageMock.copy(any(Storage.CopyRequest.class))).thenReturn(mock(CopyWriter.class));
+
+    Map<String, String> sourceDDLHashByTableName = new HashMap<>();
+    sourceDDLHashByTableName.put("orders", "hash_orders");
+    sourceDDLHashByTableName.put("customers", "hash_customers");
+    int cached =
+        ddlTranslationCacheService.saveTranslations(
+            "translation_bucket", folder, "workflow_1", sourceDDLHashByTableName);
+
+    Assert.assertEquals(1, cached);
+    DDLTranslationCache ddlTranslationCache =
+        ddlTranslationCacheRepository.findById("hash_orders").orElse(null);
+    Assert.assertNotNull(ddlTranslationCache);
+    // Entry points to the content addressed copy, not to the day-scoped output folder
+    Assert.assertEquals(
+        "cached-translated-snowflake-ddls/hash_orders.sql",
+        ddlTranslationCache.getTranslatedDDLGCSPath());
+    Assert.assertEquals("workflow_1", ddlTranslationCache.getWorkflowName());
+    Assert.assertFalse(ddlTranslationCacheRepository.existsById("hash_customers"));
+    ArgumentCaptor<Storage.CopyRequest> copyRequest =
+        ArgumentCaptor.forClass(Storage.CopyRequest.class);
+    verify(storageMock).copy(copyRequest.capture());
+    Assert.assertEquals(
+        BlobId.of("translation_bucket", folder + "/orders.sql"),
+        copyRequest.getValue().getSource());
+    Assert.assertEquals(
+        "cached-translated-snowflake-ddls/hash_orders.sql",
+        copyRequest.getValue().getTarget().getName());
+  }
+
+  @Test
+  public void testSaveTranslationSkippedWhenCopyFails() {
+    when(storageMock.copy(any(Storage.CopyRequest.class)))
+        .thenThrow(new RuntimeException("copy failed"));
+
+    ddlTranslationCacheService.saveTranslation(
+        "translation_bucket",
+        "interactive-translated-snowflake-ddls/db/public/2024_01_01/orders.sql",
+        "workflow_1",
+        "hash_orders");
+
+    Assert.assertFalse(ddlTranslationCacheRepository.existsById("hash_orders"));
+  }
+
+  @Test
+  public void testLookup() {
+    DDLTranslationCache ddlTranslationCache = new DDLTranslationCache();
+    ddlTranslationCache.setSourceDDLHash("hash_orders");
+    ddlTranslationCache.setGcsBucketForTranslation("translation_bucket");
+    ddlTranslationCache.setTranslatedDDLGCSPath("Translated/db/public/orders.sql");
+    ddlTranslationCacheRepository.save(ddlTranslationCache);
+    when(storageMock.get(BlobId.of("translation_bucket", "Translated/db/public/orders.sql")))
+        .thenReturn(mock(Blob.class));
+
+    DDLTranslationCache cached =
+        ddlTranslationCacheService.lookup("hash_orders", "translation_bucket");
+    Assert.assertEquals("Translated/db/public/orders.sql", cached.getTranslatedDDLGCSPath());
+    Assert.assertNotNull(cached.getLastUsedTime());
+    // Translation of other bucket is not reused
+    Assert.assertNull(ddlTranslationCacheService.lookup("hash_orders", "other_bucket"));
+    Assert.assertNull(ddlTranslationCacheService.lookup("hash_unknown", "translation_bucket"));
+  }
+
+  @Test
+  public void testLookupRemovesEntryOfDeletedFile() {
+    DDLTranslationCache ddlTranslationCache = new DDLTranslationCache();
+    ddlTranslationCache.setSourceDDLHash("hash_deleted");
+    ddlTranslationCache.setGcsBucketForTranslation("translation_bucket");
+    ddlTranslationCache.setTranslatedDDLGCSPath("Translated/db/public/deleted.sql");
+    ddlTranslationCacheRepository.save(ddlTranslationCache);
+    when(storageMock.get(any(BlobId.class))).thenReturn(null);
+
+    Assert.assertNull(ddlTranslationCacheService.lookup("hash_deleted", "translation_bucket"));
+    Assert.assertFalse(ddlTranslationCacheRepository.existsById("hash_deleted"));
+  }
+
+  private CommonDataDTO nameMapping(String targetSchemaName) {
+    CommonDataDTO nameMapping = new CommonDataDTO();
+    nameMapping.setSourceDatabaseName("db");
+    nameMapping.setSourceSchemaName("public");
+    nameMapping.setTargetDatabaseName("project");
+    nameMapping.setTargetSchemaName(targetSchemaName);
+    return nameMapping;
+  }
+}
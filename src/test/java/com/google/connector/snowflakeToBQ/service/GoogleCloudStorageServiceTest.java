@@ -18,16 +18,20 @@ package com.google.connector.snowflakeToBQ.service;
 
 import static org.mockito.Mockito.*;
 
+import com.google.api.gax.paging.Page;
 import com.google.cloud.storage.Blob;
 import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
 import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
 import com.google.connector.snowflakeToBQ.model.datadto.GCSDetailsDataDTO;
+import com.google.connector.snowflakeToBQ.model.datadto.StagingInventoryDataDTO;
 import com.google.connector.snowflakeToBQ.repository.ApplicationConfigDataRepository;
 import com.google.connector.snowflakeToBQ.service.Instancecreator.StorageInstanceCreator;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -133,6 +137,97 @@ public class GoogleCloudStorageServiceTest extends AbstractTestBase {
     Assert.assertTrue(gcsDetailsDataDTOS.get(0).isSourceDDLCopied());
   }
 
+  @Test
+  public void testWriteToGCSWithoutTranslation() {
+    Storage storageMock = mock(Storage.class);
+    Page<Blob> pageMock = mock(Page.class);
+    Blob blobMock = mock(Blob.class);
+    when(storageInstanceCreator.getStorageClient()).thenReturn(storageMock);
+    when(storageMock.list(anyString(), any(Storage.BlobListOption.class))).thenReturn(pageMock);
+    when(pageMock.iterateAll()).thenReturn(Collections.emptyList());
+    when(storageMock.create(any(BlobInfo.class), any(byte[].class))).thenReturn(blobMock);
+    when(blobMock.getBucket()).thenReturn("test_bucket");
+    when(blobMock.getName()).thenReturn("test_name");
+
+    Map<String, String> ddlMap = new HashMap<>();
+    // DDL which the local translator can translate
+    ddlMap.put("table1", "create or replace TABLE table1 (ID NUMBER(38,0));");
+    GCSDetailsDataDTO gcsDetailsDataDTO = new GCSDetailsDataDTO();
+    gcsDetailsDataDTO.setSourceSchemaName("source_schema");
+    gcsDetailsDataDTO.setSourceDatabaseName("source_database");
+    gcsDetailsDataDTO.setGcsBucketForDDLs("ddl_bucket");
+    gcsDetailsDataDTO.setGcsBucketForTranslation("translation_bucket");
+    gcsDetailsDataDTO.setTranslationRequired(false);
+
+    List<GCSDetailsDataDTO> gcsDetailsDataDTOS =
+        googleCloudStorageService.writeToGCS(ddlMap, gcsDetailsDataDTO);
+    Assert.assertEquals(1, gcsDetailsDataDTOS.size());
+    // Only the DDL is written, it is neither translated locally nor looked up in the cache
+    Assert.assertEquals(
+        "gs://test_bucket/test_name", gcsDetailsDataDTOS.get(0).getSnowflakeDDLsPath());
+    Assert.assertTrue(gcsDetailsDataDTOS.get(0).isSourceDDLCopied());
+    Assert.assertNull(gcsDetailsDataDTOS.get(0).getTranslatedDDLGCSPath());
+    Assert.assertNull(gcsDetailsDataDTOS.get(0).getTranslationWorkflowName());
+    verify(storageMock, times(1)).create(any(BlobInfo.class), any(byte[].class));
+  }
+
+  @Test
+  public void testAssignTranslationChunks() {
+    List<String> tableNames = Arrays.asList("table_e", "table_a", "table_d", "table_b", "table_c");
+
+    Map<String, String> chunks = GoogleCloudStorageService.assignTranslationChunks(tableNames, 2);
+    Assert.assertEquals("chunk_0", chunks.get("table_a"));
+    Assert.assertEquals("chunk_0", chunks.get("table_b"));
+    Assert.assertEquals("chunk_1", chunks.get("table_c"));
+    Assert.assertEquals("chunk_1", chunks.get("table_d"));
+    Assert.assertEquals("chunk_2", chunks.get("table_e"));
+
+    // Schemas which fit in a single workflow are not chunked
+    Assert.assertNull(
+        GoogleCloudStorageService.assignTranslationChunks(tableNames, 5).get("table_a"));
+    Assert.assertNull(
+        GoogleCloudStorageService.assignTranslationChunks(tableNames, 0).get("table_a"));
+  }
+
+  @Test
+  public void testGetStagingInventory() {
+    Storage storageMock = mock(Storage.class);
+    Page<Blob> pageMock = mock(Page.class);
+    Blob folderBlob = mock(Blob.class);
+    Blob dataBlob1 = mock(Blob.class);
+    Blob dataBlob2 = mock(Blob.class);
+    when(folderBlob.getName()).thenReturn("data-unload/table1/");
+    when(dataBlob1.getName()).thenReturn("data-unload/table1/table1_0_0_0.csv.gz");
+    when(dataBlob1.getSize()).thenReturn(100L);
+    when(dataBlob2.getName()).thenReturn("data-unload/table1/table1_0_0_1.csv.gz");
+    when(dataBlob2.getSize()).thenReturn(50L);
+    when(pageMock.iterateAll()).thenReturn(Arrays.asList(folderBlob, dataBlob1, dataBlob2));
+    when(storageInstanceCreator.getStorageClient()).thenReturn(storageMock);
+    when(storageMock.list(eq("bucket"), any(), any())).thenReturn(pageMock);
+
+    StagingInventoryDataDTO stagingInventoryDataDTO =
+        googleCloudStorageService.getStagingInventory("gs://bucket/data-unload/", "table1");
+    Assert.assertEquals("bucket", stagingInventoryDataDTO.getBucketName());
+    Assert.assertEquals("data-unload/table1/", stagingInventoryDataDTO.getPrefix());
+    Assert.assertEquals(2, stagingInventoryDataDTO.getFileCount());
+    Assert.assertEquals(150, stagingInventoryDataDTO.getTotalBytes());
+    Assert.assertFalse(stagingInventoryDataDTO.isEmpty());
+  }
+
+  @Test
+  public void testGetStagingInventoryEmptyPrefix() {
+    Storage storageMock = mock(Storage.class);
+    Page<Blob> pageMock = mock(Page.class);
+    when(pageMock.iterateAll()).thenReturn(Collections.emptyList());
+    when(storageInstanceCreator.getStorageClient()).thenReturn(storageMock);
+    when(storageMock.list(eq("bucket"), any(), any())).thenReturn(pageMock);
+
+    StagingInventoryDataDTO stagingInventoryDataDTO =
+        googleCloudStorageService.getStagingInventory("bucket", "table1");
+    Assert.assertEquals("table1/", stagingInventoryDataDTO.getPrefix());
+    Assert.assertTrue(stagingInventoryDataDTO.isEmpty());
+  }
+
   /**
    * Tests the `replaceSnowflakeTableNameWithBQ` private method in `GoogleCloudStorageService`. This
    * test covers various scenarios including: - Case insensitivity of the "TABLE" keyword - Varying
@@ -17,8 +17,11 @@
 package com.google.connector.snowflakeToBQ.service;
 
 import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FormatOptions;
+import com.google.cloud.bigquery.LoadJobConfiguration;
 import com.google.cloud.bigquery.Schema;
 import com.google.cloud.bigquery.StandardSQLTypeName;
+import com.google.cloud.bigquery.TableId;
 import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
 import com.google.connector.snowflakeToBQ.service.bigqueryjoboptions.*;
 import lombok.Setter;
@@ -55,4 +58,31 @@ public class LoadJobFactoryTest extends AbstractTestBase {
     LoadJobOptions csvLoadJob=  loadJobFactory.createService(LoadOption.PARQUET,schema);
     Assert.assertTrue(csvLoadJob instanceof ParquetLoadJob);
   }
+
+  /**
+   * Method to test {@link LoadOption} AVRO switch case.
+   */
+  @Test
+  public void testCreateServiceAvroType() {
+    LoadJobOptions avroLoadJob = loadJobFactory.createService(LoadOption.AVRO, null);
+    Assert.assertTrue(avroLoadJob instanceof AvroLoadJob);
+    LoadJobConfiguration loadJobConfiguration =
+        avroLoadJob.createLoadJob(TableId.of("dataset", "table"), "gs://bucket/table/*");
+    Assert.assertEquals(FormatOptions.AVRO, loadJobConfiguration.getFormat());
+    Assert.assertTrue(loadJobConfiguration.getUseAvroLogicalTypes());
+    Assert.assertNull(loadJobConfiguration.getSchema());
+  }
+
+  /**
+   * Method to test {@link LoadOption} ORC switch case.
+   */
+  @Test
+  public void testCreateServiceOrcType() {
+    LoadJobOptions orcLoadJob = loadJobFactory.createService(LoadOption.ORC, null);
+    Assert.assertTrue(orcLoadJob instanceof OrcLoadJob);
+    LoadJobConfiguration loadJobConfiguration =
+        orcLoadJob.createLoadJob(TableId.of("dataset", "table"), "gs://bucket/table/*");
+    Assert.assertEquals(FormatOptions.ORC, loadJobConfiguration.getFormat());
+    Assert.assertFalse(LoadOption.ORC.isSnowflakeUnloadSupported());
+  }
 }
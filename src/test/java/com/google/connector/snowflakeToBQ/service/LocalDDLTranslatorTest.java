@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class LocalDDLTranslatorTest extends AbstractTestBase {
+
+  @Autowired LocalDDLTranslator localDDLTranslator;
+
+  @Test
+  public void testTranslate() {
+    String ddl =
+        "create or replace TABLE DB.SCHEMA.EMPLOYEE (\n"
+            + "\tID NUMBER(38,0) NOT NULL,\n"
+            + "\tNAME VARCHAR(16777216) COMMENT 'employee name',\n"
+            + "\tSALARY NUMBER(10,2),\n"
+            + "\t\"hired_on\" DATE,\n"
+            + "\tUPDATED_AT TIMESTAMP_NTZ(9),\n"
+            + "\tCREATED_AT TIMESTAMP_TZ(9),\n"
+            + "\tRATING DOUBLE PRECISION,\n"
+            + "\tACTIVE BOOLEAN,\n"
+            + "\tPHOTO BINARY(8388608)\n"
+            + ");";
+    String expected =
+        "CREATE TABLE DB.SCHEMA.EMPLOYEE\n"
+            + "(\n"
+            + "  `ID` BIGNUMERIC(38) NOT NULL,\n"
+            + "  `NAME` STRING OPTIONS(description=\"employee name\"),\n"
+            + "  `SALARY` NUMERIC(10, 2),\n"
+            + "  `hired_on` DATE,\n"
+            + "  `UPDATED_AT` DATETIME,\n"
+            + "  `CREATED_AT` TIMESTAMP,\n"
+            + "  `RATING` FLOAT64,\n"
+            + "  `ACTIVE` BOOL,\n"
+            + "  `PHOTO` BYTES\n"
+            + ");";
+    Assert.assertEquals(expected, localDDLTranslator.translate(ddl, "DB.SCHEMA.EMPLOYEE"));
+  }
+
+  @Test
+  public void testTranslateClusteredTable() {
+    String ddl =
+        "create or replace TABLE ORDERS cluster by (REGION, TO_DATE(ORDER_TS))(\n"
+            + "\tREGION VARCHAR(10),\n"
+            + "\tORDER_TS TIMESTAMP_LTZ(9)\n"
+            + ");";
+    Assert.assertEquals(
+        "CREATE TABLE DB.SCHEMA.ORDERS\n(\n  `REGION` STRING,\n  `ORDER_TS` TIMESTAMP\n);",
+        localDDLTranslator.translate(ddl, "DB.SCHEMA.ORDERS"));
+  }
+
+  @Test
+  public void testTranslateLeavesComplexDDLsToWorkflow() {
+    String[] ddls = {
+      "create or replace TABLE T (\n\tID NUMBER(38,0) NOT NULL,\n\tprimary key (ID)\n);",
+      "create or replace TABLE T (\n\tPAYLOAD VARIANT\n);",
+      "create or replace TABLE T (\n\tLOCATION GEOGRAPHY\n);",
+      "create or replace TABLE T (\n\tID NUMBER(38,0) autoincrement start 1 increment 1\n);",
+      "create or replace TABLE T (\n\tSTATUS VARCHAR(10) DEFAULT 'NEW'\n);",
+      "create or replace TABLE T (\n\tNAME VARCHAR(10) COLLATE 'en-ci'\n);",
+      "create or replace TABLE T (\n\tID NUMBER(38,0)\n) COMMENT='orders';",
+      "create or replace TABLE T (\n\tRATIO NUMBER(5,5)\n);",
+      "create or replace TABLE T (\n\t\"my column\" INT\n);",
+      "create or replace TABLE T (\n\tid INT,\n\t\"ID\" INT\n);",
+      "create or replace TABLE T (\n\tNOTE VARCHAR COMMENT 'it''s'\n);",
+      "create or replace TEMPORARY TABLE T (\n\tID INT\n);",
+      "create or replace TABLE T AS SELECT 1 AS ID;",
+      ""
+    };
+    for (String ddl : ddls) {
+      Assert.assertNull(ddl, localDDLTranslator.translate(ddl, "DB.SCHEMA.T"));
+    }
+  }
+
+  @Test
+  public void testToBigQueryType() {
+    Assert.assertEquals("BIGNUMERIC(38)", LocalDDLTranslator.toBigQueryType("NUMBER", null, null));
+    Assert.assertEquals("NUMERIC(18)", LocalDDLTranslator.toBigQueryType("number", "18", null));
+    Assert.assertEquals("NUMERIC(38, 9)", LocalDDLTranslator.toBigQueryType("DECIMAL", "38", "9"));
+    Assert.assertEquals(
+        "BIGNUMERIC(38, 10)", LocalDDLTranslator.toBigQueryType("NUMERIC", "38", "10"));
+    Assert.assertEquals("INT64", LocalDDLTranslator.toBigQueryType("BIGINT", null, null));
+    Assert.assertEquals("STRING", LocalDDLTranslator.toBigQueryType("char  varying", "5", null));
+    Assert.assertEquals("DATETIME", LocalDDLTranslator.toBigQueryType("TIMESTAMP", "9", null));
+    Assert.assertNull(LocalDDLTranslator.toBigQueryType("OBJECT", null, null));
+  }
+}
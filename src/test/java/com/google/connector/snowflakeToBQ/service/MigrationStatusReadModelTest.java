@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import com.google.connector.snowflakeToBQ.model.response.SFDataMigrationResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MigrationStatusReadModelTest {
+
+  @Test
+  public void testUpdateReplacesStatusAndEvictsLeastRecentlyChanged() {
+    MigrationStatusReadModel migrationStatusReadModel = new MigrationStatusReadModel(2);
+    ApplicationConfigData firstTable = getApplicationConfigData(1L, "request-1");
+    ApplicationConfigData secondTable = getApplicationConfigData(2L, "request-1");
+    migrationStatusReadModel.update(firstTable);
+    migrationStatusReadModel.update(secondTable);
+    // Changing the first table keeps it, the second table is evicted by the third
+    firstTable.setDataLoadedInBQ(true);
+    migrationStatusReadModel.update(firstTable);
+    migrationStatusReadModel.update(getApplicationConfigData(3L, "request-2"));
+
+    Map<Long, SFDataMigrationResponse> statuses =
+        migrationStatusReadModel.getStatuses(Arrays.asList(1L, 2L, 3L));
+    Assert.assertEquals(2, statuses.size());
+    Assert.assertTrue(statuses.get(1L).isTableDataLoadedInBQ());
+    Assert.assertFalse(statuses.containsKey(2L));
+
+    List<SFDataMigrationResponse> requestStatuses =
+        migrationStatusReadModel.getStatuses("request-1");
+    Assert.assertEquals(1, requestStatuses.size());
+    Assert.assertEquals(Long.valueOf(1L), requestStatuses.get(0).getRequestId());
+  }
+
+  @Test
+  public void testUpdateIgnoresUnsavedRow() {
+    MigrationStatusReadModel migrationStatusReadModel = new MigrationStatusReadModel(2);
+    migrationStatusReadModel.update(getApplicationConfigData(null, "request-1"));
+    Assert.assertEquals(0, migrationStatusReadModel.size());
+  }
+
+  private static ApplicationConfigData getApplicationConfigData(Long id, String requestLogId) {
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setId(id);
+    applicationConfigData.setSourceTableName("source_table_" + id);
+    applicationConfigData.setRequestLogId(requestLogId);
+    return applicationConfigData;
+  }
+}
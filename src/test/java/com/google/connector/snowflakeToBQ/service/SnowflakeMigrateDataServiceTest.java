@@ -35,16 +35,20 @@ import com.google.connector.snowflakeToBQ.service.async.SnowflakeToBQAsyncServic
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.google.connector.snowflakeToBQ.util.ErrorCode;
 import com.google.connector.snowflakeToBQ.util.PropertyManager;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
@@ -61,6 +65,8 @@ public class SnowflakeMigrateDataServiceTest extends AbstractTestBase {
   @MockBean ApplicationConfigDataService applicationConfigDataService;
   @MockBean SnowflakeToBQAsyncService asyncServiceTestingClass;
 
+  @Autowired MigrationStatusReadModel migrationStatusReadModel;
+
   @Test
   public void testMigrateDataBasic() {
 
@@ -97,12 +103,15 @@ public class SnowflakeMigrateDataServiceTest extends AbstractTestBase {
     WorkflowMigrationResponse workflowMigrationResponse = new WorkflowMigrationResponse();
     workflowMigrationResponse.setTranslatedFileFullGCSPath("gs://testbucket/orders.sql");
     workflowMigrationResponse.setWorkflowName("TestWorkFlowName");
+    workflowMigrationResponse.setState(WorkflowMigrationResponse.COMPLETED);
 
     when(googleCloudStorageService.writeToGCS(any(Map.class), any(GCSDetailsDataDTO.class)))
         .thenReturn(gcsDetailsDataDTOS);
-    when(workflowMigrationService.createMigrationWorkflow(any(TranslateDDLDataDTO.class)))
-        .thenReturn(workflowMigrationResponse);
-    when(workflowMigrationService.isMigrationWorkflowCompleted(anyString())).thenReturn(true);
+    when(workflowMigrationService.createMigrationWorkflows(
+            any(TranslateDDLDataDTO.class), anyCollection()))
+        .thenReturn(
+            Collections.singletonMap(
+                "", CompletableFuture.completedFuture(workflowMigrationResponse)));
     ApplicationConfigData configData1 =
         MigrateRequestMapper.getApplicationConfigEntityFromSFDataMigrationRequestDTO(
             sfDataMigrationRequestDTO);
@@ -177,12 +186,15 @@ public class SnowflakeMigrateDataServiceTest extends AbstractTestBase {
     WorkflowMigrationResponse workflowMigrationResponse = new WorkflowMigrationResponse();
     workflowMigrationResponse.setTranslatedFileFullGCSPath("gs://testbucket/orders.sql");
     workflowMigrationResponse.setWorkflowName("TestWorkFlowName");
+    workflowMigrationResponse.setState(WorkflowMigrationResponse.COMPLETED);
 
     when(googleCloudStorageService.writeToGCS(any(Map.class), any(GCSDetailsDataDTO.class)))
         .thenReturn(gcsDetailsDataDTOS);
-    when(workflowMigrationService.createMigrationWorkflow(any(TranslateDDLDataDTO.class)))
-        .thenReturn(workflowMigrationResponse);
-    when(workflowMigrationService.isMigrationWorkflowCompleted(anyString())).thenReturn(true);
+    when(workflowMigrationService.createMigrationWorkflows(
+            any(TranslateDDLDataDTO.class), anyCollection()))
+        .thenReturn(
+            Collections.singletonMap(
+                "", CompletableFuture.completedFuture(workflowMigrationResponse)));
     ApplicationConfigData configData1 =
         MigrateRequestMapper.getApplicationConfigEntityFromSFDataMigrationRequestDTO(
             sfDataMigrationRequestDTO);
@@ -257,12 +269,15 @@ public class SnowflakeMigrateDataServiceTest extends AbstractTestBase {
     WorkflowMigrationResponse workflowMigrationResponse = new WorkflowMigrationResponse();
     workflowMigrationResponse.setTranslatedFileFullGCSPath("gs://testbucket/orders.sql");
     workflowMigrationResponse.setWorkflowName("TestWorkFlowName");
+    workflowMigrationResponse.setState(WorkflowMigrationResponse.COMPLETED);
 
     when(googleCloudStorageService.writeToGCS(any(Map.class), any(GCSDetailsDataDTO.class)))
         .thenReturn(gcsDetailsDataDTOS);
-    when(workflowMigrationService.createMigrationWorkflow(any(TranslateDDLDataDTO.class)))
-        .thenReturn(workflowMigrationResponse);
-    when(workflowMigrationService.isMigrationWorkflowCompleted(anyString())).thenReturn(true);
+    when(workflowMigrationService.createMigrationWorkflows(
+            any(TranslateDDLDataDTO.class), anyCollection()))
+        .thenReturn(
+            Collections.singletonMap(
+                "", CompletableFuture.completedFuture(workflowMigrationResponse)));
     ApplicationConfigData configData1 =
         MigrateRequestMapper.getApplicationConfigEntityFromSFDataMigrationRequestDTO(
             sfDataMigrationRequestDTO);
@@ -339,9 +354,15 @@ public class SnowflakeMigrateDataServiceTest extends AbstractTestBase {
 
     when(googleCloudStorageService.writeToGCS(any(Map.class), any(GCSDetailsDataDTO.class)))
         .thenReturn(gcsDetailsDataDTOS);
-    when(workflowMigrationService.createMigrationWorkflow(any(TranslateDDLDataDTO.class)))
-        .thenReturn(workflowMigrationResponse);
-    when(workflowMigrationService.isMigrationWorkflowCompleted(anyString())).thenReturn(false);
+    CompletableFuture<WorkflowMigrationResponse> timedOutWorkflow = new CompletableFuture<>();
+    timedOutWorkflow.completeExceptionally(
+        new SnowflakeConnectorException(
+            ErrorCode.MIGRATION_WORKFLOW_EXECUTION_ERROR.getMessage()
+                + " Could not finish with in given time",
+            ErrorCode.MIGRATION_WORKFLOW_EXECUTION_ERROR.getErrorCode()));
+    when(workflowMigrationService.createMigrationWorkflows(
+            any(TranslateDDLDataDTO.class), anyCollection()))
+        .thenReturn(Collections.singletonMap("", timedOutWorkflow));
     try {
       snowflakeMigrateDataService.migrateData(sfDataMigrationRequestDTO);
     } catch (SnowflakeConnectorException e) {
@@ -376,6 +397,7 @@ public class SnowflakeMigrateDataServiceTest extends AbstractTestBase {
     applicationConfigData.setTargetSchemaName("target_schema");
     applicationConfigData.setTargetDatabaseName("target_database");
     applicationConfigData.setDataUnloadedFromSnowflake(true);
+    applicationConfigData.setTranslatedDDLCopied(true);
 
     List<ApplicationConfigData> applicationConfigDataList=new ArrayList<>();
     applicationConfigDataList.add(applicationConfigData);
@@ -456,4 +478,265 @@ public class SnowflakeMigrateDataServiceTest extends AbstractTestBase {
     List<Long> requestIds = snowflakeMigrateDataService.processFailedRequestMigratedRows();
     Assert.assertTrue(requestIds.isEmpty());
   }
+
+  /**
+   * Table which got unloaded while its DDL translation failed has no DDL to create the table from,
+   * it is not picked by the failed request processing.
+   */
+  @Test
+  public void testProcessFailedRequestMigratedRowsTranslationFailed() {
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setId(1L);
+    applicationConfigData.setSourceTableName("source_table");
+    applicationConfigData.setDataUnloadedFromSnowflake(true);
+    applicationConfigData.setTranslatedDDLCopied(false);
+    applicationConfigData.setBQTableCreated(false);
+
+    when(applicationConfigDataService.findByColumnName(anyBoolean()))
+        .thenReturn(Collections.singletonList(applicationConfigData));
+
+    List<Long> requestIds = snowflakeMigrateDataService.processFailedRequestMigratedRows();
+    Assert.assertTrue(requestIds.isEmpty());
+    verify(asyncServiceTestingClass, never())
+        .snowflakeUnloadAndLoadToBQLoad(any(ApplicationConfigData.class));
+  }
+
+  /**
+   * Tables whose DDL translation is found in the cache are migrated without creating a migration
+   * workflow.
+   */
+  @Test
+  public void testMigrateDataReusesCachedTranslation() {
+    SFDataMigrationRequestDTO sfDataMigrationRequestDTO = new SFDataMigrationRequestDTO();
+    sfDataMigrationRequestDTO.setSourceTableName("source_table");
+    sfDataMigrationRequestDTO.setSchema(true);
+    sfDataMigrationRequestDTO.setSourceSchemaName("source_public");
+    sfDataMigrationRequestDTO.setSourceDatabaseName("source_database");
+    sfDataMigrationRequestDTO.setGcsBucketForDDLs("gs://testing");
+    sfDataMigrationRequestDTO.setGcsBucketForTranslation("gs://translation");
+    sfDataMigrationRequestDTO.setTargetSchemaName("target_schema");
+    sfDataMigrationRequestDTO.setTargetDatabaseName("target_database");
+
+    Map<String, String> tableMaps = new HashMap<>();
+    tableMaps.put("source_table", "create or replace TABLE source_table ( DATECOL DATE)");
+    when(schemaExtractorService.getDDLs(any(DDLDataDTO.class))).thenReturn(tableMaps);
+
+    GCSDetailsDataDTO gcsDetailsDataDTO =
+        MigrateRequestMapper.getGCSDetailsDataDTOFromSFDataMigrationRequestDTO(
+            sfDataMigrationRequestDTO);
+    gcsDetailsDataDTO.setSourceDDLHash("hash_source_table");
+    gcsDetailsDataDTO.setTranslatedDDLGCSPath("Translated/source_table.sql");
+    when(googleCloudStorageService.writeToGCS(any(Map.class), any(GCSDetailsDataDTO.class)))
+        .thenReturn(Collections.singletonList(gcsDetailsDataDTO));
+    when(applicationConfigDataService.saveAllApplicationConfigDataServices(any(List.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    when(asyncServiceTestingClass.snowflakeUnloadAndLoadToBQLoad(any(ApplicationConfigData.class)))
+        .thenAnswer(
+            invocation ->
+                CompletableFuture.completedFuture(
+                    new OperationResult<>((ApplicationConfigData) invocation.getArgument(0))));
+
+    snowflakeMigrateDataService.migrateData(sfDataMigrationRequestDTO);
+
+    ArgumentCaptor<ApplicationConfigData> captor =
+        ArgumentCaptor.forClass(ApplicationConfigData.class);
+    verify(asyncServiceTestingClass).snowflakeUnloadAndLoadToBQLoad(captor.capture());
+    Assert.assertTrue(captor.getValue().isTranslatedDDLCopied());
+    Assert.assertEquals(
+        "Translated/source_table.sql", captor.getValue().getTranslatedDDLGCSPath());
+    Assert.assertEquals("hash_source_table", captor.getValue().getSourceDDLHash());
+    verify(workflowMigrationService, never())
+        .createMigrationWorkflows(any(TranslateDDLDataDTO.class), anyCollection());
+  }
+
+  /**
+   * Snowflake unload of a table is submitted before the translation of its DDL completes, its table
+   * creation and load wait for the translation.
+   */
+  @Test
+  public void testMigrateDataUnloadsWhileTranslating() {
+    SFDataMigrationRequestDTO sfDataMigrationRequestDTO = new SFDataMigrationRequestDTO();
+    sfDataMigrationRequestDTO.setSourceTableName("source_table");
+    sfDataMigrationRequestDTO.setSchema(true);
+    sfDataMigrationRequestDTO.setSourceSchemaName("source_public");
+    sfDataMigrationRequestDTO.setSourceDatabaseName("source_database");
+    sfDataMigrationRequestDTO.setGcsBucketForDDLs("gs://testing");
+    sfDataMigrationRequestDTO.setGcsBucketForTranslation("gs://translation");
+    sfDataMigrationRequestDTO.setTargetSchemaName("target_schema");
+    sfDataMigrationRequestDTO.setTargetDatabaseName("target_database");
+
+    Map<String, String> tableMaps = new HashMap<>();
+    tableMaps.put("source_table", "create or replace TABLE source_table ( DATECOL DATE)");
+    when(schemaExtractorService.getDDLs(any(DDLDataDTO.class))).thenReturn(tableMaps);
+    GCSDetailsDataDTO gcsDetailsDataDTO =
+        MigrateRequestMapper.getGCSDetailsDataDTOFromSFDataMigrationRequestDTO(
+            sfDataMigrationRequestDTO);
+    gcsDetailsDataDTO.setSourceTableName("source_table");
+    when(googleCloudStorageService.writeToGCS(any(Map.class), any(GCSDetailsDataDTO.class)))
+        .thenReturn(Collections.singletonList(gcsDetailsDataDTO));
+    when(applicationConfigDataService.saveAllApplicationConfigDataServices(any(List.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    WorkflowMigrationResponse workflowMigrationResponse = new WorkflowMigrationResponse();
+    workflowMigrationResponse.setTranslatedFileFullGCSPath("Translated/source_public");
+    workflowMigrationResponse.setWorkflowName("TestWorkFlowName");
+    workflowMigrationResponse.setState(WorkflowMigrationResponse.COMPLETED);
+    CompletableFuture<WorkflowMigrationResponse> workflow = new CompletableFuture<>();
+    when(workflowMigrationService.createMigrationWorkflows(
+            any(TranslateDDLDataDTO.class), anyCollection()))
+        .thenReturn(Collections.singletonMap("", workflow));
+    when(googleCloudStorageService.listFiles(anyString(), anyString()))
+        .thenReturn(Collections.singletonList("Translated/source_public/source_table.sql"));
+
+    AtomicBoolean translatedAtSubmit = new AtomicBoolean(true);
+    when(asyncServiceTestingClass.snowflakeUnloadAndLoadToBQLoad(
+            any(ApplicationConfigData.class), any(CompletableFuture.class)))
+        .thenAnswer(
+            invocation -> {
+              ApplicationConfigData applicationConfigData = invocation.getArgument(0);
+              CompletableFuture<?> translatedDDLReady = invocation.getArgument(1);
+              translatedAtSubmit.set(translatedDDLReady.isDone());
+              // Translation finishes while the table is being unloaded
+              workflow.complete(workflowMigrationResponse);
+              return translatedDDLReady.thenApply(
+                  ready -> new OperationResult<>(applicationConfigData));
+            });
+
+    snowflakeMigrateDataService.migrateData(sfDataMigrationRequestDTO);
+
+    Assert.assertFalse(translatedAtSubmit.get());
+    ArgumentCaptor<ApplicationConfigData> captor =
+        ArgumentCaptor.forClass(ApplicationConfigData.class);
+    verify(asyncServiceTestingClass)
+        .snowflakeUnloadAndLoadToBQLoad(captor.capture(), any(CompletableFuture.class));
+    Assert.assertEquals(
+        "Translated/source_public/source_table.sql", captor.getValue().getTranslatedDDLGCSPath());
+    Assert.assertTrue(captor.getValue().isRowProcessingDone());
+  }
+
+  /**
+   * Only the table whose translation failed in a completed workflow is translated again by a
+   * follow-up workflow, the other table of the chunk uses the translation of the first workflow.
+   */
+  @Test
+  public void testMigrateDataRetriesFailedTranslations() {
+    SFDataMigrationRequestDTO sfDataMigrationRequestDTO = new SFDataMigrationRequestDTO();
+    sfDataMigrationRequestDTO.setSchema(true);
+    sfDataMigrationRequestDTO.setSourceSchemaName("source_public");
+    sfDataMigrationRequestDTO.setSourceDatabaseName("source_database");
+    sfDataMigrationRequestDTO.setGcsBucketForDDLs("testing");
+    sfDataMigrationRequestDTO.setGcsBucketForTranslation("translation");
+    sfDataMigrationRequestDTO.setTargetSchemaName("target_schema");
+    sfDataMigrationRequestDTO.setTargetDatabaseName("target_database");
+
+    Map<String, String> tableMaps = new HashMap<>();
+    tableMaps.put("source_table", "create or replace TABLE source_table ( DATECOL DATE)");
+    tableMaps.put("failed_table", "create or replace TABLE failed_table ( DATECOL DATE)");
+    when(schemaExtractorService.getDDLs(any(DDLDataDTO.class))).thenReturn(tableMaps);
+    List<GCSDetailsDataDTO> gcsDetailsDataDTOS = new ArrayList<>();
+    for (String tableName : tableMaps.keySet()) {
+      GCSDetailsDataDTO gcsDetailsDataDTO =
+          MigrateRequestMapper.getGCSDetailsDataDTOFromSFDataMigrationRequestDTO(
+              sfDataMigrationRequestDTO);
+      gcsDetailsDataDTO.setSourceTableName(tableName);
+      gcsDetailsDataDTOS.add(gcsDetailsDataDTO);
+    }
+    when(googleCloudStorageService.writeToGCS(any(Map.class), any(GCSDetailsDataDTO.class)))
+        .thenReturn(gcsDetailsDataDTOS);
+    when(applicationConfigDataService.saveAllApplicationConfigDataServices(any(List.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    WorkflowMigrationResponse workflowMigrationResponse = new WorkflowMigrationResponse();
+    workflowMigrationResponse.setTranslatedFileFullGCSPath("Translated/source_public");
+    workflowMigrationResponse.setWorkflowName("TestWorkFlowName");
+    workflowMigrationResponse.setState(WorkflowMigrationResponse.COMPLETED);
+    WorkflowMigrationResponse retryWorkflowMigrationResponse = new WorkflowMigrationResponse();
+    retryWorkflowMigrationResponse.setTranslatedFileFullGCSPath("Translated/source_public/retry_1");
+    retryWorkflowMigrationResponse.setWorkflowName("RetryWorkFlowName");
+    retryWorkflowMigrationResponse.setState(WorkflowMigrationResponse.COMPLETED);
+    when(workflowMigrationService.createMigrationWorkflows(
+            any(TranslateDDLDataDTO.class), anyCollection()))
+        .thenReturn(
+            Collections.singletonMap(
+                "", CompletableFuture.completedFuture(workflowMigrationResponse)),
+            Collections.singletonMap(
+                "retry_1", CompletableFuture.completedFuture(retryWorkflowMigrationResponse)));
+    // First workflow reports an error for failed_table and does not write its translation
+    when(googleCloudStorageService.listFiles("translation", "Translated/source_public"))
+        .thenReturn(
+            List.of(
+                "Translated/source_public/source_table.sql",
+                "Translated/source_public/batch_translation_report.csv"));
+    when(googleCloudStorageService.getContentFromGCSFile(
+            "translation", "Translated/source_public/batch_translation_report.csv"))
+        .thenReturn(
+            "Severity,Category,File Path,Message\n"
+                + "ERROR,InternalError,failed_table.sql,Translation timed out\n");
+    when(googleCloudStorageService.listFiles("translation", "Translated/source_public/retry_1"))
+        .thenReturn(List.of("Translated/source_public/retry_1/failed_table.sql"));
+    when(asyncServiceTestingClass.snowflakeUnloadAndLoadToBQLoad(
+            any(ApplicationConfigData.class), any(CompletableFuture.class)))
+        .thenAnswer(
+            invocation -> {
+              ApplicationConfigData applicationConfigData = invocation.getArgument(0);
+              CompletableFuture<?> translatedDDLReady = invocation.getArgument(1);
+              return translatedDDLReady.thenApply(
+                  ready -> new OperationResult<>(applicationConfigData));
+            });
+
+    snowflakeMigrateDataService.migrateData(sfDataMigrationRequestDTO);
+
+    verify(googleCloudStorageService)
+        .copyFile(
+            "testing",
+            "snowflake-ddls/source_database/source_public/failed_table.sql",
+            "snowflake-ddls/source_database/source_public/retry_1/failed_table.sql");
+    verify(workflowMigrationService)
+        .createMigrationWorkflows(
+            any(TranslateDDLDataDTO.class), eq(Collections.singletonList("retry_1")));
+    ArgumentCaptor<ApplicationConfigData> captor =
+        ArgumentCaptor.forClass(ApplicationConfigData.class);
+    verify(asyncServiceTestingClass, times(2))
+        .snowflakeUnloadAndLoadToBQLoad(captor.capture(), any(CompletableFuture.class));
+    for (ApplicationConfigData applicationConfigData : captor.getAllValues()) {
+      Assert.assertTrue(applicationConfigData.isRowProcessingDone());
+      Assert.assertNull(applicationConfigData.getTranslationError());
+      if ("failed_table".equals(applicationConfigData.getSourceTableName())) {
+        Assert.assertEquals("RetryWorkFlowName", applicationConfigData.getWorkflowName());
+        Assert.assertEquals(
+            "Translated/source_public/retry_1/failed_table.sql",
+            applicationConfigData.getTranslatedDDLGCSPath());
+      } else {
+        Assert.assertEquals("TestWorkFlowName", applicationConfigData.getWorkflowName());
+        Assert.assertEquals(
+            "Translated/source_public/source_table.sql",
+            applicationConfigData.getTranslatedDDLGCSPath());
+      }
+    }
+  }
+
+  @Test
+  public void testGetApplicationConfigDataByIdsKeepsRequestOrder() {
+    // Status of the second table is held in memory, the others are read from the table
+    migrationStatusReadModel.update(getApplicationConfigData(9002L));
+    when(applicationConfigDataService.findByIds(Arrays.asList(9001L, 9003L)))
+        .thenReturn(
+            Arrays.asList(getApplicationConfigData(9003L), getApplicationConfigData(9001L)));
+
+    List<SFDataMigrationResponse> response =
+        snowflakeMigrateDataService.getApplicationConfigDataByIds(
+            Arrays.asList(9001L, 9002L, 9003L));
+
+    Assert.assertEquals(3, response.size());
+    Assert.assertEquals(Long.valueOf(9001L), response.get(0).getRequestId());
+    Assert.assertEquals(Long.valueOf(9002L), response.get(1).getRequestId());
+    Assert.assertEquals(Long.valueOf(9003L), response.get(2).getRequestId());
+  }
+
+  private static ApplicationConfigData getApplicationConfigData(Long id) {
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setId(id);
+    applicationConfigData.setSourceTableName("source_table_" + id);
+    return applicationConfigData;
+  }
 }
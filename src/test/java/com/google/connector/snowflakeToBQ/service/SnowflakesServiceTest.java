@@ -16,7 +16,11 @@
 
 package com.google.connector.snowflakeToBQ.service;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
@@ -25,6 +29,12 @@ import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
 import com.google.connector.snowflakeToBQ.model.datadto.SnowflakeUnloadToGCSDataDTO;
 import com.google.connector.snowflakeToBQ.model.response.SnowflakeResponse;
 import com.google.connector.snowflakeToBQ.util.ErrorCode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.junit.Assert;
 import org.junit.Before;
@@ -44,6 +54,8 @@ public class SnowflakesServiceTest extends AbstractTestBase {
 
   @MockBean SnowflakeConfigLoader snowflakeConfigLoader;
 
+  @MockBean UnloadFileSizePlanner unloadFileSizePlanner;
+
   @Value("${gcs.storage.integration}")
   String gcsStorageIntegration;
 
@@ -60,7 +72,11 @@ public class SnowflakesServiceTest extends AbstractTestBase {
 
   @Before
   public void setup() {
-    snowflakesService = new SnowflakesService(restAPIExecutionService, snowflakeConfigLoader);
+    snowflakesService =
+        new SnowflakesService(
+            restAPIExecutionService, snowflakeConfigLoader, unloadFileSizePlanner);
+    // Snowflake default file size, the planner has its own tests
+    when(unloadFileSizePlanner.planUnloadOptions(any())).thenReturn("");
     snowflakesService.setGcsStorageIntegration(gcsStorageIntegration);
   }
 
@@ -239,4 +255,45 @@ public class SnowflakesServiceTest extends AbstractTestBase {
       Assert.assertEquals(ErrorCode.SNOWFLAKE_REST_API_POLL_ERROR.getErrorCode(), e.getErrorCode());
     }
   }
+
+  @Test()
+  public void testGetUnloadedRowCountFromMultiStatementResult() {
+    Map<String, Object> parentResult = new HashMap<>();
+    parentResult.put(
+        "statementHandles", Arrays.asList("handle-use", "handle-copy", "handle-commit"));
+    when(restAPIExecutionService.getStatementResult(anyString(), eq("parent-handle")))
+        .thenReturn(parentResult);
+    when(restAPIExecutionService.getStatementResult(anyString(), eq("handle-commit")))
+        .thenReturn(statementResult("status", Collections.singletonList("Statement executed.")));
+    when(restAPIExecutionService.getStatementResult(anyString(), eq("handle-copy")))
+        .thenReturn(statementResult("rows_unloaded", Arrays.asList("1200", "34")));
+
+    Assert.assertEquals(
+        Long.valueOf(1234), snowflakesService.getUnloadedRowCount("parent-handle"));
+    verify(restAPIExecutionService, never()).getStatementResult(anyString(), eq("handle-use"));
+  }
+
+  @Test()
+  public void testGetUnloadedRowCountNotFound() {
+    when(restAPIExecutionService.getStatementResult(anyString(), anyString()))
+        .thenThrow(new RuntimeException("Result expired"));
+
+    Assert.assertNull(snowflakesService.getUnloadedRowCount("parent-handle"));
+    Assert.assertNull(snowflakesService.getUnloadedRowCount(null));
+  }
+
+  /* Builds the result of a statement with a single column and a row per value. */
+  private static Map<String, Object> statementResult(String columnName, List<String> values) {
+    Map<String, Object> resultSetMetaData = new HashMap<>();
+    resultSetMetaData.put(
+        "rowType", Collections.singletonList(Collections.singletonMap("name", columnName)));
+    List<List<String>> data = new ArrayList<>();
+    for (String value : values) {
+      data.add(Collections.singletonList(value));
+    }
+    Map<String, Object> result = new HashMap<>();
+    result.put("resultSetMetaData", resultSetMetaData);
+    result.put("data", data);
+    return result;
+  }
 }
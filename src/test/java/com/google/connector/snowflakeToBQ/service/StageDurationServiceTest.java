@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import com.google.connector.snowflakeToBQ.model.response.CriticalPathStepResponse;
+import com.google.connector.snowflakeToBQ.model.response.RunStageDurationsResponse;
+import com.google.connector.snowflakeToBQ.model.response.StageDurationResponse;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class StageDurationServiceTest extends AbstractTestBase {
+
+  private static final Instant RUN_STARTED_AT = Instant.parse("2024-06-01T10:00:00Z");
+
+  @Autowired StageDurationService stageDurationService;
+
+  @Autowired ApplicationConfigDataService applicationConfigDataService;
+
+  @Test
+  public void testGetStageDurations() {
+    // Unload of table_a is slow but table_b finishes last, its load waits for the table creation
+    applicationConfigDataService.saveApplicationConfigDataService(
+        getApplicationConfigData("table_a", 0, 10, 10, 12, 0, 30, 30, 40));
+    applicationConfigDataService.saveApplicationConfigDataService(
+        getApplicationConfigData("table_b", 0, 10, 10, 20, 0, 5, 25, 45));
+
+    RunStageDurationsResponse response =
+        stageDurationService.getStageDurations("stage-duration-request");
+
+    Assert.assertEquals(2, response.getTableCount());
+    Assert.assertEquals(RUN_STARTED_AT, response.getRunStartedAt());
+    Assert.assertEquals(Long.valueOf(45000), response.getRunDurationMs());
+    StageDurationResponse loadDuration = response.getStages().get(3);
+    Assert.assertEquals("LOAD", loadDuration.getStage());
+    Assert.assertEquals(10000, loadDuration.getP50Ms());
+    Assert.assertEquals(20000, loadDuration.getP95Ms());
+
+    List<CriticalPathStepResponse> criticalPath = response.getCriticalPath();
+    Assert.assertEquals(3, criticalPath.size());
+    Assert.assertEquals("TRANSLATION", criticalPath.get(0).getStage());
+    Assert.assertEquals("TABLE_CREATION", criticalPath.get(1).getStage());
+    Assert.assertEquals("LOAD", criticalPath.get(2).getStage());
+    Assert.assertEquals("table_b", criticalPath.get(2).getSourceTableName());
+    Assert.assertEquals(20000, criticalPath.get(2).getDurationMs());
+    Assert.assertEquals(5000, criticalPath.get(2).getWaitMs());
+  }
+
+  @Test
+  public void testGetStageDurationsWithoutTimedStages() {
+    RunStageDurationsResponse response =
+        stageDurationService.getStageDurations("request-without-rows");
+    Assert.assertEquals(0, response.getTableCount());
+    Assert.assertNull(response.getRunDurationMs());
+    Assert.assertTrue(response.getCriticalPath().isEmpty());
+    Assert.assertEquals(0, response.getStages().get(0).getP95Ms());
+  }
+
+  @Test
+  public void testPercentile() {
+    List<Long> sortedDurations = Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+    Assert.assertEquals(5, StageDurationService.percentile(sortedDurations, 50));
+    Assert.assertEquals(10, StageDurationService.percentile(sortedDurations, 95));
+    Assert.assertEquals(1, StageDurationService.percentile(sortedDurations, 0));
+  }
+
+  /* Row with the stages timed in seconds after the start of the run. */
+  private static ApplicationConfigData getApplicationConfigData(
+      String tableName, long... stageSeconds) {
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setSourceTableName(tableName);
+    applicationConfigData.setRequestLogId("stage-duration-request");
+    applicationConfigData.setTranslationStartedAt(RUN_STARTED_AT.plusSeconds(stageSeconds[0]));
+    applicationConfigData.setTranslationEndedAt(RUN_STARTED_AT.plusSeconds(stageSeconds[1]));
+    applicationConfigData.setTableCreationStartedAt(RUN_STARTED_AT.plusSeconds(stageSeconds[2]));
+    applicationConfigData.setTableCreationEndedAt(RUN_STARTED_AT.plusSeconds(stageSeconds[3]));
+    applicationConfigData.setUnloadStartedAt(RUN_STARTED_AT.plusSeconds(stageSeconds[4]));
+    applicationConfigData.setUnloadEndedAt(RUN_STARTED_AT.plusSeconds(stageSeconds[5]));
+    applicationConfigData.setLoadStartedAt(RUN_STARTED_AT.plusSeconds(stageSeconds[6]));
+    applicationConfigData.setLoadEndedAt(RUN_STARTED_AT.plusSeconds(stageSeconds[7]));
+    return applicationConfigData;
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
+import java.util.Arrays;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+public class TranslatedDDLCacheServiceTest extends AbstractTestBase {
+
+  @Autowired TranslatedDDLCacheService translatedDDLCacheService;
+
+  @MockBean GoogleCloudStorageService googleCloudStorageService;
+
+  @Test
+  public void testPrefetchServesDDLFromMemory() {
+    when(googleCloudStorageService.getContentFromGCSFile(
+            "bucket", "translated/db/schema/table1.sql"))
+        .thenReturn("CREATE TABLE table1(id INT64);");
+    when(googleCloudStorageService.getContentFromGCSFile(
+            "bucket", "translated/db/schema/table2.sql"))
+        .thenReturn("CREATE TABLE table2(id INT64);");
+
+    int prefetchCount =
+        translatedDDLCacheService.prefetch(
+            "bucket",
+            Arrays.asList("translated/db/schema/table1.sql", "translated/db/schema/table2.sql"));
+    Assert.assertEquals(2, prefetchCount);
+
+    Assert.assertEquals(
+        "CREATE TABLE table1(id INT64);",
+        translatedDDLCacheService.getTranslatedDDL("bucket", "translated/db/schema/table1.sql"));
+    Assert.assertEquals(
+        "CREATE TABLE table1(id INT64);",
+        translatedDDLCacheService.getTranslatedDDL("bucket", "translated/db/schema/table1.sql"));
+    // Second read is served from memory, GCS is read only once during prefetch
+    verify(googleCloudStorageService, times(1))
+        .getContentFromGCSFile("bucket", "translated/db/schema/table1.sql");
+    // Folder is never listed, files of the tables outside the request are not downloaded
+    verify(googleCloudStorageService, never()).listFiles(anyString(), anyString());
+    translatedDDLCacheService.evict("bucket", "translated/db/schema/table1.sql");
+    translatedDDLCacheService.evict("bucket", "translated/db/schema/table2.sql");
+  }
+
+  @Test
+  public void testGetTranslatedDDLFallsBackToGCS() {
+    when(googleCloudStorageService.getContentFromGCSFile("bucket", "translated/table3.sql"))
+        .thenReturn("CREATE TABLE table3(id INT64);");
+
+    Assert.assertEquals(
+        "CREATE TABLE table3(id INT64);",
+        translatedDDLCacheService.getTranslatedDDL("bucket", "translated/table3.sql"));
+    verify(googleCloudStorageService, times(1))
+        .getContentFromGCSFile("bucket", "translated/table3.sql");
+  }
+
+  @Test
+  public void testDDLBeyondCacheLimitIsReadAgainFromGCS() {
+    // Max cache size in test properties is 1000 bytes
+    String largeDDL = StringUtils.repeat("a", 2000);
+    when(googleCloudStorageService.getContentFromGCSFile("bucket", "translated/large/table4.sql"))
+        .thenReturn(largeDDL);
+
+    translatedDDLCacheService.prefetch("bucket", Arrays.asList("translated/large/table4.sql"));
+    // Wait for the prefetch to finish and verify that it is not kept in memory
+    verify(googleCloudStorageService, timeout(5000).times(1))
+        .getContentFromGCSFile("bucket", "translated/large/table4.sql");
+    Assert.assertEquals(
+        largeDDL,
+        translatedDDLCacheService.getTranslatedDDL("bucket", "translated/large/table4.sql"));
+  }
+
+  @Test
+  public void testPrefetchCompletedOnCallingThread() {
+    // Executor runs the download inline so it is complete before the callback gets attached, no
+    // cache limit is set so the entry is removed again right away.
+    ThreadPoolTaskExecutor inlineExecutor =
+        new ThreadPoolTaskExecutor() {
+          @Override
+          public void execute(Runnable task) {
+            task.run();
+          }
+        };
+    TranslatedDDLCacheService inlineCacheService =
+        new TranslatedDDLCacheService(googleCloudStorageService, inlineExecutor, null);
+    when(googleCloudStorageService.getContentFromGCSFile("bucket", "translated/inline/table5.sql"))
+        .thenReturn("CREATE TABLE table5(id INT64);");
+
+    Assert.assertEquals(
+        1, inlineCacheService.prefetch("bucket", Arrays.asList("translated/inline/table5.sql")));
+    Assert.assertEquals(
+        "CREATE TABLE table5(id INT64);",
+        inlineCacheService.getTranslatedDDL("bucket", "translated/inline/table5.sql"));
+    verify(googleCloudStorageService, times(2))
+        .getContentFromGCSFile("bucket", "translated/inline/table5.sql");
+  }
+}
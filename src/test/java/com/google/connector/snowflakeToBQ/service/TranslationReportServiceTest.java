@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.connector.snowflakeToBQ.service;
+
+import static org.mockito.Mockito.*;
+
+import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
+import com.google.connector.snowflakeToBQ.model.datadto.TranslationReportDataDTO;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+public class TranslationReportServiceTest extends AbstractTestBase {
+
+  @Autowired TranslationReportService translationReportService;
+
+  @MockBean GoogleCloudStorageService googleCloudStorageService;
+
+  @Test
+  public void testGetTranslationReportFindsFailedTables() {
+    when(googleCloudStorageService.listFiles("bucket", "translated/db/schema"))
+        .thenReturn(
+            Arrays.asList(
+                "translated/db/schema/TABLE1.sql",
+                "translated/db/schema/TABLE2.sql",
+                "translated/db/schema/batch_translation_report.csv",
+                "translated/db/schema/retry_1/TABLE3.sql"));
+    when(googleCloudStorageService.getContentFromGCSFile(
+            "bucket", "translated/db/schema/batch_translation_report.csv"))
+        .thenReturn(
+            "Timestamp,Category,Severity,File Path,Message\n"
+                + "2024-05-01,SyntaxError,ERROR,gs://bucket/ddls/TABLE2.sql,"
+                + "\"Unexpected \"\"(\"\", line 2\"\n"
+                + "2024-05-01,RelationNotFound,WARNING,gs://bucket/ddls/TABLE1.sql,"
+                + "Unknown table\n");
+
+    TranslationReportDataDTO translationReportDataDTO =
+        translationReportService.getTranslationReport(
+            "bucket", "translated/db/schema", Arrays.asList("TABLE1", "TABLE2", "TABLE3"));
+
+    Assert.assertFalse(translationReportDataDTO.isFailed("TABLE1"));
+    Assert.assertTrue(translationReportDataDTO.isFailed("TABLE2"));
+    Assert.assertEquals(
+        "SyntaxError: Unexpected \"(\", line 2",
+        translationReportDataDTO.getTranslationErrors().get("TABLE2"));
+    Assert.assertTrue(translationReportDataDTO.getTranslatedTables().contains("TABLE2"));
+    // File of the retry sub folder does not belong to this workflow
+    Assert.assertEquals(
+        TranslationReportService.MISSING_TRANSLATION_ERROR,
+        translationReportDataDTO.getTranslationErrors().get("TABLE3"));
+    Assert.assertFalse(translationReportDataDTO.getTranslatedTables().contains("TABLE3"));
+  }
+
+  @Test
+  public void testParseReportErrorsWithoutRequiredColumns() {
+    Map<String, List<String>> reportedErrors =
+        TranslationReportService.parseReportErrors("Category,Message\nSyntaxError,Unexpected\n");
+    Assert.assertTrue(reportedErrors.isEmpty());
+    Assert.assertTrue(TranslationReportService.parseReportErrors("").isEmpty());
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
+import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
+import com.google.connector.snowflakeToBQ.model.datadto.SnowflakeUnloadToGCSDataDTO;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+public class UnloadFileSizePlannerTest extends AbstractTestBase {
+
+  @Autowired UnloadFileSizePlanner unloadFileSizePlanner;
+
+  @MockBean SnowflakeQueryExecutor snowflakeQueryExecutor;
+
+  @Before
+  public void setUp() {
+    // Disabled in test properties so that other tests do not query Snowflake
+    unloadFileSizePlanner.setFileSizingEnabled(true);
+  }
+
+  @After
+  public void tearDown() {
+    unloadFileSizePlanner.setFileSizingEnabled(false);
+  }
+
+  @Test
+  public void testGetMaxFileSize() {
+    // Test properties: target file count 10, single file max 1000, min 200 and max 5000 bytes
+    Assert.assertTrue(unloadFileSizePlanner.isSingleFile(1000));
+    Assert.assertFalse(unloadFileSizePlanner.isSingleFile(1001));
+    // Single file gets the max size so that Snowflake does not split it
+    Assert.assertEquals(5000, unloadFileSizePlanner.getMaxFileSize(500));
+    // Not smaller than min file size
+    Assert.assertEquals(200, unloadFileSizePlanner.getMaxFileSize(1001));
+    // Table size / target file count, rounded up
+    Assert.assertEquals(2001, unloadFileSizePlanner.getMaxFileSize(20001));
+    // Not bigger than max file size
+    Assert.assertEquals(5000, unloadFileSizePlanner.getMaxFileSize(1000000));
+  }
+
+  @Test
+  public void testPlanUnloadOptions() {
+    when(snowflakeQueryExecutor.getTableSizeInBytes("db", "schema", "table1")).thenReturn(20001L);
+    SnowflakeUnloadToGCSDataDTO snowflakeUnloadToGCSDataDTO = getUnloadDTO();
+
+    Assert.assertEquals(
+        "MAX_FILE_SIZE=2001 SINGLE=FALSE",
+        unloadFileSizePlanner.planUnloadOptions(snowflakeUnloadToGCSDataDTO));
+    Assert.assertEquals(Long.valueOf(20001), snowflakeUnloadToGCSDataDTO.getSourceTableBytes());
+    Assert.assertEquals(Long.valueOf(2001), snowflakeUnloadToGCSDataDTO.getUnloadMaxFileSize());
+    Assert.assertFalse(snowflakeUnloadToGCSDataDTO.getUnloadSingleFile());
+  }
+
+  @Test
+  public void testPlanUnloadOptionsSmallTable() {
+    when(snowflakeQueryExecutor.getTableSizeInBytes("db", "schema", "table1")).thenReturn(10L);
+    SnowflakeUnloadToGCSDataDTO snowflakeUnloadToGCSDataDTO = getUnloadDTO();
+
+    Assert.assertEquals(
+        "MAX_FILE_SIZE=5000 SINGLE=TRUE",
+        unloadFileSizePlanner.planUnloadOptions(snowflakeUnloadToGCSDataDTO));
+    Assert.assertTrue(snowflakeUnloadToGCSDataDTO.getUnloadSingleFile());
+  }
+
+  @Test
+  public void testPlanUnloadOptionsSizeNotAvailable() {
+    when(snowflakeQueryExecutor.getTableSizeInBytes(anyString(), anyString(), anyString()))
+        .thenThrow(new SnowflakeConnectorException("error", 0));
+    SnowflakeUnloadToGCSDataDTO snowflakeUnloadToGCSDataDTO = getUnloadDTO();
+
+    Assert.assertEquals("", unloadFileSizePlanner.planUnloadOptions(snowflakeUnloadToGCSDataDTO));
+    Assert.assertNull(snowflakeUnloadToGCSDataDTO.getUnloadMaxFileSize());
+  }
+
+  private SnowflakeUnloadToGCSDataDTO getUnloadDTO() {
+    SnowflakeUnloadToGCSDataDTO snowflakeUnloadToGCSDataDTO = new SnowflakeUnloadToGCSDataDTO();
+    snowflakeUnloadToGCSDataDTO.setDatabaseName("db");
+    snowflakeUnloadToGCSDataDTO.setSchemaName("schema");
+    snowflakeUnloadToGCSDataDTO.setTableName("table1");
+    return snowflakeUnloadToGCSDataDTO;
+  }
+}
@@ -20,17 +20,28 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 import com.google.cloud.bigquery.migration.v2.CreateMigrationWorkflowRequest;
+import com.google.cloud.bigquery.migration.v2.Literal;
 import com.google.cloud.bigquery.migration.v2.MigrationServiceClient;
+import com.google.cloud.bigquery.migration.v2.MigrationTask;
+import com.google.cloud.bigquery.migration.v2.MigrationTaskResult;
 import com.google.cloud.bigquery.migration.v2.MigrationWorkflow;
+import com.google.cloud.bigquery.migration.v2.TranslationDetails;
+import com.google.cloud.bigquery.migration.v2.TranslationTaskResult;
 import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
 import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
 import com.google.connector.snowflakeToBQ.model.datadto.TranslateDDLDataDTO;
 import com.google.connector.snowflakeToBQ.model.response.WorkflowMigrationResponse;
 import com.google.connector.snowflakeToBQ.service.Instancecreator.MigrationServiceInstanceCreator;
 import com.google.connector.snowflakeToBQ.util.ErrorCode;
+import com.google.rpc.ErrorInfo;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
@@ -39,6 +50,8 @@ public class WorkflowMigrationServiceTest extends AbstractTestBase {
   @Autowired
   WorkflowMigrationService workflowMigrationService;
 
+  @Autowired MigrationWorkflowTracker migrationWorkflowTracker;
+
   @MockBean MigrationServiceInstanceCreator migrationServiceInstanceCreator;
 
   @Test
@@ -62,10 +75,14 @@ public class WorkflowMigrationServiceTest extends AbstractTestBase {
     when(migrationServiceClientMock.createMigrationWorkflow(
             any(CreateMigrationWorkflowRequest.class)))
         .thenReturn(response);
+    when(migrationServiceClientMock.getMigrationWorkflow("test_workflow_name_basic"))
+        .thenReturn(workflow(MigrationWorkflow.State.COMPLETED, MigrationTask.State.SUCCEEDED));
 
     WorkflowMigrationResponse workflowMigrationResponse =
-        workflowMigrationService.createMigrationWorkflow(translateDDLDataDTO);
+        workflowMigrationService.createMigrationWorkflow(translateDDLDataDTO).join();
     Assert.assertEquals(response.getName(), workflowMigrationResponse.getWorkflowName());
+    Assert.assertEquals(
+        "SUCCEEDED", workflowMigrationResponse.getTaskStates().get("translation-task"));
   }
 
   @Test
@@ -95,47 +112,222 @@ public class WorkflowMigrationServiceTest extends AbstractTestBase {
 
   @Test
   public void testIsMigrationWorkflowCompleted() {
+    MigrationServiceClient migrationServiceClientMock = mockClient("test_workflow_name_completed");
+    when(migrationServiceClientMock.getMigrationWorkflow("test_workflow_name_completed"))
+        .thenReturn(workflow(MigrationWorkflow.State.RUNNING, MigrationTask.State.RUNNING))
+        .thenReturn(workflow(MigrationWorkflow.State.COMPLETED, MigrationTask.State.SUCCEEDED));
 
-    MigrationWorkflow response =
-        MigrationWorkflow.newBuilder().setState(MigrationWorkflow.State.COMPLETED).build();
-    MigrationServiceClient migrationServiceClientMock = mock(MigrationServiceClient.class);
-
-    when(migrationServiceInstanceCreator.getMigrationServiceClient())
-        .thenReturn(migrationServiceClientMock);
-    when(migrationServiceClientMock.getMigrationWorkflow(anyString())).thenReturn(response);
-    boolean returnValue =
-        workflowMigrationService.isMigrationWorkflowCompleted("test_workflow_name_completed");
-    Assert.assertTrue(returnValue);
+    WorkflowMigrationResponse response =
+        WorkflowMigrationService.getCompletedWorkflow(
+            workflowMigrationService.createMigrationWorkflow(translateDDLDataDTO()));
+    Assert.assertTrue(response.isCompleted());
+    Assert.assertEquals(WorkflowMigrationResponse.COMPLETED, response.getState());
+    verify(migrationServiceClientMock, atLeast(2))
+        .getMigrationWorkflow("test_workflow_name_completed");
   }
 
   @Test
   public void testIsMigrationWorkflowPaused() {
+    MigrationServiceClient migrationServiceClientMock = mockClient("test_workflow_name_paused");
+    MigrationTask failedTask =
+        MigrationTask.newBuilder()
+            .setState(MigrationTask.State.FAILED)
+            .setProcessingError(ErrorInfo.newBuilder().setReason("INVALID_SOURCE_PATH").build())
+            .build();
+    when(migrationServiceClientMock.getMigrationWorkflow("test_workflow_name_paused"))
+        .thenReturn(
+            MigrationWorkflow.newBuilder()
+                .setState(MigrationWorkflow.State.PAUSED)
+                .putTasks("translation-task", failedTask)
+                .build());
 
-    MigrationWorkflow response =
-        MigrationWorkflow.newBuilder().setState(MigrationWorkflow.State.PAUSED).build();
-    MigrationServiceClient migrationServiceClientMock = mock(MigrationServiceClient.class);
+    CompletableFuture<WorkflowMigrationResponse> future =
+        workflowMigrationService.createMigrationWorkflow(translateDDLDataDTO());
+    Assert.assertFalse(future.join().isCompleted());
+    Assert.assertEquals(
+        "translation-task:INVALID_SOURCE_PATH", future.join().getTaskErrors().get(0));
+    try {
+      WorkflowMigrationService.getCompletedWorkflow(future);
+      Assert.fail();
+    } catch (SnowflakeConnectorException e) {
+      Assert.assertEquals(
+          ErrorCode.MIGRATION_WORKFLOW_EXECUTION_ERROR.getErrorCode(), e.getErrorCode());
+      Assert.assertTrue(e.getMessage().contains("translation-task=FAILED"));
+    }
+  }
+
+  @Test
+  public void testIsMigrationWorkflowWhileLoopFinishWithNoMatchingStateReturned() {
+    MigrationServiceClient migrationServiceClientMock =
+        mockClient("test_workflow_name_state_unspecified");
+    when(migrationServiceClientMock.getMigrationWorkflow(anyString()))
+        .thenReturn(
+            workflow(MigrationWorkflow.State.STATE_UNSPECIFIED, MigrationTask.State.RUNNING));
+    migrationWorkflowTracker.setTimeoutMs(50);
+    try {
+      WorkflowMigrationService.getCompletedWorkflow(
+          workflowMigrationService.createMigrationWorkflow(translateDDLDataDTO()));
+      Assert.fail();
+    } catch (SnowflakeConnectorException e) {
+      Assert.assertEquals(
+          ErrorCode.MIGRATION_WORKFLOW_EXECUTION_ERROR.getMessage()
+              + " Could not finish with in given time",
+          e.getMessage());
+    } finally {
+      // Value from test properties
+      migrationWorkflowTracker.setTimeoutMs(10000);
+    }
+  }
 
+  @Test
+  public void testWorkflowsAreTrackedConcurrently() {
+    MigrationServiceClient migrationServiceClientMock = mock(MigrationServiceClient.class);
     when(migrationServiceInstanceCreator.getMigrationServiceClient())
         .thenReturn(migrationServiceClientMock);
-    when(migrationServiceClientMock.getMigrationWorkflow(anyString())).thenReturn(response);
-    boolean returnValue =
-        workflowMigrationService.isMigrationWorkflowCompleted("test_workflow_name_paused");
-    Assert.assertFalse(returnValue);
+    when(migrationServiceClientMock.createMigrationWorkflow(
+            any(CreateMigrationWorkflowRequest.class)))
+        .thenReturn(MigrationWorkflow.newBuilder().setName("schema_1_workflow").build())
+        .thenReturn(MigrationWorkflow.newBuilder().setName("schema_2_workflow").build());
+    when(migrationServiceClientMock.getMigrationWorkflow("schema_1_workflow"))
+        .thenReturn(workflow(MigrationWorkflow.State.RUNNING, MigrationTask.State.RUNNING))
+        .thenReturn(workflow(MigrationWorkflow.State.RUNNING, MigrationTask.State.RUNNING))
+        .thenReturn(workflow(MigrationWorkflow.State.COMPLETED, MigrationTask.State.SUCCEEDED));
+    when(migrationServiceClientMock.getMigrationWorkflow("schema_2_workflow"))
+        .thenReturn(workflow(MigrationWorkflow.State.COMPLETED, MigrationTask.State.SUCCEEDED));
+
+    CompletableFuture<WorkflowMigrationResponse> first =
+        workflowMigrationService.createMigrationWorkflow(translateDDLDataDTO());
+    CompletableFuture<WorkflowMigrationResponse> second =
+        workflowMigrationService.createMigrationWorkflow(translateDDLDataDTO());
+
+    // Second workflow finishes first, it is not held up by the first one
+    Assert.assertTrue(second.join().isCompleted());
+    Assert.assertTrue(first.join().isCompleted());
+    Assert.assertEquals(0, migrationWorkflowTracker.getTrackedWorkflowCount());
   }
 
   @Test
-  public void testIsMigrationWorkflowWhileLoopFinishWithNoMatchingStateReturned() {
+  public void testCreateMigrationWorkflowsPerChunk() {
+    MigrationServiceClient migrationServiceClientMock = mockClient("chunk_0_workflow");
+    when(migrationServiceClientMock.createMigrationWorkflow(
+            any(CreateMigrationWorkflowRequest.class)))
+        .thenReturn(MigrationWorkflow.newBuilder().setName("chunk_0_workflow").build())
+        .thenReturn(MigrationWorkflow.newBuilder().setName("chunk_1_workflow").build());
+    when(migrationServiceClientMock.getMigrationWorkflow(anyString()))
+        .thenReturn(workflow(MigrationWorkflow.State.COMPLETED, MigrationTask.State.SUCCEEDED));
 
-    MigrationWorkflow response =
-        MigrationWorkflow.newBuilder().setState(MigrationWorkflow.State.STATE_UNSPECIFIED).build();
-    MigrationServiceClient migrationServiceClientMock = mock(MigrationServiceClient.class);
+    Map<String, CompletableFuture<WorkflowMigrationResponse>> workflows =
+        workflowMigrationService.createMigrationWorkflows(
+            translateDDLDataDTO(), Arrays.asList("chunk_0", "chunk_1"));
+
+    Assert.assertEquals(Arrays.asList("chunk_0", "chunk_1"), new ArrayList<>(workflows.keySet()));
+    Assert.assertTrue(
+        workflows.get("chunk_1").join().getTranslatedFileFullGCSPath().endsWith("/chunk_1"));
+    ArgumentCaptor<CreateMigrationWorkflowRequest> requestCaptor =
+        ArgumentCaptor.forClass(CreateMigrationWorkflowRequest.class);
+    verify(migrationServiceClientMock, times(2)).createMigrationWorkflow(requestCaptor.capture());
+    Assert.assertEquals(
+        "gs://gs://translation/snowflake-ddls/source_database/source_public/chunk_0",
+        requestCaptor
+            .getAllValues()
+            .get(0)
+            .getMigrationWorkflow()
+            .getTasksOrThrow("translation-task")
+            .getTranslationConfigDetails()
+            .getGcsSourcePath());
+    // Each workflow writes in its own output folder, which is the folder of its response
+    String outputFolder = workflows.get("chunk_0").join().getTranslatedFileFullGCSPath();
+    Assert.assertEquals(
+        "gs://gs://translation/" + outputFolder,
+        requestCaptor
+            .getAllValues()
+            .get(0)
+            .getMigrationWorkflow()
+            .getTasksOrThrow("translation-task")
+            .getTranslationConfigDetails()
+            .getGcsTargetPath());
+    String otherOutputFolder = workflows.get("chunk_1").join().getTranslatedFileFullGCSPath();
+    Assert.assertNotEquals(
+        outputFolder.substring(0, outputFolder.lastIndexOf('/')),
+        otherOutputFolder.substring(0, otherOutputFolder.lastIndexOf('/')));
+  }
+
+  @Test
+  public void testTranslateDDLInteractively() {
+    MigrationServiceClient migrationServiceClientMock = mockClient("interactive_workflow");
+    String translatedDDL = "CREATE TABLE source_database.source_public.ORDERS\n(\n  ID INT64\n);";
+    when(migrationServiceClientMock.getMigrationWorkflow("interactive_workflow"))
+        .thenReturn(
+            MigrationWorkflow.newBuilder()
+                .setState(MigrationWorkflow.State.COMPLETED)
+                .putTasks(
+                    "translation-task",
+                    MigrationTask.newBuilder()
+                        .setState(MigrationTask.State.SUCCEEDED)
+                        .setTaskResult(
+                            MigrationTaskResult.newBuilder()
+                                .setTranslationTaskResult(
+                                    TranslationTaskResult.newBuilder()
+                                        .addTranslatedLiterals(
+                                            Literal.newBuilder()
+                                                .setRelativePath("ORDERS.sql")
+                                                .setLiteralString(translatedDDL))))
+                        .build())
+                .build());
+
+    WorkflowMigrationResponse response =
+        WorkflowMigrationService.getCompletedWorkflow(
+            workflowMigrationService.translateDDL(
+                translateDDLDataDTO(), "ORDERS", "create or replace TABLE ORDERS (ID INT);"));
+    Assert.assertEquals("interactive_workflow", response.getWorkflowName());
+    Assert.assertEquals(translatedDDL, response.getTranslatedDDL());
+
+    ArgumentCaptor<CreateMigrationWorkflowRequest> requestCaptor =
+        ArgumentCaptor.forClass(CreateMigrationWorkflowRequest.class);
+    verify(migrationServiceClientMock).createMigrationWorkflow(requestCaptor.capture());
+    TranslationDetails translationDetails =
+        requestCaptor
+            .getValue()
+            .getMigrationWorkflow()
+            .getTasksOrThrow("translation-task")
+            .getTranslationDetails();
+    // DDL is sent inline and its translation is returned, nothing is read from or written to GCS
+    Assert.assertEquals(
+        "create or replace TABLE ORDERS (ID INT);",
+        translationDetails
+            .getSourceTargetMapping(0)
+            .getSourceSpec()
+            .getLiteral()
+            .getLiteralString());
+    Assert.assertEquals("ORDERS.sql", translationDetails.getTargetReturnLiterals(0));
+    Assert.assertTrue(translationDetails.getTargetBaseUri().isEmpty());
+  }
 
+  private MigrationServiceClient mockClient(String workflowName) {
+    MigrationServiceClient migrationServiceClientMock = mock(MigrationServiceClient.class);
     when(migrationServiceInstanceCreator.getMigrationServiceClient())
         .thenReturn(migrationServiceClientMock);
-    when(migrationServiceClientMock.getMigrationWorkflow(anyString())).thenReturn(response);
-    boolean returnValue =
-        workflowMigrationService.isMigrationWorkflowCompleted(
-            "test_workflow_name_state_unspecified");
-    Assert.assertFalse(returnValue);
+    when(migrationServiceClientMock.createMigrationWorkflow(
+            any(CreateMigrationWorkflowRequest.class)))
+        .thenReturn(MigrationWorkflow.newBuilder().setName(workflowName).build());
+    return migrationServiceClientMock;
+  }
+
+  private MigrationWorkflow workflow(MigrationWorkflow.State state, MigrationTask.State taskState) {
+    return MigrationWorkflow.newBuilder()
+        .setState(state)
+        .putTasks("translation-task", MigrationTask.newBuilder().setState(taskState).build())
+        .build();
+  }
+
+  private TranslateDDLDataDTO translateDDLDataDTO() {
+    TranslateDDLDataDTO translateDDLDataDTO = new TranslateDDLDataDTO();
+    translateDDLDataDTO.setSourceSchemaName("source_public");
+    translateDDLDataDTO.setSourceDatabaseName("source_database");
+    translateDDLDataDTO.setTranslationJobLocation("us");
+    translateDDLDataDTO.setGcsBucketForTranslation("gs://translation");
+    translateDDLDataDTO.setTargetSchemaName("target_schema");
+    translateDDLDataDTO.setTargetDatabaseName("target_database");
+    return translateDDLDataDTO;
   }
 }
@@ -16,9 +16,14 @@
 
 package com.google.connector.snowflakeToBQ.service.async;
 
+import static com.google.connector.snowflakeToBQ.util.ErrorCode.BQ_QUERY_JOB_EXECUTION_ERROR;
 import static com.google.connector.snowflakeToBQ.util.ErrorCode.TABLE_ALREADY_EXISTS;
+import static com.google.connector.snowflakeToBQ.util.ErrorCode.UNLOAD_FORMAT_NOT_SUPPORTED;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
@@ -26,10 +31,12 @@ import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
 import com.google.connector.snowflakeToBQ.model.OperationResult;
 import com.google.connector.snowflakeToBQ.model.datadto.BigQueryDetailsDataDTO;
 import com.google.connector.snowflakeToBQ.model.datadto.SnowflakeUnloadToGCSDataDTO;
+import com.google.connector.snowflakeToBQ.model.datadto.StagingInventoryDataDTO;
 import com.google.connector.snowflakeToBQ.repository.ApplicationConfigDataRepository;
 import com.google.connector.snowflakeToBQ.service.BigQueryOperationsService;
 import com.google.connector.snowflakeToBQ.service.GoogleCloudStorageService;
 import com.google.connector.snowflakeToBQ.service.SnowflakesService;
+import com.google.connector.snowflakeToBQ.util.RowCountVerificationStatus;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import org.junit.Assert;
@@ -49,6 +56,8 @@ public class SnowflakeToBQAsyncServiceTest extends AbstractTestBase {
 
   @MockBean GoogleCloudStorageService googleCloudStorageService;
 
+  @MockBean StagingCleanupAsyncService stagingCleanupAsyncService;
+
   @Before
   public void setUp() {
     applicationConfigDataRepository.deleteAll();
@@ -59,10 +68,11 @@ public class SnowflakeToBQAsyncServiceTest extends AbstractTestBase {
 
   @Test
   public void testSnowflakeUnloadToBQLoad() throws ExecutionException, InterruptedException {
-    when(bigQueryOperationsService.createTableUsingDDL(any(String.class), any(String.class)))
-        .thenReturn(true);
-    when(bigQueryOperationsService.loadBigQueryJob(any(BigQueryDetailsDataDTO.class)))
+    when(bigQueryOperationsService.createTableUsingDDL(
+            any(String.class), any(String.class), any(BigQueryDetailsDataDTO.class)))
         .thenReturn(true);
+    when(bigQueryOperationsService.loadBigQueryJobAsync(any(BigQueryDetailsDataDTO.class)))
+        .thenReturn(CompletableFuture.completedFuture(true));
     when(snowflakesService.executeUnloadDataCommand(any(SnowflakeUnloadToGCSDataDTO.class)))
         .thenReturn("1234-abdc-fghi-handle");
     when(googleCloudStorageService.getContentFromGCSFile(any(String.class), any(String.class)))
@@ -86,7 +96,8 @@ public class SnowflakeToBQAsyncServiceTest extends AbstractTestBase {
   public void testSnowflakeUnloadToBQLoadTableExists()
       throws ExecutionException, InterruptedException {
     // Return false to reproduce the scenario of table already exists
-    when(bigQueryOperationsService.createTableUsingDDL(any(String.class), any(String.class)))
+    when(bigQueryOperationsService.createTableUsingDDL(
+            any(String.class), any(String.class), any(BigQueryDetailsDataDTO.class)))
         .thenReturn(false);
     when(googleCloudStorageService.getContentFromGCSFile(any(String.class), any(String.class)))
         .thenReturn(CREATE_TABLE);
@@ -110,13 +121,16 @@ public class SnowflakeToBQAsyncServiceTest extends AbstractTestBase {
             TABLE_ALREADY_EXISTS.getErrorCode()),
         returnedResult.get().getErrorMessage());
     Assert.assertNull(returnedResult.get().getResult());
+    // Existing table is found before Snowflake unloads its data
+    verify(snowflakesService, never())
+        .executeUnloadDataCommand(any(SnowflakeUnloadToGCSDataDTO.class));
   }
 
   @Test
   public void testSnowflakeUnloadToBQLoadManyConditionAlreadyDone()
       throws ExecutionException, InterruptedException {
-    when(bigQueryOperationsService.loadBigQueryJob(any(BigQueryDetailsDataDTO.class)))
-        .thenReturn(true);
+    when(bigQueryOperationsService.loadBigQueryJobAsync(any(BigQueryDetailsDataDTO.class)))
+        .thenReturn(CompletableFuture.completedFuture(true));
     ApplicationConfigData applicationConfigData = new ApplicationConfigData();
     applicationConfigData.setId(1L);
     // Setting this true to reproduce a situation where previous job was  done till the point of
@@ -151,7 +165,7 @@ public class SnowflakeToBQAsyncServiceTest extends AbstractTestBase {
       throws ExecutionException, InterruptedException {
     doThrow(RuntimeException.class)
         .when(bigQueryOperationsService)
-        .loadBigQueryJob(any(BigQueryDetailsDataDTO.class));
+        .loadBigQueryJobAsync(any(BigQueryDetailsDataDTO.class));
     ApplicationConfigData applicationConfigData = new ApplicationConfigData();
     applicationConfigData.setId(1L);
     // Setting this true to reproduce a situation where previous job was  done till the point of
@@ -175,4 +189,177 @@ public class SnowflakeToBQAsyncServiceTest extends AbstractTestBase {
     Assert.assertNull(retrunedResult.get().getResult());
     Assert.assertEquals("targettablename, Error:null", retrunedResult.get().getErrorMessage());
   }
+
+  @Test
+  public void testSnowflakeUnloadToBQLoadJobCompletedWithFailure()
+      throws ExecutionException, InterruptedException {
+    // Load job tracked till completion but BigQuery reported it as failed
+    when(bigQueryOperationsService.loadBigQueryJobAsync(any(BigQueryDetailsDataDTO.class)))
+        .thenReturn(CompletableFuture.completedFuture(false));
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setId(1L);
+    applicationConfigData.setBQTableCreated(true);
+    applicationConfigData.setDataUnloadedFromSnowflake(true);
+    applicationConfigData.setDataLoadedInBQ(false);
+    applicationConfigData.setTargetDatabaseName("targetdatabase");
+    applicationConfigData.setTargetSchemaName("targetschema");
+    applicationConfigData.setTargetTableName("targettablename");
+
+    CompletableFuture<OperationResult<ApplicationConfigData>> returnedResult =
+        snowflakeToBQAsyncService.snowflakeUnloadAndLoadToBQLoad(applicationConfigData);
+    Assert.assertFalse(returnedResult.get().isSuccess());
+    Assert.assertNull(returnedResult.get().getResult());
+    Assert.assertEquals(
+        String.format("targettablename, Error:%s", BQ_QUERY_JOB_EXECUTION_ERROR.getMessage()),
+        returnedResult.get().getErrorMessage());
+    Assert.assertFalse(applicationConfigData.isDataLoadedInBQ());
+    verify(stagingCleanupAsyncService, never()).scheduleCleanup(any(ApplicationConfigData.class));
+  }
+
+  @Test
+  public void testSnowflakeUnloadToBQLoadFlagsRowCountMismatch()
+      throws ExecutionException, InterruptedException {
+    when(bigQueryOperationsService.loadBigQueryJobAsync(any(BigQueryDetailsDataDTO.class)))
+        .thenAnswer(
+            invocation -> {
+              BigQueryDetailsDataDTO bigQueryDetailsDataDTO = invocation.getArgument(0);
+              bigQueryDetailsDataDTO.getLoadJobStatistics().getJobIds().add("Snowflake_job");
+              bigQueryDetailsDataDTO.getLoadJobStatistics().setOutputRows(990);
+              return CompletableFuture.completedFuture(true);
+            });
+    when(snowflakesService.executeUnloadDataCommand(any(SnowflakeUnloadToGCSDataDTO.class)))
+        .thenReturn("1234-abdc-fghi-handle");
+    when(snowflakesService.getUnloadedRowCount("1234-abdc-fghi-handle")).thenReturn(1000L);
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setId(1L);
+    applicationConfigData.setBQTableCreated(true);
+    applicationConfigData.setTargetDatabaseName("targetdatabase");
+    applicationConfigData.setTargetSchemaName("targetschema");
+    applicationConfigData.setTargetTableName("targettablename");
+
+    OperationResult<ApplicationConfigData> returnedResult =
+        snowflakeToBQAsyncService.snowflakeUnloadAndLoadToBQLoad(applicationConfigData).get();
+    // Mismatch is only flagged, table is still marked as loaded
+    Assert.assertTrue(returnedResult.isSuccess());
+    Assert.assertEquals(Long.valueOf(1000), returnedResult.getResult().getSnowflakeRowsUnloaded());
+    Assert.assertEquals(Long.valueOf(990), returnedResult.getResult().getBqLoadOutputRows());
+    Assert.assertEquals(
+        RowCountVerificationStatus.MISMATCHED.name(),
+        returnedResult.getResult().getRowCountVerification());
+  }
+
+  @Test
+  public void testSnowflakeUnloadToBQLoadSkippedForEmptyUnload()
+      throws ExecutionException, InterruptedException {
+    StagingInventoryDataDTO stagingInventoryDataDTO = new StagingInventoryDataDTO();
+    stagingInventoryDataDTO.setBucketName("bucket");
+    stagingInventoryDataDTO.setPrefix("data-unload/targettablename/");
+    when(googleCloudStorageService.getStagingInventory(any(String.class), any(String.class)))
+        .thenReturn(stagingInventoryDataDTO);
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setId(1L);
+    applicationConfigData.setBQTableCreated(true);
+    applicationConfigData.setDataUnloadedFromSnowflake(true);
+    applicationConfigData.setDataLoadedInBQ(false);
+    applicationConfigData.setSnowflakeStageLocation("bucket/data-unload");
+    applicationConfigData.setTargetDatabaseName("targetdatabase");
+    applicationConfigData.setTargetSchemaName("targetschema");
+    applicationConfigData.setTargetTableName("targettablename");
+
+    CompletableFuture<OperationResult<ApplicationConfigData>> returnedResult =
+        snowflakeToBQAsyncService.snowflakeUnloadAndLoadToBQLoad(applicationConfigData);
+    Assert.assertTrue(returnedResult.get().isSuccess());
+    Assert.assertTrue(returnedResult.get().getResult().isDataLoadedInBQ());
+    Assert.assertEquals(Long.valueOf(0), returnedResult.get().getResult().getUnloadedFileCount());
+    // Load job should not be submitted as there is nothing to load
+    verify(bigQueryOperationsService, never())
+        .loadBigQueryJobAsync(any(BigQueryDetailsDataDTO.class));
+  }
+
+  @Test
+  public void testSnowflakeUnloadToBQLoadUnsupportedUnloadFormat() throws InterruptedException {
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setId(1L);
+    applicationConfigData.setBQTableCreated(true);
+    applicationConfigData.setDataUnloadedFromSnowflake(false);
+    applicationConfigData.setBqLoadFileFormat("AVRO");
+    applicationConfigData.setTargetDatabaseName("targetdatabase");
+    applicationConfigData.setTargetSchemaName("targetschema");
+    applicationConfigData.setTargetTableName("targettablename");
+
+    try {
+      snowflakeToBQAsyncService.snowflakeUnloadAndLoadToBQLoad(applicationConfigData).get();
+      Assert.fail();
+    } catch (ExecutionException e) {
+      Assert.assertEquals(UNLOAD_FORMAT_NOT_SUPPORTED.getMessage(), e.getCause().getMessage());
+    }
+    verify(snowflakesService, never())
+        .executeUnloadDataCommand(any(SnowflakeUnloadToGCSDataDTO.class));
+  }
+
+  @Test
+  public void testSnowflakeUnloadStartsBeforeTranslationCompletes()
+      throws ExecutionException, InterruptedException {
+    when(bigQueryOperationsService.createTableUsingDDL(
+            any(String.class), any(String.class), any(BigQueryDetailsDataDTO.class)))
+        .thenReturn(true);
+    when(bigQueryOperationsService.loadBigQueryJobAsync(any(BigQueryDetailsDataDTO.class)))
+        .thenReturn(CompletableFuture.completedFuture(true));
+    when(snowflakesService.executeUnloadDataCommand(any(SnowflakeUnloadToGCSDataDTO.class)))
+        .thenReturn("1234-abdc-fghi-handle");
+    when(googleCloudStorageService.getContentFromGCSFile(any(String.class), any(String.class)))
+        .thenReturn(CREATE_TABLE);
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setId(1L);
+    applicationConfigData.setTargetDatabaseName("targetdatabase");
+    applicationConfigData.setTargetSchemaName("targetschema");
+    applicationConfigData.setTargetTableName("targettablename");
+    CompletableFuture<Void> translatedDDLReady = new CompletableFuture<>();
+
+    CompletableFuture<OperationResult<ApplicationConfigData>> returnedResult =
+        snowflakeToBQAsyncService.snowflakeUnloadAndLoadToBQLoad(
+            applicationConfigData, translatedDDLReady);
+
+    // Unload runs while the DDL is still being translated, table is not created yet
+    verify(snowflakesService, timeout(5000))
+        .executeUnloadDataCommand(any(SnowflakeUnloadToGCSDataDTO.class));
+    Assert.assertFalse(returnedResult.isDone());
+    verify(bigQueryOperationsService, never())
+        .createTableUsingDDL(
+            any(String.class), any(String.class), any(BigQueryDetailsDataDTO.class));
+
+    translatedDDLReady.complete(null);
+    Assert.assertTrue(returnedResult.get().isSuccess());
+    Assert.assertTrue(returnedResult.get().getResult().isBQTableCreated());
+    Assert.assertTrue(returnedResult.get().getResult().isDataLoadedInBQ());
+  }
+
+  @Test
+  public void testSnowflakeUnloadToBQLoadTranslationFailed()
+      throws ExecutionException, InterruptedException {
+    when(snowflakesService.executeUnloadDataCommand(any(SnowflakeUnloadToGCSDataDTO.class)))
+        .thenReturn("1234-abdc-fghi-handle");
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setId(1L);
+    applicationConfigData.setTargetDatabaseName("targetdatabase");
+    applicationConfigData.setTargetSchemaName("targetschema");
+    applicationConfigData.setTargetTableName("targettablename");
+    CompletableFuture<Void> translatedDDLReady = new CompletableFuture<>();
+    translatedDDLReady.completeExceptionally(new RuntimeException("translation failed"));
+
+    OperationResult<ApplicationConfigData> returnedResult =
+        snowflakeToBQAsyncService
+            .snowflakeUnloadAndLoadToBQLoad(applicationConfigData, translatedDDLReady)
+            .get();
+    Assert.assertFalse(returnedResult.isSuccess());
+    Assert.assertEquals(
+        "targettablename, Error:translation failed", returnedResult.getErrorMessage());
+    // Unloaded data is kept for the failed request processing, nothing is created or loaded
+    Assert.assertTrue(applicationConfigData.isDataUnloadedFromSnowflake());
+    verify(bigQueryOperationsService, never())
+        .createTableUsingDDL(
+            any(String.class), any(String.class), any(BigQueryDetailsDataDTO.class));
+    verify(bigQueryOperationsService, never())
+        .loadBigQueryJobAsync(any(BigQueryDetailsDataDTO.class));
+  }
 }
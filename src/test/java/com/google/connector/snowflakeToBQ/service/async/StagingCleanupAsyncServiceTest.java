@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service.async;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import com.google.connector.snowflakeToBQ.model.datadto.StagingInventoryDataDTO;
+import com.google.connector.snowflakeToBQ.repository.ApplicationConfigDataRepository;
+import com.google.connector.snowflakeToBQ.service.GoogleCloudStorageService;
+import com.google.connector.snowflakeToBQ.util.RowCountVerificationStatus;
+import com.google.connector.snowflakeToBQ.util.StagingRetentionPolicy;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+public class StagingCleanupAsyncServiceTest extends AbstractTestBase {
+
+  @Autowired StagingCleanupAsyncService stagingCleanupAsyncService;
+
+  @Autowired ApplicationConfigDataRepository applicationConfigDataRepository;
+
+  @MockBean GoogleCloudStorageService googleCloudStorageService;
+
+  @Before
+  public void setUp() {
+    applicationConfigDataRepository.deleteAll();
+  }
+
+  @After
+  public void tearDown() {
+    stagingCleanupAsyncService.setRetentionPolicy(StagingRetentionPolicy.KEEP);
+  }
+
+  @Test
+  public void testCleanupSkippedWithKeepPolicy() {
+    ApplicationConfigData applicationConfigData = getLoadedApplicationConfigData();
+
+    Assert.assertEquals(
+        Integer.valueOf(0),
+        stagingCleanupAsyncService.scheduleCleanup(applicationConfigData).join());
+    Assert.assertFalse(applicationConfigData.isStagedDataDeleted());
+    verify(googleCloudStorageService, never()).getStagingInventory(anyString(), anyString());
+  }
+
+  @Test
+  public void testCleanupDeletesInBatches() {
+    stagingCleanupAsyncService.setRetentionPolicy(StagingRetentionPolicy.DELETE_AFTER_LOAD);
+    StagingInventoryDataDTO stagingInventoryDataDTO = new StagingInventoryDataDTO();
+    stagingInventoryDataDTO.setBucketName("bucket");
+    stagingInventoryDataDTO.setFileCount(3);
+    stagingInventoryDataDTO.setFileNames(
+        Arrays.asList(
+            "unload/table1/file_0.csv", "unload/table1/file_1.csv", "unload/table1/file_2.csv"));
+    when(googleCloudStorageService.getStagingInventory("bucket/unload", "table1"))
+        .thenReturn(stagingInventoryDataDTO);
+    when(googleCloudStorageService.deleteFiles(eq("bucket"), anyList()))
+        .thenReturn(2)
+        .thenReturn(1);
+    ApplicationConfigData applicationConfigData = getLoadedApplicationConfigData();
+
+    Assert.assertEquals(
+        Integer.valueOf(3),
+        stagingCleanupAsyncService.scheduleCleanup(applicationConfigData).join());
+    // Batch size in test properties is 2
+    verify(googleCloudStorageService, times(2)).deleteFiles(eq("bucket"), anyList());
+    Assert.assertTrue(applicationConfigData.isStagedDataDeleted());
+  }
+
+  @Test
+  public void testCleanupSkippedIfDataNotLoaded() {
+    stagingCleanupAsyncService.setRetentionPolicy(StagingRetentionPolicy.DELETE_AFTER_LOAD);
+    ApplicationConfigData applicationConfigData = getLoadedApplicationConfigData();
+    applicationConfigData.setDataLoadedInBQ(false);
+
+    Assert.assertEquals(
+        Integer.valueOf(0),
+        stagingCleanupAsyncService.scheduleCleanup(applicationConfigData).join());
+    verify(googleCloudStorageService, never()).deleteFiles(anyString(), any());
+  }
+
+  @Test
+  public void testCleanupSkippedIfRowCountMismatched() {
+    stagingCleanupAsyncService.setRetentionPolicy(StagingRetentionPolicy.DELETE_AFTER_LOAD);
+    ApplicationConfigData applicationConfigData = getLoadedApplicationConfigData();
+    applicationConfigData.setRowCountVerification(RowCountVerificationStatus.MISMATCHED.name());
+
+    Assert.assertEquals(
+        Integer.valueOf(0),
+        stagingCleanupAsyncService.scheduleCleanup(applicationConfigData).join());
+    verify(googleCloudStorageService, never()).getStagingInventory(anyString(), anyString());
+  }
+
+  @Test
+  public void testRecoverPendingCleanups() {
+    stagingCleanupAsyncService.setRetentionPolicy(StagingRetentionPolicy.DELETE_AFTER_LOAD);
+    StagingInventoryDataDTO stagingInventoryDataDTO = new StagingInventoryDataDTO();
+    stagingInventoryDataDTO.setBucketName("bucket");
+    stagingInventoryDataDTO.setFileNames(Collections.singletonList("unload/table1/file_0.csv"));
+    when(googleCloudStorageService.getStagingInventory("bucket/unload", "table1"))
+        .thenReturn(stagingInventoryDataDTO);
+    when(googleCloudStorageService.deleteFiles(eq("bucket"), anyList())).thenReturn(1);
+    // Loaded in an earlier run, its cleanup was pending when the application stopped
+    ApplicationConfigData pendingCleanup = getLoadedApplicationConfigData();
+    ApplicationConfigData cleanedUp = getLoadedApplicationConfigData();
+    cleanedUp.setTargetTableName("table2");
+    cleanedUp.setStagedDataDeleted(true);
+    ApplicationConfigData notLoaded = getLoadedApplicationConfigData();
+    notLoaded.setTargetTableName("table3");
+    notLoaded.setDataLoadedInBQ(false);
+    applicationConfigDataRepository.saveAll(Arrays.asList(pendingCleanup, cleanedUp, notLoaded));
+
+    stagingCleanupAsyncService.recoverPendingCleanups();
+
+    verify(googleCloudStorageService, timeout(5000)).deleteFiles(eq("bucket"), anyList());
+    verify(googleCloudStorageService, times(1)).getStagingInventory(anyString(), anyString());
+  }
+
+  private ApplicationConfigData getLoadedApplicationConfigData() {
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setSnowflakeStageLocation("bucket/unload");
+    applicationConfigData.setTargetTableName("table1");
+    applicationConfigData.setDataLoadedInBQ(true);
+    return applicationConfigData;
+  }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.connector.snowflakeToBQ.service.streaming;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.connector.snowflakeToBQ.base.AbstractTestBase;
+import com.google.connector.snowflakeToBQ.entity.ApplicationConfigData;
+import com.google.connector.snowflakeToBQ.exception.SnowflakeConnectorException;
+import com.google.connector.snowflakeToBQ.model.datadto.BigQueryDetailsDataDTO;
+import com.google.connector.snowflakeToBQ.repository.JdbcTemplateProvider;
+import com.google.connector.snowflakeToBQ.util.ErrorCode;
+import com.google.connector.snowflakeToBQ.util.TransferMode;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class SnowflakeStreamingTransferServiceTest extends AbstractTestBase {
+
+  @Autowired SnowflakeStreamingTransferService snowflakeStreamingTransferService;
+
+  @Autowired DataSource dataSource;
+
+  @MockBean JdbcTemplateProvider jdbcTemplateProvider;
+
+  @MockBean BigQueryStreamWriter bigQueryStreamWriter;
+
+  JdbcTemplate jdbcTemplate;
+
+  @Before
+  public void setUp() {
+    // H2 table plays the Snowflake source table
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("DROP TABLE IF EXISTS STREAM_SOURCE");
+    jdbcTemplate.execute(
+        "CREATE TABLE STREAM_SOURCE (ID BIGINT, NAME VARCHAR(20), AMOUNT DECIMAL(10,2), CREATED"
+            + " DATE)");
+    for (int i = 1; i <= 5; i++) {
+      jdbcTemplate.update(
+          "INSERT INTO STREAM_SOURCE VALUES (?, ?, ?, ?)",
+          i,
+          i == 5 ? null : "name" + i,
+          new BigDecimal(i + ".50"),
+          Date.valueOf("2024-01-0" + i));
+    }
+    when(jdbcTemplateProvider.getOrCreateJdbcTemplate(anyString(), anyString()))
+        .thenReturn(jdbcTemplate);
+  }
+
+  @After
+  public void tearDown() {
+    jdbcTemplate.execute("DROP TABLE STREAM_SOURCE");
+    snowflakeStreamingTransferService.setTransferMode(TransferMode.UNLOAD);
+  }
+
+  @Test
+  public void testTransferTable() {
+    InMemoryWriteSession session = new InMemoryWriteSession(false);
+    when(bigQueryStreamWriter.openSession(any(BigQueryDetailsDataDTO.class))).thenReturn(session);
+
+    long rowCount =
+        snowflakeStreamingTransferService.transferTable(
+            getApplicationConfigData(), new BigQueryDetailsDataDTO());
+
+    Assert.assertEquals(5, rowCount);
+    // Append size in test properties is 2
+    Assert.assertEquals(3, session.appendCount);
+    Assert.assertTrue(session.closed);
+    Map<String, Object> firstRow = session.committedRows.get(0);
+    Assert.assertEquals(1L, firstRow.get("ID"));
+    Assert.assertEquals("name1", firstRow.get("NAME"));
+    Assert.assertEquals("1.50", firstRow.get("AMOUNT"));
+    Assert.assertEquals("2024-01-01", firstRow.get("CREATED"));
+    // Null values are left out of the row
+    Assert.assertFalse(session.committedRows.get(4).containsKey("NAME"));
+  }
+
+  @Test
+  public void testTransferTableAppendFailure() {
+    InMemoryWriteSession session = new InMemoryWriteSession(true);
+    when(bigQueryStreamWriter.openSession(any(BigQueryDetailsDataDTO.class))).thenReturn(session);
+    try {
+      snowflakeStreamingTransferService.transferTable(
+          getApplicationConfigData(), new BigQueryDetailsDataDTO());
+      Assert.fail();
+    } catch (SnowflakeConnectorException e) {
+      Assert.assertEquals(ErrorCode.STREAMING_TRANSFER_ERROR.getErrorCode(), e.getErrorCode());
+    }
+    // Nothing committed and session closed, rows are discarded
+    Assert.assertTrue(session.committedRows.isEmpty());
+    Assert.assertTrue(session.closed);
+  }
+
+  @Test
+  public void testTransferTableRowCountMismatch() {
+    InMemoryWriteSession session = new InMemoryWriteSession(false);
+    // One of the read rows never reaches the write streams
+    session.rowsToDrop = 1;
+    when(bigQueryStreamWriter.openSession(any(BigQueryDetailsDataDTO.class))).thenReturn(session);
+    try {
+      snowflakeStreamingTransferService.transferTable(
+          getApplicationConfigData(), new BigQueryDetailsDataDTO());
+      Assert.fail();
+    } catch (SnowflakeConnectorException e) {
+      Assert.assertEquals(ErrorCode.STREAMING_ROW_COUNT_MISMATCH.getErrorCode(), e.getErrorCode());
+    }
+    // Streams are left uncommitted
+    Assert.assertTrue(session.committedRows.isEmpty());
+    Assert.assertTrue(session.closed);
+  }
+
+  @Test
+  public void testIsStreamingTransfer() {
+    ApplicationConfigData applicationConfigData = getApplicationConfigData();
+    Assert.assertFalse(snowflakeStreamingTransferService.isStreamingTransfer(applicationConfigData));
+
+    snowflakeStreamingTransferService.setTransferMode(TransferMode.STREAMING);
+    Assert.assertTrue(snowflakeStreamingTransferService.isStreamingTransfer(applicationConfigData));
+
+    // Size query is not supported by H2, AUTO falls back to unload when size is not known
+    snowflakeStreamingTransferService.setTransferMode(TransferMode.AUTO);
+    Assert.assertFalse(snowflakeStreamingTransferService.isStreamingTransfer(applicationConfigData));
+  }
+
+  @Test
+  public void testToBigQueryValue() {
+    Assert.assertEquals(
+        12L, SnowflakeStreamingTransferService.toBigQueryValue(new BigDecimal("12")));
+    Assert.assertEquals(
+        "12.345", SnowflakeStreamingTransferService.toBigQueryValue(new BigDecimal("12.345")));
+    Assert.assertEquals(
+        "99999999999999999999",
+        SnowflakeStreamingTransferService.toBigQueryValue(new BigDecimal("99999999999999999999")));
+    Assert.assertEquals(
+        "2024-01-02T03:04:05.123",
+        SnowflakeStreamingTransferService.toBigQueryValue(
+            Timestamp.valueOf("2024-01-02 03:04:05.123")));
+    Assert.assertEquals(Boolean.TRUE, SnowflakeStreamingTransferService.toBigQueryValue(true));
+    Assert.assertNull(SnowflakeStreamingTransferService.toBigQueryValue(null));
+  }
+
+  @Test
+  public void testTimestampWithTimeZoneWrittenInUTC() throws SQLException {
+    // 2024-01-02 03:04:05.123456 at +05:30 is 2024-01-01 21:34:05.123456 UTC
+    long expectedMicros = 1704144845123456L;
+    Assert.assertEquals(
+        expectedMicros,
+        SnowflakeStreamingTransferService.toBigQueryValue(
+            OffsetDateTime.parse("2024-01-02T03:04:05.123456+05:30")));
+
+    Timestamp timestamp = Timestamp.from(Instant.parse("2024-01-01T21:34:05.123456Z"));
+    ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+    when(metaData.getColumnCount()).thenReturn(2);
+    when(metaData.getColumnLabel(1)).thenReturn("UPDATED_AT");
+    when(metaData.getColumnTypeName(1)).thenReturn("TIMESTAMPLTZ");
+    when(metaData.getColumnType(1)).thenReturn(Types.TIMESTAMP);
+    when(metaData.getColumnLabel(2)).thenReturn("CREATED_AT");
+    when(metaData.getColumnTypeName(2)).thenReturn("TIMESTAMPNTZ");
+    when(metaData.getColumnType(2)).thenReturn(Types.TIMESTAMP);
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.getMetaData()).thenReturn(metaData);
+    when(resultSet.getTimestamp(1)).thenReturn(timestamp);
+    when(resultSet.getObject(2)).thenReturn(Timestamp.valueOf("2024-01-02 03:04:05.123"));
+
+    Map<String, Object> row = SnowflakeStreamingTransferService.toRow(resultSet);
+
+    Assert.assertEquals(expectedMicros, row.get("UPDATED_AT"));
+    // TIMESTAMP_NTZ has no offset, it is written as is
+    Assert.assertEquals("2024-01-02T03:04:05.123", row.get("CREATED_AT"));
+  }
+
+  private ApplicationConfigData getApplicationConfigData() {
+    ApplicationConfigData applicationConfigData = new ApplicationConfigData();
+    applicationConfigData.setSourceDatabaseName("db");
+    applicationConfigData.setSourceSchemaName("schema");
+    applicationConfigData.setSourceTableName("STREAM_SOURCE");
+    return applicationConfigData;
+  }
+
+  /** Local fake of the BigQuery write session, keeps the rows in memory till commit. */
+  static class InMemoryWriteSession implements BigQueryStreamWriteSession {
+    private final boolean failAppend;
+    private final List<Map<String, Object>> pendingRows = new ArrayList<>();
+    final List<Map<String, Object>> committedRows = new ArrayList<>();
+    int appendCount;
+    // Number of appended rows which are lost instead of being written
+    int rowsToDrop;
+    boolean closed;
+
+    InMemoryWriteSession(boolean failAppend) {
+      this.failAppend = failAppend;
+    }
+
+    @Override
+    public void append(List<Map<String, Object>> rows) {
+      if (failAppend) {
+        throw new SnowflakeConnectorException(
+            ErrorCode.STREAMING_TRANSFER_ERROR.getMessage(),
+            ErrorCode.STREAMING_TRANSFER_ERROR.getErrorCode());
+      }
+      if (!rows.isEmpty()) {
+        appendCount++;
+      }
+      for (Map<String, Object> row : rows) {
+        if (rowsToDrop > 0) {
+          rowsToDrop--;
+          continue;
+        }
+        pendingRows.add(row);
+      }
+    }
+
+    @Override
+    public long commit(long expectedRowCount) {
+      if (pendingRows.size() != expectedRowCount) {
+        throw new SnowflakeConnectorException(
+            ErrorCode.STREAMING_ROW_COUNT_MISMATCH.getMessage(),
+            ErrorCode.STREAMING_ROW_COUNT_MISMATCH.getErrorCode());
+      }
+      committedRows.addAll(pendingRows);
+      pendingRows.clear();
+      return committedRows.size();
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+      pendingRows.clear();
+    }
+  }
+}